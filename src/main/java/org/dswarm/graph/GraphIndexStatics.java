@@ -28,4 +28,5 @@ public final class GraphIndexStatics {
 	public static final String STATEMENT_HASHES_INDEX_NAME = "statement_hashes";
 	public static final String STATEMENT_UUIDS_INDEX_NAME = "statement_uuids";
 	public static final String STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME = "statement_uuids_w_data_model";
+	public static final String RECORD_FINGERPRINTS_INDEX_NAME = "record_fingerprints";
 }
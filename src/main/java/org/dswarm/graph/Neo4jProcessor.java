@@ -16,12 +16,19 @@
  */
 package org.dswarm.graph;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+import org.dswarm.graph.batch.BatchKeyFilter;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.index.NodeIdCache;
+import org.dswarm.graph.index.RecordFingerprints;
 import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.utils.Utf8Buffer;
 import org.dswarm.graph.versioning.VersionHandler;
 
 import org.neo4j.graphdb.DynamicLabel;
@@ -29,11 +36,14 @@ import org.neo4j.graphdb.DynamicRelationshipType;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
+import org.neo4j.index.lucene.ValueContext;
+import org.neo4j.kernel.GraphDatabaseAPI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +59,26 @@ public abstract class Neo4jProcessor {
 
 	private static final Logger				LOG			= LoggerFactory.getLogger(Neo4jProcessor.class);
 
+	private static final String				SEPARATOR	= " ";
+
+	/**
+	 * the prefixes of the node types in the statement hash inputs, i.e., the string representations of the optional node types (as they
+	 * were concatenated into the statement hash strings before)
+	 */
+	private static final byte[][]			NODE_TYPE_HASH_PREFIXES;
+
+	static {
+
+		final NodeType[] nodeTypes = NodeType.values();
+
+		NODE_TYPE_HASH_PREFIXES = new byte[nodeTypes.length][];
+
+		for (final NodeType nodeType : nodeTypes) {
+
+			NODE_TYPE_HASH_PREFIXES[nodeType.ordinal()] = (Optional.of(nodeType).toString() + ":").getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
 	protected int							addedLabels	= 0;
 
 	protected final GraphDatabaseService	database;
@@ -64,13 +94,59 @@ public abstract class Neo4jProcessor {
 	private Map<String, Node> tempResourcesWDataModelIndex;
 	private Map<String, Node> tempResourceTypesIndex;
 
+	/**
+	 * entries of the temp indices that were added in the current TX, i.e., they can be handed over to the node id caches after the
+	 * TX was committed successfully
+	 */
+	private final Map<String, Node> pendingResourcesIndex;
+	private final Map<String, Node> pendingResourcesWDataModelIndex;
+	private final Map<String, Node> pendingResourceTypesIndex;
+
+	private final NodeIdCache resourcesCache;
+	private final NodeIdCache resourcesWDataModelCache;
+	private final NodeIdCache resourceTypesCache;
+
+	/**
+	 * the URIs of the records whose fingerprint was already removed by this processor, i.e., the record nodes don't need to be looked up
+	 * again
+	 */
+	private final Set<String> recordsWithoutFingerprint;
+
+	/**
+	 * the (reused) buffer for the input of the statement hashes
+	 */
+	private final Utf8Buffer statementHashInput;
+
 	protected Transaction tx;
 
 	boolean txIsClosed = false;
 
+	/**
+	 * the index handles are looked up once and reused in all transactions of this processor
+	 */
+	private boolean indicesInitialized = false;
+
+	/**
+	 * true, if the key filters of batch imports were already invalidated for the store of this processor (see
+	 * {@link #invalidateBatchKeyFilter()})
+	 */
+	private boolean batchKeyFilterInvalidated = false;
+
 	public Neo4jProcessor(final GraphDatabaseService database) throws DMPGraphException {
 
 		this.database = database;
+
+		pendingResourcesIndex = Maps.newHashMap();
+		pendingResourcesWDataModelIndex = Maps.newHashMap();
+		pendingResourceTypesIndex = Maps.newHashMap();
+
+		resourcesCache = NodeIdCache.of(database, GraphIndexStatics.RESOURCES_INDEX_NAME);
+		resourcesWDataModelCache = NodeIdCache.of(database, GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME);
+		resourceTypesCache = NodeIdCache.of(database, GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
+
+		recordsWithoutFingerprint = new HashSet<>();
+		statementHashInput = new Utf8Buffer();
+
 		beginTx();
 
 		LOG.debug("start write TX");
@@ -88,10 +164,6 @@ public abstract class Neo4jProcessor {
 			resourceTypes = database.index().forNodes(GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
 			values = database.index().forNodes(GraphIndexStatics.VALUES_INDEX_NAME);
 			statementHashes = database.index().forRelationships(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
-
-			tempResourcesIndex = Maps.newHashMap();
-			tempResourcesWDataModelIndex = Maps.newHashMap();
-			tempResourceTypesIndex = Maps.newHashMap();
 		} catch (final Exception e) {
 
 			failTx();
@@ -143,7 +215,19 @@ public abstract class Neo4jProcessor {
 	public void beginTx() throws DMPGraphException {
 
 		tx = database.beginTx();
-		initIndices();
+
+		// note: the temp indices are scoped to a TX (entries of committed TXs are hold by the node id caches)
+		tempResourcesIndex = Maps.newHashMap();
+		tempResourcesWDataModelIndex = Maps.newHashMap();
+		tempResourceTypesIndex = Maps.newHashMap();
+
+		if (!indicesInitialized) {
+
+			initIndices();
+
+			indicesInitialized = true;
+		}
+
 		txIsClosed = false;
 
 		Neo4jProcessor.LOG.debug("begin new tx");
@@ -162,6 +246,11 @@ public abstract class Neo4jProcessor {
 		tx.failure();
 		tx.close();
 		txIsClosed = true;
+
+		// nodes that were added in this TX do not exist anymore
+		discardPendingIndexEntries(pendingResourcesIndex, tempResourcesIndex);
+		discardPendingIndexEntries(pendingResourcesWDataModelIndex, tempResourcesWDataModelIndex);
+		discardPendingIndexEntries(pendingResourceTypesIndex, tempResourceTypesIndex);
 	}
 
 	public void succeedTx() {
@@ -171,6 +260,10 @@ public abstract class Neo4jProcessor {
 		tx.success();
 		tx.close();
 		txIsClosed = true;
+
+		cachePendingIndexEntries(pendingResourcesIndex, resourcesCache);
+		cachePendingIndexEntries(pendingResourcesWDataModelIndex, resourcesWDataModelCache);
+		cachePendingIndexEntries(pendingResourceTypesIndex, resourceTypesCache);
 	}
 
 	public void ensureRunningTx() throws DMPGraphException {
@@ -298,9 +391,9 @@ public abstract class Neo4jProcessor {
 		}
 	}
 
-	public Relationship getStatement(final String hash) throws DMPGraphException {
+	public Relationship getStatement(final long hash) throws DMPGraphException {
 
-		IndexHits<Relationship> hits = statementHashes.get(GraphStatics.HASH, hash);
+		final IndexHits<Relationship> hits = statementHashes.get(GraphStatics.HASH, ValueContext.numeric(hash));
 
 		if (hits != null && hits.hasNext()) {
 
@@ -319,6 +412,13 @@ public abstract class Neo4jProcessor {
 		return null;
 	}
 
+	public void addStatementHashToIndex(final Relationship rel, final long hash) {
+
+		invalidateBatchKeyFilter();
+
+		statementHashes.add(rel, GraphStatics.HASH, ValueContext.numeric(hash));
+	}
+
 	public Relationship prepareRelationship(final Node subjectNode, final String predicateURI, final Node objectNode, final String statementUUID,
 			final Optional<Map<String, Object>> optionalQualifiedAttributes, final VersionHandler versionHandler) {
 
@@ -357,61 +457,68 @@ public abstract class Neo4jProcessor {
 		return rel;
 	}
 
-	public String generateStatementHash(final Node subjectNode, final String predicateName, final Node objectNode, final NodeType subjectNodeType,
+	public long generateStatementHash(final Node subjectNode, final String predicateName, final Node objectNode, final NodeType subjectNodeType,
 			final NodeType objectNodeType) throws DMPGraphException {
 
-		final Optional<NodeType> optionalSubjectNodeType = Optional.fromNullable(subjectNodeType);
-		final Optional<NodeType> optionalObjectNodeType = Optional.fromNullable(objectNodeType);
-		final Optional<String> optionalSubjectIdentifier = getIdentifier(subjectNode, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = getIdentifier(objectNode, optionalObjectNodeType);
+		statementHashInput.reset();
+
+		final boolean subjectIdentifierPresent = appendNodeType(subjectNodeType) && appendIdentifier(subjectNode, subjectNodeType);
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR).append(predicateName).append(Neo4jProcessor.SEPARATOR);
+
+		final boolean objectIdentifierPresent = appendNodeType(objectNodeType) && appendIdentifier(objectNode, objectNodeType);
 
-		return generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+		statementHashInput.append(Neo4jProcessor.SEPARATOR);
+
+		return generateStatementHash(subjectIdentifierPresent && objectIdentifierPresent);
 	}
 
-	public String generateStatementHash(final Node subjectNode, final String predicateName, final String objectValue, final NodeType subjectNodeType,
+	public long generateStatementHash(final Node subjectNode, final String predicateName, final String objectValue, final NodeType subjectNodeType,
 			final NodeType objectNodeType) throws DMPGraphException {
 
-		final Optional<NodeType> optionalSubjectNodeType = Optional.fromNullable(subjectNodeType);
-		final Optional<NodeType> optionalObjectNodeType = Optional.fromNullable(objectNodeType);
-		final Optional<String> optionalSubjectIdentifier = getIdentifier(subjectNode, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = Optional.fromNullable(objectValue);
+		statementHashInput.reset();
+
+		final boolean subjectIdentifierPresent = appendNodeType(subjectNodeType) && appendIdentifier(subjectNode, subjectNodeType);
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR).append(predicateName).append(Neo4jProcessor.SEPARATOR);
+
+		final boolean objectIdentifierPresent = appendNodeType(objectNodeType) && objectValue != null;
+
+		if (objectIdentifierPresent) {
 
-		return generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+			statementHashInput.append(objectValue);
+		}
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR);
+
+		return generateStatementHash(subjectIdentifierPresent && objectIdentifierPresent);
 	}
 
-	public String generateStatementHash(final String predicateName, final Optional<NodeType> optionalSubjectNodeType,
+	public long generateStatementHash(final String predicateName, final Optional<NodeType> optionalSubjectNodeType,
 			final Optional<NodeType> optionalObjectNodeType, final Optional<String> optionalSubjectIdentifier,
 			final Optional<String> optionalObjectIdentifier) throws DMPGraphException {
 
-		if (!optionalSubjectNodeType.isPresent() || !optionalObjectNodeType.isPresent() || !optionalSubjectIdentifier.isPresent()
-				|| !optionalObjectIdentifier.isPresent()) {
+		statementHashInput.reset();
 
-			final String message = "cannot generate statement hash, because the subject node type or object node type or subject identifier or object identifier is not present";
+		final boolean subjectIdentifierPresent = appendNodeType(optionalSubjectNodeType.orNull()) && optionalSubjectIdentifier.isPresent();
 
-			Neo4jProcessor.LOG.error(message);
+		if (subjectIdentifierPresent) {
 
-			throw new DMPGraphException(message);
+			statementHashInput.append(optionalSubjectIdentifier.get());
 		}
 
-		final StringBuilder sb = new StringBuilder();
-
-		sb.append(optionalSubjectNodeType.toString()).append(":").append(optionalSubjectIdentifier.get()).append(" ").append(predicateName)
-				.append(" ").append(optionalObjectNodeType.toString()).append(":").append(optionalObjectIdentifier.get()).append(" ");
-
-		MessageDigest messageDigest = null;
+		statementHashInput.append(Neo4jProcessor.SEPARATOR).append(predicateName).append(Neo4jProcessor.SEPARATOR);
 
-		try {
+		final boolean objectIdentifierPresent = appendNodeType(optionalObjectNodeType.orNull()) && optionalObjectIdentifier.isPresent();
 
-			messageDigest = MessageDigest.getInstance("SHA-256");
-		} catch (final NoSuchAlgorithmException e) {
+		if (objectIdentifierPresent) {
 
-			throw new DMPGraphException("couldn't instantiate hash algo");
+			statementHashInput.append(optionalObjectIdentifier.get());
 		}
-		messageDigest.update(sb.toString().getBytes());
 
-		return new String(messageDigest.digest());
+		statementHashInput.append(Neo4jProcessor.SEPARATOR);
+
+		return generateStatementHash(subjectIdentifierPresent && objectIdentifierPresent);
 	}
 
 	public Optional<String> getIdentifier(final Node node, final Optional<NodeType> optionalNodeType) {
@@ -461,6 +568,124 @@ public abstract class Neo4jProcessor {
 		return Optional.fromNullable(identifier);
 	}
 
+	private boolean appendNodeType(final NodeType nodeType) {
+
+		if (nodeType == null) {
+
+			return false;
+		}
+
+		statementHashInput.append(Neo4jProcessor.NODE_TYPE_HASH_PREFIXES[nodeType.ordinal()]);
+
+		return true;
+	}
+
+	/**
+	 * Appends the identifier of the given node (see {@link #getIdentifier(Node, Optional)}) to the statement hash input, i.e., without
+	 * concatenating URI and data model URI first.
+	 *
+	 * @return true, if the node has an identifier, otherwise false
+	 */
+	private boolean appendIdentifier(final Node node, final NodeType nodeType) {
+
+		switch (nodeType) {
+
+			case Resource:
+			case TypeResource:
+
+				final String uri = (String) node.getProperty(GraphStatics.URI_PROPERTY, null);
+
+				if (uri == null) {
+
+					return false;
+				}
+
+				statementHashInput.append(uri);
+
+				final String dataModel = (String) node.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
+
+				if (dataModel != null) {
+
+					statementHashInput.append(dataModel);
+				}
+
+				return true;
+			case BNode:
+			case TypeBNode:
+
+				statementHashInput.append(Long.toString(node.getId()));
+
+				return true;
+			case Literal:
+
+				final String value = (String) node.getProperty(GraphStatics.VALUE_PROPERTY, null);
+
+				if (value == null) {
+
+					return false;
+				}
+
+				statementHashInput.append(value);
+
+				return true;
+			default:
+
+				return false;
+		}
+	}
+
+	private long generateStatementHash(final boolean complete) throws DMPGraphException {
+
+		if (!complete) {
+
+			final String message = "cannot generate statement hash, because the subject node type or object node type or subject identifier or object identifier is not present";
+
+			Neo4jProcessor.LOG.error(message);
+
+			throw new DMPGraphException(message);
+		}
+
+		return HashUtils.generateHash(statementHashInput.toByteArray());
+	}
+
+	/**
+	 * Removes the fingerprint of the record with the given URI (if it has one), i.e., this method needs to be called when a record gets
+	 * statements outside of the delta calculation. Otherwise, a (later) delta calculation would skip the record as unchanged, if the
+	 * incoming record matches the outdated fingerprint.
+	 *
+	 * @param recordURI the URI of the record
+	 */
+	public void removeRecordFingerprint(final String recordURI) {
+
+		if (!recordsWithoutFingerprint.add(recordURI)) {
+
+			return;
+		}
+
+		final Optional<Node> optionalRecordNode = getResourceNodeHits(recordURI);
+
+		if (optionalRecordNode.isPresent()) {
+
+			RecordFingerprints.removeFingerprint(optionalRecordNode.get(), database);
+		}
+	}
+
+	/**
+	 * Stores the fingerprint of the given record node (see {@link RecordFingerprints#setFingerprint}), i.e., the fingerprint of this
+	 * record will be removed again, if the record gets further statements via this processor.
+	 *
+	 * @param recordNode the record node
+	 * @param recordURI the URI of the record
+	 * @param recordKey the record key
+	 * @param fingerprint the fingerprint of the record
+	 */
+	public void setRecordFingerprint(final Node recordNode, final String recordURI, final String recordKey, final long fingerprint) {
+
+		RecordFingerprints.setFingerprint(recordNode, recordKey, fingerprint, database);
+
+		recordsWithoutFingerprint.remove(recordURI);
+	}
+
 	public abstract void addObjectToResourceWDataModelIndex(final Node node, final String URI, final Optional<String> optionalDataModelURI);
 
 	public abstract void handleObjectDataModel(Node node, Optional<String> optionalDataModelURI);
@@ -473,44 +698,65 @@ public abstract class Neo4jProcessor {
 
 	public Optional<Node> getNodeFromResourcesIndex(final String key) {
 
-		return getNodeFromIndex(key,tempResourcesIndex, resources, GraphStatics.URI);
+		return getNodeFromIndex(key, key, Optional.<String>absent(), tempResourcesIndex, resourcesCache, resources, GraphStatics.URI);
 	}
 
 	public Optional<Node> getNodeFromResourceTypesIndex(final String key) {
 
-		return getNodeFromIndex(key, tempResourceTypesIndex, resourceTypes, GraphStatics.URI);
+		return getNodeFromIndex(key, key, Optional.<String>absent(), tempResourceTypesIndex, resourceTypesCache, resourceTypes, GraphStatics.URI);
 	}
 
 	public Optional<Node> getNodeFromResourcesWDataModelIndex(final String resourceUri, final String dataModelUri) {
 
-		return getNodeFromIndex(resourceUri + dataModelUri, tempResourcesWDataModelIndex, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL);
+		return getNodeFromIndex(resourceUri + dataModelUri, resourceUri, Optional.of(dataModelUri), tempResourcesWDataModelIndex,
+				resourcesWDataModelCache, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL);
 	}
 
 	public void addNodeToResourcesIndex(final String value, final Node node) {
 
-		addNodeToIndex(GraphStatics.URI, value, node, tempResourcesIndex, resources);
+		addNodeToIndex(GraphStatics.URI, value, node, tempResourcesIndex, pendingResourcesIndex, resources);
 	}
 
 	public void addNodeToResourcesWDataModelIndex(final String resourceUri, final String dataModelUri, final Node node) {
 
-		addNodeToIndex(GraphStatics.URI_W_DATA_MODEL, resourceUri + dataModelUri, node, tempResourcesWDataModelIndex, resourcesWDataModel);
+		addNodeToIndex(GraphStatics.URI_W_DATA_MODEL, resourceUri + dataModelUri, node, tempResourcesWDataModelIndex,
+				pendingResourcesWDataModelIndex, resourcesWDataModel);
 		addNodeToResourcesIndex(resourceUri, node);
 	}
 
 	public void addNodeToResourceTypesIndex(final String key, final Node node) {
 
-		addNodeToIndex(GraphStatics.URI, key, node, tempResourceTypesIndex, resourceTypes);
+		addNodeToIndex(GraphStatics.URI, key, node, tempResourceTypesIndex, pendingResourceTypesIndex, resourceTypes);
 		addNodeToResourcesIndex(key, node);
 	}
 
-	protected Optional<Node> getNodeFromIndex(final String key, final Map<String, Node> tempIndex, final Index<Node> index,
-			final String indexProperty) {
+	/**
+	 * @param key the index key, i.e. a URI or a URI + data model URI
+	 * @param resourceUri the URI of the resource
+	 * @param optionalDataModelUri the data model URI of the resource, if the key includes it
+	 * @param tempIndex the temp index of the current TX
+	 * @param cache the node id cache of the index
+	 * @param index the legacy index
+	 * @param indexProperty the property of the index key
+	 * @return the node of the given key, if it exists
+	 */
+	protected Optional<Node> getNodeFromIndex(final String key, final String resourceUri, final Optional<String> optionalDataModelUri,
+			final Map<String, Node> tempIndex, final NodeIdCache cache, final Index<Node> index, final String indexProperty) {
 
 		if (tempIndex.containsKey(key)) {
 
 			return Optional.of(tempIndex.get(key));
 		}
 
+		final Optional<Node> optionalCachedNode = getNodeFromCache(key, resourceUri, optionalDataModelUri, cache);
+
+		if (optionalCachedNode.isPresent()) {
+
+			tempIndex.put(key, optionalCachedNode.get());
+
+			return optionalCachedNode;
+		}
+
 		if (index == null) {
 
 			return Optional.absent();
@@ -530,6 +776,9 @@ public abstract class Neo4jProcessor {
 
 				// temp cache index hits again
 				tempIndex.put(key, optionalHit.get());
+
+				// index hits are committed nodes
+				cache.put(key, optionalHit.get().getId());
 			}
 
 			return optionalHit;
@@ -543,9 +792,113 @@ public abstract class Neo4jProcessor {
 		return Optional.absent();
 	}
 
-	private void addNodeToIndex(final String indexProperty, final String key, final Node node, final Map<String, Node> tempIndex, final Index<Node> index) {
+	/**
+	 * Looks up the node id of the given key in the given node id cache and verifies the hit, i.e., the node needs to exist and it needs
+	 * to be the node of the key (node ids might be reused after a node was deleted): its URI needs to be equal to the resource URI and,
+	 * for keys with data model, its data model needs to be equal to the data model URI. Type resource nodes don't belong to a data
+	 * model, i.e., they are only verified by their URI.
+	 *
+	 * @param key the index key, i.e. a URI or a URI + data model URI
+	 * @param resourceUri the URI of the resource
+	 * @param optionalDataModelUri the data model URI of the resource, if the key includes it
+	 * @param cache the node id cache of the index
+	 * @return the cached node, if it exists
+	 */
+	private Optional<Node> getNodeFromCache(final String key, final String resourceUri, final Optional<String> optionalDataModelUri,
+			final NodeIdCache cache) {
+
+		final Optional<Long> optionalNodeId = cache.get(key);
+
+		if (!optionalNodeId.isPresent()) {
+
+			return Optional.absent();
+		}
+
+		try {
+
+			final Node node = database.getNodeById(optionalNodeId.get());
+
+			if (resourceUri.equals(node.getProperty(GraphStatics.URI_PROPERTY, null)) && isOfDataModel(node, optionalDataModelUri)) {
+
+				return Optional.of(node);
+			}
+		} catch (final NotFoundException e) {
+
+			// node was deleted in the meantime
+		}
+
+		cache.invalidate(key);
+
+		return Optional.absent();
+	}
+
+	private static boolean isOfDataModel(final Node node, final Optional<String> optionalDataModelUri) {
+
+		if (!optionalDataModelUri.isPresent()) {
+
+			return true;
+		}
+
+		final Object dataModelUri = node.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
+
+		if (dataModelUri != null) {
+
+			return optionalDataModelUri.get().equals(dataModelUri);
+		}
+
+		return NodeType.TypeResource.toString().equals(node.getProperty(GraphStatics.NODETYPE_PROPERTY, null));
+	}
+
+	private void addNodeToIndex(final String indexProperty, final String key, final Node node, final Map<String, Node> tempIndex,
+			final Map<String, Node> pendingIndex, final Index<Node> index) {
+
+		invalidateBatchKeyFilter();
 
 		tempIndex.put(key, node);
+		pendingIndex.put(key, node);
 		index.add(node, indexProperty, key);
 	}
+
+	/**
+	 * The key filters of batch imports don't know the keys that are written via this processor, i.e., they are invalidated before the
+	 * first key (resource key or statement hash) is written to the store. Processors that don't write keys (e.g. of read requests)
+	 * don't touch the key filters.
+	 */
+	private void invalidateBatchKeyFilter() {
+
+		if (batchKeyFilterInvalidated) {
+
+			return;
+		}
+
+		batchKeyFilterInvalidated = true;
+
+		if (database instanceof GraphDatabaseAPI) {
+
+			BatchKeyFilter.invalidateOnce(new File(((GraphDatabaseAPI) database).getStoreDir()));
+		}
+	}
+
+	private void cachePendingIndexEntries(final Map<String, Node> pendingIndex, final NodeIdCache cache) {
+
+		for (final Map.Entry<String, Node> pendingEntry : pendingIndex.entrySet()) {
+
+			cache.put(pendingEntry.getKey(), pendingEntry.getValue().getId());
+		}
+
+		pendingIndex.clear();
+	}
+
+	private void discardPendingIndexEntries(final Map<String, Node> pendingIndex, final Map<String, Node> tempIndex) {
+
+		if (tempIndex != null) {
+
+			for (final String key : pendingIndex.keySet()) {
+
+				tempIndex.remove(key);
+			}
+		}
+
+		pendingIndex.clear();
+	}
 }
@@ -0,0 +1,377 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dswarm.graph.DMPGraphException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+
+/**
+ * Bloom filters of the keys of the resource indices (resource URIs, resource URIs with data model, resource type URIs) and of the
+ * statement hashes of a store that is written by the batch inserter. The filters are persisted next to the store, i.e., a batch import
+ * that appends to an existing store can skip the Lucene lookups of keys that certainly don't exist in the store.<br/>
+ * Every filter is a chain of Bloom filters: when the latest one is full, a new one is added, whose size is derived from the node and
+ * relationship counts of the store (see {@link #load(File)}), i.e., the false positive rate doesn't degrade on large stores.<br/>
+ * note: the filters are only complete, as long as the store is written by batch imports only. Hence, the persisted filters are removed,
+ * when the store is written by the transactional write path (see {@link #invalidateOnce(File)}).
+ *
+ * @author tgaengler
+ */
+public class BatchKeyFilter {
+
+	private static final Logger			LOG							= LoggerFactory.getLogger(BatchKeyFilter.class);
+
+	public static final String			FILE_NAME					= "batch_key_filter.bin";
+
+	private static final int			FORMAT_VERSION				= 2;
+
+	/**
+	 * the size of the first Bloom filter of an empty store
+	 */
+	private static final long			MIN_EXPECTED_INSERTIONS		= 1000000;
+
+	/**
+	 * the false positive rate of the first Bloom filter of a chain; every further Bloom filter gets the half of the rate of its
+	 * predecessor, i.e., the false positive rate of the whole chain stays below the double of this rate
+	 */
+	private static final double			FALSE_POSITIVE_RATE			= 0.01;
+
+	/**
+	 * the node and relationship store files and their record sizes (neo4j 2.0 store format), i.e., the number of records of a store
+	 * (incl. deleted ones) can be determined without opening the store
+	 */
+	private static final String			NODE_STORE_FILE_NAME		= "neostore.nodestore.db";
+	private static final int			NODE_RECORD_SIZE			= 14;
+	private static final String			RELATIONSHIP_STORE_FILE_NAME	= "neostore.relationshipstore.db";
+	private static final int			RELATIONSHIP_RECORD_SIZE	= 33;
+
+	/**
+	 * a resource node is indexed by its URI and (optionally) by its URI + data model URI
+	 */
+	private static final int			RESOURCE_KEYS_PER_NODE		= 2;
+
+	/**
+	 * the stores whose key filters were already invalidated by this JVM (and not written again afterwards)
+	 */
+	private static final Set<String>	INVALIDATED_STORES			= Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private final BloomFilterChain<CharSequence>	resourceKeys;
+	private final BloomFilterChain<Long>			statementHashes;
+
+	private BatchKeyFilter(final BloomFilterChain<CharSequence> resourceKeysArg, final BloomFilterChain<Long> statementHashesArg) {
+
+		resourceKeys = resourceKeysArg;
+		statementHashes = statementHashesArg;
+	}
+
+	/**
+	 * Creates empty filters, i.e., for a store that is empty.
+	 *
+	 * @return empty key filters
+	 */
+	public static BatchKeyFilter create() {
+
+		return new BatchKeyFilter(new BloomFilterChain<>(Funnels.stringFunnel(Charsets.UTF_8), BatchKeyFilter.MIN_EXPECTED_INSERTIONS),
+				new BloomFilterChain<>(Funnels.longFunnel(), BatchKeyFilter.MIN_EXPECTED_INSERTIONS));
+	}
+
+	/**
+	 * Loads the persisted key filters of the given store. The Bloom filters that will be added by the following import are sized from
+	 * the node and relationship counts of the store.
+	 *
+	 * @param storeDir the directory of the store
+	 * @return the key filters of the store or absent, if there are no (valid) persisted key filters
+	 */
+	public static Optional<BatchKeyFilter> load(final File storeDir) {
+
+		final File file = new File(storeDir, BatchKeyFilter.FILE_NAME);
+
+		if (!file.exists()) {
+
+			BatchKeyFilter.LOG.debug("there are no persisted key filters for store '" + storeDir + "'");
+
+			return Optional.absent();
+		}
+
+		final long nodes = BatchKeyFilter.countRecords(storeDir, BatchKeyFilter.NODE_STORE_FILE_NAME, BatchKeyFilter.NODE_RECORD_SIZE);
+		final long relationships = BatchKeyFilter.countRecords(storeDir, BatchKeyFilter.RELATIONSHIP_STORE_FILE_NAME,
+				BatchKeyFilter.RELATIONSHIP_RECORD_SIZE);
+
+		try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+			final int formatVersion = in.readInt();
+
+			if (formatVersion != BatchKeyFilter.FORMAT_VERSION) {
+
+				BatchKeyFilter.LOG.debug("unsupported format version '" + formatVersion + "' of key filters for store '" + storeDir + "'");
+
+				return Optional.absent();
+			}
+
+			final BloomFilterChain<CharSequence> resourceKeys = BloomFilterChain.readFrom(in, Funnels.stringFunnel(Charsets.UTF_8),
+					nodes * BatchKeyFilter.RESOURCE_KEYS_PER_NODE);
+			final BloomFilterChain<Long> statementHashes = BloomFilterChain.readFrom(in, Funnels.longFunnel(), relationships);
+
+			BatchKeyFilter.LOG.debug("loaded key filters for store '" + storeDir + "' with '" + nodes + "' nodes and '" + relationships
+					+ "' relationships (expected false positive rates: resource keys = '" + resourceKeys.expectedFpp()
+					+ "' :: statement hashes = '" + statementHashes.expectedFpp() + "')");
+
+			return Optional.of(new BatchKeyFilter(resourceKeys, statementHashes));
+		} catch (final IOException e) {
+
+			BatchKeyFilter.LOG.error("couldn't load key filters for store '" + storeDir + "'", e);
+
+			return Optional.absent();
+		}
+	}
+
+	/**
+	 * Removes the persisted key filters of the given store, e.g., since the store was written without updating the filters.
+	 *
+	 * @param storeDir the directory of the store
+	 */
+	public static void invalidate(final File storeDir) {
+
+		final File file = new File(storeDir, BatchKeyFilter.FILE_NAME);
+
+		if (file.exists() && !file.delete()) {
+
+			BatchKeyFilter.LOG.error("couldn't remove key filters of store '" + storeDir + "'");
+		}
+	}
+
+	/**
+	 * Removes the persisted key filters of the given store, if they weren't removed by this JVM before (and not written again
+	 * afterwards), i.e., the file system is only touched on the first transactional write to a store.
+	 *
+	 * @param storeDir the directory of the store
+	 */
+	public static void invalidateOnce(final File storeDir) {
+
+		if (BatchKeyFilter.INVALIDATED_STORES.add(storeDir.getAbsolutePath())) {
+
+			BatchKeyFilter.invalidate(storeDir);
+		}
+	}
+
+	/**
+	 * Persists the key filters next to the given store.
+	 *
+	 * @param storeDir the directory of the store
+	 * @throws DMPGraphException
+	 */
+	public void write(final File storeDir) throws DMPGraphException {
+
+		final File file = new File(storeDir, BatchKeyFilter.FILE_NAME);
+
+		try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+
+			out.writeInt(BatchKeyFilter.FORMAT_VERSION);
+			resourceKeys.writeTo(out);
+			statementHashes.writeTo(out);
+		} catch (final IOException e) {
+
+			// note: a partially written file must not be utilised
+			BatchKeyFilter.invalidate(storeDir);
+
+			final String message = "couldn't write key filters of store '" + storeDir + "'";
+
+			BatchKeyFilter.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		// note: the next transactional write needs to remove the written filters again
+		BatchKeyFilter.INVALIDATED_STORES.remove(storeDir.getAbsolutePath());
+
+		BatchKeyFilter.LOG.debug("wrote key filters for store '" + storeDir + "'");
+	}
+
+	public void addResourceKey(final String key) {
+
+		resourceKeys.put(key);
+	}
+
+	/**
+	 * @param key a key of a resource index
+	 * @return false, if the key certainly doesn't exist in the store, otherwise true
+	 */
+	public boolean mightContainResourceKey(final String key) {
+
+		return resourceKeys.mightContain(key);
+	}
+
+	public void addStatementHash(final long hash) {
+
+		statementHashes.put(hash);
+	}
+
+	/**
+	 * @param hash a statement hash
+	 * @return false, if the statement hash certainly doesn't exist in the store, otherwise true
+	 */
+	public boolean mightContainStatementHash(final long hash) {
+
+		return statementHashes.mightContain(hash);
+	}
+
+	/**
+	 * @param storeDir the directory of the store
+	 * @param storeFileName the name of the store file
+	 * @param recordSize the size of a record in the store file
+	 * @return the number of records of the store file (or 0, if the store file doesn't exist)
+	 */
+	private static long countRecords(final File storeDir, final String storeFileName, final int recordSize) {
+
+		// note: File#length is 0 for non-existing files
+		return new File(storeDir, storeFileName).length() / recordSize;
+	}
+
+	/**
+	 * A chain of Bloom filters, whereby new keys are added to the latest filter. When the latest filter reached its expected number of
+	 * insertions, a new (larger) filter will be added.
+	 *
+	 * @param <T> the type of the keys
+	 */
+	private static final class BloomFilterChain<T> {
+
+		private final Funnel<T>		funnel;
+		private final List<BloomFilter<T>>	filters				= new ArrayList<>();
+		private final List<Long>			expectedInsertions	= new ArrayList<>();
+
+		/**
+		 * the minimal size of a new filter, i.e., derived from the size of the store
+		 */
+		private final long					minExpectedInsertions;
+
+		/**
+		 * the (approximate) number of keys in the latest filter
+		 */
+		private long						insertions;
+
+		private BloomFilterChain(final Funnel<T> funnelArg, final long minExpectedInsertionsArg) {
+
+			funnel = funnelArg;
+			minExpectedInsertions = Math.max(minExpectedInsertionsArg, BatchKeyFilter.MIN_EXPECTED_INSERTIONS);
+		}
+
+		private static <T> BloomFilterChain<T> readFrom(final DataInputStream in, final Funnel<T> funnel, final long storeKeys)
+				throws IOException {
+
+			final BloomFilterChain<T> chain = new BloomFilterChain<>(funnel, storeKeys);
+
+			final int numberOfFilters = in.readInt();
+
+			for (int i = 0; i < numberOfFilters; i++) {
+
+				chain.expectedInsertions.add(in.readLong());
+				chain.filters.add(BloomFilter.readFrom(in, funnel));
+			}
+
+			chain.insertions = in.readLong();
+
+			return chain;
+		}
+
+		private void writeTo(final DataOutputStream out) throws IOException {
+
+			out.writeInt(filters.size());
+
+			for (int i = 0; i < filters.size(); i++) {
+
+				out.writeLong(expectedInsertions.get(i));
+				filters.get(i).writeTo(out);
+			}
+
+			out.writeLong(insertions);
+		}
+
+		private void put(final T key) {
+
+			if (filters.isEmpty() || insertions >= expectedInsertions.get(expectedInsertions.size() - 1)) {
+
+				addFilter();
+			}
+
+			// note: the bits of the filter don't change for keys that were added before (or false positives)
+			if (filters.get(filters.size() - 1).put(key)) {
+
+				insertions++;
+			}
+		}
+
+		private boolean mightContain(final T key) {
+
+			// note: the latest filter holds the most recent keys
+			for (int i = filters.size() - 1; i >= 0; i--) {
+
+				if (filters.get(i).mightContain(key)) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		private double expectedFpp() {
+
+			double fpp = 0;
+
+			for (final BloomFilter<T> filter : filters) {
+
+				fpp += filter.expectedFpp();
+			}
+
+			return fpp;
+		}
+
+		private void addFilter() {
+
+			final long latestExpectedInsertions = expectedInsertions.isEmpty() ? 0 : expectedInsertions.get(expectedInsertions.size() - 1);
+			final long newExpectedInsertions = Math.max(minExpectedInsertions, 2 * latestExpectedInsertions);
+			final double falsePositiveRate = BatchKeyFilter.FALSE_POSITIVE_RATE / (1L << Math.min(filters.size(), 30));
+
+			BatchKeyFilter.LOG.debug("add Bloom filter #" + (filters.size() + 1) + " for '" + newExpectedInsertions
+					+ "' keys (false positive rate = '" + falsePositiveRate + "')");
+
+			filters.add(BloomFilter.create(funnel, (int) Math.min(newExpectedInsertions, Integer.MAX_VALUE), falsePositiveRate));
+			expectedInsertions.add(newExpectedInsertions);
+			insertions = 0;
+		}
+	}
+}
@@ -47,7 +47,13 @@ public class DataModelNeo4jProcessor extends Neo4jProcessor {
 
 	public DataModelNeo4jProcessor(final BatchInserter inserter, final String dataModelURIArg) throws DMPGraphException {
 
-		super(inserter);
+		this(inserter, dataModelURIArg, false);
+	}
+
+	public DataModelNeo4jProcessor(final BatchInserter inserter, final String dataModelURIArg, final boolean appendToStore)
+			throws DMPGraphException {
+
+		super(inserter, appendToStore);
 
 		dataModelURI = dataModelURIArg;
 
@@ -95,10 +101,10 @@ public class DataModelNeo4jProcessor extends Neo4jProcessor {
 
 		if (!optionalDataModelURI.isPresent()) {
 
-			addToResourcesWDataModelIndex(URI + dataModelURI, nodeId);
+			addToResourcesWDataModelIndex(URI, dataModelURI, nodeId);
 		} else {
 
-			addToResourcesWDataModelIndex(URI + optionalDataModelURI.get(), nodeId);
+			addToResourcesWDataModelIndex(URI, optionalDataModelURI.get(), nodeId);
 		}
 	}
 
@@ -135,7 +141,7 @@ public class DataModelNeo4jProcessor extends Neo4jProcessor {
 	@Override
 	public Optional<Long> getResourceNodeHits(final String resourceURI) {
 
-		return getNodeIdFromResourcesWDataModelIndex(resourceURI + dataModelURI);
+		return getNodeIdFromResourcesWDataModelIndex(resourceURI, dataModelURI);
 	}
 
 	@Override
@@ -16,18 +16,32 @@
  */
 package org.dswarm.graph.batch;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.index.RecordFingerprints;
 import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.utils.TermDictionary;
+import org.dswarm.graph.utils.Utf8Buffer;
 import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.index.IndexHits;
 import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.index.lucene.ValueContext;
 import org.neo4j.index.lucene.unsafe.batchinsert.LuceneBatchInserterIndexProvider;
 import org.neo4j.unsafe.batchinsert.BatchInserter;
 import org.neo4j.unsafe.batchinsert.BatchInserterIndex;
@@ -35,12 +49,11 @@ import org.neo4j.unsafe.batchinsert.BatchInserterIndexProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.IntLongOpenHashMap;
 import com.carrotsearch.hppc.LongLongOpenHashMap;
 import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.carrotsearch.hppc.ObjectLongOpenHashMap;
-import com.github.emboss.siphash.SipHash;
-import com.github.emboss.siphash.SipKey;
-import com.google.common.base.Charsets;
+import com.carrotsearch.hppc.ObjectOpenHashSet;
 import com.google.common.base.Optional;
 
 /**
@@ -50,105 +63,292 @@ public abstract class Neo4jProcessor {
 
 	private static final Logger						LOG			= LoggerFactory.getLogger(Neo4jProcessor.class);
 
-	protected int									addedLabels	= 0;
+	private static final int						NO_TERM		= -1;
+
+	private static final String						SEPARATOR	= " ";
+
+	/**
+	 * the prefixes of the node types in the statement hash inputs (note: they are equal to the string representation of an optional
+	 * node type, i.e., the statement hashes are equal to the ones of the transactional write path)
+	 */
+	private static final byte[][]					NODE_TYPE_HASH_PREFIXES;
+
+	static {
+
+		final NodeType[] nodeTypes = NodeType.values();
+
+		NODE_TYPE_HASH_PREFIXES = new byte[nodeTypes.length][];
+
+		for (final NodeType nodeType : nodeTypes) {
+
+			NODE_TYPE_HASH_PREFIXES[nodeType.ordinal()] = (Optional.of(nodeType).toString() + ":").getBytes(StandardCharsets.UTF_8);
+		}
+	}
 
-	private static final SipKey						SPEC_KEY	= new SipKey(HashUtils.bytesOf(0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08,
-																		0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f));
+	protected int									addedLabels	= 0;
 
 	protected final BatchInserter					inserter;
 	private BatchInserterIndex						resources;
 	private BatchInserterIndex						resourcesWDataModel;
 	private BatchInserterIndex						resourceTypes;
 
-	protected final ObjectLongOpenHashMap<String>	tempResourcesIndex;
-	protected final ObjectLongOpenHashMap<String>	tempResourcesWDataModelIndex;
-	protected final ObjectLongOpenHashMap<String>	tempResourceTypes;
+	/**
+	 * the term dictionary of this import, i.e., the temp indices and the node identifiers refer to the ids of their URIs (instead of
+	 * holding the URIs themselves)
+	 */
+	protected final TermDictionary					terms;
+
+	protected final IntLongOpenHashMap				tempResourcesIndex;
+	/**
+	 * the keys are pairs of the term ids of the resource URI and the data model URI (see {@link #getTermPair(String, String)})
+	 */
+	protected final LongLongOpenHashMap				tempResourcesWDataModelIndex;
+	protected final IntLongOpenHashMap				tempResourceTypes;
 
 	private BatchInserterIndex						values;
 	protected final ObjectLongOpenHashMap<String>	bnodes;
 	private BatchInserterIndex						statementHashes;
 
+	/**
+	 * the record fingerprints index of a pre-filled store (see {@link RecordFingerprints})
+	 */
+	private BatchInserterIndex						recordFingerprints;
+
 	protected final LongLongOpenHashMap				tempStatementHashes;
 
 	protected final LongObjectOpenHashMap<String>	nodeResourceMap;
 
+	/**
+	 * the identifiers of the resource nodes that were written (or read) by this processor as pairs of the term ids of the resource URI
+	 * and the data model URI, i.e., statement hashing doesn't need to read the node properties back from the store
+	 */
+	protected final LongLongOpenHashMap				nodeIdentifiers;
+
+	/**
+	 * the (reused) buffer for the input of the statement hashes
+	 */
+	private final Utf8Buffer						statementHashInput;
+
+	/**
+	 * the key filters of the store, or null, if the store contains keys that are unknown (i.e. every lookup needs to be done in the
+	 * indices)
+	 */
+	private final BatchKeyFilter					keyFilter;
+
+	/**
+	 * true, if the store might be pre-filled, i.e., it might contain records with fingerprints
+	 */
+	private final boolean							appendToStore;
+
+	/**
+	 * the URIs of the records whose fingerprint was already removed by this processor
+	 */
+	private final ObjectOpenHashSet<String>			recordsWithoutFingerprint;
+
+	/**
+	 * Creates a processor that writes into an empty store.
+	 *
+	 * @param inserter the batch inserter of the store
+	 * @throws DMPGraphException
+	 */
 	public Neo4jProcessor(final BatchInserter inserter) throws DMPGraphException {
 
+		this(inserter, false);
+	}
+
+	/**
+	 * Creates a processor that writes into an empty store or appends to an existing store. When appending, the existing indices are
+	 * utilised for lookups, whereby keys that certainly don't exist in the store are filtered by the persisted key filters of the store
+	 * (if available).
+	 *
+	 * @param inserter the batch inserter of the store
+	 * @param appendToStore true, if the store might be pre-filled, otherwise false
+	 * @throws DMPGraphException
+	 */
+	public Neo4jProcessor(final BatchInserter inserter, final boolean appendToStore) throws DMPGraphException {
+
 		this.inserter = inserter;
 
 		Neo4jProcessor.LOG.debug("start writing");
 
 		bnodes = new ObjectLongOpenHashMap<>();
 		nodeResourceMap = new LongObjectOpenHashMap<>();
+		nodeIdentifiers = new LongLongOpenHashMap();
+		statementHashInput = new Utf8Buffer();
 
-		tempResourcesIndex = new ObjectLongOpenHashMap<>();
-		tempResourcesWDataModelIndex = new ObjectLongOpenHashMap<>();
-		tempResourceTypes = new ObjectLongOpenHashMap<>();
+		terms = new TermDictionary();
+		tempResourcesIndex = new IntLongOpenHashMap();
+		tempResourcesWDataModelIndex = new LongLongOpenHashMap();
+		tempResourceTypes = new IntLongOpenHashMap();
 		tempStatementHashes = new LongLongOpenHashMap();
 
-		// TODO: init all indices, when batch inserter should work on a pre-filled database (otherwise, the existing index would
-		// utilised in the first run)
-		// initIndices();
+		this.appendToStore = appendToStore;
+		recordsWithoutFingerprint = new ObjectOpenHashSet<>();
+
+		if (appendToStore) {
+
+			initIndices();
+
+			keyFilter = BatchKeyFilter.load(getStoreDir()).orNull();
+
+			if (keyFilter == null) {
+
+				Neo4jProcessor.LOG.debug("append to store without key filters, i.e., every key will be looked up in the indices");
+			}
+		} else {
+
+			// note: the indices of an empty store are initialised when they are flushed the first time (otherwise, the empty indices
+			// would be utilised for lookups in the first run)
+			keyFilter = BatchKeyFilter.create();
+		}
+
 		initValueIndex();
 	}
 
-	protected void pumpNFlushNClearIndices() {
+	protected void pumpNFlushNClearIndices() throws DMPGraphException {
 
 		Neo4jProcessor.LOG.debug("start pumping indices");
 
-		copyNFlushNClearIndex(tempResourcesIndex, resources, GraphStatics.URI, GraphIndexStatics.RESOURCES_INDEX_NAME);
-		copyNFlushNClearIndex(tempResourcesWDataModelIndex, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL, GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME);
-		copyNFlushNClearIndex(tempResourceTypes, resourceTypes, GraphStatics.URI, GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
-		copyNFlushNClearLongIndex(tempStatementHashes, statementHashes, GraphStatics.HASH, GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
+		// note: the indices are independent from each other (i.e. each index has its own Lucene index writer), so they can be pumped
+		// concurrently
+		final ExecutorService indexPumps = Executors.newFixedThreadPool(4);
+
+		try {
+
+			final List<Future<Void>> pumpedIndices = new ArrayList<>(4);
+
+			pumpedIndices.add(indexPumps.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					copyNFlushNClearIndex(tempResourcesIndex, resources, GraphStatics.URI, GraphIndexStatics.RESOURCES_INDEX_NAME);
+
+					return null;
+				}
+			}));
+			pumpedIndices.add(indexPumps.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					copyNFlushNClearTermPairIndex(tempResourcesWDataModelIndex, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL,
+							GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME);
+
+					return null;
+				}
+			}));
+			pumpedIndices.add(indexPumps.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					copyNFlushNClearIndex(tempResourceTypes, resourceTypes, GraphStatics.URI, GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
+
+					return null;
+				}
+			}));
+			pumpedIndices.add(indexPumps.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					copyNFlushNClearLongIndex(tempStatementHashes, statementHashes, GraphStatics.HASH, GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
+
+					return null;
+				}
+			}));
+
+			for (final Future<Void> pumpedIndex : pumpedIndices) {
+
+				pumpedIndex.get();
+			}
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			final String message = "interrupted while pumping indices";
+
+			Neo4jProcessor.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		} catch (final ExecutionException e) {
+
+			final String message = "couldn't pump indices successfully";
+
+			Neo4jProcessor.LOG.error(message, e.getCause());
+
+			throw new DMPGraphException(message, e.getCause());
+		} finally {
+
+			indexPumps.shutdownNow();
+		}
 
 		Neo4jProcessor.LOG.debug("finished pumping indices");
 	}
 
-	private void copyNFlushNClearIndex(final ObjectLongOpenHashMap<String> tempIndex, final BatchInserterIndex neo4jIndex, final String indexProperty, final String indexName) {
+	private void copyNFlushNClearIndex(final IntLongOpenHashMap tempIndex, final BatchInserterIndex neo4jIndex, final String indexProperty, final String indexName) {
 
 		Neo4jProcessor.LOG.debug("start pumping '" + indexName + "' index of size '" + tempIndex.size() + "'");
 
-		final Object[] keys = tempIndex.keys;
+		final int[] keys = tempIndex.keys;
 		final long[] values = tempIndex.values;
 		final boolean[] states = tempIndex.allocated;
 
 		Neo4jProcessor.LOG.debug("keys size = '" + keys.length + "' :: values size = '" + values.length + "' :: states size = '" + states.length + "'");
 
-		int j = 0;
-		long tick = System.currentTimeMillis();
-		int sinceLast = 0;
+		// note: the properties map is reused for all entries (the index doesn't hold a reference to it)
+		final Map<String, Object> properties = new HashMap<>(2);
+		final IndexPumpProgress progress = new IndexPumpProgress(indexName);
 
 		for (int i = 0; i < states.length; i++) {
 
 			if (states[i]) {
 
-				// @tgaengler: I can't remember why I'm utilising an char array here ...
-				neo4jIndex.add(values[i], MapUtil.map(indexProperty, keys[i].toString().toCharArray()));
+				// note: the terms are decoded without caching them in the dictionary (i.e. the dictionary isn't modified by the pumps)
+				properties.put(indexProperty, terms.decode(keys[i]));
+				neo4jIndex.add(values[i], properties);
 
-				j++;
+				progress.tick();
+			}
+		}
 
-				final int entryDelta = j - sinceLast;
-				final long timeDelta = (System.currentTimeMillis() - tick) / 1000;
+		progress.finish();
 
-				if (entryDelta >= 1000000 || timeDelta >= 60) {
+		flushIndex(neo4jIndex, indexName);
+		tempIndex.clear();
+	}
 
-					sinceLast = j;
+	private void copyNFlushNClearTermPairIndex(final LongLongOpenHashMap tempIndex, final BatchInserterIndex neo4jIndex, final String indexProperty,
+			final String indexName) {
 
-					Neo4jProcessor.LOG.debug("wrote '" + j + "' entries @ ~" + (double) entryDelta / timeDelta + " entries/second.");
+		Neo4jProcessor.LOG.debug("start pumping '" + indexName + "' index of size '" + tempIndex.size() + "'");
 
-					tick = System.currentTimeMillis();
-				}
+		final long[] keys = tempIndex.keys;
+		final long[] values = tempIndex.values;
+		final boolean[] states = tempIndex.allocated;
+
+		Neo4jProcessor.LOG.debug("keys size = '" + keys.length + "' :: values size = '" + values.length + "' :: states size = '" + states.length + "'");
+
+		// note: the properties map is reused for all entries (the index doesn't hold a reference to it)
+		final Map<String, Object> properties = new HashMap<>(2);
+		final IndexPumpProgress progress = new IndexPumpProgress(indexName);
+
+		for (int i = 0; i < states.length; i++) {
+
+			if (states[i]) {
+
+				properties.put(indexProperty, decodeTermPair(keys[i]));
+				neo4jIndex.add(values[i], properties);
+
+				progress.tick();
 			}
 		}
 
-		Neo4jProcessor.LOG.debug("finished pumping '" + indexName + "' index; wrote '" + j + "' entries");
-
-		Neo4jProcessor.LOG.debug("start flushing and clearing index");
+		progress.finish();
 
-		neo4jIndex.flush();
+		flushIndex(neo4jIndex, indexName);
 		tempIndex.clear();
-
-		Neo4jProcessor.LOG.debug("finished flushing and clearing index");
 	}
 
 	private void copyNFlushNClearLongIndex(final LongLongOpenHashMap tempIndex, final BatchInserterIndex neo4jIndex, final String indexProperty, final String indexName) {
@@ -161,40 +361,34 @@ public abstract class Neo4jProcessor {
 
 		Neo4jProcessor.LOG.debug("keys size = '" + keys.length + "' :: values size = '" + values.length + "' :: states size = '" + states.length + "'");
 
-		int j = 0;
-		long tick = System.currentTimeMillis();
-		int sinceLast = 0;
+		// note: the properties map is reused for all entries (the index doesn't hold a reference to it)
+		final Map<String, Object> properties = new HashMap<>(2);
+		final IndexPumpProgress progress = new IndexPumpProgress(indexName);
 
 		for (int i = 0; i < states.length; i++) {
 
 			if (states[i]) {
 
-				neo4jIndex.add(values[i], MapUtil.map(indexProperty, keys[i]));
-
-				j++;
-
-				final int entryDelta = j - sinceLast;
-				final long timeDelta = (System.currentTimeMillis() - tick) / 1000;
-
-				if (entryDelta >= 1000000 || timeDelta >= 60) {
+				properties.put(indexProperty, ValueContext.numeric(keys[i]));
+				neo4jIndex.add(values[i], properties);
 
-					sinceLast = j;
-
-					Neo4jProcessor.LOG.debug("wrote '" + j + "' entries @ ~" + (double) entryDelta / timeDelta + " entries/second.");
-
-					tick = System.currentTimeMillis();
-				}
+				progress.tick();
 			}
 		}
 
-		Neo4jProcessor.LOG.debug("finished pumping index '" + indexName + "' index; wrote '" + j + "' entries");
+		progress.finish();
 
-		Neo4jProcessor.LOG.debug("start flushing and clearing index");
+		flushIndex(neo4jIndex, indexName);
+		tempIndex.clear();
+	}
+
+	private void flushIndex(final BatchInserterIndex neo4jIndex, final String indexName) {
+
+		Neo4jProcessor.LOG.debug("start flushing '" + indexName + "' index");
 
 		neo4jIndex.flush();
-		tempIndex.clear();
 
-		Neo4jProcessor.LOG.debug("finished flushing and clearing index");
+		Neo4jProcessor.LOG.debug("finished flushing '" + indexName + "' index");
 	}
 
 	protected void initValueIndex() throws DMPGraphException {
@@ -221,6 +415,11 @@ public abstract class Neo4jProcessor {
 			resourcesWDataModel = getOrCreateIndex(GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME, GraphStatics.URI_W_DATA_MODEL, true, 1);
 			resourceTypes = getOrCreateIndex(GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME, GraphStatics.URI, true, 1);
 			statementHashes = getOrCreateIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME, GraphStatics.HASH, false, 1000000);
+
+			if (appendToStore) {
+
+				recordFingerprints = getOrCreateIndex(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME, RecordFingerprints.RECORD_KEY, true, 1);
+			}
 		} catch (final Exception e) {
 
 			final String message = "couldn't load indices successfully";
@@ -239,7 +438,8 @@ public abstract class Neo4jProcessor {
 
 	public void addToResourcesIndex(final String key, final long nodeId) {
 
-		tempResourcesIndex.put(key, nodeId);
+		tempResourcesIndex.put(terms.getId(key), nodeId);
+		addToKeyFilter(key);
 	}
 
 	public Optional<Long> getNodeIdFromResourcesIndex(final String key) {
@@ -247,14 +447,35 @@ public abstract class Neo4jProcessor {
 		return getIdFromIndex(key, tempResourcesIndex, resources, GraphStatics.URI);
 	}
 
-	public void addToResourcesWDataModelIndex(final String key, final long nodeId) {
+	public void addToResourcesWDataModelIndex(final String resourceURI, final String dataModelURI, final long nodeId) {
 
-		tempResourcesWDataModelIndex.put(key, nodeId);
+		tempResourcesWDataModelIndex.put(getTermPair(resourceURI, dataModelURI), nodeId);
+		addToKeyFilter(resourceURI + dataModelURI);
 	}
 
-	public Optional<Long> getNodeIdFromResourcesWDataModelIndex(final String key) {
+	public Optional<Long> getNodeIdFromResourcesWDataModelIndex(final String resourceURI, final String dataModelURI) {
+
+		if (resourceURI == null || dataModelURI == null) {
+
+			return Optional.absent();
+		}
+
+		final long termPair = getTermPair(resourceURI, dataModelURI);
+
+		if (tempResourcesWDataModelIndex.containsKey(termPair)) {
+
+			return Optional.of(tempResourcesWDataModelIndex.lget());
+		}
+
+		final Optional<Long> optionalHit = getIdFromIndex(resourceURI + dataModelURI, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL);
+
+		if (optionalHit.isPresent()) {
 
-		return getIdFromIndex(key, tempResourcesWDataModelIndex, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL);
+			// temp cache index hits again
+			tempResourcesWDataModelIndex.put(termPair, optionalHit.get());
+		}
+
+		return optionalHit;
 	}
 
 	public void addToBNodesIndex(final String key, final long nodeId) {
@@ -280,6 +501,7 @@ public abstract class Neo4jProcessor {
 	public void addToResourceTypesIndex(final String key, final long nodeId) {
 
 		tempResourceTypes.put(key, nodeId);
+		addToKeyFilter(key);
 	}
 
 	public Optional<Long> getNodeIdFromResourceTypesIndex(final String key) {
@@ -295,6 +517,11 @@ public abstract class Neo4jProcessor {
 	public void addToStatementIndex(final long key, final long nodeId) {
 
 		tempStatementHashes.put(key, nodeId);
+
+		if (keyFilter != null) {
+
+			keyFilter.addStatementHash(key);
+		}
 	}
 
 	public void flushIndices() throws DMPGraphException {
@@ -310,6 +537,11 @@ public abstract class Neo4jProcessor {
 		flushStatementIndices();
 		clearTempIndices();
 
+		if (keyFilter != null) {
+
+			keyFilter.write(getStoreDir());
+		}
+
 		Neo4jProcessor.LOG.debug("start finished flushing indices");
 	}
 
@@ -331,6 +563,7 @@ public abstract class Neo4jProcessor {
 	public void clearMaps() {
 
 		nodeResourceMap.clear();
+		nodeIdentifiers.clear();
 		bnodes.clear();
 	}
 
@@ -355,7 +588,7 @@ public abstract class Neo4jProcessor {
 					optionalNodeId = getResourceNodeHits(optionalResourceURI.get());
 				} else {
 
-					optionalNodeId = getNodeIdFromResourcesWDataModelIndex(optionalResourceURI.get() + optionalDataModelURI.get());
+					optionalNodeId = getNodeIdFromResourcesWDataModelIndex(optionalResourceURI.get(), optionalDataModelURI.get());
 				}
 			} else {
 
@@ -471,25 +704,38 @@ public abstract class Neo4jProcessor {
 	public long generateStatementHash(final long subjectNodeId, final String predicateName, final long objectNodeId, final NodeType subjectNodeType,
 			final NodeType objectNodeType) throws DMPGraphException {
 
-		final Optional<NodeType> optionalSubjectNodeType = Optional.fromNullable(subjectNodeType);
-		final Optional<NodeType> optionalObjectNodeType = Optional.fromNullable(objectNodeType);
-		final Optional<String> optionalSubjectIdentifier = getIdentifier(subjectNodeId, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = getIdentifier(objectNodeId, optionalObjectNodeType);
+		statementHashInput.reset();
+
+		final boolean subjectIdentifierPresent = appendNodeType(subjectNodeType) && appendIdentifier(subjectNodeId, subjectNodeType);
 
-		return generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+		statementHashInput.append(Neo4jProcessor.SEPARATOR).append(predicateName).append(Neo4jProcessor.SEPARATOR);
+
+		final boolean objectIdentifierPresent = appendNodeType(objectNodeType) && appendIdentifier(objectNodeId, objectNodeType);
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR);
+
+		return generateStatementHash(subjectIdentifierPresent && objectIdentifierPresent);
 	}
 
 	public long generateStatementHash(final long subjectNodeId, final String predicateName, final String objectValue, final NodeType subjectNodeType,
 			final NodeType objectNodeType) throws DMPGraphException {
 
-		final Optional<NodeType> optionalSubjectNodeType = Optional.fromNullable(subjectNodeType);
-		final Optional<NodeType> optionalObjectNodeType = Optional.fromNullable(objectNodeType);
-		final Optional<String> optionalSubjectIdentifier = getIdentifier(subjectNodeId, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = Optional.fromNullable(objectValue);
+		statementHashInput.reset();
+
+		final boolean subjectIdentifierPresent = appendNodeType(subjectNodeType) && appendIdentifier(subjectNodeId, subjectNodeType);
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR).append(predicateName).append(Neo4jProcessor.SEPARATOR);
+
+		final boolean objectIdentifierPresent = appendNodeType(objectNodeType) && objectValue != null;
+
+		if (objectIdentifierPresent) {
+
+			statementHashInput.append(objectValue);
+		}
+
+		statementHashInput.append(Neo4jProcessor.SEPARATOR);
 
-		return generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+		return generateStatementHash(subjectIdentifierPresent && objectIdentifierPresent);
 	}
 
 	public long generateStatementHash(final String predicateName, final Optional<NodeType> optionalSubjectNodeType,
@@ -509,83 +755,223 @@ public abstract class Neo4jProcessor {
 		final String hashString = optionalSubjectNodeType.toString() + ":" + optionalSubjectIdentifier.get() + " " + predicateName + " "
 				+ optionalObjectNodeType.toString() + ":" + optionalObjectIdentifier.get() + " ";
 
-		return SipHash.digest(Neo4jProcessor.SPEC_KEY, hashString.getBytes(Charsets.UTF_8));
+		return HashUtils.generateHash(hashString);
 	}
 
-	public Optional<String> getIdentifier(final long nodeId, final Optional<NodeType> optionalNodeType) {
+	/**
+	 * Remembers the identifier of a newly created resource node, i.e., the identifier can be utilised for statement hashing without
+	 * reading the node properties back from the store.
+	 *
+	 * @param nodeId the identifier of the resource node
+	 * @param nodeProperties the properties the resource node was created with
+	 */
+	public void addToNodeIdentifiers(final long nodeId, final Map<String, Object> nodeProperties) {
 
-		if (!optionalNodeType.isPresent()) {
+		final Optional<Long> optionalTermPair = getResourceTermPair(nodeProperties);
 
-			return Optional.absent();
+		if (optionalTermPair.isPresent()) {
+
+			nodeIdentifiers.put(nodeId, optionalTermPair.get());
+		}
+	}
+
+	/**
+	 * Removes the fingerprint of the record with the given URI (if it has one), i.e., a later delta calculation won't skip this record
+	 * as unchanged. The record fingerprints index entry of the record is removed as well (note: the batch inserter index can't remove
+	 * entries, but replacing the index document of the record node by an empty one does the same). Only records of a pre-filled store
+	 * can have a fingerprint.
+	 *
+	 * @param recordURI the URI of the record
+	 */
+	public void removeRecordFingerprint(final String recordURI) {
+
+		if (!appendToStore || !recordsWithoutFingerprint.add(recordURI)) {
+
+			return;
+		}
+
+		final Optional<Long> optionalRecordNodeId = getResourceNodeHits(recordURI);
+
+		if (optionalRecordNodeId.isPresent() && inserter.nodeHasProperty(optionalRecordNodeId.get(), RecordFingerprints.FINGERPRINT_PROPERTY)) {
+
+			recordFingerprints.updateOrAdd(optionalRecordNodeId.get(), Collections.<String, Object> emptyMap());
+			inserter.removeNodeProperty(optionalRecordNodeId.get(), RecordFingerprints.FINGERPRINT_PROPERTY);
+		}
+	}
+
+	public abstract void addObjectToResourceWDataModelIndex(final long nodeId, final String URI, final Optional<String> optionalDataModelURI);
+
+	public abstract void handleObjectDataModel(final Map<String, Object> objectNodeProperties, final Optional<String> optionalDataModelURI);
+
+	public abstract void handleSubjectDataModel(final Map<String, Object> subjectNodeProperties, String URI,
+			final Optional<String> optionalDataModelURI);
+
+	public abstract void addStatementToIndex(final long relId, final String statementUUID);
+
+	public abstract Optional<Long> getResourceNodeHits(final String resourceURI);
+
+	protected BatchInserterIndex getOrCreateIndex(final String name, final String property, final boolean nodeIndex, final int cachSize) {
+
+		final BatchInserterIndexProvider indexProvider = new LuceneBatchInserterIndexProvider(inserter);
+		final BatchInserterIndex index;
+
+		if (nodeIndex) {
+
+			index = indexProvider.nodeIndex(name, MapUtil.stringMap("type", "exact"));
+		} else {
+
+			index = indexProvider.relationshipIndex(name, MapUtil.stringMap("type", "exact"));
 		}
 
-		final String identifier;
+		index.setCacheCapacity(property, cachSize);
 
-		switch (optionalNodeType.get()) {
+		return index;
+	}
+
+	private boolean appendNodeType(final NodeType nodeType) {
+
+		if (nodeType == null) {
+
+			return false;
+		}
+
+		statementHashInput.append(Neo4jProcessor.NODE_TYPE_HASH_PREFIXES[nodeType.ordinal()]);
+
+		return true;
+	}
+
+	private boolean appendIdentifier(final long nodeId, final NodeType nodeType) {
+
+		switch (nodeType) {
 
 			case Resource:
 			case TypeResource:
 
-				final String uri = (String) getProperty(GraphStatics.URI_PROPERTY, inserter.getNodeProperties(nodeId));
-				final String dataModel = (String) getProperty(GraphStatics.DATA_MODEL_PROPERTY, inserter.getNodeProperties(nodeId));
+				final long termPair;
 
-				if (dataModel == null) {
+				if (nodeIdentifiers.containsKey(nodeId)) {
 
-					identifier = uri;
+					termPair = nodeIdentifiers.lget();
 				} else {
 
-					identifier = uri + dataModel;
+					// note: only nodes that were not written by this processor (i.e. nodes of a pre-filled store) are read back from the store
+					final Optional<Long> optionalTermPair = getResourceTermPair(inserter.getNodeProperties(nodeId));
+
+					if (!optionalTermPair.isPresent()) {
+
+						return false;
+					}
+
+					termPair = optionalTermPair.get();
+					nodeIdentifiers.put(nodeId, termPair);
 				}
 
-				break;
+				statementHashInput.append(terms.getBytes(Neo4jProcessor.getFirstTerm(termPair)));
+
+				final int dataModelTermId = Neo4jProcessor.getSecondTerm(termPair);
+
+				if (dataModelTermId != Neo4jProcessor.NO_TERM) {
+
+					statementHashInput.append(terms.getBytes(dataModelTermId));
+				}
+
+				return true;
 			case BNode:
 			case TypeBNode:
 
-				identifier = "" + nodeId;
+				statementHashInput.append(Long.toString(nodeId));
 
-				break;
+				return true;
 			case Literal:
 
-				identifier = (String) getProperty(GraphStatics.VALUE_PROPERTY, inserter.getNodeProperties(nodeId));
+				final String value = (String) getProperty(GraphStatics.VALUE_PROPERTY, inserter.getNodeProperties(nodeId));
+
+				if (value == null) {
+
+					return false;
+				}
+
+				statementHashInput.append(value);
 
-				break;
+				return true;
 			default:
 
-				identifier = null;
+				return false;
+		}
+	}
+
+	private long generateStatementHash(final boolean complete) throws DMPGraphException {
+
+		if (!complete) {
+
+			final String message = "cannot generate statement hash, because the subject node type or object node type or subject identifier or object identifier is not present";
+
+			Neo4jProcessor.LOG.error(message);
 
-				break;
+			throw new DMPGraphException(message);
 		}
 
-		return Optional.fromNullable(identifier);
+		return HashUtils.generateHash(statementHashInput.toByteArray());
 	}
 
-	public abstract void addObjectToResourceWDataModelIndex(final long nodeId, final String URI, final Optional<String> optionalDataModelURI);
+	private Optional<Long> getResourceTermPair(final Map<String, Object> nodeProperties) {
 
-	public abstract void handleObjectDataModel(final Map<String, Object> objectNodeProperties, final Optional<String> optionalDataModelURI);
+		final String uri = (String) getProperty(GraphStatics.URI_PROPERTY, nodeProperties);
 
-	public abstract void handleSubjectDataModel(final Map<String, Object> subjectNodeProperties, String URI,
-			final Optional<String> optionalDataModelURI);
+		if (uri == null) {
 
-	public abstract void addStatementToIndex(final long relId, final String statementUUID);
+			return Optional.absent();
+		}
 
-	public abstract Optional<Long> getResourceNodeHits(final String resourceURI);
+		final String dataModel = (String) getProperty(GraphStatics.DATA_MODEL_PROPERTY, nodeProperties);
 
-	protected BatchInserterIndex getOrCreateIndex(final String name, final String property, final boolean nodeIndex, final int cachSize) {
+		return Optional.of(getTermPair(uri, dataModel));
+	}
 
-		final BatchInserterIndexProvider indexProvider = new LuceneBatchInserterIndexProvider(inserter);
-		final BatchInserterIndex index;
+	/**
+	 * Gets the pair of the term ids of the given resource URI and data model URI.
+	 *
+	 * @param resourceURI the resource URI
+	 * @param dataModelURI the data model URI (can be null)
+	 * @return the term pair, whereby the resource URI term id is hold in the upper and the data model URI term id in the lower 32 bits
+	 */
+	private long getTermPair(final String resourceURI, final String dataModelURI) {
 
-		if (nodeIndex) {
+		final int resourceTermId = terms.getId(resourceURI);
+		final int dataModelTermId;
 
-			index = indexProvider.nodeIndex(name, MapUtil.stringMap("type", "exact"));
+		if (dataModelURI == null) {
+
+			dataModelTermId = Neo4jProcessor.NO_TERM;
 		} else {
 
-			index = indexProvider.relationshipIndex(name, MapUtil.stringMap("type", "exact"));
+			dataModelTermId = terms.getId(dataModelURI);
 		}
 
-		index.setCacheCapacity(property, cachSize);
+		return ((long) resourceTermId << 32) | (dataModelTermId & 0xffffffffL);
+	}
 
-		return index;
+	private String decodeTermPair(final long termPair) {
+
+		final String resourceURI = terms.decode(Neo4jProcessor.getFirstTerm(termPair));
+		final int dataModelTermId = Neo4jProcessor.getSecondTerm(termPair);
+
+		if (dataModelTermId == Neo4jProcessor.NO_TERM) {
+
+			return resourceURI;
+		}
+
+		return resourceURI + terms.decode(dataModelTermId);
+	}
+
+	private static int getFirstTerm(final long termPair) {
+
+		return (int) (termPair >>> 32);
+	}
+
+	private static int getSecondTerm(final long termPair) {
+
+		return (int) termPair;
 	}
 
 	private Object getProperty(final String key, final Map<String, Object> properties) {
@@ -603,7 +989,20 @@ public abstract class Neo4jProcessor {
 		return properties.get(key);
 	}
 
-	private Optional<Long> getIdFromIndex(final String key, final ObjectLongOpenHashMap<String> tempIndex, final BatchInserterIndex index,
+	private void addToKeyFilter(final String key) {
+
+		if (keyFilter != null) {
+
+			keyFilter.addResourceKey(key);
+		}
+	}
+
+	private File getStoreDir() {
+
+		return new File(inserter.getStoreDir());
+	}
+
+	private Optional<Long> getIdFromIndex(final String key, final IntLongOpenHashMap tempIndex, final BatchInserterIndex index,
 			final String indexProperty) {
 
 		if (key == null) {
@@ -611,16 +1010,36 @@ public abstract class Neo4jProcessor {
 			return Optional.absent();
 		}
 
-		if (tempIndex.containsKey(key)) {
+		final int termId = terms.getId(key);
+
+		if (tempIndex.containsKey(termId)) {
 
 			return Optional.of(tempIndex.lget());
 		}
 
+		final Optional<Long> optionalHit = getIdFromIndex(key, index, indexProperty);
+
+		if (optionalHit.isPresent()) {
+
+			// temp cache index hits again
+			tempIndex.put(termId, optionalHit.get());
+		}
+
+		return optionalHit;
+	}
+
+	private Optional<Long> getIdFromIndex(final String key, final BatchInserterIndex index, final String indexProperty) {
+
 		if (index == null) {
 
 			return Optional.absent();
 		}
 
+		if (keyFilter != null && !keyFilter.mightContainResourceKey(key)) {
+
+			return Optional.absent();
+		}
+
 		final IndexHits<Long> hits = index.get(indexProperty, key);
 
 		if (hits != null && hits.hasNext()) {
@@ -629,15 +1048,7 @@ public abstract class Neo4jProcessor {
 
 			hits.close();
 
-			final Optional<Long> optionalHit = Optional.fromNullable(hit);
-
-			if (optionalHit.isPresent()) {
-
-				// temp cache index hits again
-				tempIndex.put(key, optionalHit.get());
-			}
-
-			return optionalHit;
+			return Optional.fromNullable(hit);
 		}
 
 		if (hits != null) {
@@ -661,7 +1072,12 @@ public abstract class Neo4jProcessor {
 			return Optional.absent();
 		}
 
-		final IndexHits<Long> hits = index.get(indexProperty, key);
+		if (keyFilter != null && !keyFilter.mightContainStatementHash(key)) {
+
+			return Optional.absent();
+		}
+
+		final IndexHits<Long> hits = index.get(indexProperty, ValueContext.numeric(key));
 
 		if (hits != null && hits.hasNext()) {
 
@@ -687,4 +1103,48 @@ public abstract class Neo4jProcessor {
 
 		return Optional.absent();
 	}
+
+	/**
+	 * Logs the progress and the throughput of pumping a single index.
+	 */
+	private static final class IndexPumpProgress {
+
+		private final String	indexName;
+		private final long		start		= System.currentTimeMillis();
+
+		private int				entries		= 0;
+		private int				sinceLast	= 0;
+		private long			tick		= start;
+
+		private IndexPumpProgress(final String indexNameArg) {
+
+			indexName = indexNameArg;
+		}
+
+		private void tick() {
+
+			entries++;
+
+			final int entryDelta = entries - sinceLast;
+			final long timeDelta = (System.currentTimeMillis() - tick) / 1000;
+
+			if (entryDelta >= 1000000 || timeDelta >= 60) {
+
+				sinceLast = entries;
+
+				Neo4jProcessor.LOG.debug("wrote '" + entries + "' entries into '" + indexName + "' index @ ~" + (double) entryDelta / timeDelta
+						+ " entries/second.");
+
+				tick = System.currentTimeMillis();
+			}
+		}
+
+		private void finish() {
+
+			final long duration = Math.max(System.currentTimeMillis() - start, 1);
+
+			Neo4jProcessor.LOG.debug("finished pumping '" + indexName + "' index; wrote '" + entries + "' entries in " + duration + " ms @ ~"
+					+ (entries * 1000L / duration) + " entries/second.");
+		}
+	}
 }
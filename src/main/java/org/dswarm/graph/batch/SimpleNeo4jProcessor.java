@@ -45,7 +45,12 @@ public class SimpleNeo4jProcessor extends Neo4jProcessor {
 
 	public SimpleNeo4jProcessor(final BatchInserter inserter) throws DMPGraphException {
 
-		super(inserter);
+		this(inserter, false);
+	}
+
+	public SimpleNeo4jProcessor(final BatchInserter inserter, final boolean appendToStore) throws DMPGraphException {
+
+		super(inserter, appendToStore);
 
 		tempStatementUUIDsIndex = new ObjectLongOpenHashMap<>();
 
@@ -81,7 +86,7 @@ public class SimpleNeo4jProcessor extends Neo4jProcessor {
 
 		if (optionalDataModelURI.isPresent()) {
 
-			addToResourcesWDataModelIndex(URI + optionalDataModelURI.get(), nodeId);
+			addToResourcesWDataModelIndex(URI, optionalDataModelURI.get(), nodeId);
 		}
 	}
 
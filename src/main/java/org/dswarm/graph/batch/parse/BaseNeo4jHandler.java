@@ -120,6 +120,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler {
 
 					subjectNodeId = processor.getBatchInserter().createNode(subjectNodeProperties);
 
+					processor.addToNodeIdentifiers(subjectNodeId, subjectNodeProperties);
 					processor.addToResourcesIndex(subjectURI, subjectNodeId);
 					processor.addObjectToResourceWDataModelIndex(subjectNodeId, subjectURI, statement.getOptionalSubjectDataModelURI());
 				} else {
@@ -227,6 +228,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler {
 								throw new DMPGraphException("object must be a resource or a type resource at this moment");
 						}
 
+						processor.addToNodeIdentifiers(objectNodeId, objectNodeProperties);
 						processor.addToResourcesIndex(objectURI, objectNodeId);
 						processor.addObjectToResourceWDataModelIndex(objectNodeId, objectURI, statement.getOptionalObjectDataModelURI());
 						optionalResourceUri = Optional.absent();
@@ -423,7 +425,14 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler {
 
 		final Map<String, Object> relProperties = processor.prepareRelationship(finalStatementUUID, optionalQualifiedAttributes);
 
-		addResourcePropertyToRelationship(subjectNodeId, relProperties, optionalSubjectNodeType, optionalSubjectURI, optionalResourceUri);
+		final Optional<String> finalOptionalResourceUri = addResourcePropertyToRelationship(subjectNodeId, relProperties, optionalSubjectNodeType,
+				optionalSubjectURI, optionalResourceUri);
+
+		if (finalOptionalResourceUri.isPresent()) {
+
+			// the content of the record changed, i.e., its fingerprint is outdated
+			processor.removeRecordFingerprint(finalOptionalResourceUri.get());
+		}
 
 		final RelationshipType relType = DynamicRelationshipType.withName(predicateURI);
 
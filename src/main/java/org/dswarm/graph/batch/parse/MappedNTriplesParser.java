@@ -0,0 +1,144 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.batch.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.model.Statement;
+import org.dswarm.graph.parse.Neo4jHandler;
+import org.dswarm.graph.utils.TermDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+
+/**
+ * A parser for (local) N-Triples or N-Quads files (the graph labels of N-Quads are ignored). The file is memory-mapped region-wise and
+ * scanned line by line, whereby the lines are parsed by a {@link NTriplesLineParser}.
+ *
+ * @author tgaengler
+ */
+public class MappedNTriplesParser {
+
+	private static final Logger			LOG			= LoggerFactory.getLogger(MappedNTriplesParser.class);
+
+	/**
+	 * the size of the file regions that are mapped at once, i.e., also the maximum length of a line
+	 */
+	private static final long			REGION_SIZE	= 256L * 1024 * 1024;
+
+	private final Neo4jHandler			handler;
+	private final TermDictionary		dictionary;
+	private final NTriplesLineParser	lineParser;
+
+	private long						lineNumber;
+
+	public MappedNTriplesParser(final Neo4jHandler handlerArg) {
+
+		this(handlerArg, new TermDictionary());
+	}
+
+	/**
+	 * @param handlerArg the handler that writes the parsed statements
+	 * @param dictionaryArg the term dictionary that should be utilised for interning (e.g. a dictionary that is shared by several
+	 *            files of an import)
+	 */
+	public MappedNTriplesParser(final Neo4jHandler handlerArg, final TermDictionary dictionaryArg) {
+
+		handler = handlerArg;
+		dictionary = dictionaryArg;
+		lineParser = new NTriplesLineParser(dictionary);
+	}
+
+	public void parse(final File file) throws DMPGraphException {
+
+		MappedNTriplesParser.LOG.debug("start parsing N-Triples file '" + file.getAbsolutePath() + "'");
+
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+			final long size = channel.size();
+			long regionStart = 0;
+
+			while (regionStart < size) {
+
+				final int regionSize = (int) Math.min(MappedNTriplesParser.REGION_SIZE, size - regionStart);
+				final boolean lastRegion = regionStart + regionSize == size;
+				final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+
+				int lineStart = 0;
+
+				for (int i = 0; i < regionSize; i++) {
+
+					if (region.get(i) == '\n') {
+
+						handleLine(region, lineStart, i);
+
+						lineStart = i + 1;
+					}
+				}
+
+				if (lastRegion) {
+
+					if (lineStart < regionSize) {
+
+						// last line without line break
+						handleLine(region, lineStart, regionSize);
+					}
+
+					regionStart = size;
+				} else {
+
+					if (lineStart == 0) {
+
+						throw new DMPGraphException("line " + (lineNumber + 1) + " of N-Triples file '" + file.getAbsolutePath()
+								+ "' is longer than " + MappedNTriplesParser.REGION_SIZE + " bytes");
+					}
+
+					// the incomplete line at the end of the region will be handled with the next region
+					regionStart += lineStart;
+				}
+			}
+		} catch (final IOException e) {
+
+			final String message = "couldn't read N-Triples file '" + file.getAbsolutePath() + "'";
+
+			MappedNTriplesParser.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		MappedNTriplesParser.LOG.debug("finished parsing " + lineNumber + " lines of N-Triples file '" + file.getAbsolutePath() + "' ("
+				+ dictionary.size() + " terms in dictionary)");
+	}
+
+	private void handleLine(final MappedByteBuffer region, final int start, final int end) throws DMPGraphException {
+
+		lineNumber++;
+
+		final Optional<Statement> optionalStatement = lineParser.parse(region, start, end, lineNumber);
+
+		if (optionalStatement.isPresent()) {
+
+			handler.handleStatement(optionalStatement.get());
+		}
+	}
+}
@@ -0,0 +1,465 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.batch.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.model.Statement;
+import org.dswarm.graph.model.StatementBuilder;
+import org.dswarm.graph.utils.TermDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.hp.hpl.jena.vocabulary.RDF;
+
+/**
+ * A parser for single lines of N-Triples or N-Quads (the graph labels of N-Quads are ignored). The bytes of a line are copied once into
+ * a reused buffer and terms are decoded from there. Predicate URIs and type URIs (i.e. objects of rdf:type statements) are interned via
+ * a term dictionary, i.e., Strings are only materialised for new terms. Subject URIs of consecutive statements about the same subject
+ * are materialised only once.<br/>
+ * note: a line parser is not thread-safe, i.e., concurrent parsers need their own line parser (and term dictionary).
+ *
+ * @author tgaengler
+ */
+public class NTriplesLineParser {
+
+	private static final Logger		LOG				= LoggerFactory.getLogger(NTriplesLineParser.class);
+
+	private static final String		RDF_TYPE		= RDF.type.getURI();
+
+	private final TermDictionary	dictionary;
+
+	private byte[]					line			= new byte[4096];
+	private int						lineLength;
+	private int						position;
+	private long					lineNumber;
+
+	private byte[]					previousSubject	= new byte[256];
+	private int						previousSubjectLength;
+	private String					previousSubjectTerm;
+
+	/**
+	 * @param dictionaryArg the term dictionary that should be utilised for interning
+	 */
+	public NTriplesLineParser(final TermDictionary dictionaryArg) {
+
+		dictionary = dictionaryArg;
+	}
+
+	/**
+	 * Parses the line between the given positions of the given buffer (the line break is not part of the line).
+	 *
+	 * @param buffer the buffer that contains the line
+	 * @param start the start of the line (inclusive)
+	 * @param end the end of the line (exclusive)
+	 * @param lineNumberArg the number of the line (for error messages)
+	 * @return the statement of the line, or absent, if the line is empty or a comment
+	 * @throws DMPGraphException if the line is not a valid N-Triples (or N-Quads) statement
+	 */
+	public Optional<Statement> parse(final ByteBuffer buffer, final int start, final int end, final long lineNumberArg)
+			throws DMPGraphException {
+
+		lineNumber = lineNumberArg;
+
+		int length = end - start;
+
+		if (line.length < length) {
+
+			line = new byte[Math.max(length, line.length * 2)];
+		}
+
+		buffer.position(start);
+		buffer.get(line, 0, length);
+
+		if (length > 0 && line[length - 1] == '\r') {
+
+			length--;
+		}
+
+		lineLength = length;
+		position = 0;
+
+		skipWhitespace();
+
+		if (position == lineLength || line[position] == '#') {
+
+			// empty line or comment
+			return Optional.absent();
+		}
+
+		return Optional.of(parseStatement());
+	}
+
+	private Statement parseStatement() throws DMPGraphException {
+
+		final StatementBuilder sb = new StatementBuilder();
+
+		// subject
+		switch (line[position]) {
+
+			case '<':
+
+				final int subjectEnd = indexOf('>', position + 1);
+
+				sb.setOptionalSubjectNodeType(Optional.of(NodeType.Resource));
+				sb.setOptionalSubjectURI(Optional.of(getSubjectURI(position + 1, subjectEnd)));
+
+				position = subjectEnd + 1;
+
+				break;
+			case '_':
+
+				sb.setOptionalSubjectNodeType(Optional.of(NodeType.BNode));
+				sb.setOptionalSubjectId(Optional.of(parseBNodeLabel()));
+
+				break;
+			default:
+
+				throw parseException("subject must be a URI or a blank node");
+		}
+
+		skipWhitespace();
+
+		// predicate
+		if (position == lineLength || line[position] != '<') {
+
+			throw parseException("predicate must be a URI");
+		}
+
+		final int predicateEnd = indexOf('>', position + 1);
+		final String predicateURI = intern(position + 1, predicateEnd);
+
+		sb.setOptionalPredicateURI(Optional.of(predicateURI));
+
+		position = predicateEnd + 1;
+
+		skipWhitespace();
+
+		// object
+		if (position == lineLength) {
+
+			throw parseException("object is missing");
+		}
+
+		switch (line[position]) {
+
+			case '<':
+
+				final int objectEnd = indexOf('>', position + 1);
+				final String objectURI;
+
+				if (NTriplesLineParser.RDF_TYPE.equals(predicateURI)) {
+
+					objectURI = intern(position + 1, objectEnd);
+				} else {
+
+					objectURI = decode(position + 1, objectEnd);
+				}
+
+				sb.setOptionalObjectNodeType(Optional.of(NodeType.Resource));
+				sb.setOptionalObjectURI(Optional.of(objectURI));
+
+				position = objectEnd + 1;
+
+				break;
+			case '_':
+
+				sb.setOptionalObjectNodeType(Optional.of(NodeType.BNode));
+				sb.setOptionalObjectId(Optional.of(parseBNodeLabel()));
+
+				break;
+			case '"':
+
+				final int literalEnd = indexOfLiteralEnd(position + 1);
+
+				sb.setOptionalObjectNodeType(Optional.of(NodeType.Literal));
+				sb.setOptionalObjectValue(Optional.of(decode(position + 1, literalEnd)));
+
+				// note: language tags, datatypes, graph labels (of N-Quads) and the final '.' are not utilised
+				position = literalEnd + 1;
+
+				break;
+			default:
+
+				throw parseException("object must be a URI, a blank node or a literal");
+		}
+
+		return sb.build();
+	}
+
+	private String getSubjectURI(final int start, final int end) throws DMPGraphException {
+
+		final int length = end - start;
+
+		if (previousSubjectTerm != null && previousSubjectLength == length && equals(previousSubject, start, length)) {
+
+			return previousSubjectTerm;
+		}
+
+		if (previousSubject.length < length) {
+
+			previousSubject = new byte[Math.max(length, previousSubject.length * 2)];
+		}
+
+		System.arraycopy(line, start, previousSubject, 0, length);
+
+		previousSubjectLength = length;
+		previousSubjectTerm = decode(start, end);
+
+		return previousSubjectTerm;
+	}
+
+	private String parseBNodeLabel() throws DMPGraphException {
+
+		if (position + 1 >= lineLength || line[position + 1] != ':') {
+
+			throw parseException("blank node label must start with '_:'");
+		}
+
+		final int start = position + 2;
+		int end = start;
+
+		while (end < lineLength && !isWhitespace(line[end]) && line[end] != '<' && line[end] != '"') {
+
+			end++;
+		}
+
+		// note: a label might contain '.', but it mustn't end with it, i.e., a trailing '.' terminates the statement (e.g. "_:b1.")
+		while (end > start && line[end - 1] == '.') {
+
+			end--;
+		}
+
+		if (end == start) {
+
+			throw parseException("blank node label is empty");
+		}
+
+		position = end;
+
+		return new String(line, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private String intern(final int start, final int end) throws DMPGraphException {
+
+		if (containsEscape(start, end)) {
+
+			return decode(start, end);
+		}
+
+		return dictionary.intern(line, start, end - start);
+	}
+
+	private String decode(final int start, final int end) throws DMPGraphException {
+
+		if (!containsEscape(start, end)) {
+
+			return new String(line, start, end - start, StandardCharsets.UTF_8);
+		}
+
+		final StringBuilder sb = new StringBuilder(end - start);
+
+		int segmentStart = start;
+		int i = start;
+
+		while (i < end) {
+
+			if (line[i] != '\\' || i + 1 == end) {
+
+				i++;
+
+				continue;
+			}
+
+			sb.append(new String(line, segmentStart, i - segmentStart, StandardCharsets.UTF_8));
+
+			final byte escaped = line[i + 1];
+
+			i += 2;
+
+			switch (escaped) {
+
+				case 't':
+
+					sb.append('\t');
+
+					break;
+				case 'b':
+
+					sb.append('\b');
+
+					break;
+				case 'n':
+
+					sb.append('\n');
+
+					break;
+				case 'r':
+
+					sb.append('\r');
+
+					break;
+				case 'f':
+
+					sb.append('\f');
+
+					break;
+				case 'u':
+
+					sb.appendCodePoint(parseCodePoint(i, 4, end));
+
+					i += 4;
+
+					break;
+				case 'U':
+
+					sb.appendCodePoint(parseCodePoint(i, 8, end));
+
+					i += 8;
+
+					break;
+				default:
+
+					// e.g. \" or \\
+					sb.append((char) escaped);
+
+					break;
+			}
+
+			segmentStart = Math.min(i, end);
+		}
+
+		sb.append(new String(line, segmentStart, end - segmentStart, StandardCharsets.UTF_8));
+
+		return sb.toString();
+	}
+
+	/**
+	 * Parses the hex digits of a numeric escape sequence (i.e. of a 'u' escape with 4 digits or of a 'U' escape with 8 digits).
+	 */
+	private int parseCodePoint(final int start, final int digits, final int end) throws DMPGraphException {
+
+		if (end - start < digits) {
+
+			throw parseException("incomplete numeric escape sequence");
+		}
+
+		int codePoint = 0;
+
+		for (int i = start; i < start + digits; i++) {
+
+			final int digit = Character.digit(line[i], 16);
+
+			if (digit < 0) {
+
+				throw parseException("invalid hex digit '" + (char) line[i] + "' in numeric escape sequence");
+			}
+
+			codePoint = (codePoint << 4) | digit;
+		}
+
+		if (!Character.isValidCodePoint(codePoint)) {
+
+			throw parseException("numeric escape sequence is not a valid code point");
+		}
+
+		return codePoint;
+	}
+
+	private boolean containsEscape(final int start, final int end) {
+
+		for (int i = start; i < end; i++) {
+
+			if (line[i] == '\\') {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private int indexOf(final char c, final int start) throws DMPGraphException {
+
+		for (int i = start; i < lineLength; i++) {
+
+			if (line[i] == c) {
+
+				return i;
+			}
+		}
+
+		throw parseException("missing '" + c + "'");
+	}
+
+	private int indexOfLiteralEnd(final int start) throws DMPGraphException {
+
+		for (int i = start; i < lineLength; i++) {
+
+			if (line[i] == '\\') {
+
+				// skip the escaped character
+				i++;
+			} else if (line[i] == '"') {
+
+				return i;
+			}
+		}
+
+		throw parseException("unterminated literal");
+	}
+
+	private boolean equals(final byte[] bytes, final int start, final int length) {
+
+		for (int i = 0; i < length; i++) {
+
+			if (bytes[i] != line[start + i]) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void skipWhitespace() {
+
+		while (position < lineLength && isWhitespace(line[position])) {
+
+			position++;
+		}
+	}
+
+	private static boolean isWhitespace(final byte b) {
+
+		return b == ' ' || b == '\t';
+	}
+
+	private DMPGraphException parseException(final String reason) {
+
+		final String message = "couldn't parse line " + lineNumber + " of N-Triples file: " + reason + " ('"
+				+ new String(line, 0, lineLength, StandardCharsets.UTF_8) + "')";
+
+		NTriplesLineParser.LOG.error(message);
+
+		return new DMPGraphException(message);
+	}
+}
@@ -33,4 +33,9 @@ public class SimpleRDFNeo4jProcessor extends RDFNeo4jProcessor {
 
 		super(new SimpleNeo4jProcessor(inserter));
 	}
+
+	public SimpleRDFNeo4jProcessor(final BatchInserter inserter, final boolean appendToStore) throws DMPGraphException {
+
+		super(new SimpleNeo4jProcessor(inserter, appendToStore));
+	}
 }
@@ -33,4 +33,10 @@ public class DataModelRDFNeo4jProcessor extends RDFNeo4jProcessor {
 
 		super(new DataModelNeo4jProcessor(inserter, dataModelURIArg));
 	}
+
+	public DataModelRDFNeo4jProcessor(final BatchInserter inserter, final String dataModelURIArg, final boolean appendToStore)
+			throws DMPGraphException {
+
+		super(new DataModelNeo4jProcessor(inserter, dataModelURIArg, appendToStore));
+	}
 }
@@ -0,0 +1,434 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.batch.rdf.pnx.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.batch.parse.NTriplesLineParser;
+import org.dswarm.graph.parse.Neo4jHandler;
+import org.dswarm.graph.utils.TermDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+
+import de.knutwalker.ntparser.Statement;
+
+/**
+ * A parser that processes the statements in a pipeline of three stages, which are connected by a bounded queue:<br/>
+ * 1. a reader stage that splits the input into chunks,<br/>
+ * 2. a pool of converter stages that convert the chunks into statements of the graph model, and<br/>
+ * 3. a writer stage (the calling thread) that resolves the nodes of the converted statements and writes them via the batch inserter.<br/>
+ * When the input is an N-Triples (or N-Quads) stream ({@link #parse(InputStream)}), the reader splits it into line-aligned chunks of
+ * bytes, i.e., the N-Triples parsing is done concurrently by the converters. When the input is an already parsed model
+ * ({@link #parse(Iterator)}), the N-Triples parsing is done by the reader stage (i.e. sequentially) and the converters only convert the
+ * terms.<br/>
+ * The chunks are written in the order of the input. Node resolution and writing are done by the single writer stage, since the batch
+ * inserter and the indices of the processor are not thread-safe.
+ *
+ * @author tgaengler
+ */
+public class PipelinedPNXParser implements RDFParser {
+
+	private static final Logger											LOG					= LoggerFactory.getLogger(PipelinedPNXParser.class);
+
+	private static final int											CHUNK_SIZE			= 10000;
+
+	/**
+	 * the (initial) size of the line-aligned chunks of an N-Triples stream in bytes
+	 */
+	private static final int											CHUNK_BYTES			= 1024 * 1024;
+
+	private static final int											DEFAULT_CONVERTERS	= Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+
+	private static final Future<List<org.dswarm.graph.model.Statement>>	END_OF_MODEL		= Futures.immediateFuture(Collections
+																								.<org.dswarm.graph.model.Statement> emptyList());
+
+	private final RDFHandler											rdfHandler;
+	private final int													converters;
+
+	public PipelinedPNXParser(final RDFHandler handlerArg) {
+
+		this(handlerArg, PipelinedPNXParser.DEFAULT_CONVERTERS);
+	}
+
+	public PipelinedPNXParser(final RDFHandler handlerArg, final int convertersArg) {
+
+		rdfHandler = handlerArg;
+		converters = convertersArg;
+	}
+
+	@Override
+	public void parse(final Iterator<Statement> model) throws DMPGraphException {
+
+		PipelinedPNXParser.LOG.debug("start parsing model with " + converters + " converters");
+
+		parse(new ModelChunkReader(model));
+
+		PipelinedPNXParser.LOG.debug("finished parsing model");
+	}
+
+	/**
+	 * Parses the given N-Triples (or N-Quads) stream, whereby line-aligned chunks of the stream are parsed concurrently by the
+	 * converters.
+	 *
+	 * @param stream an N-Triples (or N-Quads) stream (UTF-8)
+	 * @throws DMPGraphException
+	 */
+	public void parse(final InputStream stream) throws DMPGraphException {
+
+		PipelinedPNXParser.LOG.debug("start parsing N-Triples stream with " + converters + " converters");
+
+		parse(new LineChunkReader(stream));
+
+		PipelinedPNXParser.LOG.debug("finished parsing N-Triples stream");
+	}
+
+	private void parse(final ChunkReader chunkReader) throws DMPGraphException {
+
+		// note: the queue bounds the number of chunks that are hold in memory
+		final BlockingQueue<Future<List<org.dswarm.graph.model.Statement>>> convertedChunks = new ArrayBlockingQueue<>(2 * converters);
+		final ExecutorService reader = Executors.newSingleThreadExecutor();
+		final ExecutorService converterPool = Executors.newFixedThreadPool(converters);
+
+		try {
+
+			reader.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					read(chunkReader, converterPool, convertedChunks);
+
+					return null;
+				}
+			});
+
+			final Neo4jHandler handler = rdfHandler.getHandler();
+
+			Future<List<org.dswarm.graph.model.Statement>> convertedChunk;
+
+			while ((convertedChunk = convertedChunks.take()) != PipelinedPNXParser.END_OF_MODEL) {
+
+				for (final org.dswarm.graph.model.Statement statement : convertedChunk.get()) {
+
+					handler.handleStatement(statement);
+				}
+			}
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new DMPGraphException("parsing was interrupted", e);
+		} catch (final ExecutionException e) {
+
+			final String message = "couldn't read or convert the statements of the model";
+
+			PipelinedPNXParser.LOG.error(message, e.getCause());
+
+			throw new DMPGraphException(message, e.getCause());
+		} finally {
+
+			// note: this stops the reader and the converters, if the writer failed
+			reader.shutdownNow();
+			converterPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Submits the chunks of the input to the converters. The reader always finishes with a terminal chunk (i.e. the end of the model or
+	 * a failed chunk), since the writer waits for it. Only when the reader gets interrupted, no terminal chunk will be added, since the
+	 * writer stopped already then.
+	 */
+	private void read(final ChunkReader chunkReader, final ExecutorService converterPool,
+			final BlockingQueue<Future<List<org.dswarm.graph.model.Statement>>> convertedChunks) {
+
+		Future<List<org.dswarm.graph.model.Statement>> terminalChunk = PipelinedPNXParser.END_OF_MODEL;
+
+		try {
+
+			Callable<List<org.dswarm.graph.model.Statement>> chunk;
+
+			while ((chunk = chunkReader.readChunk()) != null) {
+
+				convertedChunks.put(converterPool.submit(chunk));
+			}
+		} catch (final InterruptedException e) {
+
+			// the writer stopped
+			return;
+		} catch (final Throwable e) {
+
+			// note: the writer will fail on this chunk
+			terminalChunk = Futures.immediateFailedFuture(e);
+		}
+
+		try {
+
+			convertedChunks.put(terminalChunk);
+		} catch (final InterruptedException e) {
+
+			// the writer stopped
+		}
+	}
+
+	private List<org.dswarm.graph.model.Statement> convert(final List<Statement> chunk) throws DMPGraphException {
+
+		final List<org.dswarm.graph.model.Statement> convertedChunk = new ArrayList<>(chunk.size());
+
+		for (final Statement st : chunk) {
+
+			convertedChunk.add(rdfHandler.convertStatement(st));
+		}
+
+		return convertedChunk;
+	}
+
+	/**
+	 * Reads the input chunk-wise.
+	 */
+	private interface ChunkReader {
+
+		/**
+		 * @return the conversion of the next chunk of the input, or null, if the input is exhausted
+		 */
+		Callable<List<org.dswarm.graph.model.Statement>> readChunk() throws IOException;
+	}
+
+	/**
+	 * Splits an already parsed model into chunks of {@link #CHUNK_SIZE} statements.
+	 */
+	private final class ModelChunkReader implements ChunkReader {
+
+		private final Iterator<Statement>	model;
+
+		private ModelChunkReader(final Iterator<Statement> modelArg) {
+
+			model = modelArg;
+		}
+
+		@Override
+		public Callable<List<org.dswarm.graph.model.Statement>> readChunk() {
+
+			if (!model.hasNext()) {
+
+				return null;
+			}
+
+			final List<Statement> chunk = new ArrayList<>(PipelinedPNXParser.CHUNK_SIZE);
+
+			while (model.hasNext() && chunk.size() < PipelinedPNXParser.CHUNK_SIZE) {
+
+				chunk.add(model.next());
+			}
+
+			return new Callable<List<org.dswarm.graph.model.Statement>>() {
+
+				@Override
+				public List<org.dswarm.graph.model.Statement> call() throws DMPGraphException {
+
+					return convert(chunk);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Splits an N-Triples stream into line-aligned chunks of (at least) {@link #CHUNK_BYTES} bytes (a chunk is enlarged, if a line
+	 * doesn't fit into it). The lines of a chunk are parsed by the line parser of the converter thread.
+	 */
+	private static final class LineChunkReader implements ChunkReader {
+
+		private final InputStream						stream;
+
+		// note: the term dictionary of a line parser isn't thread-safe, i.e., every converter thread gets its own line parser
+		private final ThreadLocal<NTriplesLineParser>	lineParsers	= new ThreadLocal<NTriplesLineParser>() {
+
+																		@Override
+																		protected NTriplesLineParser initialValue() {
+
+																			return new NTriplesLineParser(new TermDictionary());
+																		}
+																	};
+
+		/**
+		 * the bytes of the incomplete line at the end of the previous chunk
+		 */
+		private byte[]									remainder	= new byte[0];
+		private boolean									exhausted	= false;
+		private long									lineNumber	= 0;
+
+		private LineChunkReader(final InputStream streamArg) {
+
+			stream = streamArg;
+		}
+
+		@Override
+		public Callable<List<org.dswarm.graph.model.Statement>> readChunk() throws IOException {
+
+			if (exhausted && remainder.length == 0) {
+
+				return null;
+			}
+
+			byte[] bytes = Arrays.copyOf(remainder, Math.max(PipelinedPNXParser.CHUNK_BYTES, 2 * remainder.length));
+			int length = remainder.length;
+			int end;
+
+			while (true) {
+
+				while (!exhausted && length < bytes.length) {
+
+					final int read = stream.read(bytes, length, bytes.length - length);
+
+					if (read < 0) {
+
+						exhausted = true;
+					} else {
+
+						length += read;
+					}
+				}
+
+				if (exhausted) {
+
+					// note: the last line might not be terminated by a line break
+					end = length;
+
+					break;
+				}
+
+				end = lastIndexOfLineBreak(bytes, length) + 1;
+
+				if (end > 0) {
+
+					break;
+				}
+
+				// the chunk doesn't contain a complete line
+				bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+			}
+
+			if (end == 0) {
+
+				remainder = new byte[0];
+
+				return null;
+			}
+
+			remainder = Arrays.copyOfRange(bytes, end, length);
+
+			final byte[] chunk = bytes;
+			final int chunkEnd = end;
+			final long firstLineNumber = lineNumber + 1;
+
+			lineNumber += countLines(chunk, chunkEnd);
+
+			return new Callable<List<org.dswarm.graph.model.Statement>>() {
+
+				@Override
+				public List<org.dswarm.graph.model.Statement> call() throws DMPGraphException {
+
+					return parseLines(chunk, chunkEnd, firstLineNumber, lineParsers.get());
+				}
+			};
+		}
+
+		private static List<org.dswarm.graph.model.Statement> parseLines(final byte[] chunk, final int end, final long firstLineNumber,
+				final NTriplesLineParser lineParser) throws DMPGraphException {
+
+			final List<org.dswarm.graph.model.Statement> statements = new ArrayList<>();
+			final ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, end);
+
+			long currentLineNumber = firstLineNumber;
+			int lineStart = 0;
+
+			for (int i = 0; i <= end; i++) {
+
+				if (i < end && chunk[i] != '\n') {
+
+					continue;
+				}
+
+				if (i < end || lineStart < end) {
+
+					final Optional<org.dswarm.graph.model.Statement> optionalStatement = lineParser.parse(buffer, lineStart, i,
+							currentLineNumber++);
+
+					if (optionalStatement.isPresent()) {
+
+						statements.add(optionalStatement.get());
+					}
+				}
+
+				lineStart = i + 1;
+			}
+
+			return statements;
+		}
+
+		private static int lastIndexOfLineBreak(final byte[] bytes, final int length) {
+
+			for (int i = length - 1; i >= 0; i--) {
+
+				if (bytes[i] == '\n') {
+
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+		private static long countLines(final byte[] bytes, final int end) {
+
+			long lines = 0;
+
+			for (int i = 0; i < end; i++) {
+
+				if (bytes[i] == '\n') {
+
+					lines++;
+				}
+			}
+
+			if (end > 0 && bytes[end - 1] != '\n') {
+
+				// last line without line break
+				lines++;
+			}
+
+			return lines;
+		}
+	}
+}
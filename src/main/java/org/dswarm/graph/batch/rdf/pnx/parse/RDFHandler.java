@@ -27,4 +27,14 @@ import de.knutwalker.ntparser.Statement;
 public interface RDFHandler extends Handler {
 
 	public void handleStatement(final Statement st) throws DMPGraphException;
+
+	/**
+	 * Converts the given parsed statement into a statement of the graph model (without writing it), i.e., the conversion can be done
+	 * independently of the writing of statements.
+	 *
+	 * @param st a parsed statement
+	 * @return the converted statement
+	 * @throws DMPGraphException
+	 */
+	public org.dswarm.graph.model.Statement convertStatement(final Statement st) throws DMPGraphException;
 }
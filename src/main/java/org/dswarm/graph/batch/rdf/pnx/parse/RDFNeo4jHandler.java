@@ -57,6 +57,12 @@ public abstract class RDFNeo4jHandler implements RDFHandler {
 	@Override
 	public void handleStatement(final Statement st) throws DMPGraphException {
 
+		handler.handleStatement(convertStatement(st));
+	}
+
+	@Override
+	public org.dswarm.graph.model.Statement convertStatement(final Statement st) throws DMPGraphException {
+
 		final StatementBuilder sb = new StatementBuilder();
 
 		final Node subject = st.s();
@@ -73,8 +79,6 @@ public abstract class RDFNeo4jHandler implements RDFHandler {
 		sb.setOptionalObjectNodeType(optionalObjectNodeType);
 		processor.determineNode(object, sb, false);
 
-		final org.dswarm.graph.model.Statement statement = sb.build();
-
-		handler.handleStatement(statement);
+		return sb.build();
 	}
 }
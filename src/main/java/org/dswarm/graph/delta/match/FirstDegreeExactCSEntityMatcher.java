@@ -17,15 +17,16 @@
 package org.dswarm.graph.delta.match;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.match.mark.CSEntityMarker;
 import org.dswarm.graph.delta.match.model.CSEntity;
 import org.dswarm.graph.delta.match.model.ValueEntity;
+import org.dswarm.graph.hash.HashUtils;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,37 +56,28 @@ public class FirstDegreeExactCSEntityMatcher extends Matcher<CSEntity> {
 	 * @return
 	 */
 	@Override
-	protected Map<String, CSEntity> generateHashes(final Collection<CSEntity> csEntities, final GraphDatabaseService resourceD) throws
+	protected LongObjectOpenHashMap<CSEntity> generateHashes(final Collection<CSEntity> csEntities, final GraphDatabaseService resourceD) throws
 			DMPGraphException {
 
-		final Map<String, CSEntity> hashedCSEntities = new HashMap<>();
+		final LongObjectOpenHashMap<CSEntity> hashedCSEntities = new LongObjectOpenHashMap<>();
 
 		for(final CSEntity csEntity : csEntities) {
 
-			final int keyHash = csEntity.getKey().hashCode();
-			Long valueHash = null;
+			final Hasher hasher = HashUtils.newEntityHasher();
 
-			for(final ValueEntity valueEntity : csEntity.getValueEntities()) {
-
-				if(valueHash == null) {
+			HashUtils.putString(hasher, csEntity.getKey());
 
-					valueHash = (long) (valueEntity.getValue().hashCode());
-					valueHash = 31 * valueHash + Long.valueOf(valueEntity.getOrder()).hashCode();
+			hasher.putInt(csEntity.getValueEntities().size());
 
-					continue;
-				}
+			for(final ValueEntity valueEntity : csEntity.getValueEntities()) {
 
-				valueHash = 31 * valueHash + valueEntity.getValue().hashCode();
-				valueHash = 31 * valueHash +  Long.valueOf(valueEntity.getOrder()).hashCode();
+				HashUtils.putString(hasher, valueEntity.getValue());
+				hasher.putLong(valueEntity.getOrder());
 			}
 
-			long hash = keyHash;
-			if(valueHash != null) {
-				hash = 31 * hash + valueHash;
-			}
-			hash = 31 * hash + Long.valueOf(csEntity.getEntityOrder()).hashCode();
+			hasher.putLong(csEntity.getEntityOrder());
 
-			hashedCSEntities.put(Long.valueOf(hash).toString(), csEntity);
+			hashedCSEntities.put(hasher.hash().asLong(), csEntity);
 		}
 
 		return hashedCSEntities;
@@ -17,14 +17,15 @@
 package org.dswarm.graph.delta.match;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.match.mark.ValueEntityMarker;
 import org.dswarm.graph.delta.match.model.ValueEntity;
+import org.dswarm.graph.hash.HashUtils;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,23 +54,22 @@ public class FirstDegreeExactCSValueMatcher extends Matcher<ValueEntity> {
 	 * @param valueEntities
 	 * @return
 	 */
-	@Override protected Map<String, ValueEntity> generateHashes(final Collection<ValueEntity> valueEntities, final GraphDatabaseService resourceD) throws
+	@Override protected LongObjectOpenHashMap<ValueEntity> generateHashes(final Collection<ValueEntity> valueEntities, final GraphDatabaseService resourceD) throws
 			DMPGraphException {
 		
-		final Map<String, ValueEntity> hashedValueEntities = new HashMap<>();
+		final LongObjectOpenHashMap<ValueEntity> hashedValueEntities = new LongObjectOpenHashMap<>();
 
 
 		for(final ValueEntity valueEntity : valueEntities) {
 
-			final int keyHash = valueEntity.getCSEntity().getKey().hashCode();
-			final int entityOrderHash = Long.valueOf(valueEntity.getCSEntity().getEntityOrder()).hashCode();
+			final Hasher hasher = HashUtils.newEntityHasher();
 
-			long valueHash = keyHash;
-			valueHash = 31 * valueHash + valueEntity.getValue().hashCode();
-			valueHash = 31 * valueHash +  Long.valueOf(valueEntity.getOrder()).hashCode();
-			valueHash = 31 * valueHash + entityOrderHash;
+			HashUtils.putString(hasher, valueEntity.getCSEntity().getKey());
+			HashUtils.putString(hasher, valueEntity.getValue());
+			hasher.putLong(valueEntity.getOrder());
+			hasher.putLong(valueEntity.getCSEntity().getEntityOrder());
 
-			hashedValueEntities.put(Long.valueOf(valueHash).toString(), valueEntity);
+			hashedValueEntities.put(hasher.hash().asLong(), valueEntity);
 		}
 
 		return hashedValueEntities;
@@ -24,8 +24,11 @@ import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.match.mark.SubGraphEntityMarker;
 import org.dswarm.graph.delta.match.model.SubGraphEntity;
 import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.hash.HashUtils;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
@@ -37,7 +40,9 @@ import org.slf4j.LoggerFactory;
  */
 public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntity> {
 
-	private static final Logger	LOG	= LoggerFactory.getLogger(FirstDegreeExactSubGraphEntityMatcher.class);
+	private static final Logger	LOG							= LoggerFactory.getLogger(FirstDegreeExactSubGraphEntityMatcher.class);
+
+	private static final String	HIERARCHY_LEVEL_PARAMETER	= "hierarchy_level";
 
 	public FirstDegreeExactSubGraphEntityMatcher(final Optional<? extends Collection<SubGraphEntity>> existingSubGraphEntitiesArg,
 			final Optional<? extends Collection<SubGraphEntity>> newSubGraphEntitiesArg, final GraphDatabaseService existingResourceDBArg,
@@ -54,17 +59,13 @@ public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntit
 	 * @return
 	 */
 	@Override
-	protected Map<String, SubGraphEntity> generateHashes(final Collection<SubGraphEntity> subGraphEntities, final GraphDatabaseService graphDB)
+	protected LongObjectOpenHashMap<SubGraphEntity> generateHashes(final Collection<SubGraphEntity> subGraphEntities, final GraphDatabaseService graphDB)
 			throws DMPGraphException {
 
-		final Map<String, SubGraphEntity> hashedSubGraphEntities = new HashMap<>();
+		final LongObjectOpenHashMap<SubGraphEntity> hashedSubGraphEntities = new LongObjectOpenHashMap<>();
 
 		for(final SubGraphEntity subGraphEntity : subGraphEntities) {
 
-			final int keyHash = subGraphEntity.getCSEntity().getKey().hashCode();
-			final long csEntityOrderHash = Long.valueOf(subGraphEntity.getCSEntity().getEntityOrder()).hashCode();
-			final int predicateHash = subGraphEntity.getPredicate().hashCode();
-
 			// calc sub graph hash
 			final Map<Long, Long> nodeHashes = new HashMap<>();
 			final Integer deepestLeafHierarchyLevel = calculateEntityLeafHashes(graphDB, subGraphEntity.getNodeId(), nodeHashes);
@@ -83,19 +84,24 @@ public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntit
 				calculateSubGraphEntityHash(graphDB, subGraphEntity.getNodeId(), nodeHashes);
 			}
 
-			Long subGraphHash = nodeHashes.get(subGraphEntity.getNodeId());
+			final Long subGraphHash = nodeHashes.get(subGraphEntity.getNodeId());
+
+			final Hasher hasher = HashUtils.newEntityHasher();
 
-			long hash = keyHash;
-			hash = 31 * hash + predicateHash;
+			HashUtils.putString(hasher, subGraphEntity.getCSEntity().getKey());
+			HashUtils.putString(hasher, subGraphEntity.getPredicate());
+
+			hasher.putBoolean(subGraphHash != null);
 
 			if(subGraphHash != null) {
 
-				hash = 31 * hash + subGraphHash;
+				hasher.putLong(subGraphHash);
 			}
-			hash = 31 * hash + csEntityOrderHash;
-			hash = 31 * hash +  Long.valueOf(subGraphEntity.getOrder()).hashCode();
 
-			hashedSubGraphEntities.put(Long.valueOf(hash).toString(), subGraphEntity);
+			hasher.putLong(subGraphEntity.getCSEntity().getEntityOrder());
+			hasher.putLong(subGraphEntity.getOrder());
+
+			hashedSubGraphEntities.put(hasher.hash().asLong(), subGraphEntity);
 		}
 
 		return hashedSubGraphEntities;
@@ -167,7 +173,7 @@ public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntit
 
 				if (hierarchyLevel != null) {
 
-					hash = 31 * hash + hierarchyLevel;
+					hash = HashUtils.newEntityHasher().putLong(hash).putInt(hierarchyLevel).hash().asLong();
 
 					if (deepestHierarchyLevel != null && deepestHierarchyLevel < hierarchyLevel) {
 
@@ -202,19 +208,22 @@ public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntit
 	private Collection<String> getEntityHierarchyLevelNodes(final GraphDatabaseService graphDB, final long nodeId, final int hierarchyLevel)
 			throws DMPGraphException {
 
-		final String entitHierarchyLevelNodesQuery = buildGetEntityHierarchyLevelNodesQuery(nodeId, hierarchyLevel);
+		final String entitHierarchyLevelNodesQuery = buildGetEntityHierarchyLevelNodesQuery();
+
+		final Map<String, Object> params = GraphDBUtil.nodeIdParams(nodeId);
+		params.put(FirstDegreeExactSubGraphEntityMatcher.HIERARCHY_LEVEL_PARAMETER, hierarchyLevel);
 
-		return GraphDBUtil.executeQueryWithMultipleResults(entitHierarchyLevelNodesQuery, "hierarchy_level_node", graphDB);
+		return GraphDBUtil.executeQueryWithMultipleResults(entitHierarchyLevelNodesQuery, params, "hierarchy_level_node", graphDB);
 	}
 
-	private String buildGetEntityHierarchyLevelNodesQuery(final long nodeId, final int hierarchyLevel) {
+	private String buildGetEntityHierarchyLevelNodesQuery() {
 
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
+		// START n= node({node_id}) MATCH (n)-[r*]->(m) RETURN m;
 
 		final StringBuilder sb = new StringBuilder();
 
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m)").append("\nWHERE m.__HIERARCHY_LEVEL__ = ").append(hierarchyLevel)
-				.append("\nRETURN id(m) AS hierarchy_level_node");
+		sb.append("START n=node({").append(GraphDBUtil.NODE_ID_PARAMETER).append("})\nMATCH (n)-[r*]->(m)").append("\nWHERE m.__HIERARCHY_LEVEL__ = {")
+				.append(FirstDegreeExactSubGraphEntityMatcher.HIERARCHY_LEVEL_PARAMETER).append("}\nRETURN id(m) AS hierarchy_level_node");
 
 		return sb.toString();
 	}
@@ -17,14 +17,13 @@
 package org.dswarm.graph.delta.match;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.match.mark.SubGraphLeafEntityMarker;
 import org.dswarm.graph.delta.match.model.SubGraphLeafEntity;
 import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.hash.HashUtils;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
@@ -33,7 +32,9 @@ import org.neo4j.graphdb.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
 
 /**
  * @author tgaengler
@@ -58,32 +59,32 @@ public class FirstDegreeExactSubGraphLeafEntityMatcher extends Matcher<SubGraphL
 	 * @return
 	 */
 	@Override
-	protected Map<String, SubGraphLeafEntity> generateHashes(final Collection<SubGraphLeafEntity> subGraphLeafEntities, final GraphDatabaseService graphDB) throws DMPGraphException {
+	protected LongObjectOpenHashMap<SubGraphLeafEntity> generateHashes(final Collection<SubGraphLeafEntity> subGraphLeafEntities, final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final Map<String, SubGraphLeafEntity> hashedSubGraphLeafEntities = new HashMap<>();
+		final LongObjectOpenHashMap<SubGraphLeafEntity> hashedSubGraphLeafEntities = new LongObjectOpenHashMap<>();
 
 		for(final SubGraphLeafEntity subGraphLeafEntity : subGraphLeafEntities) {
 
-			final int keyHash = subGraphLeafEntity.getSubGraphEntity().getCSEntity().getKey().hashCode();
-			final long csEntityOrderHash = Long.valueOf(subGraphLeafEntity.getSubGraphEntity().getCSEntity().getEntityOrder()).hashCode();
-			final int predicateHash = subGraphLeafEntity.getSubGraphEntity().getPredicate().hashCode();
-
 			// calc sub graph leaf path hash
 			final Long subGraphLeafPathHash = calculateSubGraphLeafPathHash(subGraphLeafEntity.getNodeId(),
 					subGraphLeafEntity.getSubGraphEntity().getNodeId(), graphDB);
 
-			long hash = keyHash;
-			hash = 31 * hash + predicateHash;
+			final Hasher hasher = HashUtils.newEntityHasher();
+
+			HashUtils.putString(hasher, subGraphLeafEntity.getSubGraphEntity().getCSEntity().getKey());
+			HashUtils.putString(hasher, subGraphLeafEntity.getSubGraphEntity().getPredicate());
+
+			hasher.putBoolean(subGraphLeafPathHash != null);
 
 			if(subGraphLeafPathHash != null) {
 
-				hash = 31 * hash + subGraphLeafPathHash;
+				hasher.putLong(subGraphLeafPathHash);
 			}
 
-			hash = 31 * hash + csEntityOrderHash;
-			hash = 31 * hash +  Long.valueOf(subGraphLeafEntity.getSubGraphEntity().getOrder()).hashCode();
+			hasher.putLong(subGraphLeafEntity.getSubGraphEntity().getCSEntity().getEntityOrder());
+			hasher.putLong(subGraphLeafEntity.getSubGraphEntity().getOrder());
 
-			hashedSubGraphLeafEntities.put(Long.valueOf(hash).toString(), subGraphLeafEntity);
+			hashedSubGraphLeafEntities.put(hasher.hash().asLong(), subGraphLeafEntity);
 		}
 
 		return hashedSubGraphLeafEntities;
@@ -17,15 +17,16 @@
 package org.dswarm.graph.delta.match;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.match.mark.ValueEntityMarker;
 import org.dswarm.graph.delta.match.model.GDMValueEntity;
 import org.dswarm.graph.delta.match.model.ValueEntity;
+import org.dswarm.graph.hash.HashUtils;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
 import org.neo4j.graphdb.GraphDatabaseService;
 
 /**
@@ -49,20 +50,19 @@ public class FirstDegreeModificationGDMValueMatcher extends ModificationMatcher<
 	 * @return
 	 */
 	@Override
-	protected Map<String, ValueEntity> generateHashes(Collection<ValueEntity> valueEntities, final GraphDatabaseService resourceD) throws DMPGraphException {
+	protected LongObjectOpenHashMap<ValueEntity> generateHashes(Collection<ValueEntity> valueEntities, final GraphDatabaseService resourceD) throws DMPGraphException {
 
-		final Map<String, ValueEntity> hashedValueEntities = new HashMap<>();
+		final LongObjectOpenHashMap<ValueEntity> hashedValueEntities = new LongObjectOpenHashMap<>();
 
 		for(final ValueEntity valueEntity : valueEntities) {
 
-			final int keyHash = valueEntity.getCSEntity().getKey().hashCode();
-			final int nodeTypeHash = ((GDMValueEntity) valueEntity).getNodeType().hashCode();
+			final Hasher hasher = HashUtils.newEntityHasher();
 
-			long valueHash = keyHash;
-			valueHash = 31 * valueHash +  Long.valueOf(valueEntity.getOrder()).hashCode();
-			valueHash = 31 * valueHash + nodeTypeHash;
+			HashUtils.putString(hasher, valueEntity.getCSEntity().getKey());
+			hasher.putLong(valueEntity.getOrder());
+			HashUtils.putString(hasher, ((GDMValueEntity) valueEntity).getNodeType().getName());
 
-			hashedValueEntities.put(Long.valueOf(valueHash).toString(), valueEntity);
+			hashedValueEntities.put(hasher.hash().asLong(), valueEntity);
 		}
 
 		return hashedValueEntities;
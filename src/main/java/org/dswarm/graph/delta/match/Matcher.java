@@ -18,11 +18,12 @@ package org.dswarm.graph.delta.match;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.google.common.base.Optional;
 
 import org.dswarm.graph.DMPGraphException;
@@ -40,11 +41,11 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(Matcher.class);
 
-	protected Set<String> matches;
+	protected LongOpenHashSet matches;
 	protected boolean matchesCalculated = false;
 
-	protected final Optional<Map<String, ENTITY>> existingEntities;
-	protected final Optional<Map<String, ENTITY>> newEntities;
+	protected final Optional<LongObjectOpenHashMap<ENTITY>> existingEntities;
+	protected final Optional<LongObjectOpenHashMap<ENTITY>> newEntities;
 
 	protected final GraphDatabaseService existingResourceDB;
 	protected final GraphDatabaseService newResourceDB;
@@ -83,7 +84,15 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 		}
 	}
 
-	protected abstract Map<String, ENTITY> generateHashes(final Collection<ENTITY> entities, final GraphDatabaseService resourceDB)
+	/**
+	 * Generates the structural hashes of the given entities, see {@link org.dswarm.graph.hash.HashUtils#newEntityHasher()}.
+	 *
+	 * @param entities the entities that should be hashed
+	 * @param resourceDB the working graph of the entities
+	 * @return the entities by their hashes
+	 * @throws DMPGraphException
+	 */
+	protected abstract LongObjectOpenHashMap<ENTITY> generateHashes(final Collection<ENTITY> entities, final GraphDatabaseService resourceDB)
 			throws DMPGraphException;
 
 	@Override
@@ -103,24 +112,24 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 		return getNonMatches(newEntities);
 	}
 
-	protected Optional<? extends Collection<String>> getMatches() {
+	protected Optional<LongOpenHashSet> getMatches() {
 
 		calculateMatches();
 
 		return Optional.fromNullable(matches);
 	}
 
-	protected Optional<Map<String, ENTITY>> getExistingEntities() {
+	protected Optional<LongObjectOpenHashMap<ENTITY>> getExistingEntities() {
 
 		return existingEntities;
 	}
 
-	protected Optional<Map<String, ENTITY>> getNewEntities() {
+	protected Optional<LongObjectOpenHashMap<ENTITY>> getNewEntities() {
 
 		return newEntities;
 	}
 
-	protected Optional<? extends Collection<ENTITY>> getMatches(final Optional<Map<String, ENTITY>> entityMap) {
+	protected Optional<? extends Collection<ENTITY>> getMatches(final Optional<LongObjectOpenHashMap<ENTITY>> entityMap) {
 
 		if(matches == null || matches.isEmpty()) {
 
@@ -134,11 +143,11 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 
 		final List<ENTITY> entities = new ArrayList<>();
 
-		for(final String match : matches) {
+		for(final LongCursor match : matches) {
 
-			if(entityMap.get().containsKey(match)) {
+			if(entityMap.get().containsKey(match.value)) {
 
-				entities.add(entityMap.get().get(match));
+				entities.add(entityMap.get().get(match.value));
 			}
 		}
 
@@ -149,15 +158,15 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 
 		if(!matchesCalculated) {
 
-			matches = new HashSet<>();
+			matches = new LongOpenHashSet();
 
 			if(existingEntities.isPresent() && newEntities.isPresent()) {
 
-				for (final String hash : existingEntities.get().keySet()) {
+				for (final LongObjectCursor<ENTITY> existingEntity : existingEntities.get()) {
 
-					if (newEntities.get().containsKey(hash)) {
+					if (newEntities.get().containsKey(existingEntity.key)) {
 
-						matches.add(hash);
+						matches.add(existingEntity.key);
 					}
 				}
 			}
@@ -168,7 +177,7 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 		}
 	}
 
-	protected Optional<? extends Collection<ENTITY>> getNonMatches(final Optional<Map<String, ENTITY>> entityMap) {
+	protected Optional<? extends Collection<ENTITY>> getNonMatches(final Optional<LongObjectOpenHashMap<ENTITY>> entityMap) {
 
 		if(matches == null || matches.isEmpty()) {
 
@@ -177,7 +186,14 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 				return Optional.absent();
 			}
 
-			return Optional.of(entityMap.get().values());
+			final List<ENTITY> entities = new ArrayList<>(entityMap.get().size());
+
+			for(final LongObjectCursor<ENTITY> entityEntry : entityMap.get()) {
+
+				entities.add(entityEntry.value);
+			}
+
+			return Optional.of(entities);
 		}
 
 		if(!entityMap.isPresent()) {
@@ -187,11 +203,11 @@ public abstract class Matcher<ENTITY> implements MatchResultSet<ENTITY> {
 
 		final List<ENTITY> valueEntities = new ArrayList<>();
 
-		for(final Map.Entry<String, ENTITY> entityEntry : entityMap.get().entrySet()) {
+		for(final LongObjectCursor<ENTITY> entityEntry : entityMap.get()) {
 
-			if(!matches.contains(entityEntry.getKey())) {
+			if(!matches.contains(entityEntry.key)) {
 
-				valueEntities.add(entityEntry.getValue());
+				valueEntities.add(entityEntry.value);
 			}
 		}
 
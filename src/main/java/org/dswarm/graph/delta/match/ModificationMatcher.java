@@ -18,7 +18,6 @@ package org.dswarm.graph.delta.match;
 
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 
 import org.dswarm.graph.DMPGraphException;
@@ -29,6 +28,8 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.google.common.base.Optional;
 
 public abstract class ModificationMatcher<ENTITY extends ModificationEntity> extends Matcher<ENTITY> implements ModificationResultSet<ENTITY> {
@@ -59,22 +60,22 @@ public abstract class ModificationMatcher<ENTITY extends ModificationEntity> ext
 		if(!matchesCalculated) {
 
 			modifications = new HashMap<>();
-			matches = new HashSet<>();
+			matches = new LongOpenHashSet();
 
 			if(existingEntities.isPresent() && newEntities.isPresent()) {
 
-				for (final Map.Entry<String, ENTITY> existingEntityEntry : existingEntities.get().entrySet()) {
+				for (final LongObjectCursor<ENTITY> existingEntityEntry : existingEntities.get()) {
 
-					if (newEntities.get().containsKey(existingEntityEntry.getKey())) {
+					if (newEntities.get().containsKey(existingEntityEntry.key)) {
 
-						final ENTITY existingEntity = existingEntityEntry.getValue();
-						final ENTITY newEntity = newEntities.get().get(existingEntityEntry.getKey());
+						final ENTITY existingEntity = existingEntityEntry.value;
+						final ENTITY newEntity = newEntities.get().get(existingEntityEntry.key);
 
 						if (existingEntity.getValue() != null && newEntity.getValue() != null && !existingEntity.getValue()
 								.equals(newEntity.getValue())) {
 
 							modifications.put(existingEntity, newEntity);
-							matches.add(existingEntityEntry.getKey());
+							matches.add(existingEntityEntry.key);
 						}
 					}
 				}
@@ -17,14 +17,16 @@
 package org.dswarm.graph.delta.util;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.DeltaState;
 import org.dswarm.graph.delta.DeltaStatics;
+import org.dswarm.graph.delta.util.PathIndex.IndexedPath;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
-import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
 import org.slf4j.Logger;
@@ -44,9 +46,9 @@ public final class GraphDBMarkUtil {
 
 		try(final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Path> paths = GraphDBUtil.getResourcePaths(graphDB, resourceURI);
+			final Map<Long, List<IndexedPath>> paths = PathIndex.of(graphDB).getResourcePaths(graphDB, resourceURI);
 
-			markPaths(deltaState, pathEndNodeIds, paths);
+			markPaths(deltaState, graphDB, pathEndNodeIds, paths);
 
 			tx.success();
 		} catch (final Exception e) {
@@ -64,9 +66,9 @@ public final class GraphDBMarkUtil {
 
 		try(final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Path> paths = GraphDBUtil.getEntityPaths(graphDB, nodeId);
+			final Map<Long, List<IndexedPath>> paths = PathIndex.of(graphDB).getEntityPaths(graphDB, nodeId);
 
-			markPaths(deltaState, pathEndNodeIds, paths);
+			markPaths(deltaState, graphDB, pathEndNodeIds, paths);
 
 			tx.success();
 		} catch (final Exception e) {
@@ -79,20 +81,28 @@ public final class GraphDBMarkUtil {
 		}
 	}
 
-	private static void markPaths(final DeltaState deltaState, final Set<Long> pathEndNodeIds, final Iterable<Path> paths) {
+	private static void markPaths(final DeltaState deltaState, final GraphDatabaseService graphDB, final Set<Long> pathEndNodeIds,
+			final Map<Long, List<IndexedPath>> paths) {
 
 		final Set<Long> markedPathEndNodeIds = Sets.newHashSet();
 
-		for (final Path path : paths) {
+		for (final Long pathEndNodeId : pathEndNodeIds) {
 
-			final long pathEndNodeId = path.endNode().getId();
+			final List<IndexedPath> pathEndNodePaths = paths.get(pathEndNodeId);
 
-			if (pathEndNodeIds.contains(pathEndNodeId)) {
+			if (pathEndNodePaths == null) {
 
-				markedPathEndNodeIds.add(pathEndNodeId);
+				continue;
+			}
+
+			markedPathEndNodeIds.add(pathEndNodeId);
+
+			for (final IndexedPath path : pathEndNodePaths) {
 
 				// mark path
-				for (final Relationship rel : path.relationships()) {
+				for (final long relId : path.getRelationshipIds()) {
+
+					final Relationship rel = graphDB.getRelationshipById(relId);
 
 					if (!rel.hasProperty(DeltaStatics.DELTA_STATE_PROPERTY)) {
 
@@ -108,7 +118,9 @@ public final class GraphDBMarkUtil {
 					rel.setProperty(DeltaStatics.MATCHED_PROPERTY, true);
 				}
 
-				for (final Node node : path.nodes()) {
+				for (final long nodeId : path.getNodeIds()) {
+
+					final Node node = graphDB.getNodeById(nodeId);
 
 					if (!node.hasProperty(DeltaStatics.DELTA_STATE_PROPERTY)) {
 
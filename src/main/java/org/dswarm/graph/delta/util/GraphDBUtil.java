@@ -27,6 +27,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermQuery;
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.NodeType;
@@ -44,8 +48,9 @@ import org.dswarm.graph.delta.match.model.KeyEntity;
 import org.dswarm.graph.delta.match.model.SubGraphEntity;
 import org.dswarm.graph.delta.match.model.SubGraphLeafEntity;
 import org.dswarm.graph.delta.match.model.ValueEntity;
+import org.dswarm.graph.hash.HashUtils;
 import org.dswarm.graph.model.GraphStatics;
-import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.dswarm.graph.utils.ExecutionEngines;
 import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.DynamicRelationshipType;
@@ -75,6 +80,7 @@ import ch.lambdaj.group.Group;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
 
 /**
  * @author tgaengler
@@ -85,6 +91,10 @@ public final class GraphDBUtil {
 
 	private static final RelationshipType	rdfTypeRelType	= DynamicRelationshipType.withName("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
 
+	public static final String				NODE_ID_PARAMETER			= "node_id";
+	private static final String				RECORD_ID_PARAMETER			= "record_id";
+	private static final String				DATA_MODEL_URI_PARAMETER	= "data_model_uri";
+
 	public static void addNodeId(final Set<Long> nodeIds, final Long nodeId) throws DMPGraphException {
 
 		if (nodeId == null) {
@@ -459,25 +469,30 @@ public final class GraphDBUtil {
 	 * @param endNodeHash
 	 * @return
 	 */
-	public static long calculateRelationshipHash(long hash, final Relationship rel, final Long endNodeHash) {
+	public static long calculateRelationshipHash(final long hash, final Relationship rel, final Long endNodeHash) {
 
 		final String predicate = rel.getType().name();
 		final Long order = (Long) rel.getProperty(GraphStatics.ORDER_PROPERTY, null);
 
-		long childNodeHash = predicate.hashCode();
+		final Hasher hasher = HashUtils.newEntityHasher().putLong(hash);
+
+		HashUtils.putString(hasher, predicate);
+
+		hasher.putBoolean(order != null);
 
 		if (order != null) {
 
-			childNodeHash = 31 * childNodeHash + order.hashCode();
+			hasher.putLong(order);
 		}
 
+		hasher.putBoolean(endNodeHash != null);
+
 		if (endNodeHash != null) {
 
-			childNodeHash = 31 * childNodeHash + endNodeHash;
+			hasher.putLong(endNodeHash);
 		}
 
-		hash = 31 * hash + childNodeHash;
-		return hash;
+		return hasher.hash().asLong();
 	}
 
 	/**
@@ -498,14 +513,12 @@ public final class GraphDBUtil {
 
 		final String value = getValue(node, nodeType);
 
-		long leafNodeHash = nodeType.hashCode();
+		final Hasher hasher = HashUtils.newEntityHasher();
 
-		if (value != null) {
+		HashUtils.putString(hasher, nodeType.getName());
+		HashUtils.putString(hasher, value);
 
-			leafNodeHash = 31 * leafNodeHash + value.hashCode();
-		}
-
-		return leafNodeHash;
+		return hasher.hash().asLong();
 	}
 
 	/**
@@ -524,7 +537,7 @@ public final class GraphDBUtil {
 			return null;
 		}
 
-		return (long) nodeType.hashCode();
+		return HashUtils.putString(HashUtils.newEntityHasher(), nodeType.getName()).hash().asLong();
 	}
 
 	private static NodeType getNodeType(final Node node) {
@@ -580,9 +593,9 @@ public final class GraphDBUtil {
 	 */
 	public static Collection<String> getEntityLeafs(final GraphDatabaseService graphDB, final long nodeId) throws DMPGraphException {
 
-		final String entityLeafsQuery = buildGetEntityLeafsQuery(nodeId);
+		final String entityLeafsQuery = buildGetEntityLeafsQuery();
 
-		return executeQueryWithMultipleResults(entityLeafsQuery, "leaf_node", graphDB);
+		return executeQueryWithMultipleResults(entityLeafsQuery, GraphDBUtil.nodeIdParams(nodeId), "leaf_node", graphDB);
 	}
 
 	/**
@@ -592,9 +605,10 @@ public final class GraphDBUtil {
 	 */
 	private static Map<String, String> getEntityLeafsWithValue(final GraphDatabaseService graphDB, final long nodeId) throws DMPGraphException {
 
-		final String entityLeafsQuery = buildGetEntityLeafsWithValueQuery(nodeId);
+		final String entityLeafsQuery = buildGetEntityLeafsWithValueQuery();
 
-		return executeQueryWithMultipleResultsWithValues(entityLeafsQuery, "leaf_node", "leaf_uri", "leaf_value", graphDB);
+		return executeQueryWithMultipleResultsWithValues(entityLeafsQuery, GraphDBUtil.nodeIdParams(nodeId), "leaf_node", "leaf_uri",
+				"leaf_value", graphDB);
 	}
 
 	/**
@@ -887,20 +901,132 @@ public final class GraphDBUtil {
 		return subgraphEntities;
 	}
 
-	public static String determineRecordIdentifier(final GraphDatabaseService graphDB, final AttributePath recordIdentifierAP, final String recordURI)
-			throws DMPGraphException {
+	public static String determineRecordUri(final String recordId, final AttributePath recordIdentifierAP, final String dataModelUri,
+			final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final String query = buildGetRecordIdentifierQuery(recordIdentifierAP, recordURI);
+		final String query = buildGetRecordUriQuery(recordIdentifierAP);
 
-		return executeQueryWithSingleResult(query, "record_identifier", graphDB);
+		final Map<String, Object> params = new HashMap<>();
+		params.put(GraphDBUtil.RECORD_ID_PARAMETER, recordId);
+		params.put(GraphDBUtil.DATA_MODEL_URI_PARAMETER, dataModelUri);
+
+		return executeQueryWithSingleResult(query, params, "record_uri", graphDB);
 	}
 
-	public static String determineRecordUri(final String recordId, final AttributePath recordIdentifierAP, final String dataModelUri,
-			final GraphDatabaseService graphDB) throws DMPGraphException {
+	/**
+	 * Determines the URIs of the records with the given legacy record identifiers at once, i.e., the literal nodes of all record
+	 * identifiers are looked up with a single values index query and the record nodes are reached by following the record identifier
+	 * attribute path backwards (instead of executing the record uri query per record identifier).
+	 *
+	 * @param recordIds the legacy record identifiers
+	 * @param recordIdentifierAP the attribute path of the legacy record identifier
+	 * @param dataModelUri the data model URI of the records
+	 * @param graphDB the (permanent) graph database
+	 * @return the record URIs by legacy record identifier (record identifiers without record are not contained)
+	 */
+	public static Map<String, String> determineRecordUris(final Collection<String> recordIds, final AttributePath recordIdentifierAP,
+			final String dataModelUri, final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		final Map<String, String> recordUris = new HashMap<>();
+
+		if (recordIds.isEmpty()) {
+
+			return recordUris;
+		}
+
+		final BooleanQuery recordIdsQuery = new BooleanQuery();
+
+		for (final String recordId : recordIds) {
+
+			recordIdsQuery.add(new TermQuery(new Term(GraphStatics.VALUE, recordId)), BooleanClause.Occur.SHOULD);
+		}
+
+		final List<Attribute> attributes = recordIdentifierAP.getAttributes();
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			final IndexHits<Node> hits = graphDB.index().forNodes(GraphIndexStatics.VALUES_INDEX_NAME).query(recordIdsQuery);
+
+			try {
 
-		final String query = buildGetRecordUriQuery(recordId, recordIdentifierAP, dataModelUri);
+				while (hits.hasNext()) {
+
+					final Node literalNode = hits.next();
+
+					if (!NodeType.Literal.toString().equals(literalNode.getProperty(GraphStatics.NODETYPE_PROPERTY, null))) {
+
+						continue;
+					}
+
+					final String recordId = (String) literalNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
+
+					if (recordId == null || recordUris.containsKey(recordId)) {
+
+						continue;
+					}
+
+					final Optional<String> optionalRecordUri = determineRecordUri(literalNode, attributes, attributes.size() - 1, dataModelUri);
+
+					if (optionalRecordUri.isPresent()) {
+
+						recordUris.put(recordId, optionalRecordUri.get());
+					}
+				}
+			} finally {
+
+				hits.close();
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine record uris";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message);
+		}
 
-		return executeQueryWithSingleResult(query, "record_uri", graphDB);
+		return recordUris;
+	}
+
+	/**
+	 * Follows the attribute path backwards (from the attribute with the given index) to the record node of the given data model.
+	 */
+	private static Optional<String> determineRecordUri(final Node node, final List<Attribute> attributes, final int attributeIndex,
+			final String dataModelUri) {
+
+		final RelationshipType relType = DynamicRelationshipType.withName(attributes.get(attributeIndex).getUri());
+
+		for (final Relationship rel : node.getRelationships(Direction.INCOMING, relType)) {
+
+			final Node subjectNode = rel.getStartNode();
+
+			if (attributeIndex > 0) {
+
+				final Optional<String> optionalRecordUri = determineRecordUri(subjectNode, attributes, attributeIndex - 1, dataModelUri);
+
+				if (optionalRecordUri.isPresent()) {
+
+					return optionalRecordUri;
+				}
+
+				continue;
+			}
+
+			if (NodeType.Resource.toString().equals(subjectNode.getProperty(GraphStatics.NODETYPE_PROPERTY, null))
+					&& dataModelUri.equals(subjectNode.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null))) {
+
+				final String recordUri = (String) subjectNode.getProperty(GraphStatics.URI_PROPERTY, null);
+
+				if (recordUri != null) {
+
+					return Optional.of(recordUri);
+				}
+			}
+		}
+
+		return Optional.absent();
 	}
 
 	public static Collection<ValueEntity> getFlatResourceNodeValues(final String resourceURI, final GraphDatabaseService graphDB)
@@ -1112,39 +1238,9 @@ public final class GraphDBUtil {
 		}
 	}
 
-	private static String buildGetRecordIdentifierQuery(final AttributePath recordIdentifierAP, final String recordURI) {
+	private static String buildGetRecordUriQuery(final AttributePath recordIdentifierAP) {
 
-		// START n=node:resources(__URI__="http://data.slub-dresden.de/datamodels/7/records/a1280f78-5f96-4fe6-b916-5e38e5d620d3")
-		// MATCH (n)-[r:`http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#id`]->(o)
-		// WHERE n.__NODETYPE__ = "__RESOURCE__" AND
-		// o.__NODETYPE__ = "__LITERAL__"
-		// RETURN o.__VALUE__ AS record_identifier;
-
-		final StringBuilder sb = new StringBuilder();
-
-		sb.append("START n=node:").append(GraphIndexStatics.RESOURCES_INDEX_NAME).append("(").append(GraphStatics.URI).append(" =\"").append(recordURI).append("\")\nMATCH (n)");
-
-		int i = 1;
-		for (final Attribute attribute : recordIdentifierAP.getAttributes()) {
-
-			sb.append("-[:`").append(attribute.getUri()).append("`]->");
-
-			if (i < recordIdentifierAP.getAttributes().size()) {
-
-				sb.append("()");
-			}
-		}
-
-		sb.append("(o)\n").append("WHERE n.").append(GraphStatics.NODETYPE_PROPERTY).append(" = \"").append(NodeType.Resource).append("\" AND\no.")
-				.append(GraphStatics.NODETYPE_PROPERTY).append(" = \"").append(NodeType.Literal).append("\"\nRETURN o.")
-				.append(GraphStatics.VALUE_PROPERTY).append(" AS record_identifier");
-
-		return sb.toString();
-	}
-
-	private static String buildGetRecordUriQuery(final String recordId, final AttributePath recordIdentifierAP, final String dataModelUri) {
-
-		// START n=node:values(__VALUE__="a1280f78-5f96-4fe6-b916-5e38e5d620d3")
+		// START n=node:values(__VALUE__={record_id})
 		// MATCH (n)-[r:`http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#id`]->(o)
 		// WHERE n.__NODETYPE__ = "__RESOURCE__" AND
 		// o.__NODETYPE__ = "__LITERAL__"
@@ -1152,7 +1248,8 @@ public final class GraphDBUtil {
 
 		final StringBuilder sb = new StringBuilder();
 
-		sb.append("START o=node:").append(GraphIndexStatics.VALUES_INDEX_NAME).append("(").append(GraphStatics.VALUE).append("=\"").append(recordId).append("\")\nMATCH (n)");
+		sb.append("START o=node:").append(GraphIndexStatics.VALUES_INDEX_NAME).append("(").append(GraphStatics.VALUE).append(" = {")
+				.append(GraphDBUtil.RECORD_ID_PARAMETER).append("})\nMATCH (n)");
 
 		int i = 1;
 		for (final Attribute attribute : recordIdentifierAP.getAttributes()) {
@@ -1166,47 +1263,53 @@ public final class GraphDBUtil {
 		}
 
 		sb.append("(o)\n").append("WHERE n.").append(GraphStatics.NODETYPE_PROPERTY).append(" = \"").append(NodeType.Resource).append("\" AND\nn.")
-				.append(GraphStatics.DATA_MODEL_PROPERTY).append(" = \"").append(dataModelUri).append("\" AND\no.")
+				.append(GraphStatics.DATA_MODEL_PROPERTY).append(" = {").append(GraphDBUtil.DATA_MODEL_URI_PARAMETER).append("} AND\no.")
 				.append(GraphStatics.NODETYPE_PROPERTY).append(" = \"").append(NodeType.Literal).append("\"\nRETURN n.")
 				.append(GraphStatics.URI_PROPERTY).append(" AS record_uri");
 
 		return sb.toString();
 	}
 
-	private static String buildGetEntityLeafsQuery(final long nodeId) {
+	private static String buildGetEntityLeafsQuery() {
 
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
+		// START n= node({node_id}) MATCH (n)-[r*]->(m) RETURN m;
 
 		final StringBuilder sb = new StringBuilder();
 
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m:`").append("__LEAF__").append("`)\nRETURN id(m) AS leaf_node");
+		sb.append("START n=node({").append(GraphDBUtil.NODE_ID_PARAMETER).append("})\nMATCH (n)-[r*]->(m:`").append("__LEAF__").append("`)\nRETURN id(m) AS leaf_node");
 
 		return sb.toString();
 	}
 
-	private static String buildGetEntityLeafsWithValueQuery(final long nodeId) {
+	private static String buildGetEntityLeafsWithValueQuery() {
 
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
+		// START n= node({node_id}) MATCH (n)-[r*]->(m) RETURN m;
 
 		final StringBuilder sb = new StringBuilder();
 
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m:`").append("__LEAF__").append("`)\nRETURN id(m) AS leaf_node, m.")
+		sb.append("START n=node({").append(GraphDBUtil.NODE_ID_PARAMETER).append("})\nMATCH (n)-[r*]->(m:`").append("__LEAF__").append("`)\nRETURN id(m) AS leaf_node, m.")
 				.append(GraphStatics.URI_PROPERTY).append(" AS leaf_uri, m.").append(GraphStatics.VALUE_PROPERTY).append(" AS leaf_value");
 
 		return sb.toString();
 	}
 
-	private static String executeQueryWithSingleResult(final String query, final String resultVariableName, final GraphDatabaseService graphDB)
-			throws DMPGraphException {
+	public static Map<String, Object> nodeIdParams(final long nodeId) {
 
-		final ExecutionEngine engine = new ExecutionEngine(graphDB);
+		final Map<String, Object> params = new HashMap<>();
+		params.put(GraphDBUtil.NODE_ID_PARAMETER, nodeId);
+
+		return params;
+	}
+
+	private static String executeQueryWithSingleResult(final String query, final Map<String, Object> params, final String resultVariableName,
+			final GraphDatabaseService graphDB) throws DMPGraphException {
 
 		final ExecutionResult result;
 		String resultValue = null;
 
 		try(final Transaction tx = graphDB.beginTx()) {
 
-			result = engine.execute(query);
+			result = ExecutionEngines.execute(graphDB, query, params);
 
 			if (result != null) {
 
@@ -1242,17 +1345,16 @@ public final class GraphDBUtil {
 		return resultValue;
 	}
 
-	public static Collection<String> executeQueryWithMultipleResults(final String query, final String resultVariableName,
-			final GraphDatabaseService graphDB) throws DMPGraphException {
+	public static Collection<String> executeQueryWithMultipleResults(final String query, final Map<String, Object> params,
+			final String resultVariableName, final GraphDatabaseService graphDB) throws DMPGraphException {
 
 		final Set<String> resultSet = new HashSet<>();
-		final ExecutionEngine engine = new ExecutionEngine(graphDB);
 
 		final ExecutionResult result;
 
 		try(final Transaction tx = graphDB.beginTx()) {
 
-			result = engine.execute(query);
+			result = ExecutionEngines.execute(graphDB, query, params);
 
 			if(result != null) {
 
@@ -1284,17 +1386,17 @@ public final class GraphDBUtil {
 		return resultSet;
 	}
 
-	private static Map<String, String> executeQueryWithMultipleResultsWithValues(final String query, final String resultVariableName, final String uriVariableName, final String valueVariableName, final GraphDatabaseService graphDB)
+	private static Map<String, String> executeQueryWithMultipleResultsWithValues(final String query, final Map<String, Object> params,
+			final String resultVariableName, final String uriVariableName, final String valueVariableName, final GraphDatabaseService graphDB)
 			throws DMPGraphException {
 
 		final Map<String, String> resultSet = new HashMap<>();
-		final ExecutionEngine engine = new ExecutionEngine(graphDB);
 
 		final ExecutionResult result;
 
 		try(final Transaction tx = graphDB.beginTx()) {
 
-			result = engine.execute(query);
+			result = ExecutionEngines.execute(graphDB, query, params);
 
 			if(result != null) {
 
@@ -1343,16 +1445,15 @@ public final class GraphDBUtil {
 	 * note: should be executed in transaction scope
 	 *
 	 * @param query
+	 * @param params
 	 * @param resultVariableName
 	 * @param graphDB
 	 * @return
 	 */
-	public static Relationship executeQueryWithSingleRelationshipResult(final String query, final String resultVariableName,
-			final GraphDatabaseService graphDB) {
-
-		final ExecutionEngine engine = new ExecutionEngine(graphDB);
+	public static Relationship executeQueryWithSingleRelationshipResult(final String query, final Map<String, Object> params,
+			final String resultVariableName, final GraphDatabaseService graphDB) {
 
-		final ExecutionResult result = engine.execute(query);
+		final ExecutionResult result = ExecutionEngines.execute(graphDB, query, params);
 
 		if (result == null) {
 
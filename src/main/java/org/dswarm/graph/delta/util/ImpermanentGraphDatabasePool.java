@@ -0,0 +1,201 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.util;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexManager;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.index.NodeIdCache;
+import org.dswarm.graph.utils.ExecutionEngines;
+
+/**
+ * A pool of impermanent graph databases that are utilised as working graphs for the delta calculation of single resources. Instead of
+ * starting up and shutting down an impermanent database for every resource, released databases are wiped (i.e. all nodes, relationships
+ * and legacy index entries are removed) and handed out again.<br/>
+ * note: this class is thread-safe
+ *
+ * @author tgaengler
+ */
+public class ImpermanentGraphDatabasePool {
+
+	private static final Logger							LOG	= LoggerFactory.getLogger(ImpermanentGraphDatabasePool.class);
+
+	private final TestGraphDatabaseFactory				impermanentGraphDatabaseFactory;
+	private final String								storeDirPrefix;
+	private final BlockingQueue<GraphDatabaseService>	idleDatabases;
+
+	/**
+	 * @param storeDirPrefixArg the (relative) path prefix of the store directories of the impermanent databases
+	 * @param maxIdleDatabases the maximum number of databases that are kept for reuse, further released databases will be shut down
+	 */
+	public ImpermanentGraphDatabasePool(final String storeDirPrefixArg, final int maxIdleDatabases) {
+
+		storeDirPrefix = storeDirPrefixArg;
+		impermanentGraphDatabaseFactory = new TestGraphDatabaseFactory();
+		idleDatabases = new ArrayBlockingQueue<>(maxIdleDatabases);
+
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+
+			@Override
+			public void run() {
+
+				shutdown();
+			}
+		});
+	}
+
+	/**
+	 * Hands out an empty impermanent database, i.e., either an idle one or a freshly started one.
+	 *
+	 * @return an empty impermanent database
+	 */
+	public GraphDatabaseService acquire() {
+
+		final GraphDatabaseService idleDatabase = idleDatabases.poll();
+
+		if (idleDatabase != null) {
+
+			return idleDatabase;
+		}
+
+		LOG.debug("no idle impermanent database available, start a new one");
+
+		// TODO: find proper graph database settings to hold everything in-memory only
+		return impermanentGraphDatabaseFactory.newImpermanentDatabaseBuilder(storeDirPrefix + UUID.randomUUID().toString())
+				.setConfig(GraphDatabaseSettings.cache_type, "strong").newGraphDatabase();
+	}
+
+	/**
+	 * Wipes the given database and keeps it for reuse. The database will be shut down, if it couldn't be wiped or if there are already
+	 * enough idle databases.
+	 *
+	 * @param database a database that was acquired from this pool
+	 */
+	public void release(final GraphDatabaseService database) {
+
+		if (database == null) {
+
+			return;
+		}
+
+		if (!wipe(database) || !idleDatabases.offer(database)) {
+
+			ExecutionEngines.remove(database);
+			database.shutdown();
+		}
+	}
+
+	/**
+	 * Shuts down all idle databases.
+	 */
+	public void shutdown() {
+
+		GraphDatabaseService idleDatabase;
+
+		while ((idleDatabase = idleDatabases.poll()) != null) {
+
+			ExecutionEngines.remove(idleDatabase);
+			idleDatabase.shutdown();
+		}
+	}
+
+	private boolean wipe(final GraphDatabaseService database) {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final IndexManager indexManager = database.index();
+
+			final List<Index<Node>> nodeIndices = new LinkedList<>();
+
+			for (final String nodeIndexName : indexManager.nodeIndexNames()) {
+
+				nodeIndices.add(indexManager.forNodes(nodeIndexName));
+			}
+
+			final List<Index<Relationship>> relationshipIndices = new LinkedList<>();
+
+			for (final String relationshipIndexName : indexManager.relationshipIndexNames()) {
+
+				relationshipIndices.add(indexManager.forRelationships(relationshipIndexName));
+			}
+
+			final GlobalGraphOperations globalGraphOperations = GlobalGraphOperations.at(database);
+
+			// note: collect entities first to not modify the store while iterating over it
+			final List<Relationship> relationships = new LinkedList<>();
+
+			for (final Relationship relationship : globalGraphOperations.getAllRelationships()) {
+
+				relationships.add(relationship);
+			}
+
+			for (final Relationship relationship : relationships) {
+
+				for (final Index<Relationship> relationshipIndex : relationshipIndices) {
+
+					relationshipIndex.remove(relationship);
+				}
+
+				relationship.delete();
+			}
+
+			final List<Node> nodes = new LinkedList<>();
+
+			for (final Node node : globalGraphOperations.getAllNodes()) {
+
+				nodes.add(node);
+			}
+
+			for (final Node node : nodes) {
+
+				for (final Index<Node> nodeIndex : nodeIndices) {
+
+					nodeIndex.remove(node);
+				}
+
+				node.delete();
+			}
+
+			tx.success();
+
+			NodeIdCache.invalidate(database);
+			PathIndex.invalidate(database);
+
+			return true;
+		} catch (final Exception e) {
+
+			LOG.error("couldn't wipe impermanent database, it will be shut down", e);
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Relationship;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * An index of the (root) paths of the working graph of a resource, i.e., the path end node ids are mapped to the node and
+ * relationship ids on their paths. The paths of a start node (resource node or entity node) are traversed only once, i.e., marking
+ * the paths of matched path end nodes is O(path length) per path end node afterwards.<br/>
+ * note: the index relies on a fixed graph structure, i.e., it is only valid as long as no nodes or relationships are added to or
+ * removed from the working graph (properties can be changed). Hence, the index of a working graph needs to be invalidated, when
+ * the working graph is wiped.
+ *
+ * @author tgaengler
+ */
+public final class PathIndex {
+
+	private static final ConcurrentMap<GraphDatabaseService, PathIndex>	INDICES			= new MapMaker().weakKeys().makeMap();
+
+	private final ConcurrentMap<String, Map<Long, List<IndexedPath>>>		resourcePaths	= new MapMaker().makeMap();
+	private final ConcurrentMap<Long, Map<Long, List<IndexedPath>>>		entityPaths		= new MapMaker().makeMap();
+
+	private PathIndex() {}
+
+	/**
+	 * Gets the path index of the given working graph.
+	 *
+	 * @param graphDB the working graph
+	 * @return the path index of the working graph
+	 */
+	public static PathIndex of(final GraphDatabaseService graphDB) {
+
+		PathIndex index = PathIndex.INDICES.get(graphDB);
+
+		if (index == null) {
+
+			final PathIndex newIndex = new PathIndex();
+			index = PathIndex.INDICES.putIfAbsent(graphDB, newIndex);
+
+			if (index == null) {
+
+				index = newIndex;
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Removes the path index of the given working graph, e.g., after the working graph was wiped.
+	 *
+	 * @param graphDB the working graph
+	 */
+	public static void invalidate(final GraphDatabaseService graphDB) {
+
+		PathIndex.INDICES.remove(graphDB);
+	}
+
+	/**
+	 * Gets the indexed paths of the given resource, i.e., the paths of {@link GraphDBUtil#getResourcePaths(GraphDatabaseService, String)}
+	 * grouped by their end node ids. The paths are traversed, if they are not indexed yet.<br/>
+	 * note: should be run in transaction scope
+	 *
+	 * @param graphDB the working graph
+	 * @param resourceURI the uri of the resource
+	 * @return the indexed paths of the resource
+	 */
+	public Map<Long, List<IndexedPath>> getResourcePaths(final GraphDatabaseService graphDB, final String resourceURI) {
+
+		Map<Long, List<IndexedPath>> paths = resourcePaths.get(resourceURI);
+
+		if (paths == null) {
+
+			paths = PathIndex.index(GraphDBUtil.getResourcePaths(graphDB, resourceURI));
+
+			resourcePaths.put(resourceURI, paths);
+		}
+
+		return paths;
+	}
+
+	/**
+	 * Gets the indexed paths of the given entity, i.e., the paths of {@link GraphDBUtil#getEntityPaths(GraphDatabaseService, long)}
+	 * grouped by their end node ids. The paths are traversed, if they are not indexed yet.<br/>
+	 * note: should be run in transaction scope
+	 *
+	 * @param graphDB the working graph
+	 * @param nodeId the id of the entity node
+	 * @return the indexed paths of the entity
+	 */
+	public Map<Long, List<IndexedPath>> getEntityPaths(final GraphDatabaseService graphDB, final long nodeId) {
+
+		Map<Long, List<IndexedPath>> paths = entityPaths.get(nodeId);
+
+		if (paths == null) {
+
+			paths = PathIndex.index(GraphDBUtil.getEntityPaths(graphDB, nodeId));
+
+			entityPaths.put(nodeId, paths);
+		}
+
+		return paths;
+	}
+
+	private static Map<Long, List<IndexedPath>> index(final Iterable<Path> paths) {
+
+		final Map<Long, List<IndexedPath>> indexedPaths = new HashMap<>();
+
+		for (final Path path : paths) {
+
+			final long pathEndNodeId = path.endNode().getId();
+
+			List<IndexedPath> pathEndNodePaths = indexedPaths.get(pathEndNodeId);
+
+			if (pathEndNodePaths == null) {
+
+				pathEndNodePaths = new ArrayList<>(1);
+				indexedPaths.put(pathEndNodeId, pathEndNodePaths);
+			}
+
+			pathEndNodePaths.add(new IndexedPath(path));
+		}
+
+		return Collections.unmodifiableMap(indexedPaths);
+	}
+
+	/**
+	 * The node and relationship ids of a path.
+	 */
+	public static final class IndexedPath {
+
+		private final long[]	nodeIds;
+		private final long[]	relationshipIds;
+
+		private IndexedPath(final Path path) {
+
+			nodeIds = new long[path.length() + 1];
+			relationshipIds = new long[path.length()];
+
+			int i = 0;
+
+			for (final Node node : path.nodes()) {
+
+				nodeIds[i++] = node.getId();
+			}
+
+			i = 0;
+
+			for (final Relationship relationship : path.relationships()) {
+
+				relationshipIds[i++] = relationship.getId();
+			}
+		}
+
+		public long[] getNodeIds() {
+
+			return nodeIds;
+		}
+
+		public long[] getRelationshipIds() {
+
+			return relationshipIds;
+		}
+	}
+}
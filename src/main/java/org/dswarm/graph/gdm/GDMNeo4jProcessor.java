@@ -153,28 +153,24 @@ public abstract class GDMNeo4jProcessor {
 		return processor.determineResourceUri(optionalSubjectNodeType, optionalSubjectURI, optionalResourceURI);
 	}
 
-	public String generateStatementHash(final Node subjectNode, final String predicateName, final Node objectNode,
+	public long generateStatementHash(final Node subjectNode, final String predicateName, final Node objectNode,
 			final org.dswarm.graph.json.NodeType subjectNodeType, final org.dswarm.graph.json.NodeType objectNodeType) throws DMPGraphException {
 
 		final Optional<NodeType> optionalSubjectNodeType = NodeTypeUtils.getNodeTypeByGDMNodeType(Optional.fromNullable(subjectNodeType));
 		final Optional<NodeType> optionalObjectNodeType = NodeTypeUtils.getNodeTypeByGDMNodeType(Optional.fromNullable(objectNodeType));
-		final Optional<String> optionalSubjectIdentifier = processor.getIdentifier(subjectNode, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = processor.getIdentifier(objectNode, optionalObjectNodeType);
 
-		return processor.generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+		return processor.generateStatementHash(subjectNode, predicateName, objectNode, optionalSubjectNodeType.orNull(),
+				optionalObjectNodeType.orNull());
 	}
 
-	public String generateStatementHash(final Node subjectNode, final String predicateName, final String objectValue,
+	public long generateStatementHash(final Node subjectNode, final String predicateName, final String objectValue,
 			final org.dswarm.graph.json.NodeType subjectNodeType, final org.dswarm.graph.json.NodeType objectNodeType) throws DMPGraphException {
 
 		final Optional<NodeType> optionalSubjectNodeType = NodeTypeUtils.getNodeTypeByGDMNodeType(Optional.fromNullable(subjectNodeType));
 		final Optional<NodeType> optionalObjectNodeType = NodeTypeUtils.getNodeTypeByGDMNodeType(Optional.fromNullable(objectNodeType));
-		final Optional<String> optionalSubjectIdentifier = processor.getIdentifier(subjectNode, optionalSubjectNodeType);
-		final Optional<String> optionalObjectIdentifier = Optional.fromNullable(objectValue);
 
-		return processor.generateStatementHash(predicateName, optionalSubjectNodeType, optionalObjectNodeType, optionalSubjectIdentifier,
-				optionalObjectIdentifier);
+		return processor.generateStatementHash(subjectNode, predicateName, objectValue, optionalSubjectNodeType.orNull(),
+				optionalObjectNodeType.orNull());
 	}
 
 	public Map<String, Object> getQualifiedAttributes(final Statement statement) {
@@ -29,6 +29,7 @@ import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.model.StatementBuilder;
 import org.dswarm.graph.parse.BaseNeo4jHandler;
+import org.dswarm.graph.parse.CommitPolicy;
 import org.dswarm.graph.parse.Neo4jHandler;
 
 import org.neo4j.graphdb.Node;
@@ -62,6 +63,16 @@ public abstract class GDMNeo4jHandler implements GDMHandler, GDMUpdateHandler {
 		return handler;
 	}
 
+	/**
+	 * Sets the policy that decides when the current transaction of the underlying write handler should be committed.
+	 *
+	 * @param commitPolicy the commit policy of this write request
+	 */
+	public void setCommitPolicy(final CommitPolicy commitPolicy) {
+
+		handler.setCommitPolicy(commitPolicy);
+	}
+
 	@Override
 	public void handleStatement(final Statement st, final Resource r, final long index) throws DMPGraphException {
 
@@ -128,7 +139,7 @@ public abstract class GDMNeo4jHandler implements GDMHandler, GDMUpdateHandler {
 			// TODO: shall we include some more qualified attributes into hash generation, e.g., index, valid from, or will the
 			// index
 			// be update with the new stmt (?)
-			final String hash = processor.generateStatementHash(subject, predicate, object, stmt.getSubject().getType(), stmt.getObject().getType());
+			final long hash = processor.generateStatementHash(subject, predicate, object, stmt.getSubject().getType(), stmt.getObject().getType());
 			final Optional<NodeType> optionalSubjectNodeType = NodeTypeUtils.getNodeType(Optional.fromNullable(stmt.getSubject()));
 			final Optional<String> optionalSubjectURI;
 
@@ -0,0 +1,219 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.json.Model;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Reads the resources of a GDM JSON model (i.e. an array of objects that map a resource URI to its statements) one after another from
+ * the JSON token stream. Only the statements of the current resource are held in memory, i.e., the memory consumption is bounded by the
+ * size of the largest resource and not by the size of the whole model.
+ *
+ * @author tgaengler
+ */
+public class GDMResourceStreamReader {
+
+	private static final Logger	LOG				= LoggerFactory.getLogger(GDMResourceStreamReader.class);
+
+	private final ObjectMapper	objectMapper;
+	private final JsonParser	jp;
+
+	private boolean				started			= false;
+	private boolean				finished		= false;
+	private long				resourcesCount	= 0;
+
+	public GDMResourceStreamReader(final InputStream inputStream) throws DMPGraphException {
+
+		objectMapper = Util.getJSONObjectMapper();
+
+		try {
+
+			jp = objectMapper.getFactory().createParser(inputStream);
+		} catch (final IOException e) {
+
+			final String message = "couldn't create JSON parser for GDM input stream";
+
+			GDMResourceStreamReader.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	/**
+	 * Reads the next resource from the stream.
+	 *
+	 * @return the next resource or null, if the end of the model is reached
+	 * @throws DMPGraphException if the stream doesn't contain valid GDM JSON
+	 */
+	public Resource read() throws DMPGraphException {
+
+		if (finished) {
+
+			return null;
+		}
+
+		try {
+
+			if (!started) {
+
+				started = true;
+
+				final JsonToken firstToken = jp.nextToken();
+
+				if (firstToken == null) {
+
+					GDMResourceStreamReader.LOG.debug("GDM input stream is empty");
+
+					finished = true;
+
+					return null;
+				}
+
+				if (!JsonToken.START_ARRAY.equals(firstToken)) {
+
+					throw new DMPGraphException("GDM JSON model is expected to be an array of resources, but started with '" + firstToken + "'");
+				}
+			}
+
+			while (true) {
+
+				final JsonToken token = jp.nextToken();
+
+				if (token == null) {
+
+					throw new DMPGraphException("unexpected end of GDM JSON model after " + resourcesCount + " resources");
+				}
+
+				switch (token) {
+
+					case END_ARRAY:
+
+						// end of model (the statements arrays of the resources are consumed completely at readResource)
+
+						finished = true;
+
+						return null;
+					case START_OBJECT:
+					case END_OBJECT:
+
+						// resource object boundaries - resources are identified by their field names
+
+						break;
+					case FIELD_NAME:
+
+						final Resource resource = readResource(jp.getCurrentName());
+
+						if (resource != null) {
+
+							resourcesCount++;
+
+							return resource;
+						}
+
+						break;
+					default:
+
+						throw new DMPGraphException("unexpected token '" + token + "' in GDM JSON model after " + resourcesCount + " resources");
+				}
+			}
+		} catch (final DMPGraphException e) {
+
+			finished = true;
+
+			throw e;
+		} catch (final IOException e) {
+
+			finished = true;
+
+			final String message = "could not deserialise GDM JSON resource (after " + resourcesCount + " resources)";
+
+			GDMResourceStreamReader.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	public long getResourcesCount() {
+
+		return resourcesCount;
+	}
+
+	public void close() throws DMPGraphException {
+
+		finished = true;
+
+		try {
+
+			jp.close();
+		} catch (final IOException e) {
+
+			throw new DMPGraphException("couldn't close JSON parser of GDM input stream", e);
+		}
+	}
+
+	/**
+	 * Reads the statements array of a single resource into a JSON tree and deserialises it as single resource GDM model, i.e., the
+	 * statements are deserialised in the same way as for a complete GDM model.
+	 *
+	 * @param resourceUri the uri of the resource
+	 * @return the deserialised resource or null, if the resource doesn't contain any statements
+	 * @throws IOException
+	 */
+	private Resource readResource(final String resourceUri) throws IOException {
+
+		// move to the statements array
+		jp.nextToken();
+
+		final JsonNode statementsNode = objectMapper.readTree(jp);
+
+		final ArrayNode modelNode = objectMapper.createArrayNode();
+		modelNode.addObject().set(resourceUri, statementsNode);
+
+		final Model model = objectMapper.treeToValue(modelNode, Model.class);
+
+		if (model == null) {
+
+			return null;
+		}
+
+		final Collection<Resource> resources = model.getResources();
+
+		if (resources == null || resources.isEmpty()) {
+
+			GDMResourceStreamReader.LOG.debug("there are no statements for resource '" + resourceUri + "' in the GDM model");
+
+			return null;
+		}
+
+		return resources.iterator().next();
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.parse;
+
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.Statement;
+
+/**
+ * A GDM parser that hands the resources of a GDM JSON model to the GDM handler as soon as they are read from the stream, i.e., without
+ * materialising the whole model.
+ *
+ * @author tgaengler
+ */
+public class GDMStreamParser implements GDMParser {
+
+	private static final Logger				LOG	= LoggerFactory.getLogger(GDMStreamParser.class);
+
+	private GDMHandler						gdmHandler;
+	private final GDMResourceStreamReader	reader;
+
+	public GDMStreamParser(final GDMResourceStreamReader readerArg) {
+
+		reader = readerArg;
+	}
+
+	@Override
+	public void setGDMHandler(final GDMHandler handler) {
+
+		gdmHandler = handler;
+	}
+
+	@Override
+	public void parse() throws DMPGraphException {
+
+		Resource resource;
+
+		while ((resource = reader.read()) != null) {
+
+			final Set<Statement> statements = resource.getStatements();
+
+			if (statements == null || statements.isEmpty()) {
+
+				LOG.debug("there are no statements for resource '" + resource.getUri() + "' in the GDM model");
+
+				continue;
+			}
+
+			long i = 0;
+
+			gdmHandler.getHandler().setResourceUri(resource.getUri());
+
+			for (final Statement statement : statements) {
+
+				i++;
+
+				// note: just increasing the counter probably won't work at an update ;)
+
+				gdmHandler.handleStatement(statement, resource, i);
+			}
+		}
+
+		LOG.debug("parsed " + reader.getResourcesCount() + " resources from the GDM stream");
+	}
+}
@@ -16,8 +16,6 @@
  */
 package org.dswarm.graph.gdm.parse;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -28,6 +26,7 @@ import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.delta.DMPStatics;
+import org.dswarm.graph.hash.HashUtils;
 import org.dswarm.graph.json.LiteralNode;
 import org.dswarm.graph.json.Resource;
 import org.dswarm.graph.json.ResourceNode;
@@ -45,6 +44,7 @@ import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
+import org.neo4j.index.lucene.ValueContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -339,28 +339,16 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 			final org.dswarm.graph.json.Node subject, final Resource resource, final String statementUUID, final Long order, final long index,
 			final org.dswarm.graph.json.NodeType subjectNodeType, final org.dswarm.graph.json.NodeType objectNodeType) throws DMPGraphException {
 
-		final StringBuffer sb = new StringBuffer();
-
 		final String subjectIdentifier = getIdentifier(subjectNode, subjectNodeType);
 		final String objectIdentifier = getIdentifier(objectNode, objectNodeType);
 
-		sb.append(subjectNodeType.toString()).append(":").append(subjectIdentifier).append(" ").append(predicateName).append(" ")
-				.append(objectNodeType.toString()).append(":").append(objectIdentifier).append(" ");
-
-		MessageDigest messageDigest = null;
-
-		try {
-			messageDigest = MessageDigest.getInstance("SHA-256");
-		} catch (NoSuchAlgorithmException e) {
-
-			throw new DMPGraphException("couldn't instantiate hash algo");
-		}
-		messageDigest.update(sb.toString().getBytes());
-		final String hash = new String(messageDigest.digest());
+		final String hashString = subjectNodeType.toString() + ":" + subjectIdentifier + " " + predicateName + " " + objectNodeType.toString() + ":"
+				+ objectIdentifier + " ";
+		final long hash = HashUtils.generateHash(hashString);
 
 		final Relationship rel;
 
-		IndexHits<Relationship> hits = statementHashes.get(GraphStatics.HASH, hash);
+		final IndexHits<Relationship> hits = statementHashes.get(GraphStatics.HASH, ValueContext.numeric(hash));
 
 		if (hits == null || !hits.hasNext()) {
 
@@ -386,7 +374,7 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 
 			rel.setProperty(GraphStatics.INDEX_PROPERTY, index);
 
-			statementHashes.add(rel, GraphStatics.HASH, hash);
+			statementHashes.add(rel, GraphStatics.HASH, ValueContext.numeric(hash));
 			statementUUIDs.add(rel, GraphStatics.UUID, finalStatementUUID);
 
 			addedRelationships++;
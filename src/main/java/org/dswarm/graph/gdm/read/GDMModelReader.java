@@ -23,5 +23,14 @@ public interface GDMModelReader {
 
 	public Model read() throws DMPGraphException;
 
+	/**
+	 * Reads the resources of the model one after another and hands each resource to the given handler as soon as it is read
+	 * completely, i.e., the model is not held in memory.
+	 *
+	 * @param resourceHandler the handler that processes the read resources
+	 * @throws DMPGraphException if the resources couldn't be read or handled successfully
+	 */
+	public void read(GDMResourceHandler resourceHandler) throws DMPGraphException;
+
 	public long countStatements();
 }
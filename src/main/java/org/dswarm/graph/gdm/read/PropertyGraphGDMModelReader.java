@@ -62,11 +62,11 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 
 	private final GraphDatabaseService database;
 
-	private Model    model;
 	private Resource currentResource;
+	private long     statementsCount = 0;
 	private final Map<Long, Statement> currentResourceStatements = new HashMap<>();
 
-	private Integer version;
+	private int version;
 
 	private Transaction tx = null;
 
@@ -110,6 +110,34 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 	@Override
 	public Model read() throws DMPGraphException {
 
+		final Model newModel = new Model();
+
+		try {
+
+			read(new GDMResourceHandler() {
+
+				@Override
+				public void handleResource(final Resource resource) {
+
+					newModel.addResource(resource);
+				}
+			});
+		} catch (final DMPGraphException e) {
+
+			PropertyGraphGDMModelReader.LOG.error("couldn't read GDM model completely", e);
+		}
+
+		if (newModel.getResources() == null || newModel.getResources().isEmpty()) {
+
+			return null;
+		}
+
+		return newModel;
+	}
+
+	@Override
+	public void read(final GDMResourceHandler resourceHandler) throws DMPGraphException {
+
 		if (tx == null) {
 
 			try {
@@ -128,6 +156,8 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			}
 		}
 
+		statementsCount = 0;
+
 		ResourceIterator<Node> recordNodesIter = null;
 
 		try {
@@ -137,38 +167,25 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			final ResourceIterable<Node> recordNodes = database.findNodesByLabelAndProperty(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY,
 					dataModelUri);
 
-			if (recordNodes == null) {
-
-				tx.success();
-
-				PropertyGraphGDMModelReader.LOG.debug("there are no root nodes for '" + recordClassLabel + "' in data model '" + dataModelUri + "'finished read GDM TX successfully");
+			if (recordNodes != null) {
 
-				return null;
+				recordNodesIter = recordNodes.iterator();
 			}
 
-			recordNodesIter = recordNodes.iterator();
+			if (recordNodesIter == null || !recordNodesIter.hasNext()) {
 
-			if(recordNodesIter == null) {
-
-				tx.success();
-
-				PropertyGraphGDMModelReader.LOG.debug("there are no root nodes for '" + recordClassLabel + "' in data model '" + dataModelUri + "'finished read GDM TX successfully");
-
-				return null;
-			}
+				if (recordNodesIter != null) {
 
-			if(!recordNodesIter.hasNext()) {
+					recordNodesIter.close();
+				}
 
-				recordNodesIter.close();
 				tx.success();
 
 				PropertyGraphGDMModelReader.LOG.debug("there are no root nodes for '" + recordClassLabel + "' in data model '" + dataModelUri + "'finished read GDM TX successfully");
 
-				return null;
+				return;
 			}
 
-			model = new Model();
-
 			while(recordNodesIter.hasNext()) {
 
 				final Node recordNode = recordNodesIter.next();
@@ -205,9 +222,15 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 					currentResource.setStatements(statements);
 				}
 
-				model.addResource(currentResource);
-
 				currentResourceStatements.clear();
+
+				final Resource resource = currentResource;
+				currentResource = null;
+
+				statementsCount += resource.size();
+
+				// the resource is released by this reader, i.e., only the statements of a single resource are held in memory
+				resourceHandler.handleResource(resource);
 			}
 
 			recordNodesIter.close();
@@ -216,7 +239,9 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			PropertyGraphGDMModelReader.LOG.debug("finished read GDM TX successfully");
 		} catch (final Exception e) {
 
-			PropertyGraphGDMModelReader.LOG.error("couldn't finished read GDM TX successfully", e);
+			final String message = "couldn't finished read GDM TX successfully";
+
+			PropertyGraphGDMModelReader.LOG.error(message, e);
 
 			if(recordNodesIter != null) {
 
@@ -224,20 +249,67 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			}
 
 			tx.failure();
+
+			if (e instanceof DMPGraphException) {
+
+				throw (DMPGraphException) e;
+			}
+
+			throw new DMPGraphException(message, e);
 		} finally {
 
 			PropertyGraphGDMModelReader.LOG.debug("finished read GDM TX finally");
 
 			tx.close();
+			tx = null;
 		}
-
-		return model;
 	}
 
 	@Override
 	public long countStatements() {
 
-		return model.size();
+		return statementsCount;
+	}
+
+	/**
+	 * Hands the outgoing relationships of the given node, which are valid at the version that should be read, to the relationship
+	 * handler.
+	 *
+	 * @param node the node whose outgoing relationships should be processed
+	 * @throws DMPGraphException
+	 */
+	private void handleValidRelationships(final Node node) throws DMPGraphException {
+
+		for (final Relationship relationship : node.getRelationships(Direction.OUTGOING)) {
+
+			if (isValid(relationship)) {
+
+				relationshipHandler.handleRelationship(relationship);
+			}
+		}
+	}
+
+	/**
+	 * Checks the validity of the given relationship at the version that should be read. The property values are compared directly,
+	 * i.e., no range objects are allocated for this check.
+	 *
+	 * @param relationship the relationship (statement) that should be checked
+	 * @return true, if the relationship is valid at the version that should be read (or if it is not versioned at all)
+	 */
+	private boolean isValid(final Relationship relationship) {
+
+		final Object validTo = relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+
+		if (validTo == null) {
+
+			// TODO: remove this later, when every stmt is versioned
+			return true;
+		}
+
+		final Object validFrom = relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
+
+		// TODO: remove this later, when every stmt is versioned
+		return validFrom == null || Range.contains((Integer) validFrom, (Integer) validTo, version);
 	}
 
 	private class CBDNodeHandler implements NodeHandler {
@@ -250,25 +322,7 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			// => maybe we should find an appropriated cypher query as replacement for this processing
 			if (!node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
-				final Iterable<Relationship> relationships = node.getRelationships(Direction.OUTGOING);
-
-				for (final Relationship relationship : relationships) {
-
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(version)) {
-
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
-
-						// TODO: remove this later, when every stmt is versioned
-						relationshipHandler.handleRelationship(relationship);
-					}
-				}
+				handleValidRelationships(node);
 			}
 		}
 	}
@@ -283,25 +337,7 @@ public class PropertyGraphGDMModelReader implements GDMModelReader {
 			// node that holds the uri of the resource (record)
 			if (node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
-				final Iterable<Relationship> relationships = node.getRelationships(Direction.OUTGOING);
-
-				for (final Relationship relationship : relationships) {
-
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(version)) {
-
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
-
-						// TODO: remove this later, when every stmt is versioned
-						relationshipHandler.handleRelationship(relationship);
-					}
-				}
+				handleValidRelationships(node);
 			}
 		}
 	}
@@ -0,0 +1,363 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.work;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.delta.DeltaState;
+import org.dswarm.graph.delta.DeltaStatics;
+import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Predicate;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.utils.GraphUtils;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extracts the changeset statements of several delta states from a resource graph with a single traversal, i.e., every
+ * relationship is classified by its delta state once. Sub graph paths of a delta state are only taken into account, if they
+ * reach a leaf node. Modified statements are keyed by the node id of their path end node directly.
+ *
+ * @author tgaengler
+ */
+public class PropertyGraphDeltaGDMChangesetWorker {
+
+	private static final Logger					LOG			= LoggerFactory.getLogger(PropertyGraphDeltaGDMChangesetWorker.class);
+
+	private final String						resourceURI;
+	private final GraphDatabaseService			database;
+
+	private final DeltaStateStatements[]		deltaStateStatements;
+
+	private final Map<DeltaState, Integer>		deltaStateIndices	= new EnumMap<>(DeltaState.class);
+
+	public PropertyGraphDeltaGDMChangesetWorker(final String resourceURIArg, final GraphDatabaseService databaseArg,
+			final DeltaState... deltaStatesArg) {
+
+		resourceURI = resourceURIArg;
+		database = databaseArg;
+		deltaStateStatements = new DeltaStateStatements[deltaStatesArg.length];
+
+		for (int i = 0; i < deltaStatesArg.length; i++) {
+
+			deltaStateStatements[i] = new DeltaStateStatements(deltaStatesArg[i]);
+			deltaStateIndices.put(deltaStatesArg[i], i);
+		}
+	}
+
+	public void work() throws DMPGraphException {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			PropertyGraphDeltaGDMChangesetWorker.LOG.debug("start delta GDM changeset TX");
+
+			final Node recordNode = GraphDBUtil.getResourceNode(database, resourceURI);
+
+			if (recordNode == null) {
+
+				PropertyGraphDeltaGDMChangesetWorker.LOG.debug("couldn't find record for resource '" + resourceURI + "'");
+
+				tx.success();
+
+				PropertyGraphDeltaGDMChangesetWorker.LOG.debug("finished delta GDM changeset TX successfully");
+
+				return;
+			}
+
+			handleNode(recordNode, new PathElement[deltaStateStatements.length]);
+
+			tx.success();
+
+			PropertyGraphDeltaGDMChangesetWorker.LOG.debug("finished delta GDM changeset TX successfully");
+		} catch (final DMPGraphException e) {
+
+			throw e;
+		} catch (final Exception e) {
+
+			final String message = "couldn't finished delta GDM changeset TX successfully";
+
+			PropertyGraphDeltaGDMChangesetWorker.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	/**
+	 * @param deltaState a delta state (that is not {@link DeltaState#MODIFICATION}) of this worker
+	 * @return the statements of the given delta state (keyed by their statement uuid)
+	 */
+	public Map<String, Statement> getStatements(final DeltaState deltaState) {
+
+		return getDeltaStateStatements(deltaState).statements;
+	}
+
+	/**
+	 * @return the modified statements (keyed by the node id of the end node of their sub graph path)
+	 */
+	public Map<Long, Statement> getModifiedStatements() {
+
+		return getDeltaStateStatements(DeltaState.MODIFICATION).modifiedStatements;
+	}
+
+	private DeltaStateStatements getDeltaStateStatements(final DeltaState deltaState) {
+
+		final Integer index = deltaStateIndices.get(deltaState);
+
+		if (index == null) {
+
+			throw new IllegalArgumentException("delta state " + deltaState + " wasn't extracted by this worker");
+		}
+
+		return deltaStateStatements[index];
+	}
+
+	/**
+	 * Walks the outgoing relationships of the given node depth-first.
+	 *
+	 * @param node the current node
+	 * @param paths the current sub graph path per delta state (null, if the last relationship doesn't belong to the delta state)
+	 */
+	private void handleNode(final Node node, final PathElement[] paths) throws DMPGraphException {
+
+		boolean isLeaf = true;
+
+		for (final Relationship rel : node.getRelationships(Direction.OUTGOING)) {
+
+			isLeaf = false;
+
+			final String deltaStateString = (String) rel.getProperty(DeltaStatics.DELTA_STATE_PROPERTY, null);
+
+			if (deltaStateString == null) {
+
+				throw new DMPGraphException("statement " + rel.getId() + " should have a delta state");
+			}
+
+			final DeltaState relDeltaState = DeltaState.getByName(deltaStateString);
+			final PathElement[] relPaths = new PathElement[paths.length];
+
+			for (int i = 0; i < deltaStateStatements.length; i++) {
+
+				// note: the sub graph path of another delta state is interrupted by this relationship
+				if (deltaStateStatements[i].deltaState.equals(relDeltaState)) {
+
+					relPaths[i] = new PathElement(rel, paths[i]);
+				}
+			}
+
+			handleNode(rel.getEndNode(), relPaths);
+		}
+
+		if (!isLeaf) {
+
+			return;
+		}
+
+		for (int i = 0; i < deltaStateStatements.length; i++) {
+
+			if (paths[i] != null) {
+
+				deltaStateStatements[i].addPath(paths[i]);
+			}
+		}
+	}
+
+	/**
+	 * An element of a sub graph path, i.e., the path prefixes are shared between the branches of a sub graph.
+	 */
+	private static final class PathElement {
+
+		private final Relationship	rel;
+		private final PathElement	previous;
+
+		private PathElement(final Relationship relArg, final PathElement previousArg) {
+
+			rel = relArg;
+			previous = previousArg;
+		}
+	}
+
+	/**
+	 * The statements of a single delta state incl. the GDM nodes and predicates that were created for them.
+	 */
+	private static final class DeltaStateStatements {
+
+		private final DeltaState								deltaState;
+
+		private final Map<String, Statement>					statements;
+		private final Map<Long, Statement>						modifiedStatements;
+
+		private final Map<Long, org.dswarm.graph.json.Node>	bnodes			= new HashMap<>();
+		private final Map<String, ResourceNode>				resourceNodes	= new HashMap<>();
+		private final Map<String, Predicate>					predicates		= new HashMap<>();
+
+		private DeltaStateStatements(final DeltaState deltaStateArg) {
+
+			deltaState = deltaStateArg;
+
+			if (DeltaState.MODIFICATION.equals(deltaState)) {
+
+				statements = null;
+				modifiedStatements = new LinkedHashMap<>();
+			} else {
+
+				statements = new LinkedHashMap<>();
+				modifiedStatements = null;
+			}
+		}
+
+		private void addPath(final PathElement lastPathElement) throws DMPGraphException {
+
+			if (DeltaState.MODIFICATION.equals(deltaState)) {
+
+				// a modification is represented by the first statement of the path
+				final long endNodeId = lastPathElement.rel.getEndNode().getId();
+
+				if (modifiedStatements.containsKey(endNodeId)) {
+
+					return;
+				}
+
+				PathElement firstPathElement = lastPathElement;
+
+				while (firstPathElement.previous != null) {
+
+					firstPathElement = firstPathElement.previous;
+				}
+
+				modifiedStatements.put(endNodeId, createStatement(firstPathElement.rel));
+
+				return;
+			}
+
+			addPathStatements(lastPathElement);
+		}
+
+		/**
+		 * Adds the statements of the path from its start to its end (recursively, since the path elements point to their
+		 * predecessors).
+		 */
+		private void addPathStatements(final PathElement pathElement) throws DMPGraphException {
+
+			if (pathElement.previous != null) {
+
+				addPathStatements(pathElement.previous);
+			}
+
+			final String uuid = (String) pathElement.rel.getProperty(GraphStatics.UUID_PROPERTY, null);
+
+			if (statements.containsKey(uuid)) {
+
+				return;
+			}
+
+			statements.put(uuid, createStatement(pathElement.rel));
+		}
+
+		private Statement createStatement(final Relationship rel) throws DMPGraphException {
+
+			final org.dswarm.graph.json.Node subject = getNode(rel.getStartNode());
+			final Predicate predicate = getPredicate(rel.getType().name());
+			final org.dswarm.graph.json.Node object = getNode(rel.getEndNode());
+			final Long order = (Long) rel.getProperty(GraphStatics.ORDER_PROPERTY, null);
+			final String uuid = (String) rel.getProperty(GraphStatics.UUID_PROPERTY, null);
+
+			final Statement statement = new Statement(subject, predicate, object);
+
+			if (order != null) {
+
+				statement.setOrder(order);
+			}
+
+			if (uuid != null) {
+
+				statement.setUUID(uuid);
+			}
+
+			return statement;
+		}
+
+		private Predicate getPredicate(final String predicateName) {
+
+			Predicate predicate = predicates.get(predicateName);
+
+			if (predicate == null) {
+
+				predicate = new Predicate(predicateName);
+				predicates.put(predicateName, predicate);
+			}
+
+			return predicate;
+		}
+
+		private org.dswarm.graph.json.Node getNode(final Node node) throws DMPGraphException {
+
+			final NodeType nodeType = GraphUtils.determineNodeType(node);
+			final long id = node.getId();
+
+			switch (nodeType) {
+
+				case Resource:
+				case TypeResource:
+
+					final String uri = (String) node.getProperty(GraphStatics.URI_PROPERTY, null);
+
+					ResourceNode resourceNode = resourceNodes.get(uri);
+
+					if (resourceNode == null) {
+
+						resourceNode = new ResourceNode(id, uri);
+						resourceNodes.put(uri, resourceNode);
+					}
+
+					return resourceNode;
+				case BNode:
+				case TypeBNode:
+
+					org.dswarm.graph.json.Node bnode = bnodes.get(id);
+
+					if (bnode == null) {
+
+						bnode = new org.dswarm.graph.json.Node(id);
+						bnodes.put(id, bnode);
+					}
+
+					return bnode;
+				case Literal:
+
+					final String value = (String) node.getProperty(GraphStatics.VALUE_PROPERTY, null);
+
+					return new LiteralNode(id, value);
+				default:
+
+					return null;
+			}
+		}
+	}
+}
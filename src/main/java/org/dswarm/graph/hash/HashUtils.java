@@ -16,13 +16,98 @@
  */
 package org.dswarm.graph.hash;
 
+import com.github.emboss.siphash.SipHash;
+import com.github.emboss.siphash.SipKey;
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 /**
  *
  */
 public final class HashUtils {
 
+	private static final SipKey	SPEC_KEY	= new SipKey(HashUtils.bytesOf(0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b,
+													0x0c, 0x0d, 0x0e, 0x0f));
+
+	/**
+	 * the hash function that is utilised for the structural hashes of entities at delta calculation (SipHash-2-4)
+	 */
+	private static final HashFunction		ENTITY_HASH_FUNCTION		= Hashing.sipHash24();
+
+	/**
+	 * the hash function that is utilised for the persisted content fingerprints of records (SipHash-2-4 with a fixed key). It is
+	 * kept apart from the entity hash function, since every change of this function would invalidate all stored fingerprints.
+	 */
+	private static final HashFunction		FINGERPRINT_HASH_FUNCTION	= Hashing.sipHash24(0x0706050403020100L, 0x0f0e0d0c0b0a0908L);
+
 	private HashUtils() {}
 
+	/**
+	 * Creates a new hasher of the entity hash function. The parts of an entity should be put in a canonical order, strings should be
+	 * put via {@link #putString(Hasher, String)}.
+	 *
+	 * @return a new entity hasher
+	 */
+	public static Hasher newEntityHasher() {
+
+		return HashUtils.ENTITY_HASH_FUNCTION.newHasher();
+	}
+
+	/**
+	 * Creates a new hasher of the (fixed) fingerprint hash function. This hasher should be utilised for all hashes that are
+	 * persisted, i.e., record fingerprints. Strings should be put via {@link #putString(Hasher, String)}.
+	 *
+	 * @return a new fingerprint hasher
+	 */
+	public static Hasher newFingerprintHasher() {
+
+		return HashUtils.FINGERPRINT_HASH_FUNCTION.newHasher();
+	}
+
+	/**
+	 * Puts the given (optional) string into the given hasher. The string is prefixed by its length, i.e., the concatenation of
+	 * different strings can't result in the same input of the hash function.
+	 *
+	 * @param hasher the entity hasher
+	 * @param string the string that should be put into the hasher (can be null)
+	 * @return the hasher
+	 */
+	public static Hasher putString(final Hasher hasher, final String string) {
+
+		if (string == null) {
+
+			return hasher.putInt(-1);
+		}
+
+		return hasher.putInt(string.length()).putUnencodedChars(string);
+	}
+
+	/**
+	 * Generates a 64-bit SipHash of the UTF-8 bytes of the given string. This is utilised for statement hashes in the
+	 * transactional as well as in the batch write path, i.e., both produce the same hash for the same statement.
+	 *
+	 * @param hashString the string that should be hashed
+	 * @return the hash of the given string
+	 */
+	public static long generateHash(final String hashString) {
+
+		return HashUtils.generateHash(hashString.getBytes(Charsets.UTF_8));
+	}
+
+	/**
+	 * Generates a 64-bit SipHash of the given bytes, i.e., the hash is equal to the one of {@link #generateHash(String)} for the UTF-8
+	 * bytes of a string.
+	 *
+	 * @param bytes the bytes that should be hashed
+	 * @return the hash of the given bytes
+	 */
+	public static long generateHash(final byte[] bytes) {
+
+		return SipHash.digest(HashUtils.SPEC_KEY, bytes);
+	}
+
 	public static byte[] bytesOf(final Integer... bytes) {
 
 		final byte[] ret = new byte[bytes.length];
@@ -0,0 +1,121 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+
+/**
+ * A bounded, process-wide cache of node ids for the keys of a node legacy index (e.g. resource URIs), i.e., it survives single
+ * write requests (transactions) and saves the Lucene lookups for keys that were already resolved or written before. There is one
+ * cache per database and index name. Least recently used entries are evicted, when the maximum size is reached.<br/>
+ * note: only node ids of committed nodes should be put into this cache. Consumers need to verify cache hits, because nodes can be
+ * deleted without notice of this cache.
+ *
+ * @author tgaengler
+ */
+public final class NodeIdCache {
+
+	private static final Logger	LOG				= LoggerFactory.getLogger(NodeIdCache.class);
+
+	private static final long	MAXIMUM_SIZE	= 500000;
+
+	private static final ConcurrentMap<GraphDatabaseService, ConcurrentMap<String, NodeIdCache>>	CACHES	= new MapMaker().weakKeys().makeMap();
+
+	private final Cache<String, Long>	nodeIds;
+
+	private NodeIdCache() {
+
+		nodeIds = CacheBuilder.newBuilder().maximumSize(NodeIdCache.MAXIMUM_SIZE).build();
+	}
+
+	/**
+	 * Gets the node id cache of the given index of the given database.
+	 *
+	 * @param database the graph database
+	 * @param indexName the name of the node legacy index
+	 * @return the node id cache of the index
+	 */
+	public static NodeIdCache of(final GraphDatabaseService database, final String indexName) {
+
+		ConcurrentMap<String, NodeIdCache> databaseCaches = NodeIdCache.CACHES.get(database);
+
+		if (databaseCaches == null) {
+
+			final ConcurrentMap<String, NodeIdCache> newDatabaseCaches = new MapMaker().makeMap();
+			databaseCaches = NodeIdCache.CACHES.putIfAbsent(database, newDatabaseCaches);
+
+			if (databaseCaches == null) {
+
+				databaseCaches = newDatabaseCaches;
+			}
+		}
+
+		NodeIdCache cache = databaseCaches.get(indexName);
+
+		if (cache == null) {
+
+			final NodeIdCache newCache = new NodeIdCache();
+			cache = databaseCaches.putIfAbsent(indexName, newCache);
+
+			if (cache == null) {
+
+				cache = newCache;
+			}
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Removes all cached node ids of the given database, e.g., after the database was cleaned up.
+	 *
+	 * @param database the graph database
+	 */
+	public static void invalidate(final GraphDatabaseService database) {
+
+		final ConcurrentMap<String, NodeIdCache> databaseCaches = NodeIdCache.CACHES.remove(database);
+
+		if (databaseCaches != null) {
+
+			NodeIdCache.LOG.debug("invalidated node id caches of " + databaseCaches.size() + " indices");
+		}
+	}
+
+	public Optional<Long> get(final String key) {
+
+		return Optional.fromNullable(nodeIds.getIfPresent(key));
+	}
+
+	public void put(final String key, final long nodeId) {
+
+		nodeIds.put(key, nodeId);
+	}
+
+	public void invalidate(final String key) {
+
+		nodeIds.invalidate(key);
+	}
+}
@@ -0,0 +1,455 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.hash.Hasher;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphIndexStatics;
+import org.dswarm.graph.delta.Attribute;
+import org.dswarm.graph.delta.AttributePath;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * A persisted store of content fingerprints of records, i.e., a canonical hash of the GDM statements of a record is kept at its
+ * record node, when the record is written. The record nodes are indexed by their record key (data model URI + legacy record
+ * identifier or record URI). Hence, an incoming record with an unchanged fingerprint can be identified without loading and
+ * comparing both versions of the record at delta calculation. Furthermore, changed records can be resolved via their record key
+ * (e.g. the legacy record identifier) without a Cypher query.<br/>
+ * note: the fingerprint doesn't depend on the record URI, statement uuids and bnode ids, i.e., the same content results in the same
+ * fingerprint, even if a record gets a new URI per import (and is identified by a legacy record identifier).
+ *
+ * @author tgaengler
+ */
+public final class RecordFingerprints {
+
+	private static final Logger	LOG						= LoggerFactory.getLogger(RecordFingerprints.class);
+
+	public static final String	FINGERPRINT_PROPERTY	= "__FINGERPRINT__";
+	public static final String	RECORD_KEY				= "__RECORD_KEY__";
+
+	private static final String	RECORD_NODE				= "__RECORD__";
+
+	private RecordFingerprints() {}
+
+	/**
+	 * Determines the record key of the given record, i.e., the data model URI + the legacy record identifier (if a record
+	 * identifier attribute path is given) or the record URI.
+	 *
+	 * @param resource the (incoming) record
+	 * @param recordIdentifierAP the attribute path of the legacy record identifier (optional)
+	 * @param dataModelURI the data model URI
+	 * @return the record key or absent, if the record doesn't provide a legacy record identifier
+	 */
+	public static Optional<String> determineRecordKey(final Resource resource, final AttributePath recordIdentifierAP, final String dataModelURI) {
+
+		if (recordIdentifierAP == null) {
+
+			return Optional.of(dataModelURI + " " + resource.getUri());
+		}
+
+		final Optional<String> optionalRecordIdentifier = determineRecordIdentifier(resource, recordIdentifierAP);
+
+		if (!optionalRecordIdentifier.isPresent()) {
+
+			return Optional.absent();
+		}
+
+		return Optional.of(dataModelURI + " " + optionalRecordIdentifier.get());
+	}
+
+	/**
+	 * Determines the legacy record identifier of the given record from its statements, i.e., without loading the record into a
+	 * working graph and querying it there.
+	 *
+	 * @param resource the (incoming) record
+	 * @param recordIdentifierAP the attribute path of the legacy record identifier
+	 * @return the (first) literal value at the end of the attribute path or absent, if there is none
+	 */
+	public static Optional<String> determineRecordIdentifier(final Resource resource, final AttributePath recordIdentifierAP) {
+
+		if (resource.getStatements() == null) {
+
+			return Optional.absent();
+		}
+
+		final Map<String, List<Statement>> statementsBySubject = groupStatementsBySubject(resource);
+
+		List<String> currentNodeKeys = new ArrayList<>();
+		currentNodeKeys.add(getResourceNodeKey(resource.getUri()));
+
+		final List<org.dswarm.graph.json.Node> currentNodes = new ArrayList<>();
+
+		for (final Attribute attribute : recordIdentifierAP.getAttributes()) {
+
+			final List<String> nextNodeKeys = new ArrayList<>();
+			currentNodes.clear();
+
+			for (final String currentNodeKey : currentNodeKeys) {
+
+				final List<Statement> statements = statementsBySubject.get(currentNodeKey);
+
+				if (statements == null) {
+
+					continue;
+				}
+
+				for (final Statement statement : statements) {
+
+					if (attribute.getUri().equals(statement.getPredicate().getUri())) {
+
+						currentNodes.add(statement.getObject());
+						nextNodeKeys.add(getNodeKey(statement.getObject()));
+					}
+				}
+			}
+
+			currentNodeKeys = nextNodeKeys;
+		}
+
+		for (final org.dswarm.graph.json.Node node : currentNodes) {
+
+			if (org.dswarm.graph.json.NodeType.Literal.equals(node.getType())) {
+
+				return Optional.fromNullable(((LiteralNode) node).getValue());
+			}
+		}
+
+		return Optional.absent();
+	}
+
+	/**
+	 * Generates the fingerprint of the given record, i.e., a canonical hash of its statements (incl. their order, evidence and
+	 * confidence), whereby bnodes are represented by the (sorted) hashes of their statements. The fingerprint is generated with
+	 * the fixed fingerprint hash function (see {@link HashUtils#newFingerprintHasher()}), since it is persisted.
+	 *
+	 * @param resource the record
+	 * @return the fingerprint of the record
+	 */
+	public static long generateFingerprint(final Resource resource) {
+
+		final Map<String, List<Statement>> statementsBySubject = groupStatementsBySubject(resource);
+		final Set<String> visitedBNodes = new HashSet<>();
+
+		final List<Statement> recordStatements = new ArrayList<>();
+
+		if (resource.getStatements() != null) {
+
+			for (final Statement statement : resource.getStatements()) {
+
+				if (!org.dswarm.graph.json.NodeType.BNode.equals(statement.getSubject().getType())) {
+
+					recordStatements.add(statement);
+				}
+			}
+		}
+
+		return generateStatementsHash(recordStatements, resource.getUri(), statementsBySubject, visitedBNodes);
+	}
+
+	/**
+	 * Looks up the records with the given record keys, i.e., the legacy record identifiers (or record URIs) are resolved via the record
+	 * fingerprints index instead of a Cypher query per record (note: this method utilises its own read TX for all record keys).
+	 *
+	 * @param recordKeys the record keys
+	 * @param database the (permanent) graph database
+	 * @return the URI and fingerprint of the existing records by record key (record keys without record with fingerprint in the index
+	 *         are not contained)
+	 */
+	public static Map<String, IndexedRecord> getRecords(final Collection<String> recordKeys, final GraphDatabaseService database)
+			throws DMPGraphException {
+
+		final Map<String, IndexedRecord> records = new HashMap<>();
+
+		if (recordKeys.isEmpty()) {
+
+			return records;
+		}
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final Index<Node> recordFingerprints = database.index().forNodes(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME);
+
+			for (final String recordKey : recordKeys) {
+
+				final IndexHits<Node> hits = recordFingerprints.get(RecordFingerprints.RECORD_KEY, recordKey);
+
+				try {
+
+					while (hits.hasNext()) {
+
+						final Node recordNode = hits.next();
+
+						final String recordURI = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
+						final Object fingerprint = recordNode.getProperty(RecordFingerprints.FINGERPRINT_PROPERTY, null);
+
+						if (recordURI != null && fingerprint != null) {
+
+							records.put(recordKey, new IndexedRecord(recordURI, (Long) fingerprint));
+
+							break;
+						}
+					}
+				} finally {
+
+					hits.close();
+				}
+			}
+
+			tx.success();
+
+			return records;
+		} catch (final Exception e) {
+
+			final String message = "couldn't look up records in " + GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME + " legacy index";
+
+			RecordFingerprints.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	/**
+	 * Stores the fingerprint of the given record node (note: this method should be executed within the running write TX, i.e., the
+	 * TX that contains the statements of the record).
+	 *
+	 * @param recordNode the record node
+	 * @param recordKey the record key
+	 * @param fingerprint the fingerprint of the record
+	 * @param database the (permanent) graph database
+	 */
+	public static void setFingerprint(final Node recordNode, final String recordKey, final long fingerprint, final GraphDatabaseService database) {
+
+		final Index<Node> recordFingerprints = database.index().forNodes(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME);
+
+		recordFingerprints.remove(recordNode, RecordFingerprints.RECORD_KEY);
+		recordFingerprints.add(recordNode, RecordFingerprints.RECORD_KEY, recordKey);
+		recordNode.setProperty(RecordFingerprints.FINGERPRINT_PROPERTY, fingerprint);
+	}
+
+	/**
+	 * Removes the fingerprint of the given record node, e.g., when the record was deprecated (note: this method should be executed
+	 * within the running write TX).
+	 *
+	 * @param recordNode the record node
+	 * @param database the (permanent) graph database
+	 */
+	public static void removeFingerprint(final Node recordNode, final GraphDatabaseService database) {
+
+		if (!recordNode.hasProperty(RecordFingerprints.FINGERPRINT_PROPERTY)) {
+
+			return;
+		}
+
+		database.index().forNodes(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME).remove(recordNode);
+		recordNode.removeProperty(RecordFingerprints.FINGERPRINT_PROPERTY);
+	}
+
+	private static long generateStatementsHash(final List<Statement> statements, final String recordURI,
+			final Map<String, List<Statement>> statementsBySubject, final Set<String> visitedBNodes) {
+
+		final long[] statementHashes = new long[statements.size()];
+
+		for (int i = 0; i < statementHashes.length; i++) {
+
+			statementHashes[i] = generateStatementHash(statements.get(i), recordURI, statementsBySubject, visitedBNodes);
+		}
+
+		// the order of the statements in the resource is not relevant (the statement order is part of the statement hashes)
+		Arrays.sort(statementHashes);
+
+		final Hasher hasher = HashUtils.newFingerprintHasher().putInt(statementHashes.length);
+
+		for (final long statementHash : statementHashes) {
+
+			hasher.putLong(statementHash);
+		}
+
+		return hasher.hash().asLong();
+	}
+
+	private static long generateStatementHash(final Statement statement, final String recordURI,
+			final Map<String, List<Statement>> statementsBySubject, final Set<String> visitedBNodes) {
+
+		final Hasher hasher = HashUtils.newFingerprintHasher();
+
+		HashUtils.putString(hasher, getResourceKey(statement.getSubject(), recordURI));
+		HashUtils.putString(hasher, statement.getPredicate().getUri());
+		hasher.putLong(statement.getOrder() != null ? statement.getOrder() : -1);
+		HashUtils.putString(hasher, statement.getEvidence() != null ? String.valueOf(statement.getEvidence()) : null);
+		HashUtils.putString(hasher, statement.getConfidence() != null ? String.valueOf(statement.getConfidence()) : null);
+		hasher.putLong(generateNodeHash(statement.getObject(), recordURI, statementsBySubject, visitedBNodes));
+
+		return hasher.hash().asLong();
+	}
+
+	private static long generateNodeHash(final org.dswarm.graph.json.Node node, final String recordURI,
+			final Map<String, List<Statement>> statementsBySubject, final Set<String> visitedBNodes) {
+
+		final Hasher hasher = HashUtils.newFingerprintHasher();
+
+		switch (node.getType()) {
+
+			case Literal:
+
+				hasher.putInt(0);
+				HashUtils.putString(hasher, ((LiteralNode) node).getValue());
+
+				break;
+			case Resource:
+
+				hasher.putInt(1);
+				HashUtils.putString(hasher, getResourceKey(node, recordURI));
+
+				break;
+			default:
+
+				hasher.putInt(2);
+
+				final String bnodeKey = getNodeKey(node);
+
+				if (!visitedBNodes.add(bnodeKey)) {
+
+					// cycle, i.e., the bnode is already part of the current hash
+					hasher.putInt(-1);
+
+					break;
+				}
+
+				final List<Statement> bnodeStatements = statementsBySubject.get(bnodeKey);
+
+				if (bnodeStatements != null) {
+
+					hasher.putLong(generateStatementsHash(bnodeStatements, recordURI, statementsBySubject, visitedBNodes));
+				}
+
+				visitedBNodes.remove(bnodeKey);
+		}
+
+		return hasher.hash().asLong();
+	}
+
+	/**
+	 * note: the record URI is replaced by a placeholder, since it might change from import to import
+	 */
+	private static String getResourceKey(final org.dswarm.graph.json.Node node, final String recordURI) {
+
+		if (!org.dswarm.graph.json.NodeType.Resource.equals(node.getType())) {
+
+			return null;
+		}
+
+		final String uri = ((ResourceNode) node).getUri();
+
+		if (uri != null && uri.equals(recordURI)) {
+
+			return RecordFingerprints.RECORD_NODE;
+		}
+
+		return uri;
+	}
+
+	private static String getNodeKey(final org.dswarm.graph.json.Node node) {
+
+		if (org.dswarm.graph.json.NodeType.Resource.equals(node.getType())) {
+
+			return getResourceNodeKey(((ResourceNode) node).getUri());
+		}
+
+		return "b" + node.getId();
+	}
+
+	private static String getResourceNodeKey(final String uri) {
+
+		return "r" + uri;
+	}
+
+	private static Map<String, List<Statement>> groupStatementsBySubject(final Resource resource) {
+
+		final Map<String, List<Statement>> statementsBySubject = new HashMap<>();
+
+		if (resource.getStatements() == null) {
+
+			return statementsBySubject;
+		}
+
+		for (final Statement statement : resource.getStatements()) {
+
+			final String subjectKey = getNodeKey(statement.getSubject());
+
+			List<Statement> statements = statementsBySubject.get(subjectKey);
+
+			if (statements == null) {
+
+				statements = new ArrayList<>();
+				statementsBySubject.put(subjectKey, statements);
+			}
+
+			statements.add(statement);
+		}
+
+		return statementsBySubject;
+	}
+
+	/**
+	 * A record that was found via its record key.
+	 */
+	public static final class IndexedRecord {
+
+		private final String	recordURI;
+		private final long		fingerprint;
+
+		private IndexedRecord(final String recordURIArg, final long fingerprintArg) {
+
+			recordURI = recordURIArg;
+			fingerprint = fingerprintArg;
+		}
+
+		public String getRecordURI() {
+
+			return recordURI;
+		}
+
+		public long getFingerprint() {
+
+			return fingerprint;
+		}
+	}
+}
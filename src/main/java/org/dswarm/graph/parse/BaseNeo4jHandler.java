@@ -61,6 +61,8 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 	protected final Neo4jProcessor	processor;
 
+	protected CommitPolicy			commitPolicy		= CommitPolicy.defaultPolicy();
+
 	public BaseNeo4jHandler(final Neo4jProcessor processorArg) throws DMPGraphException {
 
 		processor = processorArg;
@@ -73,6 +75,17 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 		return processor;
 	}
 
+	/**
+	 * Sets the policy that decides when the current transaction should be committed (default: every
+	 * {@value org.dswarm.graph.parse.CommitPolicy#DEFAULT_COMMIT_SIZE} statements or every 30 seconds).
+	 *
+	 * @param commitPolicyArg the commit policy of this write request
+	 */
+	public void setCommitPolicy(final CommitPolicy commitPolicyArg) {
+
+		commitPolicy = commitPolicyArg;
+	}
+
 	@Override
 	public void setResourceUri(final String resourceUriArg) {
 
@@ -243,7 +256,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 					addedNodes++;
 				}
 
-				final String hash = processor.generateStatementHash(subjectNode, statement.getOptionalPredicateURI().get(), objectNode,
+				final long hash = processor.generateStatementHash(subjectNode, statement.getOptionalPredicateURI().get(), objectNode,
 						subjectNodeType, finalObjectNodeType);
 
 				final Relationship rel = processor.getStatement(hash);
@@ -269,15 +282,22 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 			totalTriples++;
 
 			final long nodeDelta = totalTriples - sinceLastCommit;
-			final long timeDelta = (System.currentTimeMillis() - tick) / 1000;
+			final long timeDelta = System.currentTimeMillis() - tick;
 
-			if (nodeDelta >= 50000 || timeDelta >= 30) { // Commit every 50k operations or every 30 seconds
+			if (commitPolicy.shouldCommit(nodeDelta, timeDelta)) {
+
+				final long commitStart = System.currentTimeMillis();
 
 				processor.renewTx();
 
+				final long commitMillis = System.currentTimeMillis() - commitStart;
+
+				commitPolicy.committed(nodeDelta, commitMillis);
+
 				sinceLastCommit = totalTriples;
 
-				LOG.debug(totalTriples + " triples @ ~" + (double) nodeDelta / timeDelta + " triples/second.");
+				LOG.debug(totalTriples + " triples @ ~" + (double) nodeDelta * 1000 / timeDelta + " triples/second (commit took " + commitMillis
+						+ " ms).");
 
 				tick = System.currentTimeMillis();
 			}
@@ -390,7 +410,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 	public void handleLiteral(final Node subjectNode, final Statement statement) throws DMPGraphException {
 
-		final String hash = processor.generateStatementHash(subjectNode, statement.getOptionalPredicateURI().get(), statement
+		final long hash = processor.generateStatementHash(subjectNode, statement.getOptionalPredicateURI().get(), statement
 				.getOptionalObjectValue().get(), statement.getOptionalSubjectNodeType().get(), statement.getOptionalObjectNodeType().get());
 
 		final Relationship rel = processor.getStatement(hash);
@@ -433,7 +453,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 	public Relationship addRelationship(final Node subjectNode, final String predicateURI, final Node objectNode,
 			final Optional<NodeType> optionalSubjectNodeType, final Optional<String> optionalSubjectURI,
 			final Optional<String> optionalStatementUUID, final Optional<String> optionalResourceUri,
-			final Optional<Map<String, Object>> optionalQualifiedAttributes, final String hash) throws DMPGraphException {
+			final Optional<Map<String, Object>> optionalQualifiedAttributes, final long hash) throws DMPGraphException {
 
 		final String finalStatementUUID;
 
@@ -448,12 +468,19 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 		final Relationship rel = processor.prepareRelationship(subjectNode, predicateURI, objectNode, finalStatementUUID,
 				optionalQualifiedAttributes, versionHandler);
 
-		processor.getStatementIndex().add(rel, GraphStatics.HASH, hash);
+		processor.addStatementHashToIndex(rel, hash);
 		processor.addStatementToIndex(rel, finalStatementUUID);
 
 		addedRelationships++;
 
-		addResourceProperty(subjectNode, rel, optionalSubjectNodeType, optionalSubjectURI, optionalResourceUri);
+		final Optional<String> finalOptionalResourceUri = addResourceProperty(subjectNode, rel, optionalSubjectNodeType, optionalSubjectURI,
+				optionalResourceUri);
+
+		if (finalOptionalResourceUri.isPresent()) {
+
+			// the content of the record changed, i.e., its fingerprint is outdated (the delta calculation will store a new one)
+			processor.removeRecordFingerprint(finalOptionalResourceUri.get());
+		}
 
 		return rel;
 	}
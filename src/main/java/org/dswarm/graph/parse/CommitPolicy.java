@@ -0,0 +1,161 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.parse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Decides when a write handler should commit its current transaction. A policy commits after a number of statements (the commit
+ * size) or after a maximum time. An adaptive policy adjusts its commit size after every commit: it shrinks the commit size, if the
+ * commit took longer than the target commit latency or if the heap budget for the transaction state is exceeded, and it grows the
+ * commit size, if commits are fast. Additionally, an adaptive policy commits early, if the heap budget is exceeded.<br/>
+ * note: a policy is stateful, i.e., each write request should utilise its own policy.
+ *
+ * @author tgaengler
+ */
+public final class CommitPolicy {
+
+	private static final Logger	LOG						= LoggerFactory.getLogger(CommitPolicy.class);
+
+	public static final int		DEFAULT_COMMIT_SIZE		= 50000;
+
+	private static final long	MAX_COMMIT_INTERVAL		= 30000;
+
+	private static final int	MIN_COMMIT_SIZE			= 1000;
+
+	private static final int	MAX_COMMIT_SIZE			= 1000000;
+
+	/**
+	 * the commit latency (in milliseconds) an adaptive policy aims at
+	 */
+	private static final long	TARGET_COMMIT_LATENCY	= 2000;
+
+	/**
+	 * the fraction of the maximum heap that might be used, before an adaptive policy commits
+	 */
+	private static final double	HEAP_BUDGET				= 0.6;
+
+	private final boolean		adaptive;
+
+	private int					commitSize;
+
+	private CommitPolicy(final int commitSizeArg, final boolean adaptiveArg) {
+
+		Preconditions.checkArgument(commitSizeArg > 0, "commit size should be positive");
+
+		commitSize = commitSizeArg;
+		adaptive = adaptiveArg;
+	}
+
+	/**
+	 * @return a policy that commits every {@value #DEFAULT_COMMIT_SIZE} statements (or every 30 seconds)
+	 */
+	public static CommitPolicy defaultPolicy() {
+
+		return new CommitPolicy(CommitPolicy.DEFAULT_COMMIT_SIZE, false);
+	}
+
+	/**
+	 * Creates a policy for the given (optional) request parameters.
+	 *
+	 * @param commitSize the (initial) commit size, or null for the default commit size
+	 * @param adaptive true, if the commit size should be adjusted to the observed commit latency and heap usage, otherwise false
+	 * @return the commit policy
+	 */
+	public static CommitPolicy of(final Integer commitSize, final boolean adaptive) {
+
+		final int finalCommitSize;
+
+		if (commitSize != null) {
+
+			finalCommitSize = commitSize;
+		} else {
+
+			finalCommitSize = CommitPolicy.DEFAULT_COMMIT_SIZE;
+		}
+
+		return new CommitPolicy(finalCommitSize, adaptive);
+	}
+
+	/**
+	 * @param statementsSinceLastCommit the number of statements that were written since the last commit
+	 * @param millisSinceLastCommit the time (in milliseconds) since the last commit
+	 * @return true, if the current transaction should be committed, otherwise false
+	 */
+	public boolean shouldCommit(final long statementsSinceLastCommit, final long millisSinceLastCommit) {
+
+		if (statementsSinceLastCommit >= commitSize || millisSinceLastCommit >= CommitPolicy.MAX_COMMIT_INTERVAL) {
+
+			return true;
+		}
+
+		// note: the heap usage is checked only every MIN_COMMIT_SIZE statements
+		return adaptive && statementsSinceLastCommit >= CommitPolicy.MIN_COMMIT_SIZE
+				&& statementsSinceLastCommit % CommitPolicy.MIN_COMMIT_SIZE == 0 && isHeapBudgetExceeded();
+	}
+
+	/**
+	 * Notifies this policy about a commit.
+	 *
+	 * @param statements the number of statements of the committed transaction
+	 * @param commitMillis the time (in milliseconds) the commit took
+	 */
+	public void committed(final long statements, final long commitMillis) {
+
+		if (!adaptive) {
+
+			return;
+		}
+
+		final int previousCommitSize = commitSize;
+
+		if (commitMillis > CommitPolicy.TARGET_COMMIT_LATENCY || isHeapBudgetExceeded()) {
+
+			commitSize = Math.max(CommitPolicy.MIN_COMMIT_SIZE, Math.min(commitSize, (int) statements) / 2);
+		} else if (commitMillis < CommitPolicy.TARGET_COMMIT_LATENCY / 2 && statements >= commitSize) {
+
+			commitSize = Math.min(CommitPolicy.MAX_COMMIT_SIZE, commitSize + commitSize / 2);
+		}
+
+		if (commitSize != previousCommitSize) {
+
+			CommitPolicy.LOG.debug("adjusted commit size from " + previousCommitSize + " to " + commitSize + " (last commit of " + statements
+					+ " statements took " + commitMillis + " ms)");
+		}
+	}
+
+	public int getCommitSize() {
+
+		return commitSize;
+	}
+
+	public boolean isAdaptive() {
+
+		return adaptive;
+	}
+
+	private static boolean isHeapBudgetExceeded() {
+
+		final Runtime runtime = Runtime.getRuntime();
+		final long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+
+		return usedMemory > CommitPolicy.HEAP_BUDGET * runtime.maxMemory();
+	}
+}
@@ -16,15 +16,22 @@
  */
 package org.dswarm.graph.rdf.export;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import com.google.common.base.Charsets;
+import com.hp.hpl.jena.datatypes.TypeMapper;
+import com.hp.hpl.jena.graph.NodeFactory;
+import com.hp.hpl.jena.graph.Triple;
 import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.DatasetFactory;
+import com.hp.hpl.jena.rdf.model.AnonId;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
-import com.hp.hpl.jena.rdf.model.Property;
-import com.hp.hpl.jena.rdf.model.RDFNode;
-import com.hp.hpl.jena.rdf.model.Resource;
+import org.apache.jena.riot.out.NodeFmtLib;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
@@ -46,8 +53,6 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 	private static final Logger				LOG								= LoggerFactory.getLogger(BaseRDFExporter.class);
 
-	protected final RelationshipHandler relationshipHandler;
-
 	protected final GraphDatabaseService database;
 
 	protected Dataset dataset;
@@ -61,39 +66,60 @@ public abstract class BaseRDFExporter implements RDFExporter {
 	public BaseRDFExporter(final GraphDatabaseService databaseArg) {
 
 		database = databaseArg;
-		relationshipHandler = new CBDRelationshipHandler();
 	}
 
 	@Override
-	public long countStatements() {
+	public Dataset export() throws DMPGraphException {
 
-		return RDFUtils.determineDatasetSize(dataset);
+		dataset = DatasetFactory.createMem();
+
+		processRelationships(new CBDRelationshipHandler());
+
+		return dataset;
 	}
 
-	private class CBDRelationshipHandler implements RelationshipHandler {
+	@Override
+	public void export(final OutputStream outputStream, final boolean withDataModelGraphs) throws DMPGraphException, IOException {
 
-		// TODO: maybe a hash map is not appropriated for bigger exports
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, Charsets.UTF_8));
 
-		final Map<Long, Resource>   bnodes    = new HashMap<Long, Resource>();
-		final Map<String, Resource> resources = new HashMap<String, Resource>();
+		processRelationships(new StreamingRelationshipHandler(writer, withDataModelGraphs));
 
-		@Override
-		public void handleRelationship(final Relationship rel) throws DMPGraphException {
+		writer.flush();
+	}
 
-			processedStatements++;
+	/**
+	 * Hands all relationships that should be exported over to the given relationship handler (within a read TX).
+	 *
+	 * @param relationshipHandler the handler that processes the relationships
+	 * @throws DMPGraphException
+	 */
+	protected abstract void processRelationships(final RelationshipHandler relationshipHandler) throws DMPGraphException;
 
-			// data model
+	@Override
+	public long countStatements() {
 
-			final String dataModelURI = (String) rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
+		if (dataset == null) {
 
-			if (dataModelURI == null) {
+			// streamed export
 
-				final String message = "data model URI can't be null (relationship id = '" + rel.getId() + "'";
+			return successfullyProcessedStatements;
+		}
 
-				BaseRDFExporter.LOG.error(message);
+		return RDFUtils.determineDatasetSize(dataset);
+	}
 
-				throw new DMPGraphException(message);
-			}
+	/**
+	 * Collects the statements in the (in-memory) dataset.
+	 */
+	private class CBDRelationshipHandler implements RelationshipHandler {
+
+		@Override
+		public void handleRelationship(final Relationship rel) throws DMPGraphException {
+
+			processedStatements++;
+
+			final String dataModelURI = getDataModelURI(rel);
 
 			final Model model;
 
@@ -116,164 +142,203 @@ public abstract class BaseRDFExporter implements RDFExporter {
 				throw new DMPGraphException(message);
 			}
 
-			// subject
+			model.getGraph().add(createTriple(rel));
 
-			final Node subjectNode = rel.getStartNode();
-			final NodeType subjectNodeType = GraphUtils.determineNodeType(subjectNode);
+			successfullyProcessedStatements++;
+		}
+	}
 
-			final Resource subjectResource;
+	/**
+	 * Writes the statements line by line as N-Triples or N-Quads (with the data model URI as graph) into the given writer, i.e.,
+	 * nothing is kept in memory. Blank nodes are labelled by their node id.
+	 */
+	private class StreamingRelationshipHandler implements RelationshipHandler {
 
-			switch (subjectNodeType) {
+		private final Writer	writer;
+		private final boolean	withDataModelGraphs;
 
-				case Resource:
-				case TypeResource:
+		private StreamingRelationshipHandler(final Writer writerArg, final boolean withDataModelGraphsArg) {
 
-					final String subjectURI = (String) subjectNode.getProperty(GraphStatics.URI_PROPERTY, null);
+			writer = writerArg;
+			withDataModelGraphs = withDataModelGraphsArg;
+		}
 
-					if (subjectURI == null) {
+		@Override
+		public void handleRelationship(final Relationship rel) throws DMPGraphException {
 
-						final String message = "subject URI can't be null";
+			processedStatements++;
 
-						BaseRDFExporter.LOG.error(message);
+			final String dataModelURI = getDataModelURI(rel);
+			final Triple triple = createTriple(rel);
 
-						throw new DMPGraphException(message);
-					}
+			try {
 
-					subjectResource = createResourceFromURI(subjectURI, model);
+				writer.write(NodeFmtLib.str(triple.getSubject()));
+				writer.write(' ');
+				writer.write(NodeFmtLib.str(triple.getPredicate()));
+				writer.write(' ');
+				writer.write(NodeFmtLib.str(triple.getObject()));
 
-					break;
-				case BNode:
-				case TypeBNode:
+				if (withDataModelGraphs) {
 
-					final long subjectId = subjectNode.getId();
-					subjectResource = createResourceFromBNode(subjectId, model);
+					writer.write(' ');
+					writer.write(NodeFmtLib.str(NodeFactory.createURI(dataModelURI)));
+				}
 
-					break;
-				default:
+				writer.write(" .\n");
+			} catch (final IOException e) {
 
-					final String message = "subject node type can only be a resource (or type resource) or bnode (or type bnode)";
+				final String message = "couldn't write statement of relationship '" + rel.getId() + "'";
 
-					BaseRDFExporter.LOG.error(message);
+				BaseRDFExporter.LOG.error(message, e);
 
-					throw new DMPGraphException(message);
+				throw new DMPGraphException(message, e);
 			}
 
-			// predicate
+			successfullyProcessedStatements++;
+		}
+	}
 
-			final String predicate = rel.getType().name();
-					//.getProperty(GraphStatics.URI_PROPERTY, null);
-			final Property predicateProperty = model.createProperty(predicate);
+	private static String getDataModelURI(final Relationship rel) throws DMPGraphException {
 
-			// object
+		final String dataModelURI = (String) rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
 
-			final Node objectNode = rel.getEndNode();
-			final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
+		if (dataModelURI == null) {
 
-			final RDFNode objectRDFNode;
+			final String message = "data model URI can't be null (relationship id = '" + rel.getId() + "'";
 
-			switch (objectNodeType) {
+			BaseRDFExporter.LOG.error(message);
 
-				case Resource:
-				case TypeResource:
+			throw new DMPGraphException(message);
+		}
 
-					final String objectURI = (String) objectNode.getProperty(GraphStatics.URI_PROPERTY, null);
+		return dataModelURI;
+	}
 
-					if (objectURI == null) {
+	private static Triple createTriple(final Relationship rel) throws DMPGraphException {
 
-						final String message = "object URI can't be null";
+		// subject
 
-						BaseRDFExporter.LOG.error(message);
+		final Node subjectNode = rel.getStartNode();
+		final NodeType subjectNodeType = GraphUtils.determineNodeType(subjectNode);
 
-						throw new DMPGraphException(message);
-					}
+		final com.hp.hpl.jena.graph.Node subjectRDFNode;
 
-					objectRDFNode = createResourceFromURI(objectURI, model);
+		switch (subjectNodeType) {
 
-					break;
-				case BNode:
-				case TypeBNode:
+			case Resource:
+			case TypeResource:
 
-					final long objectId = objectNode.getId();
+				final String subjectURI = (String) subjectNode.getProperty(GraphStatics.URI_PROPERTY, null);
 
-					objectRDFNode = createResourceFromBNode(objectId, model);
+				if (subjectURI == null) {
 
-					break;
-				case Literal:
+					final String message = "subject URI can't be null";
+
+					BaseRDFExporter.LOG.error(message);
+
+					throw new DMPGraphException(message);
+				}
+
+				subjectRDFNode = NodeFactory.createURI(subjectURI);
 
-					final Node endNode = objectNode;
-					final String object = (String) endNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
+				break;
+			case BNode:
+			case TypeBNode:
 
-					if (object == null) {
+				subjectRDFNode = createBNode(subjectNode.getId());
 
-						final String message = "object value can't be null";
+				break;
+			default:
 
-						BaseRDFExporter.LOG.error(message);
+				final String message = "subject node type can only be a resource (or type resource) or bnode (or type bnode)";
 
-						throw new DMPGraphException(message);
-					}
+				BaseRDFExporter.LOG.error(message);
 
-					if (endNode.hasProperty(GraphStatics.DATATYPE_PROPERTY)) {
+				throw new DMPGraphException(message);
+		}
 
-						final String literalType = (String) endNode.getProperty(GraphStatics.DATATYPE_PROPERTY, null);
+		// predicate
 
-						if (literalType != null) {
+		final String predicate = rel.getType().name();
+		final com.hp.hpl.jena.graph.Node predicateRDFNode = NodeFactory.createURI(predicate);
 
-							// object is a typed literal node
+		// object
 
-							objectRDFNode = model.createTypedLiteral(object, literalType);
+		final Node objectNode = rel.getEndNode();
+		final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
 
-							break;
-						}
-					}
+		final com.hp.hpl.jena.graph.Node objectRDFNode;
 
-					// object is an untyped literal node
+		switch (objectNodeType) {
 
-					objectRDFNode = model.createLiteral(object);
+			case Resource:
+			case TypeResource:
 
-					break;
-				default:
+				final String objectURI = (String) objectNode.getProperty(GraphStatics.URI_PROPERTY, null);
+
+				if (objectURI == null) {
 
-					final String message = "unknown node type " + objectNodeType.getName() + " for object node";
+					final String message = "object URI can't be null";
 
 					BaseRDFExporter.LOG.error(message);
 
 					throw new DMPGraphException(message);
-			}
+				}
 
-			if (subjectResource == null || predicateProperty == null || objectRDFNode == null) {
+				objectRDFNode = NodeFactory.createURI(objectURI);
 
-				final String message = "couldn't determine the complete statement (subject-predicate-object + data model) for relationship '"
-						+ rel.getId() + "'";
+				break;
+			case BNode:
+			case TypeBNode:
 
-				BaseRDFExporter.LOG.error(message);
+				objectRDFNode = createBNode(objectNode.getId());
 
-				throw new DMPGraphException(message);
-			}
+				break;
+			case Literal:
 
-			model.add(subjectResource, predicateProperty, objectRDFNode);
+				final String object = (String) objectNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
 
-			successfullyProcessedStatements++;
-		}
+				if (object == null) {
 
-		private Resource createResourceFromBNode(final long bnodeId, final Model model) {
+					final String message = "object value can't be null";
 
-			if (!bnodes.containsKey(bnodeId)) {
+					BaseRDFExporter.LOG.error(message);
 
-				bnodes.put(bnodeId, model.createResource());
-			}
+					throw new DMPGraphException(message);
+				}
 
-			return bnodes.get(bnodeId);
-		}
+				final String literalType = (String) objectNode.getProperty(GraphStatics.DATATYPE_PROPERTY, null);
 
-		private Resource createResourceFromURI(final String uri, final Model model) {
+				if (literalType != null) {
 
-			if (!resources.containsKey(uri)) {
+					// object is a typed literal node
 
-				resources.put(uri, model.createResource(uri));
-			}
+					objectRDFNode = NodeFactory.createLiteral(object, TypeMapper.getInstance().getSafeTypeByName(literalType));
+
+					break;
+				}
+
+				// object is an untyped literal node
+
+				objectRDFNode = NodeFactory.createLiteral(object);
 
-			return resources.get(uri);
+				break;
+			default:
+
+				final String message = "unknown node type " + objectNodeType.getName() + " for object node";
+
+				BaseRDFExporter.LOG.error(message);
+
+				throw new DMPGraphException(message);
 		}
+
+		return Triple.create(subjectRDFNode, predicateRDFNode, objectRDFNode);
+	}
+
+	private static com.hp.hpl.jena.graph.Node createBNode(final long bnodeId) {
+
+		return NodeFactory.createAnon(new AnonId("b" + bnodeId));
 	}
 
 	@Override
@@ -16,27 +16,29 @@
  */
 package org.dswarm.graph.rdf.export;
 
-import java.util.Map;
-import java.util.Map.Entry;
-
-import com.hp.hpl.jena.query.Dataset;
-import com.hp.hpl.jena.query.DatasetFactory;
-import org.neo4j.cypher.javacompat.ExecutionEngine;
-import org.neo4j.cypher.javacompat.ExecutionResult;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.read.RelationshipHandler;
 
 public class DataModelRDFExporter extends BaseRDFExporter {
 
 	private static final Logger	LOG				= LoggerFactory.getLogger(DataModelRDFExporter.class);
 
-	public static final int CYPHER_LIMIT = 1000;
+	/**
+	 * the number of exported relationships after that the export progress will be logged
+	 */
+	public static final int SLICE_SIZE = 1000;
 
 	private final String dataModelURI;
 
@@ -47,77 +49,70 @@ public class DataModelRDFExporter extends BaseRDFExporter {
 	}
 
 	/**
-	 * export a data model identified by dataModelURI
-	 *
-	 * @return a data model identified by dataModelURI
+	 * export a data model identified by dataModelURI<br/>
+	 * note: the relationships of the data model are looked up via the statement uuids with data model index, i.e., the export is linear
+	 * in the size of the data model (and not in the size of the graph)
 	 */
 	@Override
-	public Dataset export() throws DMPGraphException {
+	protected void processRelationships(final RelationshipHandler relationshipHandler) throws DMPGraphException {
 
 		DataModelRDFExporter.LOG.debug("start exporting data for dataModelURI \"" + dataModelURI + "\"");
 
 		try (final Transaction tx = database.beginTx()) {
-			// SR TODO: Keep the ExecutionEngine around, don’t create a new one for each query! (see
-			// http://docs.neo4j.org/chunked/milestone/tutorials-cypher-java.html)
-			// ...on the other hand we won't need the export very often
-			final ExecutionEngine engine = new ExecutionEngine(database);
 
-			dataset = DatasetFactory.createMem();
+			if (!database.index().existsForRelationships(GraphIndexStatics.STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME)) {
 
-			boolean requestResults = true;
-			long start = 0;
+				DataModelRDFExporter.LOG.debug("there are no statements of any data model, i.e., nothing needs to be exported");
 
-			while (requestResults) {
+				tx.success();
 
-				final ExecutionResult result = engine.execute("MATCH (n)-[r]->(m) WHERE r." + GraphStatics.DATA_MODEL_PROPERTY + " = \""
-						+ dataModelURI + "\" RETURN DISTINCT r ORDER BY id(r) SKIP " + start + " LIMIT " + DataModelRDFExporter.CYPHER_LIMIT);
-
-				start += DataModelRDFExporter.CYPHER_LIMIT;
-				requestResults = false;
+				return;
+			}
 
-				// please note that the Jena model implementation has its size limits (~1 mio statements (?) -> so one graph (of
-				// one data resource) need to keep this size in mind)
-				if (BaseRDFExporter.JENA_MODEL_WARNING_SIZE == start) {
-					DataModelRDFExporter.LOG.warn("reached " + BaseRDFExporter.JENA_MODEL_WARNING_SIZE
-							+ " statements. This is approximately the jena model implementation size limit.");
-				}
+			final Index<Relationship> statementUUIDsWDataModel = database.index().forRelationships(
+					GraphIndexStatics.STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME);
 
-				// activate for debug
-				// StringBuilder rows = new StringBuilder("\n\n");
+			final IndexHits<Relationship> hits = statementUUIDsWDataModel.query(new PrefixQuery(new Term(GraphStatics.UUID_W_DATA_MODEL,
+					dataModelURI + ".")));
 
-				for (final Map<String, Object> row : result) {
-					for (final Entry<String, Object> column : row.entrySet()) {
+			long exported = 0;
 
-						final Relationship relationship = (Relationship) column.getValue();
+			try {
 
-						// rows.append(column.getKey()).append(": ");
-						// rows.append(relationship).append(": ");
-						// rows.append("has dataModelURI \"").append(relationship.getProperty("__DATA_MODEL__")).append("\", ");
+				for (final Relationship relationship : hits) {
 
-						// SR TODO to check: do we need to do all the stuff the RelationshipHandler does?
-						relationshipHandler.handleRelationship(relationship);
+					// the prefix query also matches statements of data models whose URI starts with "<data model URI>."
+					if (!dataModelURI.equals(relationship.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null))) {
 
-						requestResults = true;
+						continue;
+					}
 
-						// for (Node node : relationship.getNodes()) {
-						// rows.append("NodeID ").append(node.getId()).append(" (is in relationships [");
+					// SR TODO to check: do we need to do all the stuff the RelationshipHandler does?
+					relationshipHandler.handleRelationship(relationship);
 
-						// for (Relationship relation : node.getRelationships()) {
-						// rows.append(relation.getId()).append(", ");
-						// }
+					exported++;
 
-						// rows.append("]), ");
-						// }
+					if (exported % DataModelRDFExporter.SLICE_SIZE == 0) {
 
-						// rows.append(";\n");
+						DataModelRDFExporter.LOG.debug("exported " + exported + " relationships (last relationship id = '" + relationship.getId()
+								+ "')");
+					}
 
+					// please note that the Jena model implementation has its size limits (~1 mio statements (?) -> so one graph (of
+					// one data resource) need to keep this size in mind)
+					if (dataset != null && BaseRDFExporter.JENA_MODEL_WARNING_SIZE == exported) {
+						DataModelRDFExporter.LOG.warn("reached " + BaseRDFExporter.JENA_MODEL_WARNING_SIZE
+								+ " statements. This is approximately the jena model implementation size limit.");
 					}
-					// rows.append("\n");
 				}
-				// rows.append("\n");
-				// LOG.debug(rows.toString());
+			} finally {
+
+				hits.close();
 			}
 
+			DataModelRDFExporter.LOG.debug("finished exporting " + exported + " relationships for dataModelURI \"" + dataModelURI + "\"");
+
+			tx.success();
 		}  catch (final Exception e) {
 
 			final String mesage = "couldn't finish read RDF TX successfully";
@@ -126,8 +121,6 @@ public class DataModelRDFExporter extends BaseRDFExporter {
 
 			throw new DMPGraphException(mesage);
 		}
-
-		return dataset;
 	}
 
 }
@@ -16,8 +16,6 @@
  */
 package org.dswarm.graph.rdf.export;
 
-import com.hp.hpl.jena.query.Dataset;
-import com.hp.hpl.jena.query.DatasetFactory;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
@@ -26,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.read.RelationshipHandler;
 
 public class GraphRDFExporter extends BaseRDFExporter {
 
@@ -36,7 +35,7 @@ public class GraphRDFExporter extends BaseRDFExporter {
 	}
 
 	@Override
-	public Dataset export() throws DMPGraphException {
+	protected void processRelationships(final RelationshipHandler relationshipHandler) throws DMPGraphException {
 
 		try (final Transaction tx = database.beginTx()) {
 
@@ -48,19 +47,15 @@ public class GraphRDFExporter extends BaseRDFExporter {
 
 			final GlobalGraphOperations globalGraphOperations = GlobalGraphOperations.at(database);
 
-			// TODO: maybe slice this a bit, and deliver the whole graph in pieces
-
 			final Iterable<Relationship> relations = globalGraphOperations.getAllRelationships();
 
 			if (relations == null) {
 
 				tx.success();
 
-				return null;
+				return;
 			}
 
-			dataset = DatasetFactory.createMem();
-
 			for (final Relationship recordNode : relations) {
 
 				relationshipHandler.handleRelationship(recordNode);
@@ -69,21 +64,19 @@ public class GraphRDFExporter extends BaseRDFExporter {
 			// please also note that the Jena model implementation has its size limits (~1 mio statements (?) -> so one graph
 			// (of
 			// one data resource) need to keep this size in mind)
-			if (BaseRDFExporter.JENA_MODEL_WARNING_SIZE == successfullyProcessedStatements) {
+			if (dataset != null && BaseRDFExporter.JENA_MODEL_WARNING_SIZE <= successfullyProcessedStatements) {
 				GraphRDFExporter.LOG.warn("reached " + BaseRDFExporter.JENA_MODEL_WARNING_SIZE
 						+ " statements. This is approximately the jena model implementation size limit.");
 			}
 
-				tx.success();
-			} catch (final Exception e) {
+			tx.success();
+		} catch (final Exception e) {
 
-				final String mesage = "couldn't finish read RDF TX successfully";
+			final String mesage = "couldn't finish read RDF TX successfully";
 
 			GraphRDFExporter.LOG.error(mesage, e);
 
-				throw new DMPGraphException(mesage);
-			}
-
-			return dataset;
+			throw new DMPGraphException(mesage);
 		}
+	}
 }
@@ -16,6 +16,9 @@
  */
 package org.dswarm.graph.rdf.export;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import com.hp.hpl.jena.query.Dataset;
 
 import org.dswarm.graph.DMPGraphException;
@@ -27,6 +30,17 @@ public interface RDFExporter {
 
 	public Dataset export() throws DMPGraphException;
 
+	/**
+	 * Exports the statements directly into the given output stream, i.e., as N-Triples or as N-Quads with the data model URIs as
+	 * graphs (without collecting them in a dataset beforehand).
+	 *
+	 * @param outputStream the stream to write the statements into
+	 * @param withDataModelGraphs true, if the statements should be written as N-Quads, otherwise false (N-Triples)
+	 * @throws DMPGraphException
+	 * @throws IOException
+	 */
+	public void export(final OutputStream outputStream, final boolean withDataModelGraphs) throws DMPGraphException, IOException;
+
 	public long countStatements();
 
 	public long processedStatements();
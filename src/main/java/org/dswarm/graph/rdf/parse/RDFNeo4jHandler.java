@@ -20,6 +20,7 @@ import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.model.StatementBuilder;
 import org.dswarm.graph.parse.BaseNeo4jHandler;
+import org.dswarm.graph.parse.CommitPolicy;
 import org.dswarm.graph.parse.Neo4jHandler;
 import org.dswarm.graph.rdf.RDFNeo4jProcessor;
 import org.dswarm.graph.rdf.utils.NodeTypeUtils;
@@ -53,6 +54,16 @@ public abstract class RDFNeo4jHandler implements RDFHandler {
 		return handler;
 	}
 
+	/**
+	 * Sets the policy that decides when the current transaction of the underlying write handler should be committed.
+	 *
+	 * @param commitPolicy the commit policy of this write request
+	 */
+	public void setCommitPolicy(final CommitPolicy commitPolicy) {
+
+		handler.setCommitPolicy(commitPolicy);
+	}
+
 	@Override
 	public void handleStatement(final Statement st) throws DMPGraphException {
 
@@ -0,0 +1,107 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.rdf.parse;
+
+import java.io.InputStream;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+import org.dswarm.graph.DMPGraphException;
+
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+
+/**
+ * A parser that hands the statements of a serialised RDF document to the RDF handler while they are parsed (via a RIOT stream
+ * sink), i.e., the document is never held as a Jena model in memory (in contrast to {@link JenaModelParser}).
+ *
+ * @author tgaengler
+ */
+public class StreamRDFParser implements RDFParser {
+
+	private RDFHandler			rdfHandler;
+	private final InputStream	inputStream;
+	private final Lang			lang;
+
+	/**
+	 * note: this model is only utilised to wrap the parsed triples as statements, i.e., it always stays empty
+	 */
+	private final Model			statementFactory	= ModelFactory.createDefaultModel();
+
+	public StreamRDFParser(final InputStream inputStreamArg, final Lang langArg) {
+
+		inputStream = inputStreamArg;
+		lang = langArg;
+	}
+
+	@Override
+	public void setRDFHandler(final RDFHandler handler) {
+
+		rdfHandler = handler;
+	}
+
+	@Override
+	public void parse() throws DMPGraphException {
+
+		try {
+
+			RDFDataMgr.parse(new StatementSink(), inputStream, null, lang);
+		} catch (final HandlerException e) {
+
+			throw e.getCause();
+		} catch (final RiotException e) {
+
+			throw new DMPGraphException("couldn't parse RDF statements", e);
+		}
+	}
+
+	private class StatementSink extends StreamRDFBase {
+
+		@Override
+		public void triple(final Triple triple) {
+
+			try {
+
+				rdfHandler.handleStatement(statementFactory.asStatement(triple));
+			} catch (final DMPGraphException e) {
+
+				// the stream sink cannot throw checked exceptions
+				throw new HandlerException(e);
+			}
+		}
+	}
+
+	private static class HandlerException extends RuntimeException {
+
+		private static final long	serialVersionUID	= 1L;
+
+		private HandlerException(final DMPGraphException cause) {
+
+			super(cause);
+		}
+
+		@Override
+		public synchronized DMPGraphException getCause() {
+
+			return (DMPGraphException) super.getCause();
+		}
+	}
+}
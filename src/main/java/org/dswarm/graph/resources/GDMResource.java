@@ -18,23 +18,36 @@ package org.dswarm.graph.resources;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.AttributePath;
@@ -56,8 +69,9 @@ import org.dswarm.graph.delta.match.model.SubGraphLeafEntity;
 import org.dswarm.graph.delta.match.model.ValueEntity;
 import org.dswarm.graph.delta.match.model.util.CSEntityUtil;
 import org.dswarm.graph.delta.util.AttributePathUtil;
-import org.dswarm.graph.delta.util.ChangesetUtil;
 import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.delta.util.ImpermanentGraphDatabasePool;
+import org.dswarm.graph.delta.util.PathIndex;
 import org.dswarm.graph.gdm.DataModelGDMNeo4jProcessor;
 import org.dswarm.graph.gdm.GDMNeo4jProcessor;
 import org.dswarm.graph.gdm.SimpleGDMNeo4jProcessor;
@@ -68,44 +82,48 @@ import org.dswarm.graph.gdm.parse.GDMModelParser;
 import org.dswarm.graph.gdm.parse.GDMNeo4jHandler;
 import org.dswarm.graph.gdm.parse.GDMParser;
 import org.dswarm.graph.gdm.parse.GDMResourceParser;
+import org.dswarm.graph.gdm.parse.GDMResourceStreamReader;
+import org.dswarm.graph.gdm.parse.GDMStreamParser;
 import org.dswarm.graph.gdm.parse.GDMUpdateHandler;
 import org.dswarm.graph.gdm.parse.GDMUpdateParser;
 import org.dswarm.graph.gdm.parse.Neo4jDeltaGDMHandler;
 import org.dswarm.graph.gdm.parse.SimpleGDMNeo4jHandler;
 import org.dswarm.graph.gdm.read.GDMModelReader;
+import org.dswarm.graph.gdm.read.GDMResourceHandler;
 import org.dswarm.graph.gdm.read.GDMResourceReader;
 import org.dswarm.graph.gdm.read.PropertyGraphGDMModelReader;
-import org.dswarm.graph.gdm.read.PropertyGraphGDMResourceByIDReader;
 import org.dswarm.graph.gdm.read.PropertyGraphGDMResourceByURIReader;
 import org.dswarm.graph.gdm.work.GDMWorker;
 import org.dswarm.graph.gdm.work.PropertyEnrichGDMWorker;
-import org.dswarm.graph.gdm.work.PropertyGraphDeltaGDMSubGraphWorker;
+import org.dswarm.graph.gdm.work.PropertyGraphDeltaGDMChangesetWorker;
+import org.dswarm.graph.index.RecordFingerprints;
 import org.dswarm.graph.json.Model;
 import org.dswarm.graph.json.Resource;
-import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.json.util.Util;
 import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.parse.CommitPolicy;
 import org.dswarm.graph.parse.Neo4jUpdateHandler;
+import org.dswarm.graph.utils.ExecutionEngines;
 import org.dswarm.graph.versioning.VersioningStatics;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.ResourceIterable;
-import org.neo4j.graphdb.factory.GraphDatabaseSettings;
-import org.neo4j.helpers.Pair;
-import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Optional;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.sun.jersey.multipart.BodyPart;
 import com.sun.jersey.multipart.BodyPartEntity;
 import com.sun.jersey.multipart.MultiPart;
@@ -116,19 +134,44 @@ import com.sun.jersey.multipart.MultiPart;
 @Path("/gdm")
 public class GDMResource {
 
-	private static final Logger				LOG								= LoggerFactory.getLogger(GDMResource.class);
+	private static final Logger							LOG								= LoggerFactory.getLogger(GDMResource.class);
 
 	/**
 	 * The object mapper that can be utilised to de-/serialise JSON nodes.
 	 */
-	private final ObjectMapper				objectMapper;
-	private final TestGraphDatabaseFactory	impermanentGraphDatabaseFactory;
-	private static final String				IMPERMANENT_GRAPH_DATABASE_PATH	= "target/test-data/impermanent-db/";
+	private final ObjectMapper							objectMapper;
+	private static final String							IMPERMANENT_GRAPH_DATABASE_PATH	= "target/test-data/impermanent-db/";
+
+	/**
+	 * The number of threads that calculate resource deltas concurrently.
+	 */
+	private static final int							DELTA_WORKERS					= Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The maximum number of resources whose delta is currently calculated or waits for being written.
+	 */
+	private static final int							DELTA_WINDOW_SIZE				= 2 * DELTA_WORKERS;
+
+	/**
+	 * The number of incoming resources whose existing records are resolved at once.
+	 */
+	private static final int							RECORD_RESOLUTION_BATCH_SIZE	= 100;
+
+	/**
+	 * The number of deprecated statements of missing records after which the write TX will be committed.
+	 */
+	private static final int							DEPRECATION_CHUNK_SIZE			= 50000;
+
+	/**
+	 * The working graph DBs for the delta calculation of single resources (two per resource), whereby this resource class is instantiated
+	 * per request.
+	 */
+	private static final ImpermanentGraphDatabasePool	DELTA_DB_POOL					= new ImpermanentGraphDatabasePool(IMPERMANENT_GRAPH_DATABASE_PATH,
+			2 * DELTA_WINDOW_SIZE);
 
 	public GDMResource() {
 
 		objectMapper = Util.getJSONObjectMapper();
-		impermanentGraphDatabaseFactory = new TestGraphDatabaseFactory();
 	}
 
 	@GET
@@ -140,13 +183,25 @@ public class GDMResource {
 		return "pong";
 	}
 
+	/**
+	 * Writes the GDM resources of the first body part into the data model of the second body part. When a content schema is given (third
+	 * body part), the delta of the resources will be calculated, and missing records will be deprecated, if requested (fourth and fifth
+	 * body part).<br/>
+	 * Note: the write and the deprecation of missing records are committed chunk-wise, i.e., when the request fails, the statements of
+	 * the already committed chunks remain in the DB (and some missing records might be deprecated partly). The data model version won't
+	 * be updated in this case, i.e., the request can simply be repeated to complete the write and the deprecation.
+	 */
 	@POST
 	@Path("/put")
 	@Consumes("multipart/mixed")
-	public Response writeGDM(final MultiPart multiPart, @Context final GraphDatabaseService database) throws DMPGraphException, IOException {
+	public Response writeGDM(final MultiPart multiPart, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
+			throws DMPGraphException, IOException {
 
 		LOG.debug("try to process GDM statements and write them into graph db");
 
+		final CommitPolicy commitPolicy = GDMResource.createCommitPolicy(commitSize, adaptiveCommits);
+
 		final BodyPartEntity bpe = (BodyPartEntity) multiPart.getBodyParts().get(0).getEntity();
 		final InputStream gdmInputStream = bpe.getInputStream();
 
@@ -161,34 +216,9 @@ public class GDMResource {
 
 		final String dataModelURI = multiPart.getBodyParts().get(1).getEntityAs(String.class);
 
-		final ObjectMapper mapper = Util.getJSONObjectMapper();
-
-		Model model = null;
-
-		try {
-
-			model = mapper.readValue(gdmInputStream, Model.class);
-		} catch (IOException e) {
-
-			final String message = "could not deserialise GDM JSON for write to graph DB request";
+		// resources will be deserialised one by one, while they are written into the graph db
+		final GDMResourceStreamReader gdmReader = new GDMResourceStreamReader(gdmInputStream);
 
-			GDMResource.LOG.error(message);
-
-			throw new DMPGraphException(message, e);
-		}
-
-		if (model == null) {
-
-			final String message = "could not deserialise GDM JSON for write to graph DB request";
-
-			GDMResource.LOG.error(message);
-
-			gdmInputStream.close();
-
-			throw new DMPGraphException(message);
-		}
-
-		LOG.debug("deserialized GDM statements that were serialised as JSON");
 		LOG.debug("try to write GDM statements into graph db");
 
 		final GDMNeo4jProcessor processor = new DataModelGDMNeo4jProcessor(database, dataModelURI);
@@ -196,6 +226,7 @@ public class GDMResource {
 		try {
 
 			final GDMNeo4jHandler handler = new DataModelGDMNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
 
 			if (multiPart.getBodyParts().size() >= 3) {
 
@@ -235,10 +266,9 @@ public class GDMResource {
 					deprecateMissingRecords = Boolean.FALSE;
 				}
 
-				// = new resources model, since existing, modified resources were already written to the DB
-				final Pair<Model, Set<String>> result = calculateDeltaForDataModel(model, contentSchema, dataModelURI, database, handler);
-
-				model = result.first();
+				// note: new resources are written to the DB at delta calculation as well, i.e., the whole stream is consumed
+				final Set<String> processedResources = calculateDeltaForDataModel(gdmReader, contentSchema, dataModelURI, database, handler,
+						processor);
 
 				if (deprecateMissingRecords != null && deprecateMissingRecords) {
 
@@ -260,21 +290,17 @@ public class GDMResource {
 
 					// deprecate missing records in DB
 
-					final Set<String> processedResources = result.other();
-
 					deprecateMissingRecords(processedResources, recordClassUri, dataModelURI, ((Neo4jUpdateHandler) handler.getHandler())
 							.getVersionHandler().getLatestVersion(), processor);
 				}
 			}
 
-			if (model.size() > 0) {
-
-				// parse model only, when model contains some resources
+			// parse remaining resources, i.e., all resources, when no delta calculation was done
+			final GDMParser parser = new GDMStreamParser(gdmReader);
+			parser.setGDMHandler(handler);
+			parser.parse();
 
-				final GDMParser parser = new GDMModelParser(model);
-				parser.setGDMHandler(handler);
-				parser.parse();
-			} else {
+			if (gdmReader.getResourcesCount() == 0) {
 
 				GDMResource.LOG.debug("model contains no resources, i.e., nothing needs to be written to the DB");
 			}
@@ -310,10 +336,14 @@ public class GDMResource {
 	@POST
 	@Path("/put")
 	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
-	public Response writeGDM(final InputStream inputStream, @Context final GraphDatabaseService database) throws DMPGraphException, IOException {
+	public Response writeGDM(final InputStream inputStream, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
+			throws DMPGraphException, IOException {
 
 		LOG.debug("try to process GDM statements and write them into graph db");
 
+		final CommitPolicy commitPolicy = GDMResource.createCommitPolicy(commitSize, adaptiveCommits);
+
 		if (inputStream == null) {
 
 			final String message = "input stream for write to graph DB request is null";
@@ -323,32 +353,8 @@ public class GDMResource {
 			throw new DMPGraphException(message);
 		}
 
-		final ObjectMapper mapper = Util.getJSONObjectMapper();
-
-		Model model = null;
-		try {
-			model = mapper.readValue(inputStream, Model.class);
-		} catch (IOException e) {
-
-			final String message = "could not deserialise GDM JSON for write to graph DB request";
-
-			GDMResource.LOG.error(message);
-
-			throw new DMPGraphException(message, e);
-		}
-
-		if (model == null) {
-
-			final String message = "could not deserialise GDM JSON for write to graph DB request";
-
-			GDMResource.LOG.error(message);
-
-			inputStream.close();
-
-			throw new DMPGraphException(message);
-		}
-
-		LOG.debug("deserialized GDM statements that were serialised as Turtle and N3");
+		// resources will be deserialised one by one, while they are written into the graph db
+		final GDMResourceStreamReader gdmReader = new GDMResourceStreamReader(inputStream);
 
 		LOG.debug("try to write GDM statements into graph db");
 
@@ -356,8 +362,9 @@ public class GDMResource {
 
 		try {
 
-			final GDMHandler handler = new SimpleGDMNeo4jHandler(processor);
-			final GDMParser parser = new GDMModelParser(model);
+			final GDMNeo4jHandler handler = new SimpleGDMNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
+			final GDMParser parser = new GDMStreamParser(gdmReader);
 			parser.setGDMHandler(handler);
 			parser.parse();
 			handler.getHandler().closeTransaction();
@@ -418,101 +425,513 @@ public class GDMResource {
 				+ "' and version = '" + version + "' from graph db");
 
 		final GDMModelReader gdmReader = new PropertyGraphGDMModelReader(recordClassUri, dataModelUri, version, database);
-		final Model model = gdmReader.read();
 
-		String result = null;
-		try {
-			result = objectMapper.writeValueAsString(model);
-		} catch (final JsonProcessingException e) {
+		final StreamingOutput result = new StreamingOutput() {
 
-			throw new DMPGraphException("some problems occur, while processing the JSON from the GDM model", e);
-		}
+			@Override
+			public void write(final OutputStream outputStream) throws IOException, WebApplicationException {
+
+				final JsonGenerator jg = objectMapper.getFactory().createGenerator(outputStream);
+
+				// a GDM model is serialised as an array of resources
+				jg.writeStartArray();
+
+				try {
+
+					gdmReader.read(new GDMResourceHandler() {
+
+						@Override
+						public void handleResource(final Resource resource) throws DMPGraphException {
 
-		GDMResource.LOG.debug("finished reading '" + model.size() + "' GDM statements ('" + gdmReader.countStatements()
-				+ "' via GDM reader) for data model uri = '" + dataModelUri + "' and record class uri = '" + recordClassUri + "' and version = '"
-				+ version + "' from graph db");
+							writeResource(resource, jg);
+						}
+					});
+				} catch (final DMPGraphException e) {
+
+					GDMResource.LOG.error("couldn't stream GDM statements from graph db", e);
+
+					throw new WebApplicationException(e);
+				}
+
+				jg.writeEndArray();
+				jg.close();
+
+				GDMResource.LOG.debug("finished reading '" + gdmReader.countStatements() + "' GDM statements for data model uri = '" + dataModelUri
+						+ "' and record class uri = '" + recordClassUri + "' and version = '" + version + "' from graph db");
+			}
+		};
 
 		return Response.ok().entity(result).build();
 	}
 
-	private Pair<Model, Set<String>> calculateDeltaForDataModel(final Model model, final ContentSchema contentSchema, final String dataModelURI,
-			final GraphDatabaseService permanentDatabase, final GDMUpdateHandler handler) throws DMPGraphException {
+	/**
+	 * Writes the given resource in the same way as it would be serialised as part of a GDM model, i.e., as single element of the
+	 * resources array.
+	 *
+	 * @param resource the resource that should be written
+	 * @param jg the generator of the GDM model JSON
+	 * @throws DMPGraphException if the resource couldn't be written
+	 */
+	private void writeResource(final Resource resource, final JsonGenerator jg) throws DMPGraphException {
+
+		final Model resourceModel = new Model();
+		resourceModel.addResource(resource);
+
+		try {
+
+			final JsonNode resourceModelJSON = objectMapper.valueToTree(resourceModel);
+
+			for (final JsonNode resourceJSON : resourceModelJSON) {
+
+				objectMapper.writeTree(jg, resourceJSON);
+			}
+		} catch (final IOException | IllegalArgumentException e) {
+
+			throw new DMPGraphException("some problems occur, while processing the JSON from the GDM resource '" + resource.getUri() + "'", e);
+		}
+	}
+
+	/**
+	 * Calculates the delta for the resources of the given GDM stream resource-wise and writes the changes to the graph DB. Resources that
+	 * don't exist in the data model yet are written to the graph DB immediately.<br/>
+	 * The deltas of the resources are calculated concurrently by a pool of delta workers, while the writing of the changesets is done
+	 * sequentially (in the order of the incoming resources) in the calling thread. The delta workers read the committed state of the
+	 * permanent graph DB only. Hence, when a resource occurs more than once in the GDM stream (i.e. with the same record key or resource
+	 * URI), all pending resource deltas are written and the write TX is committed before the delta of the repeated resource is
+	 * calculated (i.e. it is compared with the version of this request).
+	 *
+	 * @return the URIs of the existing resources that were matched by an incoming resource and the URIs of the new resources
+	 */
+	private Set<String> calculateDeltaForDataModel(final GDMResourceStreamReader gdmResourceReader, final ContentSchema contentSchema,
+			final String dataModelURI, final GraphDatabaseService permanentDatabase, final GDMUpdateHandler handler, final GDMNeo4jProcessor processor)
+			throws DMPGraphException {
 
-		GDMResource.LOG.debug("start calculating delta for model");
+		GDMResource.LOG.debug("start calculating delta for model with " + DELTA_WORKERS + " delta workers");
 
-		final Model newResourcesModel = new Model();
 		final Set<String> processedResources = new HashSet<>();
+		final Set<String> seenRecordKeys = new HashSet<>();
+
+		final ExecutorService deltaWorkers = Executors.newFixedThreadPool(DELTA_WORKERS);
+		final Queue<Future<ResourceDelta>> pendingResourceDeltas = new ArrayDeque<>();
+		final AtomicBoolean aborted = new AtomicBoolean(false);
 
-		// calculate delta resource-wise
-		for (Resource newResource : model.getResources()) {
+		boolean finished = false;
 
-			final String resourceURI = newResource.getUri();
-			final String hash = UUID.randomUUID().toString();
-			final GraphDatabaseService newResourceDB = loadResource(newResource, IMPERMANENT_GRAPH_DATABASE_PATH + hash + "2");
+		try {
+
+			// calculate delta resource-wise, whereby the existing records are resolved batch-wise
+			final List<Resource> newResources = new ArrayList<>(RECORD_RESOLUTION_BATCH_SIZE);
+			Resource newResource;
+
+			while ((newResource = gdmResourceReader.read()) != null) {
+
+				if (!markRecordKeysAsSeen(newResource, contentSchema, dataModelURI, seenRecordKeys)) {
+
+					GDMResource.LOG.debug("resource '" + newResource.getUri()
+							+ "' occurs more than once in this model, i.e., write pending resource deltas and commit them first");
+
+					submitResourceDeltas(newResources, contentSchema, dataModelURI, permanentDatabase, deltaWorkers, pendingResourceDeltas,
+							aborted, processedResources, handler, processor);
+
+					while (!pendingResourceDeltas.isEmpty()) {
+
+						writeResourceDelta(pendingResourceDeltas.poll(), processedResources, dataModelURI, handler, processor);
+					}
+
+					processor.getProcessor().renewTx();
+				}
+
+				newResources.add(newResource);
+
+				if (newResources.size() >= RECORD_RESOLUTION_BATCH_SIZE) {
+
+					submitResourceDeltas(newResources, contentSchema, dataModelURI, permanentDatabase, deltaWorkers, pendingResourceDeltas,
+							aborted, processedResources, handler, processor);
+				}
+			}
+
+			submitResourceDeltas(newResources, contentSchema, dataModelURI, permanentDatabase, deltaWorkers, pendingResourceDeltas, aborted,
+					processedResources, handler, processor);
+
+			while (!pendingResourceDeltas.isEmpty()) {
+
+				writeResourceDelta(pendingResourceDeltas.poll(), processedResources, dataModelURI, handler, processor);
+			}
+
+			finished = true;
+		} finally {
+
+			if (!finished) {
+
+				// note: the delta workers aren't interrupted, i.e., they can finish their current TX in the working graph DBs
+				aborted.set(true);
 
-			final Resource existingResource;
-			final GDMResourceReader gdmReader;
+				releasePendingResourceDeltas(pendingResourceDeltas);
+			}
+
+			deltaWorkers.shutdown();
+		}
+
+		GDMResource.LOG.debug("finished calculating delta for model and writing changes to graph DB");
+		GDMResource.LOG.debug("Cypher query executions so far: " + ExecutionEngines.getExecutions() + " (repeated query texts: "
+				+ ExecutionEngines.getRepeatedQueryTexts() + ")");
+
+		return processedResources;
+	}
+
+	/**
+	 * Resolves the existing records of the given new resources at once and hands the new resources over to the delta workers (in their
+	 * incoming order). The existing records are looked up in the record fingerprints index first. Records that are not contained in this
+	 * index (e.g. records that were written without delta calculation or via the batch inserter) are resolved via their legacy record
+	 * identifiers with a single values index query for the whole batch (instead of a Cypher query per record).
+	 */
+	private void submitResourceDeltas(final List<Resource> newResources, final ContentSchema contentSchema, final String dataModelURI,
+			final GraphDatabaseService permanentDatabase, final ExecutorService deltaWorkers, final Queue<Future<ResourceDelta>> pendingResourceDeltas,
+			final AtomicBoolean aborted, final Set<String> processedResources, final GDMUpdateHandler handler, final GDMNeo4jProcessor processor)
+			throws DMPGraphException {
+
+		if (newResources.isEmpty()) {
 
-			if (contentSchema.getRecordIdentifierAttributePath() != null) {
+			return;
+		}
 
-				// determine legacy resource identifier via content schema
-				final String recordIdentifier = GraphDBUtil.determineRecordIdentifier(newResourceDB,
-						contentSchema.getRecordIdentifierAttributePath(), newResource.getUri());
+		final AttributePath recordIdentifierAP = contentSchema.getRecordIdentifierAttributePath();
+
+		final List<Optional<String>> recordKeys = new ArrayList<>(newResources.size());
+		final List<String> recordIds = new ArrayList<>(newResources.size());
+		final Set<String> presentRecordKeys = new HashSet<>();
+
+		for (final Resource newResource : newResources) {
+
+			final Optional<String> optionalRecordKey = RecordFingerprints.determineRecordKey(newResource, recordIdentifierAP, dataModelURI);
+
+			recordKeys.add(optionalRecordKey);
+
+			if (optionalRecordKey.isPresent()) {
+
+				presentRecordKeys.add(optionalRecordKey.get());
+			}
+
+			if (recordIdentifierAP != null) {
+
+				recordIds.add(RecordFingerprints.determineRecordIdentifier(newResource, recordIdentifierAP).orNull());
+			}
+		}
 
-				// try to retrieve existing model via legacy record identifier
-				gdmReader = new PropertyGraphGDMResourceByIDReader(recordIdentifier, contentSchema.getRecordIdentifierAttributePath(), dataModelURI,
-						permanentDatabase);
+		final Map<String, RecordFingerprints.IndexedRecord> indexedRecords = RecordFingerprints.getRecords(presentRecordKeys, permanentDatabase);
+		final Map<String, String> legacyRecordURIs;
+
+		if (recordIdentifierAP != null) {
+
+			final Set<String> unresolvedRecordIds = new HashSet<>();
+
+			for (int i = 0; i < newResources.size(); i++) {
+
+				final String recordId = recordIds.get(i);
+
+				if (recordId != null && !indexedRecords.containsKey(recordKeys.get(i).get())) {
+
+					unresolvedRecordIds.add(recordId);
+				}
+			}
+
+			// note: this is only necessary for records that were written without fingerprint (i.e. without record key index entry)
+			legacyRecordURIs = GraphDBUtil.determineRecordUris(unresolvedRecordIds, recordIdentifierAP, dataModelURI, permanentDatabase);
+		} else {
+
+			legacyRecordURIs = Collections.emptyMap();
+		}
+
+		for (int i = 0; i < newResources.size(); i++) {
+
+			final Resource newResource = newResources.get(i);
+			final Optional<String> optionalRecordKey = recordKeys.get(i);
+			final RecordFingerprints.IndexedRecord indexedRecord = optionalRecordKey.isPresent() ? indexedRecords.get(optionalRecordKey.get())
+					: null;
+
+			final String existingRecordURI;
+
+			if (indexedRecord != null) {
+
+				// the existing record was already resolved via its record key (legacy record identifier or resource uri)
+				existingRecordURI = indexedRecord.getRecordURI();
+			} else if (recordIdentifierAP != null) {
+
+				// the existing record was resolved via its legacy record identifier (if there is one)
+				existingRecordURI = recordIds.get(i) != null ? legacyRecordURIs.get(recordIds.get(i)) : null;
 			} else {
 
 				// try to retrieve existing model via resource uri
-				gdmReader = new PropertyGraphGDMResourceByURIReader(resourceURI, dataModelURI, permanentDatabase);
+				existingRecordURI = newResource.getUri();
 			}
 
-			existingResource = gdmReader.read();
+			if (pendingResourceDeltas.size() >= DELTA_WINDOW_SIZE) {
+
+				// write the oldest resource delta first to keep the order of the incoming resources (and to bound the number of
+				// resources that are hold in memory)
+				writeResourceDelta(pendingResourceDeltas.poll(), processedResources, dataModelURI, handler, processor);
+			}
+
+			pendingResourceDeltas.add(deltaWorkers.submit(new Callable<ResourceDelta>() {
+
+				@Override
+				public ResourceDelta call() throws DMPGraphException {
+
+					if (aborted.get()) {
+
+						return null;
+					}
+
+					final ResourceDelta resourceDelta = calculateResourceDelta(newResource, optionalRecordKey, indexedRecord, existingRecordURI,
+							contentSchema, dataModelURI, permanentDatabase);
+
+					if (aborted.get()) {
+
+						// nobody will write this resource delta
+						releaseDeltaDBs(resourceDelta.existingResourceDB, resourceDelta.newResourceDB);
+
+						return null;
+					}
+
+					return resourceDelta;
+				}
+			}));
+		}
+
+		newResources.clear();
+	}
+
+	/**
+	 * Remembers the record key (or the resource URI, if the resource doesn't provide a legacy record identifier) of the given resource.
+	 *
+	 * @return false, if a resource with this record key was already seen in this request, otherwise true
+	 */
+	private boolean markRecordKeysAsSeen(final Resource newResource, final ContentSchema contentSchema, final String dataModelURI,
+			final Set<String> seenRecordKeys) {
+
+		final Optional<String> optionalRecordKey = RecordFingerprints.determineRecordKey(newResource,
+				contentSchema.getRecordIdentifierAttributePath(), dataModelURI);
+
+		final boolean newURI = seenRecordKeys.add(dataModelURI + " " + newResource.getUri());
+
+		if (!optionalRecordKey.isPresent()) {
+
+			return newURI;
+		}
+
+		return seenRecordKeys.add(optionalRecordKey.get()) && newURI;
+	}
+
+	/**
+	 * Waits for the resource deltas that were not written (e.g. because the writing of a previous resource delta failed) and releases
+	 * their working graph DBs (note: delta workers that start or finish after the abort release their working graph DBs themselves).
+	 */
+	private void releasePendingResourceDeltas(final Queue<Future<ResourceDelta>> pendingResourceDeltas) {
+
+		Future<ResourceDelta> futureResourceDelta;
+
+		while ((futureResourceDelta = pendingResourceDeltas.poll()) != null) {
+
+			try {
 
-			if (existingResource == null) {
+				final ResourceDelta resourceDelta = futureResourceDelta.get();
 
-				// take new resource model, since there was no match in the data model graph for this resource identifier
-				newResourcesModel.addResource(newResource);
+				if (resourceDelta != null) {
 
-				newResourceDB.shutdown();
+					releaseDeltaDBs(resourceDelta.existingResourceDB, resourceDelta.newResourceDB);
+				}
+			} catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+
+				GDMResource.LOG.error("got interrupted while releasing the working graph DBs of " + (pendingResourceDeltas.size() + 1)
+						+ " pending resource deltas", e);
 
-				// we don't need to calculate the delta, since everything is new
-				continue;
+				return;
+			} catch (final ExecutionException e) {
+
+				// the delta worker released its working graph DBs already
+				GDMResource.LOG.debug("delta calculation of a pending resource failed", e.getCause());
 			}
+		}
+	}
+
+	/**
+	 * Calculates the changeset between the given new resource and its (already resolved) existing resource (note: this method is executed
+	 * by the delta workers, i.e., it shouldn't write to the permanent graph DB).
+	 *
+	 * @param indexedRecord the existing record as found via the record key of the new resource or null, if it isn't indexed
+	 * @param existingRecordURI the URI of the existing record or null, if there is no existing record
+	 * @return the resource delta, whereby the existing resource is null, if there is no existing resource for the new resource
+	 */
+	private ResourceDelta calculateResourceDelta(final Resource newResource, final Optional<String> optionalRecordKey,
+			final RecordFingerprints.IndexedRecord indexedRecord, final String existingRecordURI, final ContentSchema contentSchema,
+			final String dataModelURI, final GraphDatabaseService permanentDatabase) throws DMPGraphException {
+
+		final long fingerprint = RecordFingerprints.generateFingerprint(newResource);
+
+		if (indexedRecord != null && indexedRecord.getFingerprint() == fingerprint) {
+
+			// the record content is equal to the one of the existing record, i.e., we don't need to calculate the delta
+			return new ResourceDelta(newResource, indexedRecord.getRecordURI());
+		}
+
+		if (existingRecordURI == null) {
+
+			// we don't need to calculate the delta, since everything is new
+			return new ResourceDelta(newResource, optionalRecordKey, fingerprint);
+		}
 
-			processedResources.add(existingResource.getUri());
+		final GDMResourceReader gdmReader = new PropertyGraphGDMResourceByURIReader(existingRecordURI, dataModelURI, permanentDatabase);
+		final Resource existingResource = gdmReader.read();
 
-			// final Model newResourceModel = new Model();
-			// newResourceModel.addResource(resource);
+		if (existingResource == null) {
 
-			final GraphDatabaseService existingResourceDB = loadResource(existingResource, IMPERMANENT_GRAPH_DATABASE_PATH + hash + "1");
+			// we don't need to calculate the delta, since everything is new
+			return new ResourceDelta(newResource, optionalRecordKey, fingerprint);
+		}
+
+		// note: the working graph DBs are released here, if they are not handed over to the writer (via the resource delta)
+		GraphDatabaseService newResourceDB = null;
+		GraphDatabaseService existingResourceDB = null;
+
+		try {
+
+			newResourceDB = loadResource(newResource);
+			existingResourceDB = loadResource(existingResource);
+
+			final Changeset changeset = calculateDeltaForResource(existingResource, existingResourceDB, newResource, newResourceDB,
+					contentSchema);
+
+			final ResourceDelta resourceDelta = new ResourceDelta(newResource, newResourceDB, existingResource, existingResourceDB, changeset,
+					optionalRecordKey, fingerprint);
+
+			newResourceDB = null;
+			existingResourceDB = null;
+
+			return resourceDelta;
+		} finally {
+
+			releaseDeltaDBs(existingResourceDB, newResourceDB);
+		}
+	}
 
-			final Changeset changeset = calculateDeltaForResource(existingResource, existingResourceDB, newResource, newResourceDB, contentSchema);
+	private void writeResourceDelta(final Future<ResourceDelta> futureResourceDelta, final Set<String> processedResources,
+			final String dataModelURI, final GDMUpdateHandler handler, final GDMNeo4jProcessor processor) throws DMPGraphException {
+
+		final ResourceDelta resourceDelta = getResourceDelta(futureResourceDelta);
+
+		if (resourceDelta.unchangedRecordURI != null) {
+
+			GDMResource.LOG.debug("no changes detected for this resource (equal record fingerprint)");
+
+			processedResources.add(resourceDelta.unchangedRecordURI);
+
+			return;
+		}
+
+		if (resourceDelta.existingResource == null) {
+
+			// write new resource, since there was no match in the data model graph for this resource identifier
+			// note: new resources need to be marked as processed, so that they won't be deprecated afterwards
+			writeResource(resourceDelta.newResource, handler);
+			processedResources.add(resourceDelta.newResource.getUri());
+
+			writeRecordFingerprint(resourceDelta, resourceDelta.newResource.getUri(), dataModelURI, processor);
+
+			return;
+		}
 
-			if(!changeset.hasChanges()) {
+		processedResources.add(resourceDelta.existingResource.getUri());
+
+		try {
+
+			if (!resourceDelta.changeset.hasChanges()) {
 
 				// process changeset only, if it provides changes
 
 				GDMResource.LOG.debug("no changes detected for this resource");
 
-				shutDownDeltaDBs(existingResourceDB, newResourceDB);
+				// note: the existing record might have been written without fingerprint
+				writeRecordFingerprint(resourceDelta, resourceDelta.existingResource.getUri(), dataModelURI, processor);
 
-				continue;
+				return;
 			}
 
 			// write modified resources resource-wise - instead of the whole model at once.
-			final GDMUpdateParser parser = new GDMChangesetParser(changeset, existingResource, existingResourceDB, newResourceDB);
+			final GDMUpdateParser parser = new GDMChangesetParser(resourceDelta.changeset, resourceDelta.existingResource,
+					resourceDelta.existingResourceDB, resourceDelta.newResourceDB);
 			parser.setGDMHandler(handler);
 			parser.parse();
 
-			shutDownDeltaDBs(existingResourceDB, newResourceDB);
+			writeRecordFingerprint(resourceDelta, resourceDelta.existingResource.getUri(), dataModelURI, processor);
+		} finally {
+
+			releaseDeltaDBs(resourceDelta.existingResourceDB, resourceDelta.newResourceDB);
 		}
+	}
 
-		GDMResource.LOG.debug("finished calculating delta for model and writing changes to graph DB");
+	/**
+	 * Stores the fingerprint of the new resource at the record node that holds its content now (within the running write TX).
+	 */
+	private void writeRecordFingerprint(final ResourceDelta resourceDelta, final String recordURI, final String dataModelURI,
+			final GDMNeo4jProcessor processor) throws DMPGraphException {
+
+		if (!resourceDelta.optionalRecordKey.isPresent()) {
+
+			return;
+		}
 
-		// return only model with new, non-existing resources
-		return Pair.of(newResourcesModel, processedResources);
+		processor.getProcessor().ensureRunningTx();
+
+		final Optional<Node> optionalRecordNode = processor.getProcessor().getNodeFromResourcesWDataModelIndex(recordURI, dataModelURI);
+
+		if (!optionalRecordNode.isPresent()) {
+
+			GDMResource.LOG.debug("couldn't find record node for record '" + recordURI + "' to store its fingerprint");
+
+			return;
+		}
+
+		processor.getProcessor().setRecordFingerprint(optionalRecordNode.get(), recordURI, resourceDelta.optionalRecordKey.get(),
+				resourceDelta.fingerprint);
+	}
+
+	private ResourceDelta getResourceDelta(final Future<ResourceDelta> futureResourceDelta) throws DMPGraphException {
+
+		try {
+
+			return futureResourceDelta.get();
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new DMPGraphException("got interrupted while waiting for the delta calculation of a resource", e);
+		} catch (final ExecutionException e) {
+
+			final Throwable cause = e.getCause();
+
+			if (cause instanceof DMPGraphException) {
+
+				throw (DMPGraphException) cause;
+			}
+
+			final String message = "couldn't calculate delta for resource";
+
+			GDMResource.LOG.error(message, cause);
+
+			throw new DMPGraphException(message, cause);
+		}
+	}
+
+	private void writeResource(final Resource resource, final GDMHandler handler) throws DMPGraphException {
+
+		final Model resourceModel = new Model();
+		resourceModel.addResource(resource);
+
+		final GDMParser parser = new GDMModelParser(resourceModel);
+		parser.setGDMHandler(handler);
+		parser.parse();
 	}
 
 	private Changeset calculateDeltaForResource(final Resource existingResource, final GraphDatabaseService existingResourceDB, final Resource newResource, final GraphDatabaseService newResourceDB,
@@ -691,43 +1110,48 @@ public class GDMResource {
 			throw new DMPGraphException("new resource wasn't matched completely by the delta algo");
 		}
 
-		// traverse resource graphs to extract changeset
-		final PropertyGraphDeltaGDMSubGraphWorker addedStatementsPGDGDMSGWorker = new PropertyGraphDeltaGDMSubGraphWorker(newResource.getUri(), DeltaState.ADDITION, newResourceDB);
-		final Map<String, Statement> addedStatements = addedStatementsPGDGDMSGWorker.work();
+		// traverse resource graphs to extract changeset (i.e. one traversal per resource graph for all delta states)
+		final PropertyGraphDeltaGDMChangesetWorker newChangesetWorker = new PropertyGraphDeltaGDMChangesetWorker(newResource.getUri(), newResourceDB,
+				DeltaState.ADDITION, DeltaState.MODIFICATION);
+		newChangesetWorker.work();
 
-		final PropertyGraphDeltaGDMSubGraphWorker removedStatementsPGDGDMSGWorker = new PropertyGraphDeltaGDMSubGraphWorker(existingResource.getUri(), DeltaState.DELETION, existingResourceDB);
-		final Map<String, Statement> removedStatements = removedStatementsPGDGDMSGWorker.work();
-
-		final PropertyGraphDeltaGDMSubGraphWorker newModifiedStatementsPGDGDMSGWorker = new PropertyGraphDeltaGDMSubGraphWorker(newResource.getUri(), DeltaState.MODIFICATION, newResourceDB);
-		final Map<String, Statement> newModifiedStatements = newModifiedStatementsPGDGDMSGWorker.work();
-
-		final PropertyGraphDeltaGDMSubGraphWorker existingModifiedStatementsPGDGDMSGWorker = new PropertyGraphDeltaGDMSubGraphWorker(existingResource.getUri(), DeltaState.MODIFICATION, existingResourceDB);
-		final Map<String, Statement> existingModifiedStatements = existingModifiedStatementsPGDGDMSGWorker.work();
+		final PropertyGraphDeltaGDMChangesetWorker existingChangesetWorker = new PropertyGraphDeltaGDMChangesetWorker(existingResource.getUri(),
+				existingResourceDB, DeltaState.DELETION, DeltaState.MODIFICATION);
+		existingChangesetWorker.work();
 
 		for(final Map.Entry<ValueEntity, ValueEntity> firstDegreeModificationGDMValueModificationEntry : firstDegreeModificationGDMValueMatcher.getModifications().entrySet()) {
 
 			changesetModifications.put(firstDegreeModificationGDMValueModificationEntry.getKey().getNodeId(), firstDegreeModificationGDMValueModificationEntry.getValue().getNodeId());
 		}
 
-		final Map<Long, Statement> preparedExistingModifiedStatements = ChangesetUtil.providedModifiedStatements(existingModifiedStatements);
-		final Map<Long, Statement> preparedNewModifiedStatements = ChangesetUtil.providedModifiedStatements(newModifiedStatements);
-
 		// return a changeset model (i.e. with information for add, delete, update per triple)
-		return new Changeset(addedStatements, removedStatements, changesetModifications, preparedExistingModifiedStatements, preparedNewModifiedStatements);
+		return new Changeset(newChangesetWorker.getStatements(DeltaState.ADDITION), existingChangesetWorker.getStatements(DeltaState.DELETION),
+				changesetModifications, existingChangesetWorker.getModifiedStatements(), newChangesetWorker.getModifiedStatements());
 	}
 
-	private GraphDatabaseService loadResource(final Resource resource, final String impermanentGraphDatabaseDir) throws DMPGraphException {
+	private GraphDatabaseService loadResource(final Resource resource) throws DMPGraphException {
 
-		// TODO: find proper graph database settings to hold everything in-memory only
-		final GraphDatabaseService impermanentDB = impermanentGraphDatabaseFactory.newImpermanentDatabaseBuilder(impermanentGraphDatabaseDir)
-				.setConfig(GraphDatabaseSettings.cache_type, "strong").newGraphDatabase();
+		final GraphDatabaseService impermanentDB = DELTA_DB_POOL.acquire();
 
-		// TODO: implement handler that enriches the GDM resource with useful information for changeset detection
-		final GDMHandler handler = new Neo4jDeltaGDMHandler(impermanentDB);
+		boolean loaded = false;
 
-		final GDMParser parser = new GDMResourceParser(resource);
-		parser.setGDMHandler(handler);
-		parser.parse();
+		try {
+
+			// TODO: implement handler that enriches the GDM resource with useful information for changeset detection
+			final GDMHandler handler = new Neo4jDeltaGDMHandler(impermanentDB);
+
+			final GDMParser parser = new GDMResourceParser(resource);
+			parser.setGDMHandler(handler);
+			parser.parse();
+
+			loaded = true;
+		} finally {
+
+			if (!loaded) {
+
+				DELTA_DB_POOL.release(impermanentDB);
+			}
+		}
 
 		return impermanentDB;
 	}
@@ -736,27 +1160,32 @@ public class GDMResource {
 
 		final GDMWorker worker = new PropertyEnrichGDMWorker(resourceUri, graphDB);
 		worker.work();
-	}
 
-	private void shutDownDeltaDBs(final GraphDatabaseService existingResourceDB, final GraphDatabaseService newResourceDB) {
+		// the structure of the working graph is fixed from now on, i.e., the resource paths can be indexed once for all matchers
+		try (final Transaction tx = graphDB.beginTx()) {
 
-		GDMResource.LOG.debug("start shutting down working graph data model DBs for resources");
+			PathIndex.of(graphDB).getResourcePaths(graphDB, resourceUri);
 
-		// should probably be delegated to a background worker thread, since it looks like that shutting down the working graph
-		// DBs take some (for whatever reason)
-		final ListeningExecutorService service = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(10));
-		service.submit(new Callable<Void>() {
+			tx.success();
+		} catch (final Exception e) {
 
-			public Void call() {
+			final String message = "couldn't index paths of resource '" + resourceUri + "' successfully";
 
-				newResourceDB.shutdown();
-				existingResourceDB.shutdown();
+			GDMResource.LOG.error(message, e);
 
-				return null;
-			}
-		});
+			throw new DMPGraphException(message);
+		}
+	}
+
+	private void releaseDeltaDBs(final GraphDatabaseService existingResourceDB, final GraphDatabaseService newResourceDB) {
 
-		GDMResource.LOG.debug("finished shutting down working graph data model DBs for resources");
+		GDMResource.LOG.debug("start releasing working graph data model DBs for resources");
+
+		// note: the working graph DBs are wiped and kept for the next resources, i.e., they needn't to be shut down
+		DELTA_DB_POOL.release(newResourceDB);
+		DELTA_DB_POOL.release(existingResourceDB);
+
+		GDMResource.LOG.debug("finished releasing working graph data model DBs for resources");
 	}
 
 	private void deprecateMissingRecords(final Set<String> processedResources, final String recordClassUri, final String dataModelUri, final int latestVersion, final GDMNeo4jProcessor processor) throws DMPGraphException {
@@ -768,9 +1197,10 @@ public class GDMResource {
 
 		try {
 
+			final GraphDatabaseService database = processor.getProcessor().getDatabase();
 			final Label recordClassLabel = DynamicLabel.label(recordClassUri);
 
-			final ResourceIterable<Node> recordNodes = processor.getProcessor().getDatabase().findNodesByLabelAndProperty(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY,
+			final ResourceIterable<Node> recordNodes = database.findNodesByLabelAndProperty(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY,
 				dataModelUri);
 
 			if (recordNodes == null) {
@@ -780,51 +1210,69 @@ public class GDMResource {
 				return;
 			}
 
-			final Set<Node> notProcessedResources = new HashSet<>();
+			// note: only the ids of the missing records are kept, since the write TX will be renewed while deprecating them
+			final LongArrayList notProcessedRecordIds = new LongArrayList();
+			final ResourceIterator<Node> recordNodesIterator = recordNodes.iterator();
 
-			for (final Node recordNode : recordNodes) {
+			try {
 
-				final String resourceUri = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
+				while (recordNodesIterator.hasNext()) {
 
-				if (resourceUri == null) {
+					final Node recordNode = recordNodesIterator.next();
 
-					LOG.debug("there is no resource URI at record node '" + recordNode.getId() + "'");
+					final String resourceUri = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
 
-					continue;
-				}
+					if (resourceUri == null) {
+
+						LOG.debug("there is no resource URI at record node '" + recordNode.getId() + "'");
 
-				if(!processedResources.contains(resourceUri)) {
+						continue;
+					}
+
+					if (!processedResources.contains(resourceUri)) {
 
-					notProcessedResources.add(recordNode);
+						notProcessedRecordIds.add(recordNode.getId());
 
-					// TODO: do also need to deprecate the record nodes themselves?
+						// TODO: do also need to deprecate the record nodes themselves?
+					}
 				}
+			} finally {
+
+				recordNodesIterator.close();
 			}
 
-			for(final Node notProcessedResource : notProcessedResources) {
+			GDMResource.LOG.debug("found " + notProcessedRecordIds.size() + " missing records that need to be deprecated");
 
-				final Iterable<org.neo4j.graphdb.Path> notProcessedResourcePaths = GraphDBUtil.getResourcePaths(processor.getProcessor().getDatabase(), notProcessedResource);
+			final LongArrayList pendingNodeIds = new LongArrayList();
+			final LongOpenHashSet visitedNodeIds = new LongOpenHashSet();
 
-				if(notProcessedResourcePaths == null) {
+			long deprecatedStatements = 0;
+			long uncommittedStatements = 0;
 
-					continue;
-				}
+			for (int i = 0; i < notProcessedRecordIds.size(); i++) {
 
-				for(final org.neo4j.graphdb.Path notProcessedResourcePath : notProcessedResourcePaths) {
+				final Node notProcessedResource = database.getNodeById(notProcessedRecordIds.get(i));
 
-					final Iterable<Relationship> rels = notProcessedResourcePath.relationships();
+				// a deprecated record needs to be written again, if it re-appears with the same content
+				RecordFingerprints.removeFingerprint(notProcessedResource, database);
 
-					if(rels == null) {
+				final int deprecated = deprecateRecordStatements(notProcessedResource, latestVersion, pendingNodeIds, visitedNodeIds, database);
 
-						continue;
-					}
+				deprecatedStatements += deprecated;
+				uncommittedStatements += deprecated;
 
-					for(final Relationship rel : rels) {
+				if (uncommittedStatements >= GDMResource.DEPRECATION_CHUNK_SIZE) {
 
-						rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, latestVersion);
-					}
+					// commit chunk-wise to bound the TX state
+					processor.getProcessor().renewTx();
+
+					uncommittedStatements = 0;
+
+					GDMResource.LOG.debug("deprecated " + deprecatedStatements + " statements of " + (i + 1) + " missing records so far");
 				}
 			}
+
+			GDMResource.LOG.debug("deprecated " + deprecatedStatements + " statements of " + notProcessedRecordIds.size() + " missing records");
 		} catch (final Exception e) {
 
 			final String message = "couldn't determine record URIs of the data model successfully";
@@ -836,4 +1284,133 @@ public class GDMResource {
 			throw new DMPGraphException(message);
 		}
 	}
+
+	/**
+	 * Deprecates the statements of the given record, i.e., all relationships that can be reached from the record node via outgoing
+	 * relationships, whereby the walk doesn't continue at resource and literal nodes. Only relationships that are valid after the given
+	 * version (i.e. their valid to is greater than the given version) are deprecated. Relationships that are already deprecated (with
+	 * the given version, e.g. shared ones or ones of a previous, failed request, or with an earlier version) won't be modified again.
+	 *
+	 * @return the number of deprecated statements
+	 */
+	private static int deprecateRecordStatements(final Node recordNode, final int latestVersion, final LongArrayList pendingNodeIds,
+			final LongOpenHashSet visitedNodeIds, final GraphDatabaseService database) {
+
+		pendingNodeIds.clear();
+		visitedNodeIds.clear();
+
+		pendingNodeIds.add(recordNode.getId());
+		visitedNodeIds.add(recordNode.getId());
+
+		int deprecated = 0;
+
+		while (!pendingNodeIds.isEmpty()) {
+
+			final Node node = database.getNodeById(pendingNodeIds.remove(pendingNodeIds.size() - 1));
+
+			for (final Relationship rel : node.getRelationships(Direction.OUTGOING)) {
+
+				final Object validTo = rel.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+
+				// note: only statements that are still valid (i.e. with an open end) are deprecated
+				if (validTo instanceof Integer && (Integer) validTo > latestVersion) {
+
+					rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, latestVersion);
+
+					deprecated++;
+				}
+
+				final Node endNode = rel.getEndNode();
+
+				if (endNode.hasProperty(GraphStatics.URI_PROPERTY) || endNode.hasProperty(GraphStatics.VALUE_PROPERTY)) {
+
+					// end of a resource path
+
+					continue;
+				}
+
+				if (visitedNodeIds.add(endNode.getId())) {
+
+					pendingNodeIds.add(endNode.getId());
+				}
+			}
+		}
+
+		return deprecated;
+	}
+
+	/**
+	 * Creates the commit policy of a write request.
+	 *
+	 * @param commitSize the (initial) commit size of the request, or null for the default commit size
+	 * @param adaptiveCommits true, if the commit size should be adjusted during the write, otherwise false
+	 * @return the commit policy
+	 * @throws WebApplicationException (400), if the commit size is not positive
+	 */
+	private static CommitPolicy createCommitPolicy(final Integer commitSize, final boolean adaptiveCommits) {
+
+		if (commitSize != null && commitSize <= 0) {
+
+			final String message = "commit size should be positive, but is " + commitSize;
+
+			GDMResource.LOG.error(message);
+
+			throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST).entity(message).type(MediaType.TEXT_PLAIN_TYPE)
+					.build());
+		}
+
+		return CommitPolicy.of(commitSize, adaptiveCommits);
+	}
+
+	/**
+	 * The result of the delta calculation of a single resource.
+	 */
+	private static class ResourceDelta {
+
+		private final Resource					newResource;
+		private final GraphDatabaseService		newResourceDB;
+		private final Resource					existingResource;
+		private final GraphDatabaseService		existingResourceDB;
+		private final Changeset					changeset;
+		private final Optional<String>			optionalRecordKey;
+		private final long						fingerprint;
+
+		/**
+		 * the URI of the existing record, if its fingerprint is equal to the one of the new resource (i.e. no delta calculation was
+		 * done)
+		 */
+		private final String					unchangedRecordURI;
+
+		private ResourceDelta(final Resource newResourceArg, final String unchangedRecordURIArg) {
+
+			this(newResourceArg, null, null, null, null, Optional.<String> absent(), 0, unchangedRecordURIArg);
+		}
+
+		private ResourceDelta(final Resource newResourceArg, final Optional<String> optionalRecordKeyArg, final long fingerprintArg) {
+
+			this(newResourceArg, null, null, null, null, optionalRecordKeyArg, fingerprintArg, null);
+		}
+
+		private ResourceDelta(final Resource newResourceArg, final GraphDatabaseService newResourceDBArg, final Resource existingResourceArg,
+				final GraphDatabaseService existingResourceDBArg, final Changeset changesetArg, final Optional<String> optionalRecordKeyArg,
+				final long fingerprintArg) {
+
+			this(newResourceArg, newResourceDBArg, existingResourceArg, existingResourceDBArg, changesetArg, optionalRecordKeyArg, fingerprintArg,
+					null);
+		}
+
+		private ResourceDelta(final Resource newResourceArg, final GraphDatabaseService newResourceDBArg, final Resource existingResourceArg,
+				final GraphDatabaseService existingResourceDBArg, final Changeset changesetArg, final Optional<String> optionalRecordKeyArg,
+				final long fingerprintArg, final String unchangedRecordURIArg) {
+
+			newResource = newResourceArg;
+			newResourceDB = newResourceDBArg;
+			existingResource = existingResourceArg;
+			existingResourceDB = existingResourceDBArg;
+			optionalRecordKey = optionalRecordKeyArg;
+			fingerprint = fingerprintArg;
+			unchangedRecordURI = unchangedRecordURIArg;
+			changeset = changesetArg;
+		}
+	}
 }
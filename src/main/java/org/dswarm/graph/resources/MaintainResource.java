@@ -23,12 +23,16 @@ import java.util.Map.Entry;
 
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.neo4j.cypher.javacompat.ExecutionEngine;
 import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -37,16 +41,28 @@ import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
 import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.graphdb.schema.Schema;
+import org.neo4j.tooling.GlobalGraphOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.hp.hpl.jena.vocabulary.RDF;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.GraphIndexStatics;
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.SimpleNeo4jProcessor;
+import org.dswarm.graph.index.NodeIdCache;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.utils.ExecutionEngines;
+import org.dswarm.graph.versioning.VersioningStatics;
 
 /**
  * @author tgaengler
@@ -76,14 +92,23 @@ public class MaintainResource {
 	}
 
 	/**
-	 * note utilise this endpoint with care, because it cleans your complete db!
+	 * note utilise this endpoint with care, because it cleans your complete db (if no data model URI is given)!<br/>
+	 * If a data model URI is given, only the statements of this data model, their (resource, bnode and literal) nodes and their
+	 * legacy index entries will be removed.
 	 *
+	 * @param dataModelURI the URI of the data model that should be removed (optional)
 	 * @param database the graph database
 	 */
 	@DELETE
 	@Path("/delete")
 	@Produces("application/json")
-	public Response cleanGraph(@Context final GraphDatabaseService database) throws IOException, DMPGraphException {
+	public Response cleanGraph(@QueryParam("data_model_uri") final String dataModelURI, @Context final GraphDatabaseService database)
+			throws IOException, DMPGraphException {
+
+		if (dataModelURI != null) {
+
+			return cleanDataModel(dataModelURI, database);
+		}
 
 		MaintainResource.LOG.debug("start cleaning up the db");
 
@@ -91,6 +116,8 @@ public class MaintainResource {
 
 		MaintainResource.LOG.debug("finished delete-all-entities TXs");
 
+		NodeIdCache.invalidate(database);
+
 		MaintainResource.LOG.debug("start legacy indices clean-up");
 
 		// TODO: maybe separate index clean-up + observe index clean-up
@@ -120,10 +147,499 @@ public class MaintainResource {
 		return Response.ok(out.toString(), MediaType.APPLICATION_JSON_TYPE).build();
 	}
 
+	/**
+	 * Re-builds the statement hashes legacy index, i.e., replaces the (old) SHA-256 string hashes by numeric 64-bit SipHash
+	 * hashes. This endpoint needs to be called once for databases that were filled before statement hashes were switched to long
+	 * values. Otherwise, existing statements cannot be found by their hash (and would be duplicated on write).<br/>
+	 * The statements are re-indexed chunk-wise, i.e., one TX per chunk. Every statement gets its index entries replaced, i.e.,
+	 * this endpoint is idempotent: if it fails in between, the index is partially migrated (and existing statements might not be
+	 * found by their hash); calling it again completes the migration.
+	 *
+	 * @param database the graph database
+	 */
+	@POST
+	@Path("/migratestatementhashes")
+	@Produces("application/json")
+	public Response migrateStatementHashes(@Context final GraphDatabaseService database) throws IOException, DMPGraphException {
+
+		MaintainResource.LOG.debug("start migrating statement hashes");
+
+		final long migrated = migrateSomeStatementHashes(database);
+
+		MaintainResource.LOG.debug("finished migrating statement hashes");
+
+		final StringWriter out = new StringWriter();
+		JsonGenerator generator = jsonFactory.createGenerator(out);
+
+		generator.writeStartObject();
+		generator.writeNumberField("migrated", migrated);
+		generator.writeEndObject();
+		generator.flush();
+		generator.close();
+
+		return Response.ok(out.toString(), MediaType.APPLICATION_JSON_TYPE).build();
+	}
+
+	private long migrateSomeStatementHashes(final GraphDatabaseService database) throws DMPGraphException {
+
+		MaintainResource.LOG.debug("start collect relationships for " + GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME + " legacy index TX");
+
+		// note: the old string hashes cannot be converted, i.e., the index entries of every statement need to be replaced
+		final LongArrayList relationshipIds = new LongArrayList();
+
+		try(final Transaction itx = database.beginTx()) {
+
+			for (final Relationship rel : GlobalGraphOperations.at(database).getAllRelationships()) {
+
+				relationshipIds.add(rel.getId());
+			}
+
+			itx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't finish collect relationships for " + GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME
+					+ " legacy index TX successfully";
+
+			MaintainResource.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		MaintainResource.LOG.debug("finished collect relationships for " + GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME
+				+ " legacy index TX; found " + relationshipIds.size() + " relationships for re-indexing");
+
+		// note: the processor begins a new TX
+		final SimpleNeo4jProcessor processor = new SimpleNeo4jProcessor(database);
+
+		long migrated = 0;
+
+		try {
+
+			final Index<Relationship> statementHashes = processor.getStatementIndex();
+
+			for (int i = 0; i < relationshipIds.size(); i++) {
+
+				final Relationship rel = database.getRelationshipById(relationshipIds.get(i));
+				final Node subjectNode = rel.getStartNode();
+				final Node objectNode = rel.getEndNode();
+				final String subjectNodeTypeString = (String) subjectNode.getProperty(GraphStatics.NODETYPE_PROPERTY, null);
+				final String objectNodeTypeString = (String) objectNode.getProperty(GraphStatics.NODETYPE_PROPERTY, null);
+
+				if (subjectNodeTypeString == null || objectNodeTypeString == null) {
+
+					// no statement relationship
+
+					continue;
+				}
+
+				final String predicate = rel.getType().name();
+				final NodeType subjectNodeType = determineStatementHashSubjectNodeType(NodeType.getByName(subjectNodeTypeString));
+				final NodeType objectNodeType = determineStatementHashObjectNodeType(rel, predicate, NodeType.getByName(objectNodeTypeString));
+
+				final long hash = processor.generateStatementHash(subjectNode, predicate, objectNode, subjectNodeType, objectNodeType);
+
+				// removes the old hash (or the new one from a previous, incomplete migration)
+				statementHashes.remove(rel);
+				processor.addStatementHashToIndex(rel, hash);
+
+				migrated++;
+
+				if (migrated % MaintainResource.chunkSize == 0) {
+
+					MaintainResource.LOG.debug("migrated " + migrated + " statement hashes");
+
+					processor.renewTx();
+				}
+			}
+
+			processor.succeedTx();
+		} catch (final Exception e) {
+
+			processor.failTx();
+
+			final String message = "couldn't finish migrate statement hashes TX successfully; the statement hashes index is only partially migrated, please call this endpoint again";
+
+			MaintainResource.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		MaintainResource.LOG.debug("migrated " + migrated + " statement hashes in total");
+
+		return migrated;
+	}
+
+	/**
+	 * Subjects are hashed with the node type of the statement subject (i.e. resource or bnode), even if the node was created as
+	 * type node, e.g., as object of a rdf:type statement (see BaseNeo4jHandler).
+	 *
+	 * @param nodeType the node type of the subject node
+	 * @return the node type that is utilised for the statement hash on write
+	 */
+	private static NodeType determineStatementHashSubjectNodeType(final NodeType nodeType) {
+
+		switch (nodeType) {
+
+			case TypeResource:
+
+				return NodeType.Resource;
+			case TypeBNode:
+
+				return NodeType.BNode;
+			default:
+
+				return nodeType;
+		}
+	}
+
+	/**
+	 * Objects of rdf:type statements are hashed as type resource or type bnode, all other objects as resource, bnode or literal,
+	 * independent from the node type the (re-utilised) object node was created with (see BaseNeo4jHandler). The rdf:type statement
+	 * of a data model in the versioning data model is hashed as resource to resource statement (see Neo4jVersionHandler).
+	 *
+	 * @param rel the statement
+	 * @param predicate the predicate of the statement
+	 * @param nodeType the node type of the object node
+	 * @return the node type that is utilised for the statement hash on write
+	 */
+	private static NodeType determineStatementHashObjectNodeType(final Relationship rel, final String predicate, final NodeType nodeType) {
+
+		if (NodeType.Literal.equals(nodeType)) {
+
+			return nodeType;
+		}
+
+		if (!RDF.type.getURI().equals(predicate)) {
+
+			return determineStatementHashSubjectNodeType(nodeType);
+		}
+
+		if (VersioningStatics.VERSIONING_DATA_MODEL_URI.equals(rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null))) {
+
+			return NodeType.Resource;
+		}
+
+		switch (nodeType) {
+
+			case Resource:
+
+				return NodeType.TypeResource;
+			case BNode:
+
+				return NodeType.TypeBNode;
+			default:
+
+				return nodeType;
+		}
+	}
+
+	private Response cleanDataModel(final String dataModelURI, final GraphDatabaseService database) throws IOException, DMPGraphException {
+
+		MaintainResource.LOG.debug("start cleaning up data model '" + dataModelURI + "'");
+
+		final long[] deleted = deleteSomeDataModelStatements(dataModelURI, database);
+
+		// note: the cached node ids could refer to deleted nodes now
+		NodeIdCache.invalidate(database);
+
+		MaintainResource.LOG.debug("finished cleaning up data model '" + dataModelURI + "'");
+
+		final StringWriter out = new StringWriter();
+		JsonGenerator generator = jsonFactory.createGenerator(out);
+
+		generator.writeStartObject();
+		generator.writeNumberField("deleted", deleted[0] + deleted[1]);
+		generator.writeNumberField("deleted_statements", deleted[0]);
+		generator.writeNumberField("deleted_nodes", deleted[1]);
+		generator.writeEndObject();
+		generator.flush();
+		generator.close();
+
+		return Response.ok(out.toString(), MediaType.APPLICATION_JSON_TYPE).build();
+	}
+
+	/**
+	 * Deletes the statements of the given data model chunk-wise, i.e., one TX per chunk. The statements are determined once via the
+	 * statement uuids with data model legacy index (prefix query on the data model URI), i.e., without traversing or scanning the
+	 * graph. Since the prefix query also matches statements of other data models whose URI starts with the given one, every hit
+	 * is checked against the data model of the statement before it will be collected. Nodes that are left without any
+	 * relationship afterwards will be deleted as well, if they belong to the data model (i.e. bnodes, literals and resources of
+	 * this data model; type resources are shared across data models). Finally, the node of the data model in the versioning data
+	 * model (incl. its statements) will be deleted, so that a re-import of the data model starts with a fresh version again.
+	 *
+	 * @param dataModelURI the URI of the data model
+	 * @param database the graph database
+	 * @return the number of deleted statements (first) and the number of deleted nodes (second)
+	 * @throws DMPGraphException
+	 */
+	private long[] deleteSomeDataModelStatements(final String dataModelURI, final GraphDatabaseService database) throws DMPGraphException {
+
+		final LongArrayList relationshipIds = collectDataModelStatements(dataModelURI, database);
+
+		long deletedStatements = 0;
+		long deletedNodes = 0;
+
+		int i = 0;
+
+		while (deletedStatements < relationshipIds.size()) {
+
+			i++;
+
+			try(final Transaction tx = database.beginTx()) {
+
+				MaintainResource.LOG.debug("try to delete up to " + MaintainResource.chunkSize + " statements of data model '" + dataModelURI
+						+ "' for the " + i + ". time");
+
+				final DataModelIndices indices = new DataModelIndices(database);
+
+				final int chunkEnd = (int) Math.min(deletedStatements + MaintainResource.chunkSize, relationshipIds.size());
+
+				final LongOpenHashSet nodeIds = new LongOpenHashSet();
+
+				for (int j = (int) deletedStatements; j < chunkEnd; j++) {
+
+					final Relationship rel = database.getRelationshipById(relationshipIds.get(j));
+
+					nodeIds.add(rel.getStartNode().getId());
+					nodeIds.add(rel.getEndNode().getId());
+
+					indices.deleteStatement(rel);
+				}
+
+				deletedStatements = chunkEnd;
+
+				for (final LongCursor nodeIdCursor : nodeIds) {
+
+					final Node node = database.getNodeById(nodeIdCursor.value);
+
+					if (node.hasRelationship() || !belongsToDataModel(node, dataModelURI)) {
+
+						// the node will be deleted with the last of its relationships (or it doesn't belong to the data model at all)
+
+						continue;
+					}
+
+					indices.deleteNode(node);
+
+					deletedNodes++;
+				}
+
+				tx.success();
+
+				MaintainResource.LOG.debug("deleted " + deletedStatements + " statements and " + deletedNodes + " nodes of data model '"
+						+ dataModelURI + "' so far");
+			} catch (final Exception e) {
+
+				final String message = "couldn't finish delete data model statements TX successfully";
+
+				MaintainResource.LOG.error(message, e);
+
+				throw new DMPGraphException(message, e);
+			}
+		}
+
+		final long[] deletedVersioning = deleteVersioningDataModelNode(dataModelURI, database);
+
+		deletedStatements += deletedVersioning[0];
+		deletedNodes += deletedVersioning[1];
+
+		MaintainResource.LOG.debug("deleted " + deletedStatements + " statements and " + deletedNodes + " nodes of data model '"
+				+ dataModelURI + "' in total");
+
+		return new long[] { deletedStatements, deletedNodes };
+	}
+
+	/**
+	 * Collects the ids of the statements of the given data model in one pass over the hits of the prefix query, i.e., the hits of
+	 * data models whose URI starts with "<data model URI>." are only skipped once (and not for every chunk again).
+	 *
+	 * @param dataModelURI the URI of the data model
+	 * @param database the graph database
+	 * @return the ids of the statements of the data model
+	 * @throws DMPGraphException
+	 */
+	private LongArrayList collectDataModelStatements(final String dataModelURI, final GraphDatabaseService database) throws DMPGraphException {
+
+		MaintainResource.LOG.debug("start collect statements of data model '" + dataModelURI + "' TX");
+
+		final PrefixQuery dataModelStatementsQuery = new PrefixQuery(new Term(GraphStatics.UUID_W_DATA_MODEL, dataModelURI + "."));
+
+		final LongArrayList relationshipIds = new LongArrayList();
+
+		try(final Transaction itx = database.beginTx()) {
+
+			final Index<Relationship> statementUUIDsWDataModel = database.index().forRelationships(
+					GraphIndexStatics.STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME);
+
+			final IndexHits<Relationship> hits = statementUUIDsWDataModel.query(dataModelStatementsQuery);
+
+			try {
+
+				for (final Relationship hit : hits) {
+
+					// the prefix query also matches statements of data models whose URI starts with "<data model URI>." as well as the
+					// statement of the data model in the versioning data model (that is removed separately)
+					if (!dataModelURI.equals(hit.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null))) {
+
+						continue;
+					}
+
+					relationshipIds.add(hit.getId());
+				}
+			} finally {
+
+				hits.close();
+			}
+
+			itx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't finish collect statements of data model '" + dataModelURI + "' TX successfully";
+
+			MaintainResource.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		MaintainResource.LOG.debug("finished collect statements of data model '" + dataModelURI + "' TX; found " + relationshipIds.size()
+				+ " statements for removal");
+
+		return relationshipIds;
+	}
+
+	/**
+	 * Deletes the node of the given data model in the versioning data model (that holds the latest version of the data model) and
+	 * its statements. Otherwise, a re-import of the data model would continue with the (stale) latest version of the deleted data.
+	 * The (shared) data model type node is kept.
+	 *
+	 * @param dataModelURI the URI of the data model
+	 * @param database the graph database
+	 * @return the number of deleted statements (first) and the number of deleted nodes (second)
+	 * @throws DMPGraphException
+	 */
+	private long[] deleteVersioningDataModelNode(final String dataModelURI, final GraphDatabaseService database) throws DMPGraphException {
+
+		long deletedStatements = 0;
+		long deletedNodes = 0;
+
+		try(final Transaction tx = database.beginTx()) {
+
+			final DataModelIndices indices = new DataModelIndices(database);
+
+			final Node dataModelNode = indices.resourcesWDataModel.get(GraphStatics.URI_W_DATA_MODEL,
+					dataModelURI + VersioningStatics.VERSIONING_DATA_MODEL_URI).getSingle();
+
+			if (dataModelNode == null) {
+
+				MaintainResource.LOG.debug("there is no versioning node for data model '" + dataModelURI + "'");
+
+				tx.success();
+
+				return new long[] { deletedStatements, deletedNodes };
+			}
+
+			for (final Relationship rel : dataModelNode.getRelationships()) {
+
+				indices.deleteStatement(rel);
+
+				deletedStatements++;
+			}
+
+			indices.deleteNode(dataModelNode);
+
+			deletedNodes++;
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't finish delete versioning node of data model '" + dataModelURI + "' TX successfully";
+
+			MaintainResource.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		MaintainResource.LOG.debug("deleted versioning node (incl. " + deletedStatements + " statements) of data model '" + dataModelURI + "'");
+
+		return new long[] { deletedStatements, deletedNodes };
+	}
+
+	/**
+	 * The legacy indices that refer to statements or nodes of a data model, i.e., whose entries need to be removed on deletion
+	 * (within the TX they are created in).
+	 */
+	private static final class DataModelIndices {
+
+		private final Index<Relationship>	statementHashes;
+		private final Index<Relationship>	statementUUIDs;
+		private final Index<Relationship>	statementUUIDsWDataModel;
+		private final Index<Node>			resources;
+		private final Index<Node>			resourcesWDataModel;
+		private final Index<Node>			values;
+		private final Index<Node>			recordFingerprints;
+
+		private DataModelIndices(final GraphDatabaseService database) {
+
+			statementHashes = database.index().forRelationships(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
+			statementUUIDs = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
+			statementUUIDsWDataModel = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME);
+			resources = database.index().forNodes(GraphIndexStatics.RESOURCES_INDEX_NAME);
+			resourcesWDataModel = database.index().forNodes(GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME);
+			values = database.index().forNodes(GraphIndexStatics.VALUES_INDEX_NAME);
+			recordFingerprints = database.index().forNodes(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME);
+		}
+
+		private void deleteStatement(final Relationship rel) {
+
+			statementHashes.remove(rel);
+			statementUUIDs.remove(rel);
+			statementUUIDsWDataModel.remove(rel);
+
+			rel.delete();
+		}
+
+		private void deleteNode(final Node node) {
+
+			resources.remove(node);
+			resourcesWDataModel.remove(node);
+			values.remove(node);
+			recordFingerprints.remove(node);
+
+			node.delete();
+		}
+	}
+
+	private static boolean belongsToDataModel(final Node node, final String dataModelURI) {
+
+		final String nodeTypeString = (String) node.getProperty(GraphStatics.NODETYPE_PROPERTY, null);
+
+		if (nodeTypeString == null) {
+
+			return false;
+		}
+
+		switch (NodeType.getByName(nodeTypeString)) {
+
+			case BNode:
+			case TypeBNode:
+			case Literal:
+
+				// these nodes are only reachable via statements of their data model
+
+				return true;
+			case Resource:
+
+				return dataModelURI.equals(node.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null));
+			default:
+
+				return false;
+		}
+	}
+
 	private long deleteSomeStatements(final GraphDatabaseService database) throws DMPGraphException {
 
 
-		final ExecutionEngine engine = new ExecutionEngine(database);
+		final ExecutionEngine engine = ExecutionEngines.getEngine(database);
 
 		final String deleteQuery = String.format(DELETE_CYPHER, MaintainResource.chunkSize);
 
@@ -263,6 +779,7 @@ public class MaintainResource {
 			final Index<Relationship> statementHashes = database.index().forRelationships(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
 			final Index<Relationship> statementUUIDs = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
 			final Index<Relationship> statementUUIDsWDataModel = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_W_DATA_MODEL_INDEX_NAME);
+			final Index<Node> recordFingerprints = database.index().forNodes(GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME);
 
 			if (resources != null) {
 
@@ -320,6 +837,13 @@ public class MaintainResource {
 				values.delete();
 			}
 
+			if (recordFingerprints != null) {
+
+				MaintainResource.LOG.debug("delete " + GraphIndexStatics.RECORD_FINGERPRINTS_INDEX_NAME + " legacy index");
+
+				recordFingerprints.delete();
+			}
+
 			itx.success();
 		} catch (final Exception e) {
 
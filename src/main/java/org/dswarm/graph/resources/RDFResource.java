@@ -18,6 +18,7 @@ package org.dswarm.graph.resources;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 
 import javax.ws.rs.Consumes;
@@ -28,9 +29,11 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
@@ -39,6 +42,7 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.node.ObjectNode;
 import org.dswarm.common.MediaTypeUtil;
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.parse.CommitPolicy;
 import org.dswarm.graph.rdf.DataModelRDFNeo4jProcessor;
 import org.dswarm.graph.rdf.RDFNeo4jProcessor;
 import org.dswarm.graph.rdf.SimpleRDFNeo4jProcessor;
@@ -47,10 +51,10 @@ import org.dswarm.graph.rdf.export.GraphRDFExporter;
 import org.dswarm.graph.rdf.export.RDFExporter;
 import org.dswarm.graph.rdf.nx.parse.NxModelParser;
 import org.dswarm.graph.rdf.parse.DataModelRDFNeo4jHandler;
-import org.dswarm.graph.rdf.parse.JenaModelParser;
-import org.dswarm.graph.rdf.parse.RDFHandler;
+import org.dswarm.graph.rdf.parse.RDFNeo4jHandler;
 import org.dswarm.graph.rdf.parse.RDFParser;
 import org.dswarm.graph.rdf.parse.SimpleRDFNeo4jHandler;
+import org.dswarm.graph.rdf.parse.StreamRDFParser;
 import org.dswarm.graph.rdf.read.PropertyGraphRDFReader;
 import org.dswarm.graph.rdf.read.RDFReader;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -60,7 +64,6 @@ import org.slf4j.LoggerFactory;
 
 import com.hp.hpl.jena.query.Dataset;
 import com.hp.hpl.jena.rdf.model.Model;
-import com.hp.hpl.jena.rdf.model.ModelFactory;
 import com.sun.jersey.multipart.BodyPartEntity;
 import com.sun.jersey.multipart.MultiPart;
 
@@ -72,6 +75,11 @@ public class RDFResource {
 
 	private static final Logger	LOG	= LoggerFactory.getLogger(RDFResource.class);
 
+	/**
+	 * The media type of N-Triples exports (streamed, see {@link #isStreamable(Lang)}).
+	 */
+	private static final String	N_TRIPLES	= "application/n-triples";
+
 	/**
 	 * The object mapper that can be utilised to de-/serialise JSON nodes.
 	 */
@@ -94,28 +102,30 @@ public class RDFResource {
 	@POST
 	@Path("/put")
 	@Consumes("multipart/mixed")
-	public Response writeRDF(final MultiPart multiPart, @Context final GraphDatabaseService database) throws DMPGraphException, IOException {
+	public Response writeRDF(final MultiPart multiPart, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
+			throws DMPGraphException, IOException {
 
 		RDFResource.LOG.debug("try to process RDF statements and write them into graph db");
 
+		final CommitPolicy commitPolicy = RDFResource.createCommitPolicy(commitSize, adaptiveCommits);
+
 		final BodyPartEntity bpe = (BodyPartEntity) multiPart.getBodyParts().get(0).getEntity();
 		final InputStream rdfInputStream = bpe.getInputStream();
 
 		final String dataModelURI = multiPart.getBodyParts().get(1).getEntityAs(String.class);
 
-		final Model model = ModelFactory.createDefaultModel();
-		model.read(rdfInputStream, null, "N3");
-
-		RDFResource.LOG.debug("deserialized RDF statements that were serialised as Turtle or N3");
-
 		RDFResource.LOG.debug("try to write RDF statements into graph db");
 
 		final RDFNeo4jProcessor processor = new DataModelRDFNeo4jProcessor(database, dataModelURI);
 
 		try {
 
-			final RDFHandler handler = new DataModelRDFNeo4jHandler(processor);
-			final RDFParser parser = new JenaModelParser(model);
+			final RDFNeo4jHandler handler = new DataModelRDFNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
+
+			// note: the statements are written while the Turtle or N3 serialisation is parsed
+			final RDFParser parser = new StreamRDFParser(rdfInputStream, Lang.N3);
 			parser.setRDFHandler(handler);
 			parser.parse();
 
@@ -144,14 +154,13 @@ public class RDFResource {
 	@POST
 	@Path("/put")
 	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
-	public Response writeRDF(final InputStream inputStream, @Context final GraphDatabaseService database) throws DMPGraphException, IOException {
+	public Response writeRDF(final InputStream inputStream, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
+			throws DMPGraphException, IOException {
 
 		RDFResource.LOG.debug("try to process RDF statements and write them into graph db");
 
-		final Model model = ModelFactory.createDefaultModel();
-		model.read(inputStream, null, "N3");
-
-		RDFResource.LOG.debug("deserialized RDF statements that were serialised as Turtle and N3");
+		final CommitPolicy commitPolicy = RDFResource.createCommitPolicy(commitSize, adaptiveCommits);
 
 		RDFResource.LOG.debug("try to write RDF statements into graph db");
 
@@ -159,8 +168,10 @@ public class RDFResource {
 
 		try {
 
-			final RDFHandler handler = new SimpleRDFNeo4jHandler(processor);
-			final RDFParser parser = new JenaModelParser(model);
+			final RDFNeo4jHandler handler = new SimpleRDFNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
+			// note: the statements are written while the Turtle or N3 serialisation is parsed
+			final RDFParser parser = new StreamRDFParser(inputStream, Lang.N3);
 			parser.setRDFHandler(handler);
 			parser.parse();
 
@@ -190,10 +201,14 @@ public class RDFResource {
 	@POST
 	@Path("/putnx")
 	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
-	public Response writeRDFwNx(final InputStream inputStream, @Context final GraphDatabaseService database) throws DMPGraphException, IOException {
+	public Response writeRDFwNx(final InputStream inputStream, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
+			throws DMPGraphException, IOException {
 
 		RDFResource.LOG.debug("try to process RDF statements and write them into graph db");
 
+		final CommitPolicy commitPolicy = RDFResource.createCommitPolicy(commitSize, adaptiveCommits);
+
 		final NxParser nxParser = new NxParser();
 		nxParser.parse(inputStream);
 
@@ -205,7 +220,8 @@ public class RDFResource {
 
 		try {
 
-			final org.dswarm.graph.rdf.nx.parse.RDFHandler handler = new org.dswarm.graph.rdf.nx.parse.SimpleRDFNeo4jHandler(processor);
+			final org.dswarm.graph.rdf.nx.parse.RDFNeo4jHandler handler = new org.dswarm.graph.rdf.nx.parse.SimpleRDFNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
 			final org.dswarm.graph.rdf.nx.parse.RDFParser parser = new NxModelParser(nxParser);
 			parser.setRDFHandler(handler);
 			parser.parse();
@@ -235,11 +251,14 @@ public class RDFResource {
 	@POST
 	@Path("/putnx")
 	@Consumes("multipart/mixed")
-	public Response writeRDFwDataModelwNx(final MultiPart multiPart, @Context final GraphDatabaseService database)
+	public Response writeRDFwDataModelwNx(final MultiPart multiPart, @Context final GraphDatabaseService database,
+			@QueryParam("commit_size") final Integer commitSize, @QueryParam("adaptive_commits") @DefaultValue("false") final boolean adaptiveCommits)
 			throws DMPGraphException, IOException {
 
 		RDFResource.LOG.debug("try to process RDF statements and write them into graph db");
 
+		final CommitPolicy commitPolicy = RDFResource.createCommitPolicy(commitSize, adaptiveCommits);
+
 		final BodyPartEntity bpe = (BodyPartEntity) multiPart.getBodyParts().get(0).getEntity();
 		final InputStream rdfInputStream = bpe.getInputStream();
 
@@ -256,7 +275,8 @@ public class RDFResource {
 
 		try {
 
-			final org.dswarm.graph.rdf.nx.parse.RDFHandler handler = new org.dswarm.graph.rdf.nx.parse.DataModelRDFNeo4jHandler(processor);
+			final org.dswarm.graph.rdf.nx.parse.RDFNeo4jHandler handler = new org.dswarm.graph.rdf.nx.parse.DataModelRDFNeo4jHandler(processor);
+			handler.setCommitPolicy(commitPolicy);
 			final org.dswarm.graph.rdf.nx.parse.RDFParser parser = new NxModelParser(nxParser);
 			parser.setRDFHandler(handler);
 			parser.parse();
@@ -329,8 +349,12 @@ public class RDFResource {
 	/**
 	 * for triggering a download of all data models. The serialization (export) format is provided via the accept header field. If
 	 * no format is provided, {@link MediaTypeUtil#N_QUADS} is used as default. In case the format is not supported a 406 response
-	 * is sent.
-	 * 
+	 * is sent.<br/>
+	 * N-Quads and N-Triples are streamed, i.e., every statement is written to the response as it is read from the graph db.
+	 * N-Quads contain the data model of a statement as graph. N-Triples contain the statements of all data models as triples
+	 * (without graph). Statements are not deduplicated, i.e., a statement that is part of several data models is written once
+	 * per data model (also in N-Triples). TriG is still serialized from a dataset of all data models.
+	 *
 	 * @param database the db to export the data from
 	 * @param exportFormat serialization format all data should be serialized in, injected from accept header field
 	 * @return all data models serialized in exportLanguage
@@ -339,7 +363,7 @@ public class RDFResource {
 	@GET
 	// SR TODO rename to /exportall
 	@Path("/getall")
-	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.TRIG })
+	@Produces({ MediaTypeUtil.N_QUADS, RDFResource.N_TRIPLES, MediaTypeUtil.TRIG })
 	public Response exportAllRDFForDownload(@Context final GraphDatabaseService database,
 			@HeaderParam("Accept") @DefaultValue(MediaTypeUtil.N_QUADS) final String exportFormat) throws DMPGraphException {
 
@@ -359,7 +383,16 @@ public class RDFResource {
 		final String fileExtension = exportLanguage.getFileExtensions().get(0);
 		RDFResource.LOG.debug("Exporting rdf data to " + formatType.toString());
 
-		final String result = exportAllRDFInternal(database, exportLanguage);
+		final Object result;
+
+		if (RDFResource.isStreamable(exportLanguage)) {
+
+			// statements are written to the response while they are read from the graph db
+			result = exportRDFAsStream(new GraphRDFExporter(database), Lang.NQUADS.equals(exportLanguage));
+		} else {
+
+			result = exportAllRDFInternal(database, exportLanguage);
+		}
 
 		RDFResource.LOG.debug("End processing request to export all rdf data to format \"" + exportFormat + "\"");
 
@@ -370,8 +403,10 @@ public class RDFResource {
 	/**
 	 * trigger a download for a given data model and format. The serialization (export) format is provided via the accept header
 	 * field. If no format is provided, {@link MediaTypeUtil#N_QUADS} is used as default. In case the format is not supported a
-	 * 406 response is sent.
-	 * 
+	 * 406 response is sent.<br/>
+	 * N-Quads and N-Triples are streamed as triples (without graph), i.e., every statement of the data model is written to the
+	 * response as it is read from the graph db (without deduplication).
+	 *
 	 * @param database the graph database
 	 * @param exportFormat serialization format ({@link MediaType}) the data model should be serialized in, injected from accept
 	 *            header field
@@ -381,7 +416,7 @@ public class RDFResource {
 	 */
 	@GET
 	@Path("/export")
-	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.RDF_XML, MediaTypeUtil.TRIG, MediaTypeUtil.TURTLE, MediaTypeUtil.N3 })
+	@Produces({ MediaTypeUtil.N_QUADS, RDFResource.N_TRIPLES, MediaTypeUtil.RDF_XML, MediaTypeUtil.TRIG, MediaTypeUtil.TURTLE, MediaTypeUtil.N3 })
 	public Response exportSingleRDFForDownload(@Context final GraphDatabaseService database,
 			@HeaderParam("Accept") @DefaultValue(MediaTypeUtil.N_QUADS) final String exportFormat,
 			@QueryParam("data_model_uri") final String dataModelURI) throws DMPGraphException {
@@ -404,7 +439,16 @@ public class RDFResource {
 		RDFResource.LOG.debug("Interpreting requested format \"" + exportFormat + "\" as \"" + formatType.toString() + "\"");
 
 		// export and serialize data
-		final String result = exportSingleRDFInternal(database, exportLanguage, dataModelURI);
+		final Object result;
+
+		if (RDFResource.isStreamable(exportLanguage)) {
+
+			// note: a single data model is exported without graph, i.e., as triples
+			result = exportRDFAsStream(new DataModelRDFExporter(database, dataModelURI), false);
+		} else {
+
+			result = exportSingleRDFInternal(database, exportLanguage, dataModelURI);
+		}
 
 		RDFResource.LOG.debug("End processing request to export rdf data for data model uri \"" + dataModelURI + "\" to format \"" + exportFormat
 				+ "\"");
@@ -413,6 +457,49 @@ public class RDFResource {
 				.header("Content-Disposition", "attachment; filename*=UTF-8''rdf_export." + fileExtension).build();
 	}
 
+	/**
+	 * N-Triples and N-Quads can be written statement by statement, i.e., without collecting the statements in a dataset beforehand.
+	 * Hence, the statements are not deduplicated (as they would be in a dataset).
+	 *
+	 * @param exportLanguage the language the data should be serialized in
+	 * @return true, if the export can be streamed
+	 */
+	private static boolean isStreamable(final Lang exportLanguage) {
+
+		return Lang.NQUADS.equals(exportLanguage) || Lang.NTRIPLES.equals(exportLanguage);
+	}
+
+	/**
+	 * @param rdfExporter the exporter that reads the data from the db
+	 * @param withDataModelGraphs true, if the statements should be written as N-Quads, otherwise false (N-Triples)
+	 * @return the output that writes the exported statements to the response
+	 */
+	private static StreamingOutput exportRDFAsStream(final RDFExporter rdfExporter, final boolean withDataModelGraphs) {
+
+		return new StreamingOutput() {
+
+			@Override
+			public void write(final OutputStream outputStream) throws IOException, WebApplicationException {
+
+				RDFResource.LOG.debug("try to stream RDF statements from graph db");
+
+				try {
+
+					rdfExporter.export(outputStream, withDataModelGraphs);
+				} catch (final DMPGraphException e) {
+
+					RDFResource.LOG.error("couldn't stream RDF statements from graph db", e);
+
+					throw new WebApplicationException(e);
+				}
+
+				RDFResource.LOG.debug("finished streaming " + rdfExporter.countStatements() + " RDF statements from graph db (processed statements = '"
+						+ rdfExporter.processedStatements() + "' (successfully processed statements = '"
+						+ rdfExporter.successfullyProcessedStatements() + "'))");
+			}
+		};
+	}
+
 	/**
 	 * @param database the db to export the data from
 	 * @param exportLanguage the language the data should be serialized in
@@ -469,4 +556,26 @@ public class RDFResource {
 		return result;
 	}
 
+	/**
+	 * Creates the commit policy of a write request.
+	 *
+	 * @param commitSize the (initial) commit size of the request, or null for the default commit size
+	 * @param adaptiveCommits true, if the commit size should be adjusted during the write, otherwise false
+	 * @return the commit policy
+	 * @throws WebApplicationException (400), if the commit size is not positive
+	 */
+	private static CommitPolicy createCommitPolicy(final Integer commitSize, final boolean adaptiveCommits) {
+
+		if (commitSize != null && commitSize <= 0) {
+
+			final String message = "commit size should be positive, but is " + commitSize;
+
+			RDFResource.LOG.error(message);
+
+			throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST).entity(message).type(MediaType.TEXT_PLAIN_TYPE)
+					.build());
+		}
+
+		return CommitPolicy.of(commitSize, adaptiveCommits);
+	}
 }
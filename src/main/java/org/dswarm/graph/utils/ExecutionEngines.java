@@ -0,0 +1,154 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.utils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.cypher.javacompat.ExecutionResult;
+import org.neo4j.graphdb.GraphDatabaseService;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * A registry of Cypher execution engines, i.e., one engine per database. Cypher caches the execution plans of queries per engine (by
+ * the query text), so queries should be executed via a shared engine and values should be passed as parameters (instead of being
+ * concatenated into the query text).<br/>
+ * Additionally, this registry counts the executions of queries whose text was already executed before at the same engine (among the
+ * last 100 distinct query texts). This is only an approximation of the plan cache hits, since the plan cache of
+ * the engine isn't observable (e.g. it might evict plans earlier or key them differently).<br/>
+ * Note: an engine refers to its database, i.e., the engine of a database will be kept until it is removed via
+ * {@link #remove(GraphDatabaseService)}. Hence, databases that are shut down (and aren't kept for the whole lifetime of the server)
+ * should be removed from this registry.
+ *
+ * @author tgaengler
+ */
+public final class ExecutionEngines {
+
+	/**
+	 * the default size of the Cypher query (plan) cache of an execution engine
+	 */
+	private static final int	QUERY_CACHE_SIZE	= 100;
+
+	private static final CacheLoader<GraphDatabaseService, Engine>	ENGINE_LOADER	= new CacheLoader<GraphDatabaseService, Engine>() {
+
+		@Override
+		public Engine load(final GraphDatabaseService database) {
+
+			return new Engine(database);
+		}
+	};
+
+	// note: weak keys are utilised for the identity comparison of the databases only, i.e., since an engine refers to its database, the
+	// entries will never be collected (they need to be removed explicitly)
+	private static final LoadingCache<GraphDatabaseService, Engine>	ENGINES	= CacheBuilder.newBuilder().weakKeys()
+			.build(ExecutionEngines.ENGINE_LOADER);
+
+	private static final AtomicLong	EXECUTIONS				= new AtomicLong();
+	private static final AtomicLong	REPEATED_QUERY_TEXTS	= new AtomicLong();
+
+	private ExecutionEngines() {}
+
+	/**
+	 * Gets the shared execution engine of the given database.
+	 *
+	 * @param database the graph database
+	 * @return the execution engine of the database
+	 */
+	public static ExecutionEngine getEngine(final GraphDatabaseService database) {
+
+		return getCachedEngine(database).engine;
+	}
+
+	/**
+	 * Executes the given (parameterized) query at the shared execution engine of the given database.
+	 *
+	 * @param database the graph database
+	 * @param query the query template
+	 * @param params the parameters of the query
+	 * @return the result of the query
+	 */
+	public static ExecutionResult execute(final GraphDatabaseService database, final String query, final Map<String, Object> params) {
+
+		final Engine engine = getCachedEngine(database);
+
+		ExecutionEngines.EXECUTIONS.incrementAndGet();
+
+		if (engine.executedQueries.getIfPresent(query) != null) {
+
+			ExecutionEngines.REPEATED_QUERY_TEXTS.incrementAndGet();
+		} else {
+
+			engine.executedQueries.put(query, Boolean.TRUE);
+		}
+
+		return engine.engine.execute(query, params);
+	}
+
+	/**
+	 * @return the number of queries that were executed via this registry
+	 */
+	public static long getExecutions() {
+
+		return ExecutionEngines.EXECUTIONS.get();
+	}
+
+	/**
+	 * @return the number of query executions whose query text was recently executed at the same engine before (i.e. an approximation of
+	 *         the plan cache hits)
+	 */
+	public static long getRepeatedQueryTexts() {
+
+		return ExecutionEngines.REPEATED_QUERY_TEXTS.get();
+	}
+
+	/**
+	 * Removes the execution engine of the given database, e.g., before the database will be shut down.
+	 *
+	 * @param database the graph database
+	 */
+	public static void remove(final GraphDatabaseService database) {
+
+		ExecutionEngines.ENGINES.invalidate(database);
+	}
+
+	private static Engine getCachedEngine(final GraphDatabaseService database) {
+
+		// note: engine creation doesn't throw checked exceptions
+		return ExecutionEngines.ENGINES.getUnchecked(database);
+	}
+
+	private static final class Engine {
+
+		private final ExecutionEngine			engine;
+
+		/**
+		 * the recently executed query texts of the engine
+		 */
+		private final Cache<String, Boolean>	executedQueries;
+
+		private Engine(final GraphDatabaseService database) {
+
+			engine = new ExecutionEngine(database);
+			executedQueries = CacheBuilder.newBuilder().maximumSize(ExecutionEngines.QUERY_CACHE_SIZE).build();
+		}
+	}
+}
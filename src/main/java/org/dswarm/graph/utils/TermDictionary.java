@@ -0,0 +1,254 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A dictionary of terms (e.g. URIs), i.e., each distinct term gets a dense int id (in the order of their first occurrence). Terms can be
+ * looked up by their UTF-8 bytes, whereby a String is only materialised for terms that are new to the dictionary.<br/>
+ * note: a dictionary is not thread-safe, i.e., it should be utilised by one import (thread) only.
+ *
+ * @author tgaengler
+ */
+public final class TermDictionary {
+
+	private static final int	INITIAL_CAPACITY	= 1024;
+
+	private static final int	NO_ID				= -1;
+
+	/**
+	 * the open addressing table of the term ids (by the hashes of their bytes)
+	 */
+	private int[]				table;
+
+	private byte[][]			termBytes;
+	private int[]				termHashes;
+	private String[]			terms;
+
+	private int					size				= 0;
+
+	/**
+	 * the buffer for encoding terms that are given as Strings
+	 */
+	private final Utf8Buffer	scratch				= new Utf8Buffer();
+
+	public TermDictionary() {
+
+		table = newTable(TermDictionary.INITIAL_CAPACITY);
+		termBytes = new byte[TermDictionary.INITIAL_CAPACITY][];
+		termHashes = new int[TermDictionary.INITIAL_CAPACITY];
+		terms = new String[TermDictionary.INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Gets the id of the term that is given by its UTF-8 bytes. The term is added to the dictionary, if it doesn't exist there yet.
+	 *
+	 * @param bytes a buffer that contains the UTF-8 bytes of the term
+	 * @param offset the offset of the term in the buffer
+	 * @param length the length of the term in the buffer
+	 * @return the id of the term
+	 */
+	public int getId(final byte[] bytes, final int offset, final int length) {
+
+		final int hash = hash(bytes, offset, length);
+		final int mask = table.length - 1;
+
+		int slot = hash & mask;
+		int id;
+
+		while ((id = table[slot]) != TermDictionary.NO_ID) {
+
+			if (termHashes[id] == hash && equals(termBytes[id], bytes, offset, length)) {
+
+				return id;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		id = add(Arrays.copyOfRange(bytes, offset, offset + length), hash);
+		table[slot] = id;
+
+		if (size * 2 > table.length) {
+
+			rehash();
+		}
+
+		return id;
+	}
+
+	/**
+	 * Gets the id of the given term. The term is added to the dictionary, if it doesn't exist there yet.
+	 *
+	 * @param term a term
+	 * @return the id of the term
+	 */
+	public int getId(final String term) {
+
+		scratch.reset().append(term);
+
+		return getId(scratch.bytes(), 0, scratch.length());
+	}
+
+	/**
+	 * Gets the (interned) term of the given UTF-8 bytes, i.e., equal terms are always represented by the same String instance.
+	 *
+	 * @param bytes a buffer that contains the UTF-8 bytes of the term
+	 * @param offset the offset of the term in the buffer
+	 * @param length the length of the term in the buffer
+	 * @return the term
+	 */
+	public String intern(final byte[] bytes, final int offset, final int length) {
+
+		return getTerm(getId(bytes, offset, length));
+	}
+
+	/**
+	 * @param id the id of a term
+	 * @return the term of the given id
+	 */
+	public String getTerm(final int id) {
+
+		final String term = id >= 0 && id < size ? terms[id] : null;
+
+		if (term != null) {
+
+			return term;
+		}
+
+		// note: the id is checked when decoding
+		final String decodedTerm = decode(id);
+		terms[id] = decodedTerm;
+
+		return decodedTerm;
+	}
+
+	/**
+	 * Decodes the term of the given id into a new String, i.e., the String is not hold by the dictionary (e.g. for terms that are
+	 * needed only once).
+	 *
+	 * @param id the id of a term
+	 * @return the term of the given id
+	 */
+	public String decode(final int id) {
+
+		return new String(getBytes(id), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param id the id of a term
+	 * @return the UTF-8 bytes of the term of the given id (note: the array should not be modified)
+	 */
+	public byte[] getBytes(final int id) {
+
+		if (id < 0 || id >= size) {
+
+			throw new IllegalArgumentException("there is no term with id '" + id + "' in the dictionary");
+		}
+
+		return termBytes[id];
+	}
+
+	/**
+	 * @return the number of terms in the dictionary
+	 */
+	public int size() {
+
+		return size;
+	}
+
+	private int add(final byte[] bytes, final int hash) {
+
+		if (size == termBytes.length) {
+
+			final int capacity = termBytes.length * 2;
+
+			termBytes = Arrays.copyOf(termBytes, capacity);
+			termHashes = Arrays.copyOf(termHashes, capacity);
+			terms = Arrays.copyOf(terms, capacity);
+		}
+
+		final int id = size++;
+
+		termBytes[id] = bytes;
+		termHashes[id] = hash;
+
+		return id;
+	}
+
+	private void rehash() {
+
+		table = newTable(table.length * 2);
+
+		final int mask = table.length - 1;
+
+		for (int id = 0; id < size; id++) {
+
+			int slot = termHashes[id] & mask;
+
+			while (table[slot] != TermDictionary.NO_ID) {
+
+				slot = (slot + 1) & mask;
+			}
+
+			table[slot] = id;
+		}
+	}
+
+	private static int[] newTable(final int capacity) {
+
+		final int[] table = new int[capacity];
+		Arrays.fill(table, TermDictionary.NO_ID);
+
+		return table;
+	}
+
+	private static int hash(final byte[] bytes, final int offset, final int length) {
+
+		// FNV-1a
+		int hash = 0x811c9dc5;
+
+		for (int i = offset; i < offset + length; i++) {
+
+			hash ^= bytes[i] & 0xff;
+			hash *= 0x01000193;
+		}
+
+		// spread the bits, since the table index is taken from the low bits
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean equals(final byte[] termBytes, final byte[] bytes, final int offset, final int length) {
+
+		if (termBytes.length != length) {
+
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+
+			if (termBytes[i] != bytes[offset + i]) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.utils;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of UTF-8 bytes, i.e., strings can be encoded into this buffer without allocating intermediate byte arrays (as
+ * {@link String#getBytes(java.nio.charset.Charset)} does). The encoding is equal to the UTF-8 encoding of the JDK (incl. the
+ * replacement of unpaired surrogates by '?').<br/>
+ * note: a buffer is not thread-safe, it's intended to be reused by a single thread.
+ *
+ * @author tgaengler
+ */
+public final class Utf8Buffer {
+
+	private static final byte	REPLACEMENT	= '?';
+
+	private byte[]				bytes;
+	private int					length		= 0;
+
+	public Utf8Buffer() {
+
+		this(256);
+	}
+
+	public Utf8Buffer(final int initialCapacity) {
+
+		bytes = new byte[initialCapacity];
+	}
+
+	public Utf8Buffer reset() {
+
+		length = 0;
+
+		return this;
+	}
+
+	public Utf8Buffer append(final byte[] source) {
+
+		return append(source, 0, source.length);
+	}
+
+	public Utf8Buffer append(final byte[] source, final int offset, final int sourceLength) {
+
+		ensureCapacity(length + sourceLength);
+
+		System.arraycopy(source, offset, bytes, length, sourceLength);
+		length += sourceLength;
+
+		return this;
+	}
+
+	public Utf8Buffer append(final String string) {
+
+		// note: a char is encoded into 3 bytes at most
+		ensureCapacity(length + 3 * string.length());
+
+		final int stringLength = string.length();
+
+		for (int i = 0; i < stringLength; i++) {
+
+			final char c = string.charAt(i);
+
+			if (c < 0x80) {
+
+				bytes[length++] = (byte) c;
+			} else if (c < 0x800) {
+
+				bytes[length++] = (byte) (0xc0 | (c >> 6));
+				bytes[length++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+
+				if (Character.isHighSurrogate(c) && i + 1 < stringLength && Character.isLowSurrogate(string.charAt(i + 1))) {
+
+					final int codePoint = Character.toCodePoint(c, string.charAt(++i));
+
+					bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+					bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+					bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+					bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+				} else {
+
+					bytes[length++] = Utf8Buffer.REPLACEMENT;
+				}
+			} else {
+
+				bytes[length++] = (byte) (0xe0 | (c >> 12));
+				bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				bytes[length++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * @return the internal byte array of this buffer, whereby only the first {@link #length()} bytes are valid (note: the array should
+	 *         not be modified)
+	 */
+	public byte[] bytes() {
+
+		return bytes;
+	}
+
+	public int length() {
+
+		return length;
+	}
+
+	public byte[] toByteArray() {
+
+		return Arrays.copyOf(bytes, length);
+	}
+
+	private void ensureCapacity(final int capacity) {
+
+		if (bytes.length < capacity) {
+
+			bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+		}
+	}
+}
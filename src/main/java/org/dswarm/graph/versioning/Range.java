@@ -87,6 +87,19 @@ public class Range implements Comparable<Range> {
 	}
 
 	public boolean contains(final int point) {
+		return Range.contains(from, to, point);
+	}
+
+	/**
+	 * Checks whether the given point is in the range [from, to), without allocating a range object, e.g., for checking the validity of
+	 * statements while traversing the graph.
+	 *
+	 * @param from the start of the range (inclusive)
+	 * @param to the end of the range (exclusive)
+	 * @param point the point that should be checked
+	 * @return true, if the point is in the range
+	 */
+	public static boolean contains(final int from, final int to, final int point) {
 		return point >= from && point < to;
 	}
 
@@ -17,32 +17,59 @@
 package org.dswarm.graph.batch.rdf.pnx.parse.test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dswarm.graph.batch.BatchKeyFilter;
+import org.dswarm.graph.batch.DataModelNeo4jProcessor;
+import org.dswarm.graph.batch.Neo4jProcessor;
+import org.dswarm.graph.batch.parse.BaseNeo4jHandler;
+import org.dswarm.graph.batch.parse.DataModelNeo4jHandler;
+import org.dswarm.graph.batch.parse.MappedNTriplesParser;
 import org.dswarm.graph.batch.rdf.pnx.DataModelRDFNeo4jProcessor;
 import org.dswarm.graph.batch.rdf.pnx.RDFNeo4jProcessor;
+import org.dswarm.graph.batch.rdf.pnx.SimpleRDFNeo4jProcessor;
 import org.dswarm.graph.batch.rdf.pnx.parse.DataModelRDFNeo4jHandler;
 import org.dswarm.graph.batch.rdf.pnx.parse.PNXParser;
+import org.dswarm.graph.batch.rdf.pnx.parse.PipelinedPNXParser;
 import org.dswarm.graph.batch.rdf.pnx.parse.RDFHandler;
 import org.dswarm.graph.batch.rdf.pnx.parse.RDFParser;
+import org.dswarm.graph.batch.rdf.pnx.parse.SimpleRDFNeo4jHandler;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.parse.Neo4jHandler;
+import org.dswarm.graph.rdf.parse.StreamRDFParser;
+import org.junit.Assert;
 import org.junit.Test;
-import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
 import org.neo4j.unsafe.batchinsert.BatchInserter;
 import org.neo4j.unsafe.batchinsert.BatchInserters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.io.Resources;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
 
 import de.knutwalker.ntparser.NonStrictNtParser;
-import de.knutwalker.ntparser.Statement;
 
 /**
  * @author tgaengler
@@ -54,6 +81,190 @@ public class RDFBatchInserterTest {
 	@Test
 	public void testRDFBatchInsertTest() throws Exception {
 
+		batchInsert("target/test_data_" + UUID.randomUUID(), ParserType.SEQUENTIAL, "dmpf_bsp1.nt");
+	}
+
+	/**
+	 * the pipelined import (of the parsed model as well as of the N-Triples stream) should write the same statements as the sequential
+	 * import
+	 */
+	@Test
+	public void testPipelinedRDFBatchInsertTest() throws Exception {
+
+		final ImportResult sequentialImport = batchInsert("target/test_data_sequential_" + UUID.randomUUID(), ParserType.SEQUENTIAL,
+				"dmpf_bsp1.nt");
+		final ImportResult pipelinedImport = batchInsert("target/test_data_pipelined_" + UUID.randomUUID(), ParserType.PIPELINED,
+				"dmpf_bsp1.nt");
+		final ImportResult pipelinedStreamImport = batchInsert("target/test_data_pipelined_stream_" + UUID.randomUUID(),
+				ParserType.PIPELINED_STREAM, "dmpf_bsp1.nt");
+
+		Assert.assertTrue("no statements were parsed", sequentialImport.countedStatements > 0);
+
+		assertEqualImports("pipelined", sequentialImport, pipelinedImport);
+		assertEqualImports("pipelined stream", sequentialImport, pipelinedStreamImport);
+	}
+
+	/**
+	 * the import via the memory-mapped parser should write the same statements as the import via {@link PNXParser}
+	 */
+	@Test
+	public void testMappedRDFBatchInsertTest() throws Exception {
+
+		final ImportResult sequentialImport = batchInsert("target/test_data_sequential_" + UUID.randomUUID(), ParserType.SEQUENTIAL,
+				"dmpf_bsp1.nt");
+		final ImportResult mappedImport = batchInsert("target/test_data_mapped_" + UUID.randomUUID(), ParserType.MAPPED, "dmpf_bsp1.nt");
+
+		Assert.assertTrue("no statements were parsed", sequentialImport.countedStatements > 0);
+
+		assertEqualImports("mapped", sequentialImport, mappedImport);
+	}
+
+	/**
+	 * the memory-mapped parser should handle escape sequences, comments, empty lines, CRLF line breaks, blank node labels that are
+	 * directly followed by the final '.' and the graph labels of N-Quads (which are ignored), i.e., it should write the same terms as
+	 * Jena reads from the N-Quads file
+	 */
+	@Test
+	public void testMappedRDFBatchInsertOfNQuadsSyntax() throws Exception {
+
+		final String fileName = "mapped_ntriples_syntax.nq";
+
+		final ImportResult mappedImport = batchInsert("target/test_data_mapped_syntax_" + UUID.randomUUID(), ParserType.MAPPED, fileName);
+
+		final Dataset dataset = RDFDataMgr.loadDataset(fileName, Lang.NQUADS);
+
+		long statements = 0;
+		final Set<Object> uris = new HashSet<>();
+		final Set<Object> values = new HashSet<>();
+		final Set<Object> bnodes = new HashSet<>();
+
+		statements += collectTerms(dataset.getDefaultModel(), uris, values, bnodes);
+
+		final Iterator<String> graphNames = dataset.listNames();
+
+		while (graphNames.hasNext()) {
+
+			statements += collectTerms(dataset.getNamedModel(graphNames.next()), uris, values, bnodes);
+		}
+
+		Assert.assertEquals("the mapped import should count all statements of the N-Quads file", statements, mappedImport.countedStatements);
+		Assert.assertEquals("the mapped import should write the same resources as Jena reads", uris, mappedImport.uris);
+		Assert.assertEquals("the mapped import should write the same (unescaped) literals as Jena reads", values, mappedImport.values);
+		Assert.assertEquals("the mapped import should write the same blank nodes as Jena reads", bnodes.size(), mappedImport.bnodes);
+	}
+
+	/**
+	 * appending the same statements again shouldn't add any statement or resource, and appending overlapping statements should result in
+	 * the same store as a single import of all statements
+	 */
+	@Test
+	public void testAppendRDFBatchInsert() throws Exception {
+
+		final ImportResult expectedStore = batchInsert("target/test_data_combined_" + UUID.randomUUID(), ParserType.SEQUENTIAL,
+				concat("batch_append_1.nt", "batch_append_2.nt"), false);
+
+		final String storeDir = "target/test_data_append_" + UUID.randomUUID();
+
+		final ImportResult firstImport = batchInsert(storeDir, ParserType.SEQUENTIAL, Resources.getResource("batch_append_1.nt"), false);
+
+		Assert.assertTrue("the first import should write key filters", new File(storeDir, BatchKeyFilter.FILE_NAME).exists());
+
+		final ImportResult repeatedImport = batchInsert(storeDir, ParserType.SEQUENTIAL, Resources.getResource("batch_append_1.nt"), true);
+
+		Assert.assertEquals("appending the same statements shouldn't add any relationship", 0, repeatedImport.relationshipsAdded);
+		assertEqualStores("repeated", firstImport, repeatedImport);
+
+		final ImportResult appendImport = batchInsert(storeDir, ParserType.SEQUENTIAL, Resources.getResource("batch_append_2.nt"), true);
+
+		Assert.assertTrue("the append import should add new relationships", appendImport.relationshipsAdded > 0);
+		Assert.assertEquals("the imports should add the same relationships as a single import", expectedStore.relationshipsAdded,
+				firstImport.relationshipsAdded + appendImport.relationshipsAdded);
+		assertEqualStores("appended", expectedStore, appendImport);
+	}
+
+	/**
+	 * a store without key filters (e.g. a store of an older version) should be appended by looking up every key in the indices, and
+	 * incomplete key filters shouldn't be written afterwards
+	 */
+	@Test
+	public void testAppendRDFBatchInsertWithoutKeyFilters() throws Exception {
+
+		final ImportResult expectedStore = batchInsert("target/test_data_combined_" + UUID.randomUUID(), ParserType.SEQUENTIAL,
+				concat("batch_append_1.nt", "batch_append_2.nt"), false);
+
+		final String storeDir = "target/test_data_append_wo_filters_" + UUID.randomUUID();
+
+		final ImportResult firstImport = batchInsert(storeDir, ParserType.SEQUENTIAL, Resources.getResource("batch_append_1.nt"), false);
+
+		BatchKeyFilter.invalidate(new File(storeDir));
+
+		Assert.assertFalse(new File(storeDir, BatchKeyFilter.FILE_NAME).exists());
+
+		final ImportResult appendImport = batchInsert(storeDir, ParserType.SEQUENTIAL, Resources.getResource("batch_append_2.nt"), true);
+
+		Assert.assertFalse("an append without key filters shouldn't write (incomplete) key filters",
+				new File(storeDir, BatchKeyFilter.FILE_NAME).exists());
+		Assert.assertEquals("the imports should add the same relationships as a single import", expectedStore.relationshipsAdded,
+				firstImport.relationshipsAdded + appendImport.relationshipsAdded);
+		assertEqualStores("appended", expectedStore, appendImport);
+	}
+
+	/**
+	 * a transactional write removes the key filters of the store, i.e., a following batch import finds the resources of the
+	 * transactional write in the indices (otherwise, the outdated key filters would skip the lookups and the resources would be
+	 * duplicated)
+	 */
+	@Test
+	public void testAppendRDFBatchInsertAfterTransactionalWrite() throws Exception {
+
+		final String storeDir = "target/test_data_append_after_tx_" + UUID.randomUUID();
+
+		batchInsertSimple(storeDir, "batch_append_1.nt", false);
+
+		Assert.assertTrue("the first import should write key filters", new File(storeDir, BatchKeyFilter.FILE_NAME).exists());
+
+		// records/3 and gnd/4036582-7 are only written by the transactional write
+		final GraphDatabaseService database = new GraphDatabaseFactory().newEmbeddedDatabase(storeDir);
+
+		try {
+
+			final org.dswarm.graph.rdf.RDFNeo4jProcessor processor = new org.dswarm.graph.rdf.SimpleRDFNeo4jProcessor(database);
+			final org.dswarm.graph.rdf.parse.RDFNeo4jHandler handler = new org.dswarm.graph.rdf.parse.SimpleRDFNeo4jHandler(processor);
+
+			try (final InputStream stream = Resources.getResource("batch_append_2.nt").openStream()) {
+
+				final org.dswarm.graph.rdf.parse.RDFParser parser = new StreamRDFParser(stream, Lang.NTRIPLES);
+				parser.setRDFHandler(handler);
+				parser.parse();
+			}
+
+			handler.getHandler().closeTransaction();
+		} finally {
+
+			database.shutdown();
+		}
+
+		Assert.assertFalse("the transactional write should remove the key filters", new File(storeDir, BatchKeyFilter.FILE_NAME).exists());
+
+		batchInsertSimple(storeDir, "batch_append_3.nt", true);
+
+		final Map<Object, Integer> uriNodes = countURINodes(storeDir);
+
+		for (final String uri : new String[] { "http://data.slub-dresden.de/records/3", "http://d-nb.info/gnd/4036582-7",
+				"http://data.slub-dresden.de/records/4" }) {
+
+			Assert.assertEquals("there should be exactly one node for resource '" + uri + "'", Integer.valueOf(1), uriNodes.get(uri));
+		}
+	}
+
+	private ImportResult batchInsert(final String storeDir, final ParserType parserType, final String fileName) throws Exception {
+
+		return batchInsert(storeDir, parserType, Resources.getResource(fileName), false);
+	}
+
+	private ImportResult batchInsert(final String storeDir, final ParserType parserType, final URL fileURL, final boolean appendToStore)
+			throws Exception {
+
 		LOG.debug("start batch processing");
 
 		final String dataModelURI = "test";
@@ -61,36 +272,251 @@ public class RDFBatchInserterTest {
 		final Map<String, String> config = new HashMap<>();
 		config.put("cache_type", "none");
 		config.put("use_memory_mapped_buffers", "true");
-		final BatchInserter inserter = BatchInserters.inserter("target/test_data", config);
-
-		final RDFNeo4jProcessor processor = new DataModelRDFNeo4jProcessor(inserter, dataModelURI);
-		final RDFHandler handler = new DataModelRDFNeo4jHandler(processor);
-		final RDFParser parser = new PNXParser(handler);
+		final BatchInserter inserter = BatchInserters.inserter(storeDir, config);
 
 		LOG.debug("finished initializing batch inserter");
 
-			LOG.debug("start batch import");
+		LOG.debug("start batch import");
+
+		final Neo4jHandler handler;
+
+		if (parserType == ParserType.MAPPED) {
+
+			final Neo4jProcessor processor = new DataModelNeo4jProcessor(inserter, dataModelURI, appendToStore);
+			final BaseNeo4jHandler mappedHandler = new DataModelNeo4jHandler(processor);
+
+			new MappedNTriplesParser(mappedHandler).parse(new File(fileURL.toURI()));
+
+			handler = mappedHandler;
+		} else {
+
+			final RDFNeo4jProcessor processor = new DataModelRDFNeo4jProcessor(inserter, dataModelURI, appendToStore);
+			final RDFHandler rdfHandler = new DataModelRDFNeo4jHandler(processor);
+
+			final byte[] file = Resources.toByteArray(fileURL);
+			final InputStream stream = new ByteArrayInputStream(file);
+
+			if (parserType == ParserType.PIPELINED_STREAM) {
 
-		final URL fileURL = Resources.getResource("dmpf_bsp1.nt");
-		final byte[] file = Resources.toByteArray(fileURL);
-		final InputStream stream = new ByteArrayInputStream(file);
-		final Iterator<Statement> model = NonStrictNtParser.parse(stream);
+				new PipelinedPNXParser(rdfHandler).parse(stream);
+			} else {
 
-		LOG.debug("finished loading RDF model");
+				final RDFParser parser;
 
-		parser.parse(model);
+				if (parserType == ParserType.SEQUENTIAL) {
+
+					parser = new PNXParser(rdfHandler);
+				} else {
+
+					parser = new PipelinedPNXParser(rdfHandler);
+				}
+
+				final Iterator<de.knutwalker.ntparser.Statement> model = NonStrictNtParser.parse(stream);
+
+				LOG.debug("finished loading RDF model");
+
+				parser.parse(model);
+
+				NonStrictNtParser.close();
+			}
+
+			stream.close();
+
+			handler = rdfHandler.getHandler();
+		}
 
 		// flush indices etc.
-		handler.getHandler().closeTransaction();
+		handler.closeTransaction();
+
+		LOG.debug("finished writing " + handler.getCountedStatements() + " RDF statements ('" + handler.getRelationshipsAdded()
+				+ "' added relationships) into graph db for data model URI '" + dataModelURI + "'");
+
+		final ImportResult result = new ImportResult(handler.getCountedStatements(), handler.getRelationshipsAdded());
 
-		LOG.debug("finished writing " + handler.getHandler().getCountedStatements() + " RDF statements ('"
-				+ handler.getHandler().getRelationshipsAdded() + "' added relationships) into graph db for data model URI '" + dataModelURI
-				+ "'");
-		NonStrictNtParser.close();
+		// note: the node ids of a store that is written by batch imports only are dense
+		for (long nodeId = 0; inserter.nodeExists(nodeId); nodeId++) {
+
+			final Map<String, Object> nodeProperties = inserter.getNodeProperties(nodeId);
+
+			if (nodeProperties.containsKey(GraphStatics.URI_PROPERTY)) {
+
+				result.uris.add(nodeProperties.get(GraphStatics.URI_PROPERTY));
+				result.uriNodes++;
+			} else if (nodeProperties.containsKey(GraphStatics.VALUE_PROPERTY)) {
+
+				result.values.add(nodeProperties.get(GraphStatics.VALUE_PROPERTY));
+				result.literalNodes++;
+			} else {
+
+				result.bnodes++;
+			}
+		}
 
-		stream.close();
 		inserter.shutdown();
 
 		LOG.debug("shutdown batch inserter");
+
+		return result;
+	}
+
+	private void batchInsertSimple(final String storeDir, final String fileName, final boolean appendToStore) throws Exception {
+
+		final Map<String, String> config = new HashMap<>();
+		config.put("cache_type", "none");
+		config.put("use_memory_mapped_buffers", "true");
+		final BatchInserter inserter = BatchInserters.inserter(storeDir, config);
+
+		try {
+
+			final RDFNeo4jProcessor processor = new SimpleRDFNeo4jProcessor(inserter, appendToStore);
+			final RDFHandler rdfHandler = new SimpleRDFNeo4jHandler(processor);
+
+			try (final InputStream stream = Resources.getResource(fileName).openStream()) {
+
+				new PNXParser(rdfHandler).parse(NonStrictNtParser.parse(stream));
+
+				NonStrictNtParser.close();
+			}
+
+			rdfHandler.getHandler().closeTransaction();
+		} finally {
+
+			inserter.shutdown();
+		}
+	}
+
+	/**
+	 * @return the number of nodes per resource URI of the store
+	 */
+	private static Map<Object, Integer> countURINodes(final String storeDir) {
+
+		final Map<Object, Integer> uriNodes = new HashMap<>();
+
+		final GraphDatabaseService database = new GraphDatabaseFactory().newEmbeddedDatabase(storeDir);
+
+		try (final Transaction tx = database.beginTx()) {
+
+			for (final Node node : GlobalGraphOperations.at(database).getAllNodes()) {
+
+				final Object uri = node.getProperty(GraphStatics.URI_PROPERTY, null);
+
+				if (uri != null) {
+
+					final Integer count = uriNodes.get(uri);
+
+					uriNodes.put(uri, count == null ? 1 : count + 1);
+				}
+			}
+
+			tx.success();
+		} finally {
+
+			database.shutdown();
+		}
+
+		return uriNodes;
+	}
+
+	/**
+	 * writes the concatenation of the given files into a temporary file
+	 *
+	 * @return the URL of the temporary file
+	 */
+	private static URL concat(final String... fileNames) throws IOException {
+
+		final File file = new File("target/test_data_" + UUID.randomUUID() + ".nt");
+
+		try (final OutputStream out = new FileOutputStream(file)) {
+
+			for (final String fileName : fileNames) {
+
+				Resources.copy(Resources.getResource(fileName), out);
+			}
+		}
+
+		return file.toURI().toURL();
+	}
+
+	private static long collectTerms(final Model model, final Set<Object> uris, final Set<Object> values, final Set<Object> bnodes) {
+
+		final StmtIterator statements = model.listStatements();
+
+		long count = 0;
+
+		while (statements.hasNext()) {
+
+			final Statement statement = statements.next();
+
+			collectTerm(statement.getSubject(), uris, values, bnodes);
+			collectTerm(statement.getObject(), uris, values, bnodes);
+
+			count++;
+		}
+
+		return count;
+	}
+
+	private static void collectTerm(final RDFNode node, final Set<Object> uris, final Set<Object> values, final Set<Object> bnodes) {
+
+		if (node.isURIResource()) {
+
+			uris.add(node.asResource().getURI());
+		} else if (node.isLiteral()) {
+
+			values.add(node.asLiteral().getLexicalForm());
+		} else {
+
+			bnodes.add(node.asResource().getId());
+		}
+	}
+
+	private static void assertEqualImports(final String importName, final ImportResult expectedImport, final ImportResult actualImport) {
+
+		Assert.assertEquals("the " + importName + " import should count the same statements as the sequential one",
+				expectedImport.countedStatements, actualImport.countedStatements);
+		Assert.assertEquals("the " + importName + " import should add the same relationships as the sequential one",
+				expectedImport.relationshipsAdded, actualImport.relationshipsAdded);
+		Assert.assertEquals("the " + importName + " import should write the same resources as the sequential one", expectedImport.uris,
+				actualImport.uris);
+		Assert.assertEquals("the " + importName + " import should write the same literals as the sequential one", expectedImport.values,
+				actualImport.values);
+		Assert.assertEquals("the " + importName + " import should write the same blank nodes as the sequential one", expectedImport.bnodes,
+				actualImport.bnodes);
+	}
+
+	/**
+	 * compares the nodes of two stores, i.e., the resources of a store should exist only once
+	 */
+	private static void assertEqualStores(final String importName, final ImportResult expectedStore, final ImportResult actualStore) {
+
+		Assert.assertEquals("the " + importName + " store should contain the same resources", expectedStore.uris, actualStore.uris);
+		Assert.assertEquals("the " + importName + " store should contain the same number of resource nodes", expectedStore.uriNodes,
+				actualStore.uriNodes);
+		Assert.assertEquals("the " + importName + " store should contain the same literals", expectedStore.values, actualStore.values);
+		Assert.assertEquals("the " + importName + " store should contain the same number of literal nodes", expectedStore.literalNodes,
+				actualStore.literalNodes);
+		Assert.assertEquals("the " + importName + " store should contain the same blank nodes", expectedStore.bnodes, actualStore.bnodes);
+	}
+
+	private enum ParserType {
+
+		SEQUENTIAL, PIPELINED, PIPELINED_STREAM, MAPPED
+	}
+
+	private static final class ImportResult {
+
+		private final long			countedStatements;
+		private final int			relationshipsAdded;
+		private final Set<Object>	uris			= new HashSet<>();
+		private final Set<Object>	values			= new HashSet<>();
+		private int					bnodes			= 0;
+		private int					uriNodes		= 0;
+		private int					literalNodes	= 0;
+
+		private ImportResult(final long countedStatementsArg, final int relationshipsAddedArg) {
+
+			countedStatements = countedStatementsArg;
+			relationshipsAdded = relationshipsAddedArg;
+		}
 	}
 }
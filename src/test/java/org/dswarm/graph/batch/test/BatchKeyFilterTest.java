@@ -0,0 +1,108 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.batch.test;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.google.common.base.Optional;
+import com.google.common.io.Files;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.batch.BatchKeyFilter;
+
+/**
+ * @author tgaengler
+ */
+public class BatchKeyFilterTest {
+
+	/**
+	 * more keys than the first Bloom filter of an empty store is sized for, i.e., the filter chain needs to grow
+	 */
+	private static final long	KEYS	= 1500000;
+
+	@Test
+	public void testGrowingKeyFilter() throws DMPGraphException {
+
+		final File storeDir = Files.createTempDir();
+
+		final BatchKeyFilter keyFilter = BatchKeyFilter.create();
+
+		for (long i = 0; i < BatchKeyFilterTest.KEYS; i++) {
+
+			keyFilter.addStatementHash(i);
+		}
+
+		keyFilter.addResourceKey("http://data.slub-dresden.de/records/1");
+
+		keyFilter.write(storeDir);
+
+		final Optional<BatchKeyFilter> optionalLoadedKeyFilter = BatchKeyFilter.load(storeDir);
+
+		Assert.assertTrue("the written key filters should be loadable", optionalLoadedKeyFilter.isPresent());
+
+		final BatchKeyFilter loadedKeyFilter = optionalLoadedKeyFilter.get();
+
+		// there are no false negatives, neither in the full first filter nor in the second one
+		for (long i = 0; i < BatchKeyFilterTest.KEYS; i++) {
+
+			Assert.assertTrue("statement hash '" + i + "' should be contained", loadedKeyFilter.mightContainStatementHash(i));
+		}
+
+		Assert.assertTrue(loadedKeyFilter.mightContainResourceKey("http://data.slub-dresden.de/records/1"));
+
+		long falsePositives = 0;
+
+		for (long i = BatchKeyFilterTest.KEYS; i < 2 * BatchKeyFilterTest.KEYS; i++) {
+
+			if (loadedKeyFilter.mightContainStatementHash(i)) {
+
+				falsePositives++;
+			}
+		}
+
+		// the false positive rate of the chain stays below the double of the rate of its first filter (1%)
+		Assert.assertTrue("too many false positives: " + falsePositives, falsePositives < BatchKeyFilterTest.KEYS * 2 / 100);
+	}
+
+	@Test
+	public void testInvalidateOnce() throws DMPGraphException, IOException {
+
+		final File storeDir = Files.createTempDir();
+		final File keyFilterFile = new File(storeDir, BatchKeyFilter.FILE_NAME);
+
+		BatchKeyFilter.create().write(storeDir);
+
+		BatchKeyFilter.invalidateOnce(storeDir);
+
+		Assert.assertFalse("the first transactional write should remove the key filters", keyFilterFile.exists());
+
+		// note: the file system isn't touched anymore (as long as no key filters were written in the meantime)
+		Files.touch(keyFilterFile);
+		BatchKeyFilter.invalidateOnce(storeDir);
+
+		Assert.assertTrue(keyFilterFile.exists());
+
+		// written key filters need to be removed by the next transactional write again
+		BatchKeyFilter.create().write(storeDir);
+		BatchKeyFilter.invalidateOnce(storeDir);
+
+		Assert.assertFalse("the key filters should be removed after they were written again", keyFilterFile.exists());
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.parse.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.gdm.parse.GDMResourceStreamReader;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Model;
+import org.dswarm.graph.json.Node;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.json.util.Util;
+
+/**
+ * @author tgaengler
+ */
+public class GDMResourceStreamReaderTest {
+
+	/**
+	 * several resources that share node ids (a type node, a subject node, a literal node and a bnode) and a resource without statements
+	 */
+	private static final String	MULTIPLE_RESOURCES_FILE_NAME	= "test-multiple-resources.gson";
+
+	/**
+	 * the resources should be equal to the ones of the deserialised model (incl. the shared node ids), resources without statements are
+	 * skipped
+	 */
+	@Test
+	public void testReadMultipleResources() throws IOException, DMPGraphException {
+
+		final URL fileURL = Resources.getResource(GDMResourceStreamReaderTest.MULTIPLE_RESOURCES_FILE_NAME);
+
+		final Model model = Util.getJSONObjectMapper().readValue(Resources.toString(fileURL, Charsets.UTF_8), Model.class);
+
+		final List<String> expectedResources = new ArrayList<>();
+
+		for (final Resource resource : model.getResources()) {
+
+			if (resource.getStatements() != null && !resource.getStatements().isEmpty()) {
+
+				expectedResources.add(describe(resource));
+			}
+		}
+
+		final GDMResourceStreamReader reader = new GDMResourceStreamReader(fileURL.openStream());
+
+		final List<String> actualResources = readResources(reader);
+
+		// note: the resources of a model needn't to be ordered
+		Collections.sort(expectedResources);
+		Collections.sort(actualResources);
+
+		Assert.assertEquals(3, expectedResources.size());
+		Assert.assertEquals(expectedResources, actualResources);
+		Assert.assertEquals(3, reader.getResourcesCount());
+	}
+
+	@Test
+	public void testReadEmptyModel() throws DMPGraphException {
+
+		final GDMResourceStreamReader reader = new GDMResourceStreamReader(toInputStream("[]"));
+
+		Assert.assertNull(reader.read());
+		Assert.assertNull(reader.read());
+		Assert.assertEquals(0, reader.getResourcesCount());
+
+		reader.close();
+	}
+
+	@Test
+	public void testReadEmptyStream() throws DMPGraphException {
+
+		final GDMResourceStreamReader reader = new GDMResourceStreamReader(toInputStream(""));
+
+		Assert.assertNull(reader.read());
+		Assert.assertEquals(0, reader.getResourcesCount());
+
+		reader.close();
+	}
+
+	@Test(expected = DMPGraphException.class)
+	public void testReadNonArrayModel() throws DMPGraphException {
+
+		new GDMResourceStreamReader(toInputStream("{}")).read();
+	}
+
+	@Test
+	public void testReadTruncatedModel() throws IOException, DMPGraphException {
+
+		final String modelJSONString = Resources.toString(Resources.getResource(GDMResourceStreamReaderTest.MULTIPLE_RESOURCES_FILE_NAME),
+				Charsets.UTF_8);
+
+		// cut off within the last resource
+		final GDMResourceStreamReader reader = new GDMResourceStreamReader(toInputStream(modelJSONString.substring(0,
+				modelJSONString.lastIndexOf("Die Ordnung"))));
+
+		Assert.assertNotNull(reader.read());
+		Assert.assertNotNull(reader.read());
+
+		try {
+
+			reader.read();
+
+			Assert.fail("a truncated model shouldn't be read completely");
+		} catch (final DMPGraphException e) {
+
+			// expected
+		}
+
+		// the reader shouldn't continue after a failure
+		Assert.assertNull(reader.read());
+		Assert.assertEquals(2, reader.getResourcesCount());
+	}
+
+	private static List<String> readResources(final GDMResourceStreamReader reader) throws DMPGraphException {
+
+		final List<String> resources = new ArrayList<>();
+
+		Resource resource;
+
+		while ((resource = reader.read()) != null) {
+
+			resources.add(describe(resource));
+		}
+
+		reader.close();
+
+		return resources;
+	}
+
+	private static String describe(final Resource resource) {
+
+		final StringBuilder sb = new StringBuilder(resource.getUri()).append(" :");
+
+		for (final Statement statement : resource.getStatements()) {
+
+			sb.append("\n").append(describe(statement.getSubject())).append(" ").append(statement.getPredicate().getUri()).append(" ")
+					.append(describe(statement.getObject())).append(" (order ").append(statement.getOrder()).append(")");
+		}
+
+		return sb.toString();
+	}
+
+	private static String describe(final Node node) {
+
+		if (node instanceof ResourceNode) {
+
+			return "<" + ((ResourceNode) node).getUri() + ">@" + node.getId();
+		}
+
+		if (node instanceof LiteralNode) {
+
+			return "\"" + ((LiteralNode) node).getValue() + "\"@" + node.getId();
+		}
+
+		return "_:" + node.getId();
+	}
+
+	private static InputStream toInputStream(final String modelJSONString) {
+
+		return new ByteArrayInputStream(modelJSONString.getBytes(Charsets.UTF_8));
+	}
+}
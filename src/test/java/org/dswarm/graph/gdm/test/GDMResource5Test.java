@@ -0,0 +1,281 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.test;
+
+import java.io.IOException;
+import java.net.URL;
+
+import javax.ws.rs.core.MediaType;
+
+import junit.framework.Assert;
+
+import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.test.BasicResourceTest;
+import org.dswarm.graph.test.Neo4jDBWrapper;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.Resources;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.multipart.BodyPart;
+import com.sun.jersey.multipart.MultiPart;
+
+/**
+ * Tests the record fingerprints, i.e., the skipping of unchanged records at delta calculation and the invalidation of the
+ * fingerprints, and the handling of records that occur more than once in one payload.
+ *
+ * @author tgaengler
+ */
+public abstract class GDMResource5Test extends BasicResourceTest {
+
+	private static final Logger	LOG						= LoggerFactory.getLogger(GDMResource5Test.class);
+
+	private static final String	CSV_RECORD_CLASS_URI	= "http://data.slub-dresden.de/resources/1/schema#RecordType";
+	private static final String	MABXML_RECORD_CLASS_URI	= "http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#datensatzType";
+
+	private static final String	STATEMENTS_COUNT_QUERY	= "MATCH ()-[r]->() WHERE r.__DATA_MODEL__ = \"%s\" RETURN COUNT(r) AS statement_count";
+	private static final String	FINGERPRINTS_COUNT_QUERY	= "MATCH (n) WHERE n.__DATA_MODEL__ = \"%s\" AND has(n.__FINGERPRINT__) RETURN COUNT(n) AS fingerprint_count";
+
+	private final ObjectMapper	objectMapper;
+
+	public GDMResource5Test(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
+
+		super(neo4jDBWrapper, "/gdm", dbTypeArg);
+
+		objectMapper = Util.getJSONObjectMapper();
+	}
+
+	/**
+	 * a re-import of the same data model should skip all records via their fingerprints, i.e., nothing should be written
+	 */
+	@Test
+	public void testSkipUnchangedRecords() throws IOException {
+
+		LOG.debug("start skip unchanged records test for GDM resource at " + dbType + " DB");
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/11";
+
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_02_v1.csv.gson", dataModelURI, getCSVContentSchema(), false, "");
+
+		final long statements = countStatements(dataModelURI);
+		final long fingerprints = countFingerprints(dataModelURI);
+		final long modelSize = readModelSize(dataModelURI, CSV_RECORD_CLASS_URI);
+
+		Assert.assertTrue("expected some fingerprints after the first import", fingerprints > 0);
+
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_02_v1.csv.gson", dataModelURI, getCSVContentSchema(), false, "");
+
+		Assert.assertEquals("the re-import shouldn't add any statement", statements, countStatements(dataModelURI));
+		Assert.assertEquals("the re-import shouldn't change the fingerprints", fingerprints, countFingerprints(dataModelURI));
+		Assert.assertEquals("the re-import shouldn't change the model", modelSize, readModelSize(dataModelURI, CSV_RECORD_CLASS_URI));
+
+		LOG.debug("finished skip unchanged records test for GDM resource at " + dbType + " DB");
+	}
+
+	/**
+	 * a write without delta calculation (i.e. without content schema) adds statements to existing records (e.g. the statements of
+	 * their bnodes), i.e., their fingerprints are outdated and need to be removed
+	 */
+	@Test
+	public void testWriteWithoutDeltaRemovesFingerprints() throws IOException {
+
+		LOG.debug("start write without delta removes fingerprints test for GDM resource at " + dbType + " DB");
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/12";
+
+		writeGDMToDBInternalWithContentSchema("versioning/mabxml_dmp.gson", dataModelURI, getMABXMLContentSchema(), false, "");
+
+		final long fingerprints = countFingerprints(dataModelURI);
+
+		Assert.assertTrue("expected some fingerprints after the first import", fingerprints > 0);
+
+		writeGDMToDBInternal("versioning/mabxml_dmp.gson", dataModelURI);
+
+		Assert.assertTrue("the write without delta calculation should remove the fingerprints of the records it added statements to",
+				countFingerprints(dataModelURI) < fingerprints);
+
+		LOG.debug("finished write without delta removes fingerprints test for GDM resource at " + dbType + " DB");
+	}
+
+	/**
+	 * a deprecated record loses its fingerprint, i.e., it shouldn't be skipped, when it re-appears in a later import
+	 */
+	@Test
+	public void testDeprecatedRecordReappears() throws IOException {
+
+		LOG.debug("start deprecated record re-appears test for GDM resource at " + dbType + " DB");
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/13";
+
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_02_v1.csv.gson", dataModelURI, getCSVContentSchema(), false, "");
+
+		final long fingerprints = countFingerprints(dataModelURI);
+
+		Assert.assertTrue("expected some fingerprints after the first import", fingerprints > 0);
+
+		// one record is missing in the updated data model
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_02_v2.csv.gson", dataModelURI, getCSVContentSchema(), true,
+				CSV_RECORD_CLASS_URI);
+
+		Assert.assertEquals("the deprecated record should have lost its fingerprint", fingerprints - 1, countFingerprints(dataModelURI));
+
+		// the missing record re-appears
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_02_v1.csv.gson", dataModelURI, getCSVContentSchema(), true,
+				CSV_RECORD_CLASS_URI);
+
+		Assert.assertEquals("the re-appeared record should have been compared and fingerprinted again", fingerprints,
+				countFingerprints(dataModelURI));
+
+		LOG.debug("finished deprecated record re-appears test for GDM resource at " + dbType + " DB");
+	}
+
+	/**
+	 * records that occur more than once in one payload (with the same legacy record identifier) should be written only once, i.e., the
+	 * repeated records should be compared with the record of this payload (and not be treated as new records)
+	 */
+	@Test
+	public void testDuplicateRecordsInOnePayload() throws IOException {
+
+		LOG.debug("start duplicate records in one payload test for GDM resource at " + dbType + " DB");
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/14";
+		final String duplicatesDataModelURI = "http://data.slub-dresden.de/resources/15";
+
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_01_v1.csv.gson", dataModelURI, getCSVContentSchema(), false, "");
+
+		// contains the record of lic_dmp_01_v1 three times (once with another resource uri)
+		writeGDMToDBInternalWithContentSchema("versioning/lic_dmp_01_v1_duplicates.csv.gson", duplicatesDataModelURI, getCSVContentSchema(),
+				false, "");
+
+		Assert.assertEquals("the duplicates should be written only once", countStatements(dataModelURI),
+				countStatements(duplicatesDataModelURI));
+		Assert.assertEquals("expected exactly one fingerprinted record", 1, countFingerprints(duplicatesDataModelURI));
+		Assert.assertEquals("the duplicates should result in the same model", readModelSize(dataModelURI, CSV_RECORD_CLASS_URI),
+				readModelSize(duplicatesDataModelURI, CSV_RECORD_CLASS_URI));
+
+		LOG.debug("finished duplicate records in one payload test for GDM resource at " + dbType + " DB");
+	}
+
+	private long countStatements(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(STATEMENTS_COUNT_QUERY, dataModelURI));
+	}
+
+	private long countFingerprints(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(FINGERPRINTS_COUNT_QUERY, dataModelURI));
+	}
+
+	private long readModelSize(final String dataModelURI, final String recordClassURI) throws IOException {
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put("record_class_uri", recordClassURI);
+		requestJson.put("data_model_uri", dataModelURI);
+
+		final String requestJsonString = objectMapper.writeValueAsString(requestJson);
+
+		// POST the request
+		final ClientResponse response = target().path("/get").type(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON)
+				.post(ClientResponse.class, requestJsonString);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		final org.dswarm.graph.json.Model model = objectMapper.readValue(body, org.dswarm.graph.json.Model.class);
+
+		return model.size();
+	}
+
+	private void writeGDMToDBInternalWithContentSchema(final String dataResourceFileName, final String dataModelURI,
+			final ObjectNode contentSchemaRequestJSON, final boolean deprecateMissingRecords, final String recordClassUri) throws IOException {
+
+		LOG.debug("start writing GDM statements for GDM resource at " + dbType + " DB");
+
+		final URL fileURL = Resources.getResource(dataResourceFileName);
+		final byte[] file = Resources.toByteArray(fileURL);
+
+		final String requestJsonString = objectMapper.writeValueAsString(contentSchemaRequestJSON);
+
+		// Construct a MultiPart with five body parts
+		final MultiPart multiPart = new MultiPart();
+		multiPart.bodyPart(new BodyPart(file, MediaType.APPLICATION_OCTET_STREAM_TYPE))
+				.bodyPart(new BodyPart(dataModelURI, MediaType.TEXT_PLAIN_TYPE))
+				.bodyPart(new BodyPart(requestJsonString, MediaType.APPLICATION_JSON_TYPE))
+				.bodyPart(new BodyPart(Boolean.valueOf(deprecateMissingRecords).toString(), MediaType.TEXT_PLAIN_TYPE))
+				.bodyPart(new BodyPart(recordClassUri, MediaType.TEXT_PLAIN_TYPE));
+
+		// POST the request
+		final ClientResponse response = target().path("/put").type("multipart/mixed").post(ClientResponse.class, multiPart);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		multiPart.close();
+
+		LOG.debug("finished writing GDM statements for GDM resource at " + dbType + " DB");
+	}
+
+	private void writeGDMToDBInternal(final String dataResourceFileName, final String dataModelURI) throws IOException {
+
+		LOG.debug("start writing GDM statements for GDM resource at " + dbType + " DB");
+
+		final URL fileURL = Resources.getResource(dataResourceFileName);
+		final byte[] file = Resources.toByteArray(fileURL);
+
+		// Construct a MultiPart with two body parts
+		final MultiPart multiPart = new MultiPart();
+		multiPart.bodyPart(new BodyPart(file, MediaType.APPLICATION_OCTET_STREAM_TYPE)).bodyPart(
+				new BodyPart(dataModelURI, MediaType.TEXT_PLAIN_TYPE));
+
+		// POST the request
+		final ClientResponse response = target().path("/put").type("multipart/mixed").post(ClientResponse.class, multiPart);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		multiPart.close();
+
+		LOG.debug("finished writing GDM statements for GDM resource at " + dbType + " DB");
+	}
+
+	private ObjectNode getCSVContentSchema() {
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+		requestJson.put("record_identifier_attribute_path", "http://data.slub-dresden.de/resources/1/schema#EZB-Id");
+
+		return requestJson;
+	}
+
+	private ObjectNode getMABXMLContentSchema() {
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+		requestJson.put("record_identifier_attribute_path", "http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#id");
+		final ArrayNode keyAttributePaths = objectMapper.createArrayNode();
+		keyAttributePaths.add("http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#feld\u001Ehttp://www.ddb.de/professionell/mabxml/mabxml-1.xsd#nr");
+		keyAttributePaths
+				.add("http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#feld\u001Ehttp://www.ddb.de/professionell/mabxml/mabxml-1.xsd#ind");
+		requestJson.put("key_attribute_paths", keyAttributePaths);
+		requestJson.put("value_attribute_path",
+				"http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#feld\u001Ehttp://www.w3.org/1999/02/22-rdf-syntax-ns#value");
+
+		return requestJson;
+	}
+}
@@ -14,27 +14,19 @@
  * You should have received a copy of the GNU General Public License
  * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.dswarm.graph.delta.util;
+package org.dswarm.graph.gdm.test;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.test.Neo4jEmbeddedDBWrapper;
 
 /**
+ *
  * @author tgaengler
+ *
  */
-public final class ChangesetUtil {
-
-	public static Map<Long, Statement> providedModifiedStatements(final Map<String, Statement> modifiedStatements) {
-
-		final Map<Long, Statement> newModifiedStatements = new LinkedHashMap<>();
-
-		for(final Map.Entry<String, Statement> modifiedStatementsEntry : modifiedStatements.entrySet()) {
+public class GDMResourceOnEmbedded5DBTest extends GDMResource5Test {
 
-			newModifiedStatements.put(Long.valueOf(modifiedStatementsEntry.getKey()), modifiedStatementsEntry.getValue());
-		}
+	public GDMResourceOnEmbedded5DBTest() {
 
-		return newModifiedStatements;
+		super(new Neo4jEmbeddedDBWrapper("/ext"), "embedded");
 	}
 }
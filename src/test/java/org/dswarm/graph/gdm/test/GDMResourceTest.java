@@ -36,6 +36,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Charsets;
 import com.google.common.collect.Maps;
 import com.google.common.io.Resources;
 import com.sun.jersey.api.client.ClientResponse;
@@ -51,6 +52,10 @@ public abstract class GDMResourceTest extends BasicResourceTest {
 
 	private static final String DEFAULT_GDM_FILE_NAME = "test-mabxml.gson";
 
+	private static final String	STATEMENTS_COUNT_QUERY	= "MATCH ()-[r]->() WHERE r.__DATA_MODEL__ = \"%s\" RETURN COUNT(r) AS statement_count";
+	private static final String	SUBJECTS_COUNT_QUERY	= "MATCH (n)-[r]->() WHERE r.__DATA_MODEL__ = \"%s\" AND n.__NODETYPE__ = \"%s\" RETURN COUNT(DISTINCT n) AS subject_count";
+	private static final String	BNODES_COUNT_QUERY		= "MATCH (n)-[r]-() WHERE r.__DATA_MODEL__ = \"%s\" AND n.__NODETYPE__ = \"__BNODE__\" RETURN COUNT(DISTINCT n) AS bnode_count";
+
 	public GDMResourceTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
 
 		super(neo4jDBWrapper, "/gdm", dbTypeArg);
@@ -83,6 +88,36 @@ public abstract class GDMResourceTest extends BasicResourceTest {
 		writeGDMToDBInternal("http://data.slub-dresden.de/datamodel/2/data", "versioning/dd-854/example_2.task.result.json");
 	}
 
+	/**
+	 * the resources of the GDM model share node ids (a type node, a subject node, a literal node and a bnode), i.e., a node id refers
+	 * to the same node in the whole model, although the model is read resource by resource; a resource without statements is skipped
+	 */
+	@Test
+	public void testWriteGDMWithMultipleResources() throws IOException {
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/3";
+
+		writeGDMToDBInternal(dataModelURI, "test-multiple-resources.gson");
+
+		Assert.assertEquals("the number of statements should be 13", 13,
+				executeCountQuery(String.format(GDMResourceTest.STATEMENTS_COUNT_QUERY, dataModelURI)));
+		Assert.assertEquals("the number of records should be 3", 3,
+				executeCountQuery(String.format(GDMResourceTest.SUBJECTS_COUNT_QUERY, dataModelURI, "__RESOURCE__")));
+		Assert.assertEquals("the bnode that is shared by two records should be written once", 2,
+				executeCountQuery(String.format(GDMResourceTest.BNODES_COUNT_QUERY, dataModelURI)));
+	}
+
+	@Test
+	public void testWriteEmptyGDM() throws IOException {
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/4";
+
+		writeGDMToDBInternal(dataModelURI, "[]".getBytes(Charsets.UTF_8));
+
+		Assert.assertEquals("there shouldn't be any statement", 0,
+				executeCountQuery(String.format(GDMResourceTest.STATEMENTS_COUNT_QUERY, dataModelURI)));
+	}
+
 	@Test
 	public void testResourceTypeNodeUniqueness() throws IOException {
 
@@ -224,11 +259,16 @@ public abstract class GDMResourceTest extends BasicResourceTest {
 
 	private void writeGDMToDBInternal(final String dataModelURI, final String fileName) throws IOException {
 
-		LOG.debug("start writing GDM statements for GDM resource at " + dbType + " DB");
-
 		final URL fileURL = Resources.getResource(fileName);
 		final byte[] file = Resources.toByteArray(fileURL);
 
+		writeGDMToDBInternal(dataModelURI, file);
+	}
+
+	private void writeGDMToDBInternal(final String dataModelURI, final byte[] file) throws IOException {
+
+		LOG.debug("start writing GDM statements for GDM resource at " + dbType + " DB");
+
 		// Construct a MultiPart with two body parts
 		final MultiPart multiPart = new MultiPart();
 		multiPart.bodyPart(new BodyPart(file, MediaType.APPLICATION_OCTET_STREAM_TYPE)).bodyPart(
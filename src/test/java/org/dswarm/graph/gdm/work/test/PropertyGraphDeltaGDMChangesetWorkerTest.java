@@ -0,0 +1,262 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.work.test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.delta.DeltaState;
+import org.dswarm.graph.delta.DeltaStatics;
+import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.delta.util.ImpermanentGraphDatabasePool;
+import org.dswarm.graph.gdm.parse.GDMParser;
+import org.dswarm.graph.gdm.parse.GDMResourceParser;
+import org.dswarm.graph.gdm.parse.Neo4jDeltaGDMHandler;
+import org.dswarm.graph.gdm.work.PropertyGraphDeltaGDMChangesetWorker;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Model;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.json.util.Util;
+
+/**
+ * Compares the changeset of the single traversal worker with the one of the former per delta state worker (see
+ * {@link PropertyGraphDeltaGDMSubGraphWorker}) on the resources of the delta fixtures. Since the delta states are usually assigned by
+ * the matchers, they are assigned here per relationship (seeded), i.e., sub graph paths of all delta states are interrupted at
+ * different depths.
+ *
+ * @author tgaengler
+ */
+public class PropertyGraphDeltaGDMChangesetWorkerTest {
+
+	private static final String[]						FIXTURES		= { "versioning/lic_dmp_01_v1.csv.gson", "versioning/lic_dmp_02_v2.csv.gson",
+			"versioning/Testtitel_MDunitz-US-TitleSummaryReport132968_01.csv.gson", "versioning/mabxml_dmp.gson",
+			"versioning/selectedUpdates_01_v2.xml.gson"						};
+
+	private static final long[]							SEEDS			= { 1L, 2L, 3L, 4L, 5L };
+
+	/**
+	 * the probability that a relationship has the delta state of its parent relationship
+	 */
+	private static final double							INHERITANCE		= 0.7;
+
+	private static final DeltaState[]					DELTA_STATES	= { DeltaState.ADDITION, DeltaState.DELETION, DeltaState.ExactMatch,
+			DeltaState.MODIFICATION										};
+
+	private static final ImpermanentGraphDatabasePool	DB_POOL			= new ImpermanentGraphDatabasePool(
+																				"target/test-data/changeset-worker-test/", 1);
+
+	@AfterClass
+	public static void shutdownDBs() {
+
+		DB_POOL.shutdown();
+	}
+
+	@Test
+	public void testChangesetEqualsChangesetOfSubGraphWorker() throws IOException, DMPGraphException {
+
+		int comparedStatements = 0;
+
+		for (final String fixture : PropertyGraphDeltaGDMChangesetWorkerTest.FIXTURES) {
+
+			for (final Resource resource : readResources(fixture)) {
+
+				final GraphDatabaseService database = loadResource(resource);
+
+				try {
+
+					// every relationship in a single delta state, i.e., the changeset of this state consists of all (complete) paths
+					for (final DeltaState deltaState : PropertyGraphDeltaGDMChangesetWorkerTest.DELTA_STATES) {
+
+						assignDeltaStates(database, resource.getUri(), new Random(0L), deltaState, 1.0);
+						comparedStatements += compareChangesets(database, resource.getUri(), fixture + " (" + deltaState + " only)");
+					}
+
+					for (final long seed : PropertyGraphDeltaGDMChangesetWorkerTest.SEEDS) {
+
+						assignDeltaStates(database, resource.getUri(), new Random(seed), null, PropertyGraphDeltaGDMChangesetWorkerTest.INHERITANCE);
+						comparedStatements += compareChangesets(database, resource.getUri(), fixture + " (seed " + seed + ")");
+					}
+				} finally {
+
+					PropertyGraphDeltaGDMChangesetWorkerTest.DB_POOL.release(database);
+				}
+			}
+		}
+
+		Assert.assertTrue("no statements were compared", comparedStatements > 0);
+	}
+
+	/**
+	 * @return the number of compared statements
+	 */
+	private static int compareChangesets(final GraphDatabaseService database, final String resourceURI, final String message)
+			throws DMPGraphException {
+
+		final PropertyGraphDeltaGDMChangesetWorker changesetWorker = new PropertyGraphDeltaGDMChangesetWorker(resourceURI, database,
+				PropertyGraphDeltaGDMChangesetWorkerTest.DELTA_STATES);
+		changesetWorker.work();
+
+		int comparedStatements = 0;
+
+		for (final DeltaState deltaState : PropertyGraphDeltaGDMChangesetWorkerTest.DELTA_STATES) {
+
+			final Map<String, Statement> subGraphStatements = new PropertyGraphDeltaGDMSubGraphWorker(resourceURI, deltaState, database).work();
+
+			final List<String> expected;
+			final List<String> actual;
+
+			if (DeltaState.MODIFICATION.equals(deltaState)) {
+
+				expected = describe(PropertyGraphDeltaGDMSubGraphWorker.providedModifiedStatements(subGraphStatements));
+				actual = describe(changesetWorker.getModifiedStatements());
+			} else {
+
+				expected = describe(subGraphStatements);
+				actual = describe(changesetWorker.getStatements(deltaState));
+			}
+
+			Assert.assertEquals(deltaState + " statements of " + resourceURI + " in " + message + " differ", expected, actual);
+
+			comparedStatements += expected.size();
+		}
+
+		return comparedStatements;
+	}
+
+	/**
+	 * Assigns a delta state to every relationship of the resource graph. A relationship keeps the delta state of its parent relationship
+	 * with the given probability, otherwise it gets a random one.
+	 *
+	 * @param fixedDeltaState a delta state for all relationships or null, if they should be assigned randomly
+	 */
+	private static void assignDeltaStates(final GraphDatabaseService database, final String resourceURI, final Random random,
+			final DeltaState fixedDeltaState, final double inheritance) {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final Node recordNode = GraphDBUtil.getResourceNode(database, resourceURI);
+
+			Assert.assertNotNull("couldn't find record for resource '" + resourceURI + "'", recordNode);
+
+			assignDeltaStates(recordNode, fixedDeltaState, random, inheritance, new HashSet<Long>());
+
+			tx.success();
+		}
+	}
+
+	private static void assignDeltaStates(final Node node, final DeltaState parentDeltaState, final Random random, final double inheritance,
+			final Set<Long> visitedRelationships) {
+
+		for (final Relationship rel : node.getRelationships(Direction.OUTGOING)) {
+
+			if (!visitedRelationships.add(rel.getId())) {
+
+				continue;
+			}
+
+			final DeltaState deltaState;
+
+			if (parentDeltaState != null && random.nextDouble() < inheritance) {
+
+				deltaState = parentDeltaState;
+			} else {
+
+				deltaState = PropertyGraphDeltaGDMChangesetWorkerTest.DELTA_STATES[random
+						.nextInt(PropertyGraphDeltaGDMChangesetWorkerTest.DELTA_STATES.length)];
+			}
+
+			rel.setProperty(DeltaStatics.DELTA_STATE_PROPERTY, deltaState.toString());
+
+			assignDeltaStates(rel.getEndNode(), deltaState, random, inheritance, visitedRelationships);
+		}
+	}
+
+	/**
+	 * Describes the statements incl. their keys in their order, i.e., the statements of different workers can be compared.
+	 */
+	private static <K> List<String> describe(final Map<K, Statement> statements) {
+
+		final List<String> descriptions = new ArrayList<>();
+
+		for (final Map.Entry<K, Statement> statementEntry : statements.entrySet()) {
+
+			final Statement statement = statementEntry.getValue();
+
+			descriptions.add(statementEntry.getKey() + " : " + describe(statement.getSubject()) + " " + statement.getPredicate().getUri() + " "
+					+ describe(statement.getObject()) + " (order " + statement.getOrder() + ", uuid " + statement.getUUID() + ")");
+		}
+
+		return descriptions;
+	}
+
+	private static String describe(final org.dswarm.graph.json.Node node) {
+
+		if (node instanceof ResourceNode) {
+
+			return "<" + ((ResourceNode) node).getUri() + ">";
+		}
+
+		if (node instanceof LiteralNode) {
+
+			return "\"" + ((LiteralNode) node).getValue() + "\"@" + node.getId();
+		}
+
+		return "_:" + node.getId();
+	}
+
+	private static GraphDatabaseService loadResource(final Resource resource) throws DMPGraphException {
+
+		final GraphDatabaseService database = PropertyGraphDeltaGDMChangesetWorkerTest.DB_POOL.acquire();
+
+		final GDMParser parser = new GDMResourceParser(resource);
+		parser.setGDMHandler(new Neo4jDeltaGDMHandler(database));
+		parser.parse();
+
+		return database;
+	}
+
+	private static List<Resource> readResources(final String fixture) throws IOException {
+
+		final URL fixtureURL = Resources.getResource(fixture);
+		final String fixtureJSONString = Resources.toString(fixtureURL, Charsets.UTF_8);
+
+		final Model model = Util.getJSONObjectMapper().readValue(fixtureJSONString, Model.class);
+
+		return new ArrayList<>(model.getResources());
+	}
+}
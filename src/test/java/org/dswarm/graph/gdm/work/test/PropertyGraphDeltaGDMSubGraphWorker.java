@@ -14,7 +14,7 @@
  * You should have received a copy of the GNU General Public License
  * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.dswarm.graph.gdm.work;
+package org.dswarm.graph.gdm.work.test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -30,6 +30,9 @@ import org.dswarm.graph.NodeType;
 import org.dswarm.graph.delta.DeltaState;
 import org.dswarm.graph.delta.DeltaStatics;
 import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.gdm.work.GDMSubGraphWorker;
+import org.dswarm.graph.gdm.work.SubGraphNodeHandler;
+import org.dswarm.graph.gdm.work.SubGraphRelationshipHandler;
 import org.dswarm.graph.json.LiteralNode;
 import org.dswarm.graph.json.Predicate;
 import org.dswarm.graph.json.ResourceNode;
@@ -50,6 +53,9 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.Iterables;
 
 /**
+ * The former changeset extraction of a single delta state (incl. the re-keying of modified statements), i.e., one traversal per delta
+ * state. It is kept as reference for the equivalence test of {@link org.dswarm.graph.gdm.work.PropertyGraphDeltaGDMChangesetWorker}.
+ *
  * @author tgaengler
  */
 public class PropertyGraphDeltaGDMSubGraphWorker implements GDMSubGraphWorker {
@@ -165,6 +171,22 @@ public class PropertyGraphDeltaGDMSubGraphWorker implements GDMSubGraphWorker {
 		return currentSubGraphs;
 	}
 
+	/**
+	 * @param modifiedStatements the modified statements (keyed by the node id of the end node of their sub graph path as string)
+	 * @return the modified statements (keyed by the node id of the end node of their sub graph path)
+	 */
+	public static Map<Long, Statement> providedModifiedStatements(final Map<String, Statement> modifiedStatements) {
+
+		final Map<Long, Statement> newModifiedStatements = new LinkedHashMap<>();
+
+		for(final Map.Entry<String, Statement> modifiedStatementsEntry : modifiedStatements.entrySet()) {
+
+			newModifiedStatements.put(Long.valueOf(modifiedStatementsEntry.getKey()), modifiedStatementsEntry.getValue());
+		}
+
+		return newModifiedStatements;
+	}
+
 	private Predicate getPredicate(final String predicateName) {
 
 		if(!predicates.containsKey(predicateName)) {
@@ -0,0 +1,222 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.hash.test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.io.Resources;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Model;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.json.util.Util;
+
+/**
+ * Measures the collision rate and the throughput of the entity hashes (as they are generated by the value matchers, e.g.,
+ * {@link org.dswarm.graph.delta.match.FirstDegreeExactGDMValueMatcher}) in comparison to the former 31*h combination of
+ * String.hashCode() values. The value entities are derived from the MABxml fixtures, i.e., every key (predicate) is combined
+ * with every literal value and every order that occur in the fixtures.
+ *
+ * @author tgaengler
+ */
+public class EntityHashCollisionTest {
+
+	private static final Logger		LOG				= LoggerFactory.getLogger(EntityHashCollisionTest.class);
+
+	private static final String[]	MABXML_FIXTURES	= { "test-mabxml.gson", "test-mabxml2.gson", "test-mabxml_w_statement_uuids.gson",
+			"versioning/mabxml_dmp.gson"			};
+
+	private static final int		ROUNDS			= 10;
+
+	@Test
+	public void testEntityHashCollisions() throws IOException {
+
+		final List<ValueEntityInput> inputs = createValueEntityInputs();
+
+		Assert.assertFalse("there should be some value entities in the MABxml fixtures", inputs.isEmpty());
+
+		final LongOpenHashSet entityHashes = new LongOpenHashSet();
+		final LongOpenHashSet legacyHashes = new LongOpenHashSet();
+
+		for (final ValueEntityInput input : inputs) {
+
+			entityHashes.add(generateEntityHash(input));
+			legacyHashes.add(generateLegacyHash(input));
+		}
+
+		final int entityHashCollisions = inputs.size() - entityHashes.size();
+		final int legacyHashCollisions = inputs.size() - legacyHashes.size();
+
+		EntityHashCollisionTest.LOG.info("hashed " + inputs.size() + " distinct value entities: " + entityHashCollisions
+				+ " collisions with the entity hash function, " + legacyHashCollisions + " collisions with the 31*h hash combination");
+
+		Assert.assertEquals("the entity hashes of distinct value entities shouldn't collide", 0, entityHashCollisions);
+	}
+
+	/**
+	 * Logs the throughput of both hash generations; there is no assertion, since the timing depends on the machine.
+	 */
+	@Test
+	public void testEntityHashThroughput() throws IOException {
+
+		final List<ValueEntityInput> inputs = createValueEntityInputs();
+
+		// warm-up
+		hashAll(inputs, true);
+		hashAll(inputs, false);
+
+		long entityHashNanos = 0;
+		long legacyHashNanos = 0;
+
+		for (int i = 0; i < EntityHashCollisionTest.ROUNDS; i++) {
+
+			entityHashNanos += hashAll(inputs, true);
+			legacyHashNanos += hashAll(inputs, false);
+		}
+
+		final long hashes = (long) inputs.size() * EntityHashCollisionTest.ROUNDS;
+
+		EntityHashCollisionTest.LOG.info("entity hash function: " + (hashes * 1000000000L / Math.max(entityHashNanos, 1))
+				+ " value entities/s; 31*h hash combination: " + (hashes * 1000000000L / Math.max(legacyHashNanos, 1)) + " value entities/s");
+	}
+
+	private static long hashAll(final List<ValueEntityInput> inputs, final boolean entityHash) {
+
+		long checksum = 0;
+
+		final long start = System.nanoTime();
+
+		for (final ValueEntityInput input : inputs) {
+
+			checksum ^= entityHash ? generateEntityHash(input) : generateLegacyHash(input);
+		}
+
+		final long duration = System.nanoTime() - start;
+
+		// note: keeps the JIT from eliminating the hash generation
+		EntityHashCollisionTest.LOG.trace("checksum = " + checksum);
+
+		return duration;
+	}
+
+	/**
+	 * the hash of {@link org.dswarm.graph.delta.match.FirstDegreeExactGDMValueMatcher}
+	 */
+	private static long generateEntityHash(final ValueEntityInput input) {
+
+		final Hasher hasher = HashUtils.newEntityHasher();
+
+		HashUtils.putString(hasher, input.key);
+		HashUtils.putString(hasher, input.value);
+		hasher.putLong(input.order);
+		HashUtils.putString(hasher, input.nodeType);
+
+		return hasher.hash().asLong();
+	}
+
+	/**
+	 * the former hash of the value matchers, i.e., a 31*h combination of the hash codes of the parts
+	 */
+	private static long generateLegacyHash(final ValueEntityInput input) {
+
+		long valueHash = input.key.hashCode();
+		valueHash = 31 * valueHash + input.value.hashCode();
+		valueHash = 31 * valueHash + Long.valueOf(input.order).hashCode();
+		valueHash = 31 * valueHash + input.nodeType.hashCode();
+
+		return valueHash;
+	}
+
+	/**
+	 * @return the distinct value entities of every key, literal value and order of the MABxml fixtures
+	 */
+	private static List<ValueEntityInput> createValueEntityInputs() throws IOException {
+
+		final Set<String> keys = new HashSet<>();
+		final Set<String> values = new HashSet<>();
+		final Set<Long> orders = new HashSet<>();
+
+		for (final String fixture : EntityHashCollisionTest.MABXML_FIXTURES) {
+
+			final URL fixtureURL = Resources.getResource(fixture);
+			final String fixtureJSONString = Resources.toString(fixtureURL, Charsets.UTF_8);
+
+			final Model model = Util.getJSONObjectMapper().readValue(fixtureJSONString, Model.class);
+
+			for (final Resource resource : model.getResources()) {
+
+				for (final Statement statement : resource.getStatements()) {
+
+					if (!(statement.getObject() instanceof LiteralNode)) {
+
+						continue;
+					}
+
+					keys.add(statement.getPredicate().getUri());
+					values.add(((LiteralNode) statement.getObject()).getValue());
+					orders.add(statement.getOrder() != null ? statement.getOrder() : 1L);
+				}
+			}
+		}
+
+		final List<ValueEntityInput> inputs = new ArrayList<>();
+
+		for (final String key : keys) {
+
+			for (final String value : values) {
+
+				for (final Long order : orders) {
+
+					inputs.add(new ValueEntityInput(key, value, order, NodeType.Literal.getName()));
+				}
+			}
+		}
+
+		return inputs;
+	}
+
+	private static final class ValueEntityInput {
+
+		private final String	key;
+		private final String	value;
+		private final long		order;
+		private final String	nodeType;
+
+		private ValueEntityInput(final String keyArg, final String valueArg, final long orderArg, final String nodeTypeArg) {
+
+			key = keyArg;
+			value = valueArg;
+			order = orderArg;
+			nodeType = nodeTypeArg;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import com.google.common.base.Optional;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphIndexStatics;
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.SimpleNeo4jProcessor;
+import org.dswarm.graph.index.NodeIdCache;
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * Cached node ids are only utilised, if they refer to the node of the requested key, i.e., to a node with exactly this URI (and this
+ * data model).
+ *
+ * @author tgaengler
+ */
+public class NodeIdCacheTest {
+
+	private static final String		RESOURCE_URI		= "http://data.slub-dresden.de/records/1";
+	private static final String		DATA_MODEL_URI		= "http://data.slub-dresden.de/datamodel/1/data";
+	private static final String		DATA_MODEL_URI2		= "http://data.slub-dresden.de/datamodel/2/data";
+
+	private GraphDatabaseService	database;
+
+	private long					nodeId;
+
+	@Before
+	public void prepare() throws DMPGraphException {
+
+		database = new TestGraphDatabaseFactory().newImpermanentDatabase();
+
+		final SimpleNeo4jProcessor processor = new SimpleNeo4jProcessor(database);
+
+		final Node node = processor.getDatabase().createNode();
+		node.setProperty(GraphStatics.URI_PROPERTY, NodeIdCacheTest.RESOURCE_URI);
+		node.setProperty(GraphStatics.DATA_MODEL_PROPERTY, NodeIdCacheTest.DATA_MODEL_URI);
+		node.setProperty(GraphStatics.NODETYPE_PROPERTY, NodeType.Resource.toString());
+
+		processor.addNodeToResourcesWDataModelIndex(NodeIdCacheTest.RESOURCE_URI, NodeIdCacheTest.DATA_MODEL_URI, node);
+
+		// note: the index entries are handed over to the node id caches on commit
+		processor.succeedTx();
+
+		nodeId = node.getId();
+	}
+
+	@After
+	public void tearDown() {
+
+		NodeIdCache.invalidate(database);
+		database.shutdown();
+	}
+
+	@Test
+	public void testCachedNodeOfKey() throws DMPGraphException {
+
+		final SimpleNeo4jProcessor processor = new SimpleNeo4jProcessor(database);
+
+		final Optional<Node> optionalNode = processor.getNodeFromResourcesWDataModelIndex(NodeIdCacheTest.RESOURCE_URI,
+				NodeIdCacheTest.DATA_MODEL_URI);
+		final Optional<Node> optionalNode2 = processor.getNodeFromResourcesIndex(NodeIdCacheTest.RESOURCE_URI);
+
+		processor.succeedTx();
+
+		Assert.assertTrue(optionalNode.isPresent());
+		Assert.assertEquals(nodeId, optionalNode.get().getId());
+		Assert.assertTrue(optionalNode2.isPresent());
+		Assert.assertEquals(nodeId, optionalNode2.get().getId());
+	}
+
+	/**
+	 * the cached node ids refer to a node of the same URI, but of another data model, or to a node whose URI is a prefix of the
+	 * requested one (e.g. after a node id was reused)
+	 */
+	@Test
+	public void testCachedNodeOfOtherKey() throws DMPGraphException {
+
+		NodeIdCache.of(database, GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME).put(
+				NodeIdCacheTest.RESOURCE_URI + NodeIdCacheTest.DATA_MODEL_URI2, nodeId);
+		NodeIdCache.of(database, GraphIndexStatics.RESOURCES_INDEX_NAME).put(NodeIdCacheTest.RESOURCE_URI + "0", nodeId);
+
+		final SimpleNeo4jProcessor processor = new SimpleNeo4jProcessor(database);
+
+		final Optional<Node> optionalNodeOfOtherDataModel = processor.getNodeFromResourcesWDataModelIndex(NodeIdCacheTest.RESOURCE_URI,
+				NodeIdCacheTest.DATA_MODEL_URI2);
+		final Optional<Node> optionalNodeOfOtherURI = processor.getNodeFromResourcesIndex(NodeIdCacheTest.RESOURCE_URI + "0");
+
+		processor.succeedTx();
+
+		Assert.assertFalse("the node of another data model shouldn't be returned", optionalNodeOfOtherDataModel.isPresent());
+		Assert.assertFalse("the node of a prefix of the URI shouldn't be returned", optionalNodeOfOtherURI.isPresent());
+
+		// the wrong entries are removed from the caches
+		Assert.assertFalse(NodeIdCache.of(database, GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME)
+				.get(NodeIdCacheTest.RESOURCE_URI + NodeIdCacheTest.DATA_MODEL_URI2).isPresent());
+		Assert.assertFalse(NodeIdCache.of(database, GraphIndexStatics.RESOURCES_INDEX_NAME).get(NodeIdCacheTest.RESOURCE_URI + "0")
+				.isPresent());
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.index.RecordFingerprints;
+import org.dswarm.graph.json.LiteralNode;
+import org.dswarm.graph.json.Node;
+import org.dswarm.graph.json.Predicate;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
+
+/**
+ * @author tgaengler
+ */
+public class RecordFingerprintsTest {
+
+	private static final String	RECORD_URI		= "http://data.slub-dresden.de/records/1";
+	private static final String	RECORD_URI2		= "http://data.slub-dresden.de/records/2";
+	private static final String	TITLE			= "http://purl.org/dc/elements/1.1/title";
+	private static final String	CREATOR			= "http://purl.org/dc/elements/1.1/creator";
+	private static final String	NAME			= "http://xmlns.com/foaf/0.1/name";
+
+	/**
+	 * the fingerprint shouldn't depend on the statement order in the resource, the bnode ids and the record URI
+	 */
+	@Test
+	public void testFingerprintCanonicalisation() {
+
+		final Resource resource = createRecord(RecordFingerprintsTest.RECORD_URI, 1, "John", false);
+		final Resource resourceWithOtherBNodeIds = createRecord(RecordFingerprintsTest.RECORD_URI, 42, "John", false);
+		final Resource resourceWithOtherStatementOrder = createRecord(RecordFingerprintsTest.RECORD_URI, 1, "John", true);
+		final Resource resourceWithOtherURI = createRecord(RecordFingerprintsTest.RECORD_URI2, 7, "John", true);
+
+		final long fingerprint = RecordFingerprints.generateFingerprint(resource);
+
+		Assert.assertEquals(fingerprint, RecordFingerprints.generateFingerprint(resourceWithOtherBNodeIds));
+		Assert.assertEquals(fingerprint, RecordFingerprints.generateFingerprint(resourceWithOtherStatementOrder));
+		Assert.assertEquals(fingerprint, RecordFingerprints.generateFingerprint(resourceWithOtherURI));
+	}
+
+	@Test
+	public void testFingerprintDiffersOnContentChange() {
+
+		final long fingerprint = RecordFingerprints.generateFingerprint(createRecord(RecordFingerprintsTest.RECORD_URI, 1, "John", false));
+
+		// a literal in a bnode changed
+		Assert.assertNotEquals(fingerprint,
+				RecordFingerprints.generateFingerprint(createRecord(RecordFingerprintsTest.RECORD_URI, 1, "Jane", false)));
+
+		// the order of a statement (i.e. the position of a value) changed
+		final Resource resourceWithOtherOrder = createRecord(RecordFingerprintsTest.RECORD_URI, 1, "John", false);
+
+		for (final Statement statement : resourceWithOtherOrder.getStatements()) {
+
+			if (RecordFingerprintsTest.TITLE.equals(statement.getPredicate().getUri())) {
+
+				statement.setOrder(2L);
+			}
+		}
+
+		Assert.assertNotEquals(fingerprint, RecordFingerprints.generateFingerprint(resourceWithOtherOrder));
+	}
+
+	/**
+	 * creates a record with a title and a creator (bnode) with a name
+	 *
+	 * @param recordURI the record URI
+	 * @param bnodeId the id of the creator bnode
+	 * @param name the name of the creator
+	 * @param reverseStatements true, if the statements should be added in reverse order
+	 * @return the record
+	 */
+	private static Resource createRecord(final String recordURI, final long bnodeId, final String name, final boolean reverseStatements) {
+
+		final ResourceNode recordNode = new ResourceNode(bnodeId + 100, recordURI);
+		final Node creatorNode = new Node(bnodeId);
+
+		final Statement titleStatement = new Statement(recordNode, new Predicate(RecordFingerprintsTest.TITLE), new LiteralNode(bnodeId + 200,
+				"A Title"));
+		titleStatement.setOrder(1L);
+
+		final Statement creatorStatement = new Statement(recordNode, new Predicate(RecordFingerprintsTest.CREATOR), creatorNode);
+		creatorStatement.setOrder(1L);
+
+		final Statement nameStatement = new Statement(creatorNode, new Predicate(RecordFingerprintsTest.NAME), new LiteralNode(bnodeId + 300,
+				name));
+		nameStatement.setOrder(1L);
+
+		final Resource resource = new Resource(recordURI);
+
+		if (!reverseStatements) {
+
+			resource.addStatement(titleStatement);
+			resource.addStatement(creatorStatement);
+			resource.addStatement(nameStatement);
+		} else {
+
+			resource.addStatement(nameStatement);
+			resource.addStatement(creatorStatement);
+			resource.addStatement(titleStatement);
+		}
+
+		return resource;
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.maintain.test;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.jersey.api.client.ClientResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.rdf.export.test.RDFExportTest;
+import org.dswarm.graph.test.Neo4jDBWrapper;
+import org.dswarm.graph.versioning.VersioningStatics;
+
+/**
+ * @author tgaengler
+ */
+public abstract class MaintainResourceDeleteDataModelTest extends RDFExportTest {
+
+	private static final Logger	LOG							= LoggerFactory.getLogger(MaintainResourceDeleteDataModelTest.class);
+	private static final String	RDF_N3_FILE					= "dmpf_bsp1.n3";
+
+	private static final String	STATEMENTS_COUNT_QUERY		= "MATCH ()-[r]->() WHERE r.__DATA_MODEL__ = \"%s\" RETURN COUNT(r) AS statement_count";
+	private static final String	NODES_COUNT_QUERY			= "MATCH (n) RETURN COUNT(n) AS node_count";
+	private static final String	RESOURCES_COUNT_QUERY		= "MATCH (n) WHERE n.__DATA_MODEL__ = \"%s\" RETURN COUNT(n) AS resource_count";
+	private static final String	VERSIONING_NODES_COUNT_QUERY	= "MATCH (n) WHERE n." + GraphStatics.DATA_MODEL_PROPERTY + " = \""
+																	+ VersioningStatics.VERSIONING_DATA_MODEL_URI + "\" AND n."
+																	+ GraphStatics.URI_PROPERTY + " = \"%s\" RETURN COUNT(n) AS node_count";
+	private static final String	VERSIONING_STATEMENTS_COUNT_QUERY	= "MATCH (n)-[r]->() WHERE n." + GraphStatics.DATA_MODEL_PROPERTY + " = \""
+																	+ VersioningStatics.VERSIONING_DATA_MODEL_URI + "\" AND n."
+																	+ GraphStatics.URI_PROPERTY + " = \"%s\" RETURN COUNT(r) AS statement_count";
+
+	public MaintainResourceDeleteDataModelTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
+
+		super(neo4jDBWrapper, dbTypeArg);
+	}
+
+	/**
+	 * the URI of the second data model starts with "<URI of the first data model>.", i.e., its statements will be matched by the
+	 * statement uuids with data model prefix query of the first data model as well
+	 */
+	@Test
+	public void testDeleteDataModel() throws Exception {
+
+		MaintainResourceDeleteDataModelTest.LOG.debug("start delete data model test for maintain resource at " + dbType + " DB");
+
+		final String dataModelURI1 = "http://data.slub-dresden.de/resources/2";
+		final String dataModelURI2 = "http://data.slub-dresden.de/resources/2.1";
+
+		writeRDFToDBInternal(dataModelURI1, MaintainResourceDeleteDataModelTest.RDF_N3_FILE);
+		writeRDFToDBInternal(dataModelURI2, MaintainResourceDeleteDataModelTest.RDF_N3_FILE);
+
+		final long statementsOfDataModel1 = countStatements(dataModelURI1);
+		final long statementsOfDataModel2 = countStatements(dataModelURI2);
+		final long resourcesOfDataModel2 = countResources(dataModelURI2);
+		final long versioningStatementsOfDataModel1 = countVersioningStatements(dataModelURI1);
+		final long nodesBefore = executeCountQuery(MaintainResourceDeleteDataModelTest.NODES_COUNT_QUERY);
+
+		Assert.assertTrue("expected some statements for data model '" + dataModelURI1 + "'", statementsOfDataModel1 > 0);
+		Assert.assertEquals("both data models should contain the same statements", statementsOfDataModel1, statementsOfDataModel2);
+		Assert.assertEquals("expected a versioning node for data model '" + dataModelURI1 + "'", 1, countVersioningNodes(dataModelURI1));
+
+		final ClientResponse response = service().path("/maintain/delete").queryParam("data_model_uri", dataModelURI1)
+				.delete(ClientResponse.class);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body shouldn't be null", body);
+
+		final ObjectNode bodyJson = Util.getJSONObjectMapper().readValue(body, ObjectNode.class);
+
+		final long deletedStatements = bodyJson.get("deleted_statements").longValue();
+		final long deletedNodes = bodyJson.get("deleted_nodes").longValue();
+		final long nodesAfter = executeCountQuery(MaintainResourceDeleteDataModelTest.NODES_COUNT_QUERY);
+
+		Assert.assertEquals("all statements of data model '" + dataModelURI1 + "' (incl. its versioning statements) should have been deleted",
+				statementsOfDataModel1 + versioningStatementsOfDataModel1, deletedStatements);
+		Assert.assertEquals(nodesBefore - nodesAfter, deletedNodes);
+		Assert.assertEquals(deletedStatements + deletedNodes, bodyJson.get("deleted").longValue());
+
+		Assert.assertEquals("there shouldn't be any statement of data model '" + dataModelURI1 + "' left", 0, countStatements(dataModelURI1));
+		Assert.assertEquals("there shouldn't be any resource of data model '" + dataModelURI1 + "' left", 0, countResources(dataModelURI1));
+
+		// otherwise, a re-import of the data model would continue with the latest version of the deleted data
+		Assert.assertEquals("the versioning node of data model '" + dataModelURI1 + "' should have been deleted", 0,
+				countVersioningNodes(dataModelURI1));
+
+		// the other data model needs to be untouched
+		Assert.assertEquals("the statements of data model '" + dataModelURI2 + "' shouldn't have been touched", statementsOfDataModel2,
+				countStatements(dataModelURI2));
+		Assert.assertEquals("the resources of data model '" + dataModelURI2 + "' shouldn't have been touched", resourcesOfDataModel2,
+				countResources(dataModelURI2));
+		Assert.assertEquals("the versioning node of data model '" + dataModelURI2 + "' shouldn't have been touched", 1,
+				countVersioningNodes(dataModelURI2));
+
+		MaintainResourceDeleteDataModelTest.LOG.debug("finished delete data model test for maintain resource at " + dbType + " DB");
+	}
+
+	private long countStatements(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(MaintainResourceDeleteDataModelTest.STATEMENTS_COUNT_QUERY, dataModelURI));
+	}
+
+	private long countResources(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(MaintainResourceDeleteDataModelTest.RESOURCES_COUNT_QUERY, dataModelURI));
+	}
+
+	private long countVersioningNodes(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(MaintainResourceDeleteDataModelTest.VERSIONING_NODES_COUNT_QUERY, dataModelURI));
+	}
+
+	private long countVersioningStatements(final String dataModelURI) throws IOException {
+
+		return executeCountQuery(String.format(MaintainResourceDeleteDataModelTest.VERSIONING_STATEMENTS_COUNT_QUERY, dataModelURI));
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.maintain.test;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.jersey.api.client.ClientResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.rdf.export.test.RDFExportTest;
+import org.dswarm.graph.test.Neo4jDBWrapper;
+
+/**
+ * @author tgaengler
+ */
+public abstract class MaintainResourceMigrateStatementHashesTest extends RDFExportTest {
+
+	private static final Logger	LOG						= LoggerFactory.getLogger(MaintainResourceMigrateStatementHashesTest.class);
+
+	/**
+	 * contains rdf:type statements, a resource that is utilised as rdf:type object and as object of another statement and a type
+	 * that is utilised as subject
+	 */
+	private static final String	RDF_N3_FILE				= "migrate_statement_hashes.n3";
+
+	private static final String	STATEMENTS_COUNT_QUERY	= "MATCH ()-[r]->() RETURN COUNT(r) AS statement_count";
+
+	public MaintainResourceMigrateStatementHashesTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
+
+		super(neo4jDBWrapper, dbTypeArg);
+	}
+
+	/**
+	 * the migrated statement hashes need to be equal to the statement hashes of the write path, i.e., a re-import of the same
+	 * data must not add any statement
+	 */
+	@Test
+	public void testMigrateStatementHashes() throws Exception {
+
+		MaintainResourceMigrateStatementHashesTest.LOG.debug("start migrate statement hashes test for maintain resource at " + dbType + " DB");
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/6";
+
+		writeRDFToDBInternal(dataModelURI, MaintainResourceMigrateStatementHashesTest.RDF_N3_FILE);
+
+		final long statements = executeCountQuery(MaintainResourceMigrateStatementHashesTest.STATEMENTS_COUNT_QUERY);
+
+		Assert.assertTrue("expected some statements", statements > 0);
+
+		migrateStatementHashes();
+
+		writeRDFToDBInternal(dataModelURI, MaintainResourceMigrateStatementHashesTest.RDF_N3_FILE);
+
+		Assert.assertEquals("the re-import after the migration shouldn't add any statement", statements,
+				executeCountQuery(MaintainResourceMigrateStatementHashesTest.STATEMENTS_COUNT_QUERY));
+
+		// the migration needs to be repeatable, e.g., after a failed migration
+		migrateStatementHashes();
+
+		writeRDFToDBInternal(dataModelURI, MaintainResourceMigrateStatementHashesTest.RDF_N3_FILE);
+
+		Assert.assertEquals("the re-import after the repeated migration shouldn't add any statement", statements,
+				executeCountQuery(MaintainResourceMigrateStatementHashesTest.STATEMENTS_COUNT_QUERY));
+
+		MaintainResourceMigrateStatementHashesTest.LOG.debug("finished migrate statement hashes test for maintain resource at " + dbType + " DB");
+	}
+
+	private void migrateStatementHashes() throws IOException {
+
+		final ClientResponse response = service().path("/maintain/migratestatementhashes").post(ClientResponse.class);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body shouldn't be null", body);
+
+		final ObjectNode bodyJson = Util.getJSONObjectMapper().readValue(body, ObjectNode.class);
+
+		Assert.assertTrue("expected some migrated statement hashes", bodyJson.get("migrated").longValue() > 0);
+	}
+}
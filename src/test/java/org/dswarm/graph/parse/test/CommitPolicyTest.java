@@ -0,0 +1,119 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.parse.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.parse.CommitPolicy;
+
+/**
+ * note: the adaptive tests assume that the heap budget of the policy is not exceeded by the test JVM.
+ *
+ * @author tgaengler
+ */
+public class CommitPolicyTest {
+
+	@Test
+	public void testDefaultCommitSize() {
+
+		Assert.assertEquals(CommitPolicy.DEFAULT_COMMIT_SIZE, CommitPolicy.of(null, false).getCommitSize());
+		Assert.assertEquals(CommitPolicy.DEFAULT_COMMIT_SIZE, CommitPolicy.defaultPolicy().getCommitSize());
+		Assert.assertFalse(CommitPolicy.defaultPolicy().isAdaptive());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveCommitSize() {
+
+		CommitPolicy.of(0, false);
+	}
+
+	/**
+	 * a fixed policy commits after the commit size (or after the maximum commit interval) and never adjusts its commit size
+	 */
+	@Test
+	public void testFixedCommitSize() {
+
+		final CommitPolicy commitPolicy = CommitPolicy.of(100, false);
+
+		Assert.assertFalse(commitPolicy.shouldCommit(99, 0));
+		Assert.assertTrue(commitPolicy.shouldCommit(100, 0));
+		Assert.assertTrue(commitPolicy.shouldCommit(1, 30000));
+
+		commitPolicy.committed(100, 10000);
+
+		Assert.assertEquals("a fixed policy shouldn't shrink its commit size", 100, commitPolicy.getCommitSize());
+
+		commitPolicy.committed(100, 0);
+
+		Assert.assertEquals("a fixed policy shouldn't grow its commit size", 100, commitPolicy.getCommitSize());
+	}
+
+	/**
+	 * an adaptive policy halves its commit size after slow commits, but not below the minimum commit size (1000)
+	 */
+	@Test
+	public void testAdaptiveShrink() {
+
+		final CommitPolicy commitPolicy = CommitPolicy.of(4000, true);
+
+		commitPolicy.committed(4000, 5000);
+
+		Assert.assertEquals(2000, commitPolicy.getCommitSize());
+
+		// a slow commit of a smaller (e.g. time-based) transaction shrinks relative to the committed statements
+		commitPolicy.committed(1500, 5000);
+
+		Assert.assertEquals(1000, commitPolicy.getCommitSize());
+
+		commitPolicy.committed(1000, 5000);
+
+		Assert.assertEquals("the commit size shouldn't shrink below the minimum commit size", 1000, commitPolicy.getCommitSize());
+	}
+
+	/**
+	 * an adaptive policy grows its commit size by half after fast commits of full transactions, but not above the maximum commit size
+	 * (1000000)
+	 */
+	@Test
+	public void testAdaptiveGrow() {
+
+		final CommitPolicy commitPolicy = CommitPolicy.of(600000, true);
+
+		// a fast commit of a transaction that wasn't full (e.g. the last one) doesn't grow the commit size
+		commitPolicy.committed(1000, 10);
+
+		Assert.assertEquals(600000, commitPolicy.getCommitSize());
+
+		commitPolicy.committed(600000, 10);
+
+		Assert.assertEquals(900000, commitPolicy.getCommitSize());
+
+		commitPolicy.committed(900000, 10);
+
+		Assert.assertEquals("the commit size shouldn't grow above the maximum commit size", 1000000, commitPolicy.getCommitSize());
+
+		commitPolicy.committed(1000000, 10);
+
+		Assert.assertEquals("the commit size shouldn't grow above the maximum commit size", 1000000, commitPolicy.getCommitSize());
+
+		// commits that take neither long nor are fast keep the commit size
+		commitPolicy.committed(1000000, 1500);
+
+		Assert.assertEquals(1000000, commitPolicy.getCommitSize());
+	}
+}
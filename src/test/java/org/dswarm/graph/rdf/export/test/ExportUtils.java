@@ -43,4 +43,27 @@ public class ExportUtils {
 		Assert.assertEquals(CONTENT_DISPOSITION + " header value mismatch.", ExportUtils.ATTACHMENT_STRING + expectedFileEnding, contentDispositionValue);
 	}
 
+	/**
+	 * Counts the statements of a line-based (streamed) export, i.e., the non-empty lines of an N-Triples or N-Quads document.
+	 * Since streamed exports are not deduplicated, this number can be larger than the size of the model that is read from the
+	 * export.
+	 * 
+	 * @param body the exported N-Triples or N-Quads
+	 * @return the number of statements (lines) in the export
+	 */
+	public static long countStatementLines(final String body) {
+
+		long statementLines = 0;
+
+		for (final String line : body.split("\n")) {
+
+			if (!line.trim().isEmpty()) {
+
+				statementLines++;
+			}
+		}
+
+		return statementLines;
+	}
+
 }
@@ -49,6 +49,7 @@ public abstract class FullRDFExportMultipleGraphsTest extends RDFExportTest {
 
 	static private final Logger	LOG			= LoggerFactory.getLogger(FullRDFExportMultipleGraphsTest.class);
 	private static final String	RDF_N3_FILE	= "dmpf_bsp1.n3";
+	private static final String	N_TRIPLES	= "application/n-triples";
 
 	public FullRDFExportMultipleGraphsTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
 
@@ -138,7 +139,52 @@ public abstract class FullRDFExportMultipleGraphsTest extends RDFExportTest {
 				+ " that read 2 times the original RDF file (" + statementsInOriginalRDFFileAfter2ndRead + ")",
 				statementsInOriginalRDFFileAfter2ndRead, statementsInExportedRDFModel);
 
+		// N-Quads are streamed, i.e., one line per statement and every statement belongs to a data model graph
+		Assert.assertEquals("the streamed export should contain one line per statement", statementsInOriginalRDFFileAfter2ndRead,
+				ExportUtils.countStatementLines(body));
+		Assert.assertTrue("all statements should be exported with their data model as graph", dataset.getDefaultModel().isEmpty());
+
 		FullRDFExportMultipleGraphsTest.LOG.debug("finished export all RDF statements test for RDF resource at " + dbType + " DB");
 	}
 
+	/**
+	 * N-Triples are streamed as well, i.e., the statements of all data models are exported as triples (without graph) and are not
+	 * deduplicated, i.e., every statement of the (twice written) original RDF file is exported twice.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void readAllRDFFromDBAsNTriples() throws IOException {
+
+		FullRDFExportMultipleGraphsTest.LOG.debug("start export all RDF statements as N-Triples test for RDF resource at " + dbType + " DB");
+
+		writeRDFToDBInternal("http://data.slub-dresden.de/resources/2", FullRDFExportMultipleGraphsTest.RDF_N3_FILE);
+		writeRDFToDBInternal("http://data.slub-dresden.de/resources/3", FullRDFExportMultipleGraphsTest.RDF_N3_FILE);
+
+		final ClientResponse response = service().path("/rdf/getall").accept(FullRDFExportMultipleGraphsTest.N_TRIPLES).get(ClientResponse.class);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		ExportUtils.checkContentDispositionHeader(response, ".nt");
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body (n-triples) shouldn't be null", body);
+
+		final Model modelFromExport = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(modelFromExport, new ByteArrayInputStream(body.getBytes("UTF-8")), Lang.NTRIPLES);
+
+		final URL fileURL = Resources.getResource(FullRDFExportMultipleGraphsTest.RDF_N3_FILE);
+		final Model modelFromOriginalRDFile = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(modelFromOriginalRDFile, fileURL.toString(), Lang.TURTLE);
+
+		// the original RDF file contains no blank nodes, i.e., the duplicates are merged when reading the export into a model
+		Assert.assertTrue("the RDF model from the property graph is not isomorphic to the RDF model in the original file",
+				modelFromOriginalRDFile.isIsomorphicWith(modelFromExport));
+		Assert.assertEquals("the streamed export should contain every statement of both data models (no deduplication)",
+				2 * modelFromOriginalRDFile.size(), ExportUtils.countStatementLines(body));
+
+		FullRDFExportMultipleGraphsTest.LOG.debug("finished export all RDF statements as N-Triples test for RDF resource at " + dbType + " DB");
+	}
+
 }
@@ -28,7 +28,6 @@ import org.apache.http.HttpStatus;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.dswarm.common.MediaTypeUtil;
-import org.dswarm.graph.rdf.export.DataModelRDFExporter;
 import org.dswarm.graph.test.Neo4jDBWrapper;
 import org.junit.Before;
 import org.junit.Test;
@@ -46,6 +45,8 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 
 	private static final Logger	LOG							= LoggerFactory.getLogger(PartialRDFExportTest.class);
 
+	private static final String	N_TRIPLES					= "application/n-triples";
+
 	private final String datamodel2File    = "rdfexport_datamodel2.n3";
 	private final String datamodel4File    = "rdfexport_datamodel4.n3";
 	private final String datamodel5File = "rdfexport_datamodel5.n3";
@@ -100,6 +101,17 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 		exportRDFByFormatFromDBInternal(MediaTypeUtil.N_QUADS, dataModelURI4, HttpStatus.SC_OK, Lang.NQUADS, datamodel4File, ".nq");
 	}
 
+	/**
+	 * Export the graph identified by {@code dataModelURI4} to N_TRIPLES
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportGraphDatamodel4FromDBToN_TRIPLES() throws IOException {
+
+		exportRDFByFormatFromDBInternal(PartialRDFExportTest.N_TRIPLES, dataModelURI4, HttpStatus.SC_OK, Lang.NTRIPLES, datamodel4File, ".nt");
+	}
+
 	/**
 	 * Export the graph identified by {@code dataModelURI4} to TRIG
 	 * 
@@ -159,30 +171,26 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 	}
 
 	/**
-	 * {@link org.dswarm.graph.rdf.export.DataModelRDFExporter#export()} uses a cypher query that makes use of order by, skip and limit to request the data
-	 * model in slices. This test makes sure the slicing works. <br />
-	 * Additionally, the test does a self-test and fails if the resource file's model contains less statements than one cypher
-	 * query returns.
+	 * {@link org.dswarm.graph.rdf.export.DataModelRDFExporter#export()} looks up the relationships of the data model via a prefix query
+	 * on the statement uuids with data model index. This test makes sure that the statements of a data model, whose URI starts with the
+	 * URI of the exported data model (plus "."), are not exported as well.
 	 * 
 	 * @throws IOException
 	 */
 	@Test
-	public void testExportWithCypherOrderBySkipLimt() throws IOException {
+	public void testExportOfDataModelWithPrefixSharingDataModel() throws IOException {
 
 		final String dataModelURI = "http://data.slub-dresden.de/resources/2";
+		final String prefixSharingDataModelURI = "http://data.slub-dresden.de/resources/2.1";
 		final String RDF_N3_FILE = "dmpf_bsp1.n3";
-
-		// make sure the expected model has more statements than a single cypher query returns to make sure we actually test the
-		// order by, skip and limit parameters by executing consecutive queries
-		// hint: this is done programmatically to fail in case someone modified RDF_N3_FILE
-		final Model expectedModel = RDFDataMgr.loadModel(RDF_N3_FILE);
-		Assert.assertNotNull("actual model shouldn't be null", expectedModel);
-		Assert.assertTrue("The cypher limit parameter must be smaller than the number of statements/relationships to be exported by this test.",
-				expectedModel.size() > DataModelRDFExporter.CYPHER_LIMIT);
+		final String PREFIX_SHARING_RDF_N3_FILE = "rdfexport_datamodel2.n3";
 
 		writeRDFToDBInternal(dataModelURI, RDF_N3_FILE);
+		writeRDFToDBInternal(prefixSharingDataModelURI, PREFIX_SHARING_RDF_N3_FILE);
 
 		exportRDFByFormatFromDBInternal(MediaTypeUtil.N3, dataModelURI, HttpStatus.SC_OK, Lang.N3, RDF_N3_FILE, ".n3");
+		exportRDFByFormatFromDBInternal(MediaTypeUtil.N3, prefixSharingDataModelURI, HttpStatus.SC_OK, Lang.N3, PREFIX_SHARING_RDF_N3_FILE,
+				".n3");
 	}
 
 	/**
@@ -248,6 +256,13 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 		// check if statements are the "same" (isomorphic, i.e. blank nodes may have different IDs)
 		Assert.assertTrue("the RDF from the property graph is not isomorphic to the RDF in the original file ",
 				actualModel.isIsomorphicWith(expectedModel));
+
+		if (Lang.NQUADS.equals(expectedExportLanguage) || Lang.NTRIPLES.equals(expectedExportLanguage)) {
+
+			// streamed export, i.e., one line per statement
+			Assert.assertEquals("the streamed export should contain one line per statement", expectedModel.size(),
+					ExportUtils.countStatementLines(body));
+		}
 		// end check exported data
 	}
 
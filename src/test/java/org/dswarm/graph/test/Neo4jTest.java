@@ -18,6 +18,8 @@ package org.dswarm.graph.test;
 
 import java.io.IOException;
 
+import javax.ws.rs.core.MediaType;
+
 import junit.framework.Assert;
 
 import org.junit.After;
@@ -25,9 +27,14 @@ import org.junit.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 
+import org.dswarm.graph.json.util.Util;
+
 /**
  * @author tgaengler
  */
@@ -74,6 +81,43 @@ public abstract class Neo4jTest {
 		return base().path("/db/data/cypher");
 	}
 
+	/**
+	 * Executes the given cypher query via the REST API and returns the numeric value of its first column of its first row, i.e.,
+	 * the query should return one row with one count.
+	 *
+	 * @param countQuery a cypher query that returns a count
+	 * @return the count
+	 * @throws IOException
+	 */
+	protected long executeCountQuery(final String countQuery) throws IOException {
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put("query", countQuery);
+
+		final String requestJsonString = objectMapper.writeValueAsString(requestJson);
+
+		final ClientResponse response = cypher().type(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON)
+				.post(ClientResponse.class, requestJsonString);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		final ObjectNode bodyJson = objectMapper.readValue(body, ObjectNode.class);
+
+		Assert.assertNotNull(bodyJson);
+
+		final JsonNode dataNode = bodyJson.get("data");
+
+		Assert.assertNotNull(dataNode);
+		Assert.assertEquals("expected exactly one result row", 1, dataNode.size());
+
+		return dataNode.get(0).get(0).longValue();
+	}
+
 	@After
 	public void tearDown() {
 